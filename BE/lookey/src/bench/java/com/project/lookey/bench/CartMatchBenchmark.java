@@ -0,0 +1,138 @@
+package com.project.lookey.bench;
+
+import com.project.lookey.product.dto.ShelfItem;
+import com.project.lookey.product.service.CartMatcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * 장바구니 매칭 벤치마크
+ * 기존 방식(매대 상품 x 장바구니 상품 쌍마다 equals/equalsIgnoreCase/replaceAll 두 번/contains)과
+ * CartMatcher(장바구니 이름 오토마톤, 요청마다 구성)를 같은 매대/장바구니로 비교
+ * 결과가 기존 방식과 같은지는 CartMatcherTest에서 확인
+ * CartMatcher 시간은 구성 시간을 포함한 값과 매칭만 한 값을 함께 표시
+ *
+ * 실행: ./gradlew benchCartMatch --args="50,200,1000 1,10,50 200"
+ */
+public class CartMatchBenchmark {
+
+    private static final String[] BRANDS = {"코카콜라", "펩시", "칠성", "농심", "오리온", "롯데", "해태", "빙그레",
+            "CJ", "Pocari", "Monster", "Red Bull", "동원", "매일", "남양", "풀무원"};
+    private static final String[] PRODUCTS = {"제로", "사이다", "콜라", "새우깡", "포카칩", "초코파이", "빼빼로",
+            "바나나맛우유", "Sweat", "Energy", "오렌지주스", "녹차", "컵라면", "삼각김밥", "생수", "커피"};
+    private static final String[] SIZES = {"", " 250ml", " 355ml", " 500ml", " 1.5L", " 대용량", " 미니"};
+
+    public static void main(String[] args) {
+        int[] shelfSizes = args.length > 0 ? ints(args[0]) : new int[]{50, 200, 1000};
+        int[] cartSizes = args.length > 1 ? ints(args[1]) : new int[]{1, 10, 50};
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+
+        System.out.printf("%-6s %-5s %12s %14s %14s %8s%n", "items", "cart",
+                "legacy µs", "compile+match", "match only", "speedup");
+        for (int shelfSize : shelfSizes) {
+            for (int cartSize : cartSizes) {
+                Random random = new Random(shelfSize * 31L + cartSize);
+                List<ShelfItem> items = shelf(shelfSize, random);
+                List<String> cart = cart(items, cartSize, random);
+                CartMatcher compiled = CartMatcher.compile(cart);
+
+                double legacy = time(() -> legacyMatch(items, cart).size(), rounds);
+                double matcher = time(() -> CartMatcher.compile(cart).matchedNames(items).size(), rounds * 20);
+                double matchOnly = time(() -> compiled.matchedNames(items).size(), rounds * 20);
+
+                System.out.printf("%-6d %-5d %12.1f %14.1f %14.1f %7.1fx%n", shelfSize, cartSize,
+                        legacy, matcher, matchOnly, legacy / matcher);
+            }
+        }
+    }
+
+    private static double time(IntTask task, int rounds) {
+        long sink = 0;
+        for (int r = 0; r < Math.max(50, rounds); r++) {
+            sink += task.run();
+        }
+        long start = System.nanoTime();
+        for (int r = 0; r < Math.max(1, rounds); r++) {
+            sink += task.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        if (sink == 42) {
+            System.out.print("");
+        }
+        return elapsed / 1e3 / Math.max(1, rounds);
+    }
+
+    @FunctionalInterface
+    private interface IntTask {
+        int run();
+    }
+
+    // 기존 matchProductsWithCart 방식
+
+    private static List<String> legacyMatch(List<ShelfItem> shelfItems, List<String> cartProductNames) {
+        return shelfItems.stream()
+                .map(ShelfItem::name)
+                .filter(shelfProductName -> cartProductNames.stream()
+                        .anyMatch(cartProductName -> legacyMatch(shelfProductName, cartProductName)))
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    private static boolean legacyMatch(String shelfProductName, String cartProductName) {
+        if (shelfProductName == null || cartProductName == null) {
+            return false;
+        }
+        if (shelfProductName.equals(cartProductName)) {
+            return true;
+        }
+        if (shelfProductName.equalsIgnoreCase(cartProductName)) {
+            return true;
+        }
+        String normalizedShelf = shelfProductName.replaceAll("\\s+", "");
+        String normalizedCart = cartProductName.replaceAll("\\s+", "");
+        return normalizedShelf.contains(normalizedCart) || normalizedCart.contains(normalizedShelf);
+    }
+
+    private static List<ShelfItem> shelf(int size, Random random) {
+        List<ShelfItem> items = new ArrayList<>(size);
+        int columns = (int) Math.ceil(Math.sqrt(size * 2.0));
+        for (int i = 0; i < size; i++) {
+            String name = BRANDS[random.nextInt(BRANDS.length)] + " " + PRODUCTS[random.nextInt(PRODUCTS.length)]
+                    + SIZES[random.nextInt(SIZES.length)];
+            items.add(new ShelfItem(name, 40 + (i % columns) * 60, 60 + (i / columns) * 110, 50, 100));
+        }
+        return items;
+    }
+
+    /**
+     * 매대에 있는 이름, 대소문자/공백만 다른 이름, 부분 이름, 더 긴 이름, 매대에 없는 이름을 섞은 장바구니
+     */
+    private static List<String> cart(List<ShelfItem> items, int size, Random random) {
+        List<String> cart = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String name = items.get(random.nextInt(items.size())).name();
+            if (name == null) {
+                name = "없는상품";
+            }
+            switch (random.nextInt(6)) {
+                case 0 -> cart.add(name);
+                case 1 -> cart.add(name.toUpperCase(Locale.ROOT).replace(" ", ""));
+                case 2 -> cart.add(PRODUCTS[random.nextInt(PRODUCTS.length)]);
+                case 3 -> cart.add(name + " 1+1 행사");
+                case 4 -> cart.add("없는상품" + random.nextInt(1000));
+                default -> cart.add(BRANDS[random.nextInt(BRANDS.length)].toLowerCase(Locale.ROOT) + "  "
+                        + PRODUCTS[random.nextInt(PRODUCTS.length)]);
+            }
+        }
+        return cart;
+    }
+
+    private static int[] ints(String csv) {
+        return Arrays.stream(csv.split(",")).mapToInt(Integer::parseInt).toArray();
+    }
+}
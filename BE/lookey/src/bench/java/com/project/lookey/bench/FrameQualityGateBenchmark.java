@@ -0,0 +1,149 @@
+package com.project.lookey.bench;
+
+import com.project.lookey.common.image.FrameQuality;
+import com.project.lookey.common.image.FrameQualityGate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.ConvolveOp;
+import java.awt.image.Kernel;
+import java.awt.image.RescaleOp;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 프레임 품질 검사 벤치마크
+ * 합성 프레임(선명/흔들림/어두움/과노출)을 JPEG로 만들어 판정 결과와 프레임당 지연 시간, 할당량 출력
+ * gate ms는 디코딩을 제외한 축소 + 판정 시간 (전체 시간의 대부분은 JPEG 디코딩)
+ *
+ * 실행: ./gradlew benchQualityGate --args="1920 1080 500"
+ */
+public class FrameQualityGateBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int width = args.length > 0 ? Integer.parseInt(args[0]) : 1920;
+        int height = args.length > 1 ? Integer.parseInt(args[1]) : 1080;
+        int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 500;
+
+        FrameQualityGate gate = new FrameQualityGate(new SimpleMeterRegistry());
+
+        BufferedImage sharp = scene(width, height, 42L);
+        Map<String, byte[]> frames = new LinkedHashMap<>();
+        frames.put("sharp", jpeg(sharp));
+        frames.put("blur-15", jpeg(blur(sharp, 15)));
+        frames.put("blur-31", jpeg(blur(sharp, 31)));
+        frames.put("blur-61", jpeg(blur(sharp, 61)));
+        frames.put("defocus-15", jpeg(blur(blur(sharp, 15), 15, true)));
+        frames.put("dark", jpeg(new RescaleOp(0.08f, 0f, null).filter(sharp, null)));
+        frames.put("overexposed", jpeg(new RescaleOp(1.0f, 200f, null).filter(sharp, null)));
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        System.out.printf("frame %dx%d, %d iterations%n", width, height, iterations);
+        System.out.printf("%-12s %-11s %10s %10s %8s %8s %10s %12s%n",
+                "frame", "verdict", "sharpness", "luminance", "p50 ms", "p99 ms", "gate ms", "alloc KB");
+
+        for (Map.Entry<String, byte[]> frame : frames.entrySet()) {
+            byte[] bytes = frame.getValue();
+            BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(bytes));
+
+            // 워밍업
+            for (int i = 0; i < Math.max(50, iterations / 5); i++) {
+                gate.assess(bytes);
+                gate.assess(decoded);
+            }
+
+            // 디코딩 포함 전체
+            long[] nanos = new long[iterations];
+            FrameQuality quality = null;
+            long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < iterations; i++) {
+                long start = System.nanoTime();
+                quality = gate.assess(bytes);
+                nanos[i] = System.nanoTime() - start;
+            }
+            long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+            // 디코딩 제외 (축소 + 판정만)
+            long[] gateNanos = new long[iterations];
+            for (int i = 0; i < iterations; i++) {
+                long start = System.nanoTime();
+                gate.assess(decoded);
+                gateNanos[i] = System.nanoTime() - start;
+            }
+
+            Arrays.sort(nanos);
+            Arrays.sort(gateNanos);
+            System.out.printf("%-12s %-11s %10.1f %10.1f %8.2f %8.2f %10.2f %12.1f%n",
+                    frame.getKey(), quality.verdict(), quality.sharpness(), quality.meanLuminance(),
+                    nanos[iterations / 2] / 1e6, nanos[(int) (iterations * 0.99)] / 1e6,
+                    gateNanos[iterations / 2] / 1e6, allocated / 1024.0 / iterations);
+        }
+    }
+
+    /**
+     * 매대 사진과 비슷하게 크기와 색이 다른 사각형(상품)과 글자를 채운 장면
+     */
+    static BufferedImage scene(int width, int height, long seed) {
+        Random random = new Random(seed);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_3BYTE_BGR);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setColor(new Color(200, 200, 195));
+            g.fillRect(0, 0, width, height);
+            int shelves = 4;
+            for (int shelf = 0; shelf < shelves; shelf++) {
+                int top = shelf * height / shelves;
+                int x = 0;
+                while (x < width) {
+                    int w = width / 30 + random.nextInt(width / 20);
+                    int h = height / shelves - 10 - random.nextInt(height / 12);
+                    g.setColor(new Color(random.nextInt(256), random.nextInt(256), random.nextInt(256)));
+                    g.fillRect(x, top + (height / shelves - h), w - 4, h);
+                    g.setColor(Color.WHITE);
+                    g.drawString("ITEM " + random.nextInt(1000), x + 4, top + height / shelves - h / 2);
+                    x += w;
+                }
+                g.setColor(Color.DARK_GRAY);
+                g.fillRect(0, top + height / shelves - 6, width, 6);
+            }
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    /**
+     * 수평 모션 블러 (카메라 흔들림)
+     */
+    private static BufferedImage blur(BufferedImage image, int length) {
+        return blur(image, length, false);
+    }
+
+    /**
+     * 한 방향 상자 블러 (가로 + 세로를 겹치면 초점 흐림)
+     */
+    private static BufferedImage blur(BufferedImage image, int length, boolean vertical) {
+        float[] kernel = new float[length];
+        Arrays.fill(kernel, 1f / length);
+        Kernel direction = vertical ? new Kernel(1, length, kernel) : new Kernel(length, 1, kernel);
+        return new ConvolveOp(direction, ConvolveOp.EDGE_NO_OP, null).filter(image, null);
+    }
+
+    static byte[] jpeg(BufferedImage image) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpeg", output);
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,235 @@
+package com.project.lookey.bench;
+
+import com.project.lookey.vision.service.LabelRule;
+import com.project.lookey.vision.service.LabelRuleEngine;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
+import org.springframework.core.convert.support.DefaultConversionService;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * 라벨 분류 벤치마크
+ * 기존 방식(규칙마다 toLowerCase 후 키워드 목록 contains / 공백 경계 비교 / Set 전체 일치)과
+ * LabelRuleEngine(전체 키워드 Aho-Corasick 한 번 훑기)을 같은 라벨로 비교
+ * 실제 Vision 라벨과 비슷한 라벨 + 경계 사례(personal care, 대소문자, 공백 위치)의 규칙 비트마스크가
+ * 기존 방식과 같은지 먼저 확인한 뒤 시간 측정 (다르면 종료 코드 1)
+ *
+ * 실행: ./gradlew benchLabelRules --args="20000 200"
+ */
+public class LabelRuleBenchmark {
+
+    // 기존 VisionApiService에 하드코딩되어 있던 키워드 (vision.rules.* 기본값과 같음)
+    private static final List<String> AISLE = List.of("aisle");
+    private static final List<String> PERSON_OBJECT = List.of("person");
+    private static final List<String> PEOPLE_LABEL = List.of("person", "people", "human", "man", "woman");
+    private static final List<String> OBSTACLE_OBJECT = List.of("chair", "table", "cart", "box", "bag", "bicycle", "vehicle");
+    private static final List<String> BEVERAGE_CATEGORY = List.of("drink can", "soft drink", "energy drink", "diet drink",
+            "carbonated soft drinks", "bottle", "plastic bottle", "aluminum can", "steel and tin cans", "beverage can",
+            "juice", "water", "soda", "coffee", "tea", "milk");
+    private static final List<String> SNACK_CATEGORY = List.of("food", "convenience food", "frozen food", "food storage",
+            "packaged goods", "processed food", "candy", "chocolate", "chip", "cookie", "cracker",
+            "biscuit", "gum", "cereal", "bar", "nut");
+    private static final Set<String> COUNTER_DIRECT = Set.of("cash register", "checkout", "cashier", "pos", "terminal",
+            "checkout counter", "service desk", "reception desk");
+    private static final Set<String> ELECTRONIC_DEVICE = Set.of("electronic device");
+    private static final Set<String> MACHINE = Set.of("machine");
+    private static final Set<String> VENDING_BEVERAGE = Set.of("beverage", "drink", "soft drink", "bottle");
+    private static final Set<String> CONVENIENCE_STORE = Set.of("convenience store", "retail", "supermarket");
+    private static final Set<String> ARCHITECTURE = Set.of("building", "interior design", "architecture");
+
+    // Vision 라벨/객체 이름에서 자주 나오는 단어
+    private static final String[] WORDS = {"Shelf", "Retail", "Product", "Bottle", "Drink", "Food", "Snack", "Aisle",
+            "Person", "People", "Man", "Woman", "Human", "Personal", "care", "Chair", "Table", "Tableware", "Cart",
+            "Shopping", "Box", "Bag", "Plastic", "Carton", "Packaging", "Convenience", "store", "Supermarket",
+            "Machine", "Electronic", "device", "Vending", "Beverage", "Soft", "Energy", "Juice", "Water", "Coffee",
+            "Tea", "Milk", "Candy", "Chocolate", "Chip", "Cookie", "Cracker", "Cereal", "Bar", "Nut", "Floor",
+            "Ceiling", "Interior", "design", "Building", "Architecture", "Checkout", "Cashier", "Terminal", "Pos",
+            "Service", "desk", "Glass", "Metal", "Font", "Logo", "Brand", "Marketplace", "Manufacturing", "Human body"};
+
+    public static void main(String[] args) {
+        int labels = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        LabelRuleEngine engine;
+        try (AnnotationConfigApplicationContext context = engineContext()) {
+            engine = context.getBean(LabelRuleEngine.class);
+        }
+
+        List<String> corpus = corpus(labels, new Random(11));
+        verify(engine, edgeCases());
+        verify(engine, corpus);
+        System.out.printf("equivalent on %d labels%n", corpus.size() + edgeCases().size());
+
+        double legacy = time(() -> {
+            long sink = 0;
+            for (String label : corpus) {
+                sink ^= legacyClassify(label);
+            }
+            return sink;
+        }, rounds) / corpus.size();
+        double compiled = time(() -> {
+            long sink = 0;
+            for (String label : corpus) {
+                sink ^= engine.classify(label);
+            }
+            return sink;
+        }, rounds) / corpus.size();
+
+        System.out.printf("%-10s %12s%n", "matcher", "ns/label");
+        System.out.printf("%-10s %12.1f%n", "legacy", legacy);
+        System.out.printf("%-10s %12.1f%n", "automaton", compiled);
+        System.out.printf("speedup %.1fx%n", legacy / compiled);
+    }
+
+    /**
+     * 운영과 같은 기본값으로 LabelRuleEngine만 올린 컨텍스트
+     */
+    private static AnnotationConfigApplicationContext engineContext() {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.getBeanFactory().setConversionService(new DefaultConversionService());
+        context.registerBean(PropertySourcesPlaceholderConfigurer.class);
+        context.register(LabelRuleEngine.class);
+        context.refresh();
+        return context;
+    }
+
+    private static void verify(LabelRuleEngine engine, List<String> labels) {
+        for (String label : labels) {
+            long expected = legacyClassify(label);
+            long actual = engine.classify(label);
+            if (expected != actual) {
+                System.out.printf("mismatch '%s': legacy=%s automaton=%s%n", label, rules(expected), rules(actual));
+                System.exit(1);
+            }
+        }
+    }
+
+    /**
+     * 기존 VisionApiService의 규칙별 문자열 비교를 규칙 비트마스크로 모은 것
+     */
+    static long legacyClassify(String label) {
+        String desc = label.toLowerCase();
+        long matched = 0L;
+        matched |= contains(desc, AISLE, LabelRule.AISLE);
+        matched |= contains(desc, PERSON_OBJECT, LabelRule.PERSON_OBJECT);
+        matched |= contains(desc, OBSTACLE_OBJECT, LabelRule.OBSTACLE_OBJECT);
+        matched |= contains(desc, BEVERAGE_CATEGORY, LabelRule.BEVERAGE_CATEGORY);
+        matched |= contains(desc, SNACK_CATEGORY, LabelRule.SNACK_CATEGORY);
+
+        // 단어 경계 매칭 (personal care 같은 오탐 방지)
+        boolean people = PEOPLE_LABEL.stream().anyMatch(keyword -> desc.equals(keyword)
+                || desc.startsWith(keyword + " ")
+                || desc.endsWith(" " + keyword)
+                || desc.contains(" " + keyword + " "));
+        if (people) {
+            matched |= LabelRule.PEOPLE_LABEL.mask();
+        }
+
+        matched |= exact(desc, COUNTER_DIRECT, LabelRule.COUNTER_DIRECT);
+        matched |= exact(desc, ELECTRONIC_DEVICE, LabelRule.ELECTRONIC_DEVICE);
+        matched |= exact(desc, MACHINE, LabelRule.MACHINE);
+        matched |= exact(desc, VENDING_BEVERAGE, LabelRule.VENDING_BEVERAGE);
+        matched |= exact(desc, CONVENIENCE_STORE, LabelRule.CONVENIENCE_STORE);
+        matched |= exact(desc, ARCHITECTURE, LabelRule.ARCHITECTURE);
+        return matched;
+    }
+
+    private static long contains(String desc, List<String> keywords, LabelRule rule) {
+        return keywords.stream().anyMatch(desc::contains) ? rule.mask() : 0L;
+    }
+
+    private static long exact(String desc, Set<String> keywords, LabelRule rule) {
+        return keywords.contains(desc) ? rule.mask() : 0L;
+    }
+
+    private static List<String> edgeCases() {
+        List<String> labels = new ArrayList<>(List.of("", " ", "person", "Person", "PEOPLE", "personal care",
+                "Personal Care", "man made", "Human body", "woman ", " man", "snowman", "woman's", "Man-made",
+                "Checkout counter", "checkout", "Checkout area", "Machine", "machine learning", "Soft drink",
+                "Soft drinks", "Electronic device", "Interior design", "Table", "Tableware", "Barcode", "Teapot",
+                "Aisle", "  aisle  ", "Cash register", "진열대", "편의점 음료", "Bottle"));
+        // 모든 키워드와 대소문자 변형
+        for (LabelRule rule : LabelRule.values()) {
+            for (String keyword : keywordsOf(rule)) {
+                labels.add(keyword);
+                labels.add(keyword.toUpperCase(Locale.ROOT));
+                labels.add("Large " + keyword);
+                labels.add(keyword + " shelf");
+            }
+        }
+        return labels;
+    }
+
+    private static List<String> corpus(int size, Random random) {
+        List<String> labels = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int words = 1 + random.nextInt(3);
+            StringBuilder label = new StringBuilder();
+            for (int w = 0; w < words; w++) {
+                if (w > 0) {
+                    label.append(' ');
+                }
+                label.append(WORDS[random.nextInt(WORDS.length)]);
+            }
+            labels.add(label.toString());
+        }
+        return labels;
+    }
+
+    private static Set<String> keywordsOf(LabelRule rule) {
+        return new LinkedHashSet<>(switch (rule) {
+            case AISLE -> AISLE;
+            case PERSON_OBJECT -> PERSON_OBJECT;
+            case PEOPLE_LABEL -> PEOPLE_LABEL;
+            case OBSTACLE_OBJECT -> OBSTACLE_OBJECT;
+            case BEVERAGE_CATEGORY -> BEVERAGE_CATEGORY;
+            case SNACK_CATEGORY -> SNACK_CATEGORY;
+            case COUNTER_DIRECT -> COUNTER_DIRECT;
+            case ELECTRONIC_DEVICE -> ELECTRONIC_DEVICE;
+            case MACHINE -> MACHINE;
+            case VENDING_BEVERAGE -> VENDING_BEVERAGE;
+            case CONVENIENCE_STORE -> CONVENIENCE_STORE;
+            case ARCHITECTURE -> ARCHITECTURE;
+        });
+    }
+
+    private static String rules(long matched) {
+        List<String> names = new ArrayList<>();
+        for (LabelRule rule : LabelRule.values()) {
+            if (rule.in(matched)) {
+                names.add(rule.name());
+            }
+        }
+        return names.toString();
+    }
+
+    /**
+     * 1회 실행 평균 시간 (ns)
+     */
+    private static double time(LongTask task, int rounds) {
+        long sink = 0;
+        for (int r = 0; r < Math.max(20, rounds / 4); r++) {
+            sink ^= task.run();
+        }
+        long start = System.nanoTime();
+        for (int r = 0; r < Math.max(1, rounds); r++) {
+            sink ^= task.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        if (sink == 42) {
+            System.out.print("");
+        }
+        return (double) elapsed / Math.max(1, rounds);
+    }
+
+    @FunctionalInterface
+    private interface LongTask {
+        long run();
+    }
+}
@@ -0,0 +1,119 @@
+package com.project.lookey.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.project.lookey.product.dto.ResolvedProduct;
+import com.project.lookey.product.dto.ShelfData;
+import com.project.lookey.product.dto.ShelfItem;
+import com.project.lookey.product.service.ShelfDataCodec;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 매대 데이터 Redis 저장 형식 벤치마크
+ * 기존 JSON 경로(GenericJackson2JsonRedisSerializer 저장, 읽을 때 역직렬화 + convertValue)와
+ * ShelfDataCodec(압축 없음 / deflate)을 같은 매대 데이터로 비교 - 저장 크기, 쓰기/읽기 시간
+ * 왕복 결과와 손상된 데이터 거부는 ShelfDataCodecTest에서 확인
+ *
+ * 실행: ./gradlew benchShelfCodec --args="20,200,1000 2000"
+ */
+public class ShelfDataCodecBenchmark {
+
+    private static final String[] BRANDS = {"코카콜라", "펩시", "칠성", "농심", "오리온", "롯데", "해태", "빙그레",
+            "CJ", "Pocari", "Monster", "Red Bull", "동원", "매일", "남양", "풀무원"};
+    private static final String[] PRODUCTS = {"제로", "사이다", "콜라", "새우깡", "포카칩", "초코파이", "빼빼로",
+            "바나나맛우유", "Sweat", "Energy", "오렌지주스", "녹차", "컵라면", "삼각김밥", "생수", "커피"};
+    private static final String[] SIZES = {"", " 250ml", " 355ml", " 500ml", " 1.5L", " 대용량", " 미니"};
+    private static final String[] EVENTS = {null, "1+1", "2+1", "할인"};
+
+    public static void main(String[] args) {
+        int[] shelfSizes = args.length > 0
+                ? Arrays.stream(args[0].split(",")).mapToInt(Integer::parseInt).toArray()
+                : new int[]{20, 200, 1000};
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+
+        // 운영 설정과 같은 JSON 직렬화 (ProductRedisConfig) + 읽을 때 변환 (ShelfDataService)
+        ObjectMapper redisMapper = new ObjectMapper();
+        redisMapper.registerModule(new JavaTimeModule());
+        GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer(redisMapper);
+        ObjectMapper convertMapper = new ObjectMapper();
+
+        ShelfDataCodec raw = new ShelfDataCodec(0);
+        ShelfDataCodec deflate = new ShelfDataCodec(1024);
+
+        System.out.printf("%-6s %-8s %10s %12s %12s%n", "items", "format", "bytes", "write µs", "read µs");
+        for (int size : shelfSizes) {
+            ShelfData data = shelf(size, new Random(size));
+
+            byte[] jsonBytes = json.serialize(data);
+            print(size, "json", jsonBytes.length,
+                    time(() -> json.serialize(data).length, rounds),
+                    time(() -> convertMapper.convertValue(json.deserialize(jsonBytes), ShelfData.class).items().size(),
+                            rounds));
+
+            byte[] rawBytes = raw.serialize(data);
+            print(size, "binary", rawBytes.length,
+                    time(() -> raw.serialize(data).length, rounds),
+                    time(() -> raw.deserialize(rawBytes).items().size(), rounds));
+
+            byte[] deflateBytes = deflate.serialize(data);
+            print(size, "deflate", deflateBytes.length,
+                    time(() -> deflate.serialize(data).length, rounds),
+                    time(() -> deflate.deserialize(deflateBytes).items().size(), rounds));
+        }
+    }
+
+    private static void print(int size, String format, int bytes, double write, double read) {
+        System.out.printf("%-6d %-8s %10d %12.1f %12.1f%n", size, format, bytes, write, read);
+    }
+
+    private static double time(IntTask task, int rounds) {
+        long sink = 0;
+        for (int r = 0; r < Math.max(50, rounds); r++) {
+            sink += task.run();
+        }
+        long start = System.nanoTime();
+        for (int r = 0; r < Math.max(1, rounds); r++) {
+            sink += task.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        if (sink == 42) {
+            System.out.print("");
+        }
+        return elapsed / 1e3 / Math.max(1, rounds);
+    }
+
+    @FunctionalInterface
+    private interface IntTask {
+        int run();
+    }
+
+    /**
+     * 매대 스캔과 같은 모양의 데이터 (상품 이름 중복, 모든 이름의 조회 상품 정보 포함)
+     */
+    private static ShelfData shelf(int size, Random random) {
+        List<ShelfItem> items = new ArrayList<>(size);
+        Map<String, ResolvedProduct> products = new HashMap<>();
+        int columns = (int) Math.ceil(Math.sqrt(size * 2.0));
+        for (int i = 0; i < size; i++) {
+            String name = BRANDS[random.nextInt(BRANDS.length)] + " " + PRODUCTS[random.nextInt(PRODUCTS.length)]
+                    + SIZES[random.nextInt(SIZES.length)];
+            items.add(new ShelfItem(name, 40 + (i % columns) * 60 + random.nextInt(10),
+                    60 + (i / columns) * 110 + random.nextInt(10), 40 + random.nextInt(30), 80 + random.nextInt(40)));
+            if (!products.containsKey(name)) {
+                products.put(name, random.nextInt(8) == 0
+                        ? ResolvedProduct.notFound(name)
+                        : new ResolvedProduct((long) random.nextInt(5000) + 1, name, 800 + random.nextInt(40) * 100,
+                        EVENTS[random.nextInt(EVENTS.length)], List.of((long) random.nextInt(22) + 1),
+                        random.nextInt(5) == 0));
+            }
+        }
+        return new ShelfData(items, "2026-01-01T12:00:00.123456789", 42, products);
+    }
+}
@@ -0,0 +1,171 @@
+package com.project.lookey.bench;
+
+import com.project.lookey.product.dto.ShelfItem;
+import com.project.lookey.product.service.ShelfIndex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Random;
+
+/**
+ * 매대 색인 벤치마크
+ * 기존 방식(매대를 앞에서부터 훑으며 replaceAll 두 번씩 비교)과 ShelfIndex 조회를 같은 질의로 비교
+ * 결과가 기존 방식과 같은지는 ShelfIndexTest에서 확인
+ *
+ * 실행: ./gradlew benchShelfIndex --args="200,500,1000 1000 1000"
+ */
+public class ShelfIndexBenchmark {
+
+    private static final String[] BRANDS = {"코카콜라", "펩시", "칠성", "농심", "오리온", "롯데", "해태", "빙그레",
+            "CJ", "Pocari", "Monster", "Red Bull", "동원", "매일", "남양", "풀무원"};
+    private static final String[] PRODUCTS = {"제로", "사이다", "콜라", "새우깡", "포카칩", "초코파이", "빼빼로",
+            "바나나맛우유", "Sweat", "Energy", "오렌지주스", "녹차", "컵라면", "삼각김밥", "생수", "커피"};
+    private static final String[] SIZES = {"", " 250ml", " 355ml", " 500ml", " 1.5L", " 대용량", " 미니"};
+
+    public static void main(String[] args) {
+        int[] shelfSizes = args.length > 0
+                ? Arrays.stream(args[0].split(",")).mapToInt(Integer::parseInt).toArray()
+                : new int[]{200, 500, 1000};
+        int queries = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 2000;
+
+        System.out.printf("%-6s %10s %12s %12s %8s %14s %14s %8s%n", "items", "build µs",
+                "linear µs/q", "index µs/q", "speedup", "multi-linear µs", "multi-index µs", "speedup");
+
+        for (int size : shelfSizes) {
+            Random random = new Random(size);
+            List<ShelfItem> items = shelf(size, random);
+            List<String> queryNames = queries(items, queries, random);
+            List<List<String>> frames = new ArrayList<>();
+            for (int i = 0; i < queries / 5; i++) {
+                frames.add(queryNames.subList(i * 5, i * 5 + 5));
+            }
+
+            ShelfIndex index = ShelfIndex.of(items);
+
+            // 색인 구성 시간 (첫 조회 시 구성, 매대 스캔당 한 번)
+            long buildNanos = 0;
+            for (int r = 0; r < Math.max(200, rounds * 2); r++) {
+                long start = System.nanoTime();
+                ShelfIndex.of(items).findFirst("");
+                buildNanos = r == 0 ? Long.MAX_VALUE : Math.min(buildNanos, System.nanoTime() - start);
+            }
+
+            double linear = timePerQuery(() -> {
+                long hits = 0;
+                for (String query : queryNames) {
+                    hits += linearFirst(items, query).isPresent() ? 1 : 0;
+                }
+                return hits;
+            }, rounds / 50, queryNames.size());
+            double indexed = timePerQuery(() -> {
+                long hits = 0;
+                for (String query : queryNames) {
+                    hits += index.findFirst(query).isPresent() ? 1 : 0;
+                }
+                return hits;
+            }, rounds, queryNames.size());
+            double multiLinear = timePerQuery(() -> {
+                long hits = 0;
+                for (List<String> frame : frames) {
+                    hits += linearFirstMatchingAny(items, frame).isPresent() ? 1 : 0;
+                }
+                return hits;
+            }, rounds / 50, frames.size());
+            double multiIndexed = timePerQuery(() -> {
+                long hits = 0;
+                for (List<String> frame : frames) {
+                    hits += index.findFirstMatchingAny(frame).isPresent() ? 1 : 0;
+                }
+                return hits;
+            }, rounds, frames.size());
+
+            System.out.printf("%-6d %10.1f %12.3f %12.3f %7.1fx %14.3f %14.3f %7.1fx%n", size, buildNanos / 1e3,
+                    linear, indexed, linear / indexed, multiLinear, multiIndexed, multiLinear / multiIndexed);
+        }
+    }
+
+    private static double timePerQuery(LongTask task, int rounds, int perRound) {
+        long sink = 0;
+        for (int r = 0; r < Math.max(5, rounds / 5); r++) {
+            sink += task.run();
+        }
+        long start = System.nanoTime();
+        for (int r = 0; r < Math.max(1, rounds); r++) {
+            sink += task.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        if (sink == 42) {
+            System.out.print("");
+        }
+        return elapsed / 1e3 / Math.max(1, rounds) / perRound;
+    }
+
+    @FunctionalInterface
+    private interface LongTask {
+        long run();
+    }
+
+    // 기존 calculateLocationResult 방식
+
+    private static Optional<ShelfItem> linearFirst(List<ShelfItem> items, String name) {
+        return items.stream().filter(item -> legacyMatch(item.name(), name)).findFirst();
+    }
+
+    private static Optional<ShelfItem> linearFirstMatchingAny(List<ShelfItem> items, List<String> names) {
+        return items.stream()
+                .filter(item -> names.stream().anyMatch(name -> legacyMatch(item.name(), name)))
+                .findFirst();
+    }
+
+    private static boolean legacyMatch(String shelfProductName, String cartProductName) {
+        if (shelfProductName == null || cartProductName == null) {
+            return false;
+        }
+        if (shelfProductName.equals(cartProductName)) {
+            return true;
+        }
+        if (shelfProductName.equalsIgnoreCase(cartProductName)) {
+            return true;
+        }
+        String normalizedShelf = shelfProductName.replaceAll("\\s+", "");
+        String normalizedCart = cartProductName.replaceAll("\\s+", "");
+        return normalizedShelf.contains(normalizedCart) || normalizedCart.contains(normalizedShelf);
+    }
+
+    private static List<ShelfItem> shelf(int size, Random random) {
+        List<ShelfItem> items = new ArrayList<>(size);
+        int columns = (int) Math.ceil(Math.sqrt(size * 2.0));
+        for (int i = 0; i < size; i++) {
+            String name = BRANDS[random.nextInt(BRANDS.length)] + " " + PRODUCTS[random.nextInt(PRODUCTS.length)]
+                    + SIZES[random.nextInt(SIZES.length)];
+            int column = i % columns;
+            int row = i / columns;
+            items.add(new ShelfItem(name, 40 + column * 60, 60 + row * 110, 50, 100));
+        }
+        return items;
+    }
+
+    /**
+     * 정확히 같은 이름, 대소문자/공백만 다른 이름, 부분 이름, 더 긴 이름, 매대에 없는 이름을 섞은 질의
+     */
+    private static List<String> queries(List<ShelfItem> items, int count, Random random) {
+        List<String> queries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String name = items.get(random.nextInt(items.size())).name();
+            switch (i % 6) {
+                case 0 -> queries.add(name);
+                case 1 -> queries.add(name.toUpperCase(Locale.ROOT).replace(" ", ""));
+                case 2 -> queries.add(PRODUCTS[random.nextInt(PRODUCTS.length)]);
+                case 3 -> queries.add(name + " 1+1 행사");
+                case 4 -> queries.add("없는상품" + random.nextInt(1000));
+                default -> queries.add(BRANDS[random.nextInt(BRANDS.length)].toLowerCase(Locale.ROOT) + "  "
+                        + PRODUCTS[random.nextInt(PRODUCTS.length)]);
+            }
+        }
+        return queries;
+    }
+}
@@ -0,0 +1,351 @@
+package com.project.lookey.bench;
+
+import com.project.lookey.OAuth.Service.oauth.CustomOAuth2User;
+import com.project.lookey.allergy.repository.AllergyRepository;
+import com.project.lookey.allergy.service.AllergyCheckEngine;
+import com.project.lookey.cart.service.CartService;
+import com.project.lookey.common.image.FrameQualityGate;
+import com.project.lookey.common.memory.ImageMemoryBudget;
+import com.project.lookey.config.WebClientConfig;
+import com.project.lookey.config.WebConfig;
+import com.project.lookey.product.config.ShelfResolveExecutorConfig;
+import com.project.lookey.product.controller.ProductController;
+import com.project.lookey.product.dto.ResolvedProduct;
+import com.project.lookey.product.dto.ShelfData;
+import com.project.lookey.product.dto.ShelfDetectionResponse;
+import com.project.lookey.product.repository.ProductAllergyRepository;
+import com.project.lookey.product.repository.ProductRepository;
+import com.project.lookey.product.service.AiSearchService;
+import com.project.lookey.product.service.ProductNameCatalog;
+import com.project.lookey.product.service.PyonyCrawler;
+import com.project.lookey.product.service.ShelfDataService;
+import com.project.lookey.product.service.ShelfProductResolver;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.Filter;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.embedded.EmbeddedWebServerFactoryCustomizerAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.MultipartBodyBuilder;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.method.annotation.AuthenticationPrincipalArgumentResolver;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 매대 스캔 동시 처리량 부하 테스트 (노드 1대 기준, 변경 전/후 비교)
+ * 내장 Tomcat에 실제 ProductController/AiSearchService를 올리고 HTTP로 동시 매대 스캔 요청을 보내,
+ * 지연 시간을 흉내 내는 로컬 AI 서버 대역에 동시에 도달한 요청 수(최대 동시 스캔 수)와 처리량, 응답 시간을 측정
+ *
+ * - before: 요청 스레드(Tomcat max-threads)가 같은 AiSearchService 결과를 block()으로 기다리는 기존 방식 (벤치 전용 엔드포인트)
+ * - after: 실제 /api/v1/product/search (Mono 반환 -> 서블릿 비동기 처리, WebConfig 비동기 타임아웃과 WebClientConfig 커넥션 풀 사용)
+ * multipart 업로드, 메모리 예약, 프레임 품질 검사, AI 응답 역직렬화, 장바구니 매칭까지 실제 경로를 거침
+ * 인증 필터(JWT)와 Redis/DB는 포함하지 않음 (사용자는 벤치 필터가 지정, 매대 저장/장바구니 조회는 대역)
+ *
+ * 실행: ./gradlew benchShelfScan --args="--clients=1000 --tomcat-threads=200 --ai-latency-ms=1500"
+ */
+public class ShelfScanLoadBenchmark {
+
+    private static final String SHELF_RESPONSE = "{\"items\":["
+            + "{\"name\":\"코카콜라\",\"x\":120,\"y\":80,\"w\":40,\"h\":90},"
+            + "{\"name\":\"칠성사이다\",\"x\":180,\"y\":80,\"w\":40,\"h\":90},"
+            + "{\"name\":\"포카칩\",\"x\":260,\"y\":220,\"w\":70,\"h\":60}]}";
+
+    private static final List<String> CART = List.of("코카콜라", "포카칩", "바나나우유");
+
+    private static final String USER_HEADER = "X-Bench-User";
+
+    public static void main(String[] args) throws Exception {
+        Map<String, Object> properties = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("--key=value 형식이 아닙니다: " + arg);
+            }
+            properties.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        int clients = Integer.parseInt(String.valueOf(properties.getOrDefault("clients", "1000")));
+        int tomcatThreads = Integer.parseInt(String.valueOf(properties.getOrDefault("tomcat-threads", "200")));
+        long aiLatencyMillis = Long.parseLong(String.valueOf(properties.getOrDefault("ai-latency-ms", "1500")));
+
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        DisposableServer aiServer = HttpServer.create()
+                .port(0)
+                .route(routes -> routes.post("/api/v1/product/search/ai", (request, response) ->
+                        request.receive().aggregate().then(Mono.defer(() -> {
+                            peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                            return Mono.delay(Duration.ofMillis(aiLatencyMillis));
+                        })).then(response.header("Content-Type", "application/json")
+                                .sendString(Mono.just(SHELF_RESPONSE))
+                                .then()
+                                .doFinally(signal -> inFlight.decrementAndGet()))))
+                .bindNow();
+
+        properties.put("server.port", "0");
+        properties.put("server.tomcat.threads.max", String.valueOf(tomcatThreads));
+        properties.put("ai.search.url", "http://localhost:" + aiServer.port());
+        properties.put("logging.level.root", "warn");
+        // 동시 요청 수만큼 메모리 예약이 대기 없이 통과하도록 (예약 대기는 이 테스트의 측정 대상이 아님)
+        properties.putIfAbsent("image.memory.budget-mb", "4096");
+
+        ConnectionProvider clientConnections = ConnectionProvider.builder("bench-clients")
+                .maxConnections(clients)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ScanServer.class)
+                .web(WebApplicationType.SERVLET)
+                .bannerMode(Banner.Mode.OFF)
+                .properties(properties)
+                .run()) {
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            WebClient client = WebClient.builder()
+                    .baseUrl("http://localhost:" + port)
+                    .clientConnector(new ReactorClientHttpConnector(HttpClient.create(clientConnections)))
+                    .build();
+            byte[] image = FrameQualityGateBenchmark.jpeg(FrameQualityGateBenchmark.scene(1280, 960, 42L));
+
+            System.out.printf("clients %d, tomcat threads %d, AI latency %dms, image %dKB%n",
+                    clients, tomcatThreads, aiLatencyMillis, image.length / 1024);
+            System.out.printf("%-8s %12s %12s %10s %10s %10s%n",
+                    "mode", "peak scans", "scans/s", "p50 ms", "p99 ms", "errors");
+
+            // 워밍업 (커넥션/JIT)
+            run(client, "/api/v1/product/search", image, Math.min(clients, 50));
+
+            inFlight.set(0);
+            peak.set(0);
+            print("before", run(client, "/bench/product/search/blocking", image, clients), peak.get());
+
+            inFlight.set(0);
+            peak.set(0);
+            print("after", run(client, "/api/v1/product/search", image, clients), peak.get());
+        } finally {
+            clientConnections.disposeLater().block();
+            aiServer.disposeNow();
+        }
+    }
+
+    /**
+     * 동시 클라이언트 수만큼 한꺼번에 매대 스캔 요청 (요청 스레드 대기는 응답 시간에 포함)
+     */
+    private static Result run(WebClient client, String path, byte[] image, int clients) {
+        long start = System.nanoTime();
+        AtomicInteger errors = new AtomicInteger();
+        List<Long> latencies = Flux.range(0, clients)
+                .flatMap(i -> {
+                    long arrival = System.nanoTime();
+                    return scan(client, path, image, i)
+                            .map(response -> System.nanoTime() - arrival)
+                            .onErrorResume(e -> {
+                                errors.incrementAndGet();
+                                return Mono.empty();
+                            });
+                }, clients)
+                .collectList()
+                .block();
+        return new Result(System.nanoTime() - start, latencies, errors.get());
+    }
+
+    private static Mono<String> scan(WebClient client, String path, byte[] image, int userId) {
+        MultipartBodyBuilder builder = new MultipartBodyBuilder();
+        builder.part("file", new ByteArrayResource(image) {
+            @Override
+            public String getFilename() {
+                return "shelf.jpg";
+            }
+        }).contentType(MediaType.IMAGE_JPEG);
+        return client.post()
+                .uri(path)
+                .header(USER_HEADER, String.valueOf(userId))
+                .contentType(MediaType.MULTIPART_FORM_DATA)
+                .body(BodyInserters.fromMultipartData(builder.build()))
+                .retrieve()
+                .bodyToMono(String.class);
+    }
+
+    private static void print(String mode, Result result, int peak) {
+        long[] sorted = result.latencies.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        double p50 = sorted.length == 0 ? 0 : sorted[sorted.length / 2] / 1e6;
+        double p99 = sorted.length == 0 ? 0 : sorted[Math.min(sorted.length - 1, (int) (sorted.length * 0.99))] / 1e6;
+        System.out.printf("%-8s %12d %12.1f %10.0f %10.0f %10d%n", mode, peak,
+                sorted.length / (result.wallNanos / 1e9), p50, p99, result.errors);
+    }
+
+    private record Result(long wallNanos, List<Long> latencies, int errors) {
+    }
+
+    /**
+     * 매대 스캔 경로만 올린 웹 애플리케이션 (Redis/DB 저장소는 대역)
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ImportAutoConfiguration({ServletWebServerFactoryAutoConfiguration.class,
+            EmbeddedWebServerFactoryCustomizerAutoConfiguration.class, DispatcherServletAutoConfiguration.class,
+            WebMvcAutoConfiguration.class, HttpMessageConvertersAutoConfiguration.class,
+            JacksonAutoConfiguration.class, MultipartAutoConfiguration.class})
+    @Import({WebConfig.class, WebClientConfig.class, ProductController.class, AiSearchService.class,
+            FrameQualityGate.class, ImageMemoryBudget.class, ProductNameCatalog.class, ShelfResolveExecutorConfig.class,
+            BlockingScanController.class})
+    static class ScanServer {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        ProductRepository productRepository() {
+            return repository(ProductRepository.class);
+        }
+
+        @Bean
+        AllergyCheckEngine allergyCheckEngine() {
+            return new AllergyCheckEngine(repository(AllergyRepository.class), repository(ProductAllergyRepository.class));
+        }
+
+        @Bean
+        PyonyCrawler pyonyCrawler(ProductRepository productRepository) {
+            return new PyonyCrawler(productRepository);
+        }
+
+        @Bean
+        CartService cartService() {
+            return new CartService(null, null, null) {
+                @Override
+                public List<String> getCartProductNames(Integer userId) {
+                    return CART;
+                }
+            };
+        }
+
+        @Bean
+        ShelfDataService shelfDataService() {
+            return new ShelfDataService(null, null, null) {
+                @Override
+                public Mono<ShelfData> saveShelfData(Integer userId, ShelfDetectionResponse response) {
+                    return Mono.just(ShelfData.from(response, userId));
+                }
+
+                @Override
+                public Mono<Boolean> saveProducts(Integer userId, ShelfData saved, Map<String, ResolvedProduct> products) {
+                    return Mono.just(true);
+                }
+            };
+        }
+
+        @Bean
+        ShelfProductResolver shelfProductResolver(ProductRepository productRepository, AllergyCheckEngine allergyCheckEngine) {
+            return new ShelfProductResolver(productRepository, allergyCheckEngine, null) {
+                @Override
+                public Map<String, ResolvedProduct> resolve(Collection<String> names, Integer userId) {
+                    return Map.of();
+                }
+            };
+        }
+
+        /**
+         * JWT 필터 대신 헤더의 사용자로 인증 정보 설정 (요청 스레드에서 @AuthenticationPrincipal 해석용)
+         */
+        @Bean
+        Filter benchUserFilter() {
+            return (request, response, chain) -> {
+                String userId = ((HttpServletRequest) request).getHeader(USER_HEADER);
+                if (userId != null) {
+                    SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                            new CustomOAuth2User(Integer.valueOf(userId), Map.of(), null), null, null));
+                }
+                try {
+                    chain.doFilter(request, response);
+                } finally {
+                    SecurityContextHolder.clearContext();
+                }
+            };
+        }
+
+        @Bean
+        WebMvcConfigurer principalResolver() {
+            return new WebMvcConfigurer() {
+                @Override
+                public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+                    resolvers.add(new AuthenticationPrincipalArgumentResolver());
+                }
+            };
+        }
+
+        /**
+         * 쓰지 않는 저장소 메서드는 빈 값 반환
+         */
+        @SuppressWarnings("unchecked")
+        private static <T> T repository(Class<T> type) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) ->
+                    switch (method.getName()) {
+                        case "toString" -> type.getSimpleName() + "(bench)";
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        case "equals" -> proxy == args[0];
+                        default -> method.getReturnType() == List.class ? List.of() : null;
+                    });
+        }
+    }
+
+    /**
+     * 변경 전 방식: 같은 서비스 결과를 요청 스레드에서 block()으로 기다림
+     */
+    @RestController
+    static class BlockingScanController {
+
+        private final AiSearchService aiSearchService;
+
+        BlockingScanController(AiSearchService aiSearchService) {
+            this.aiSearchService = aiSearchService;
+        }
+
+        @PostMapping(value = "/bench/product/search/blocking", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+        public Map<String, Object> search(@AuthenticationPrincipal CustomOAuth2User principal,
+                                          @RequestPart("file") MultipartFile shelfImage) {
+            List<String> matched = aiSearchService.findMatchedProducts(new MultipartFile[]{shelfImage}, CART,
+                    principal.getUserId()).block();
+            return Map.of("status", 200, "result", matched);
+        }
+    }
+}
@@ -0,0 +1,426 @@
+package com.project.lookey.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.cloud.vision.v1.AnnotateImageResponse;
+import com.google.protobuf.util.JsonFormat;
+import com.project.lookey.vision.service.LabelRuleEngine;
+import com.project.lookey.vision.service.ParallelAnalysisResult;
+import com.project.lookey.vision.service.RegionResult;
+import com.project.lookey.vision.service.VisionDecisionEngine;
+import com.project.lookey.vision.service.VisionGrid;
+import com.project.lookey.vision.service.VisionImagePreparer;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.core.env.MapPropertySource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Vision 판단 단계 오프라인 재생 도구
+ * 녹화해 둔 AnnotateImageResponse를 실제 서비스와 같은 VisionDecisionEngine에 넣어
+ * 처리량, 단계별 지연 시간, 정답 라벨과의 일치율을 출력 (네트워크/Vision 호출 없음)
+ *
+ * 코퍼스 구조:
+ *   responses/{id}.pb 또는 {id}.json        전체 프레임 응답 (좌표 기반 셀 배정)
+ *   responses/{id}/cell-{n}.pb 또는 .json   격자 셀별 응답 (셀 번호는 vision.grid 설정 순서)
+ *   frames/{id}.jpg                          (선택) 업로드 준비 단계 시간 측정용 원본
+ *   ground-truth.jsonl                       {"id":..,"directions":{"left":true,..},"people":{..},
+ *                                             "obstacles":{..},"category":"snack","counter":false}
+ *                                            (없는 항목은 비교하지 않음)
+ *
+ * 실행: ./gradlew replayVision --args="--corpus=/data/vision-corpus --iterations=20 --min-agreement=0.9"
+ * 그 외 --vision.rules.object-min-score=0.55 처럼 설정값을 덮어써 임계값 조정 결과를 비교
+ */
+public class VisionReplayHarness {
+
+    private static final List<String> REGIONS = List.of("left", "front", "right");
+
+    private static final int MAX_PRINTED_MISMATCHES = 20;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, Object> properties = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("--key=value 형식이 아닙니다: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            properties.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        Path corpus = Paths.get(String.valueOf(properties.getOrDefault("corpus", ".")));
+        int iterations = Integer.parseInt(String.valueOf(properties.getOrDefault("iterations", "10")));
+        int threads = Integer.parseInt(String.valueOf(properties.getOrDefault("threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors()))));
+        double minAgreement = Double.parseDouble(String.valueOf(properties.getOrDefault("min-agreement", "0")));
+
+        try (AnnotationConfigApplicationContext context = decisionContext(properties)) {
+            VisionDecisionEngine decisions = context.getBean(VisionDecisionEngine.class);
+            VisionImagePreparer preparer = context.getBean(VisionImagePreparer.class);
+
+            List<Frame> frames = loadCorpus(corpus);
+            if (frames.isEmpty()) {
+                throw new IllegalStateException("재생할 응답이 없습니다: " + corpus.resolve("responses"));
+            }
+            Map<String, JsonNode> groundTruth = loadGroundTruth(corpus.resolve("ground-truth.jsonl"));
+
+            // 워밍업 (JIT) 후 정답 비교용 결과 수집
+            Map<String, ParallelAnalysisResult> results = new LinkedHashMap<>();
+            for (Frame frame : frames) {
+                results.put(frame.id, replay(frame, decisions, preparer, null));
+            }
+
+            StageTimes times = run(frames, decisions, preparer, iterations, threads);
+
+            System.out.printf("corpus %s: %d frames (%d with images), %d iterations, %d threads%n",
+                    corpus, frames.size(), frames.stream().filter(f -> f.image != null).count(), iterations, threads);
+            System.out.printf("throughput %.1f frames/s (decision pipeline only, excluding prepare: %.1f frames/s)%n",
+                    times.count / (times.wallNanos / 1e9),
+                    times.count / (times.decisionWallNanos() / 1e9));
+            System.out.printf("%-10s %10s %10s %10s %10s%n", "stage", "p50 ms", "p95 ms", "p99 ms", "max ms");
+            times.print("parse", times.parse);
+            times.print("prepare", times.prepare);
+            times.print("decide", times.decide);
+
+            double agreement = compare(results, groundTruth);
+            if (agreement < minAgreement) {
+                System.out.printf("agreement %.3f < min-agreement %.3f%n", agreement, minAgreement);
+                System.exit(1);
+            }
+        }
+    }
+
+    /**
+     * 판단에 필요한 빈만 올린 최소 컨텍스트 (application.yml 대신 기본값 + 인자 설정)
+     */
+    private static AnnotationConfigApplicationContext decisionContext(Map<String, Object> properties) {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("replay", properties));
+        context.getBeanFactory().setConversionService(new DefaultConversionService());
+        context.registerBean(PropertySourcesPlaceholderConfigurer.class);
+        context.register(LabelRuleEngine.class, VisionGrid.class, VisionDecisionEngine.class, VisionImagePreparer.class);
+        context.refresh();
+        return context;
+    }
+
+    /**
+     * 전체 코퍼스를 iterations번 여러 스레드로 재생하며 단계별 시간 측정
+     */
+    private static StageTimes run(List<Frame> frames, VisionDecisionEngine decisions, VisionImagePreparer preparer,
+                                  int iterations, int threads) throws Exception {
+        int total = frames.size() * iterations;
+        StageTimes times = new StageTimes(total);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>(total);
+            for (int i = 0; i < total; i++) {
+                Frame frame = frames.get(i % frames.size());
+                int slot = i;
+                futures.add(executor.submit(() -> {
+                    replay(frame, decisions, preparer, new long[][]{times.parse, times.prepare, times.decide, {slot}});
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            times.wallNanos = System.nanoTime() - start;
+            times.threads = threads;
+        } finally {
+            executor.shutdown();
+        }
+        return times;
+    }
+
+    /**
+     * 프레임 하나 재생: 응답 역직렬화 -> (원본이 있으면) 업로드 준비 -> 판단
+     * @param sink null이 아니면 {parse, prepare, decide, {slot}} 배열의 slot 위치에 단계별 나노초 기록
+     */
+    private static ParallelAnalysisResult replay(Frame frame, VisionDecisionEngine decisions,
+                                                 VisionImagePreparer preparer, long[][] sink) throws IOException {
+        long start = System.nanoTime();
+        List<AnnotateImageResponse> responses = new ArrayList<>(frame.responses.size());
+        for (byte[] response : frame.responses) {
+            responses.add(frame.json ? parseJson(response) : AnnotateImageResponse.parseFrom(response));
+        }
+        long parsed = System.nanoTime();
+
+        if (frame.image != null) {
+            preparer.prepareForUpload(frame.image);
+        }
+        long prepared = System.nanoTime();
+
+        ParallelAnalysisResult result;
+        if (frame.perCell) {
+            List<RegionResult> cells = new ArrayList<>(responses.size());
+            for (int cell = 0; cell < responses.size(); cell++) {
+                cells.add(decisions.toRegionResult(responses.get(cell), "cell-" + cell));
+            }
+            result = decisions.mergeCells(cells);
+        } else {
+            AnnotateImageResponse response = responses.get(0);
+            result = response.hasError()
+                    ? decisions.safeDefaultResult()
+                    : decisions.assignByGeometry(response.getLocalizedObjectAnnotationsList(),
+                            response.getLabelAnnotationsList());
+        }
+        long decided = System.nanoTime();
+
+        if (sink != null) {
+            int slot = (int) sink[3][0];
+            sink[0][slot] = parsed - start;
+            sink[1][slot] = prepared - parsed;
+            sink[2][slot] = decided - prepared;
+        }
+        return result;
+    }
+
+    private static AnnotateImageResponse parseJson(byte[] json) throws IOException {
+        AnnotateImageResponse.Builder builder = AnnotateImageResponse.newBuilder();
+        JsonFormat.parser().ignoringUnknownFields().merge(new String(json, StandardCharsets.UTF_8), builder);
+        return builder.build();
+    }
+
+    /**
+     * 정답 파일과 항목별 비교 (boolean 항목은 정밀도/재현율도 출력)
+     * @return 전체 비교 항목 중 일치 비율
+     */
+    private static double compare(Map<String, ParallelAnalysisResult> results, Map<String, JsonNode> groundTruth) {
+        if (groundTruth.isEmpty()) {
+            System.out.println("ground-truth.jsonl 없음 - 일치율 비교 생략");
+            return 1.0;
+        }
+
+        Map<String, Agreement> fields = new LinkedHashMap<>();
+        List<String> mismatches = new ArrayList<>();
+        for (Map.Entry<String, JsonNode> entry : groundTruth.entrySet()) {
+            ParallelAnalysisResult result = results.get(entry.getKey());
+            if (result == null) {
+                mismatches.add(entry.getKey() + ": 녹화된 응답 없음");
+                continue;
+            }
+            JsonNode expected = entry.getValue();
+            for (String region : REGIONS) {
+                compareFlag(fields, mismatches, entry.getKey(), "directions." + region,
+                        expected.path("directions").path(region), result.getDirections().get(region));
+                compareFlag(fields, mismatches, entry.getKey(), "people." + region,
+                        expected.path("people").path(region), result.getPeopleByRegion().get(region));
+                compareFlag(fields, mismatches, entry.getKey(), "obstacles." + region,
+                        expected.path("obstacles").path(region), result.getObstaclesByRegion().get(region));
+            }
+            compareFlag(fields, mismatches, entry.getKey(), "counter",
+                    expected.path("counter"), result.getCounterDetection());
+            if (expected.hasNonNull("category")) {
+                String category = expected.get("category").asText();
+                boolean match = category.equals(result.getCenterCategory());
+                fields.computeIfAbsent("category", k -> new Agreement()).record(match, null, null);
+                if (!match) {
+                    mismatches.add(entry.getKey() + ": category expected " + category
+                            + " but was " + result.getCenterCategory());
+                }
+            }
+        }
+
+        int compared = 0;
+        int matched = 0;
+        System.out.printf("%-18s %8s %10s %10s %10s%n", "field", "n", "agreement", "precision", "recall");
+        for (Map.Entry<String, Agreement> field : fields.entrySet()) {
+            Agreement a = field.getValue();
+            compared += a.total;
+            matched += a.matched;
+            System.out.printf("%-18s %8d %10.3f %10s %10s%n", field.getKey(), a.total,
+                    (double) a.matched / a.total, a.precision(), a.recall());
+        }
+        double agreement = compared == 0 ? 1.0 : (double) matched / compared;
+        System.out.printf("overall agreement %.3f (%d/%d), mismatches %d%n",
+                agreement, matched, compared, mismatches.size());
+        mismatches.stream().limit(MAX_PRINTED_MISMATCHES).forEach(m -> System.out.println("  " + m));
+        return agreement;
+    }
+
+    private static void compareFlag(Map<String, Agreement> fields, List<String> mismatches, String id, String field,
+                                    JsonNode expected, Boolean actual) {
+        if (expected.isMissingNode() || expected.isNull()) {
+            return;
+        }
+        boolean truth = expected.asBoolean();
+        boolean predicted = Boolean.TRUE.equals(actual);
+        fields.computeIfAbsent(field, k -> new Agreement()).record(truth == predicted, truth, predicted);
+        if (truth != predicted) {
+            mismatches.add(id + ": " + field + " expected " + truth + " but was " + predicted);
+        }
+    }
+
+    private static List<Frame> loadCorpus(Path corpus) throws IOException {
+        Path responses = corpus.resolve("responses");
+        Path images = corpus.resolve("frames");
+        List<Frame> frames = new ArrayList<>();
+        try (Stream<Path> entries = Files.list(responses)) {
+            for (Path entry : entries.sorted().collect(Collectors.toList())) {
+                String name = entry.getFileName().toString();
+                Frame frame;
+                if (Files.isDirectory(entry)) {
+                    try (Stream<Path> cells = Files.list(entry)) {
+                        List<Path> cellFiles = cells.filter(VisionReplayHarness::isResponseFile)
+                                .sorted(Comparator.comparingInt(VisionReplayHarness::cellIndex))
+                                .collect(Collectors.toList());
+                        if (cellFiles.isEmpty()) {
+                            continue;
+                        }
+                        frame = new Frame(name, true, cellFiles.get(0).toString().endsWith(".json"));
+                        for (Path cell : cellFiles) {
+                            frame.responses.add(Files.readAllBytes(cell));
+                        }
+                    }
+                } else if (isResponseFile(entry)) {
+                    String id = name.substring(0, name.lastIndexOf('.'));
+                    frame = new Frame(id, false, name.endsWith(".json"));
+                    frame.responses.add(Files.readAllBytes(entry));
+                } else {
+                    continue;
+                }
+
+                for (String extension : List.of(".jpg", ".jpeg", ".png")) {
+                    Path image = images.resolve(frame.id + extension);
+                    if (Files.exists(image)) {
+                        frame.image = Files.readAllBytes(image);
+                        break;
+                    }
+                }
+                frames.add(frame);
+            }
+        }
+        return frames;
+    }
+
+    private static boolean isResponseFile(Path path) {
+        String name = path.getFileName().toString();
+        return name.endsWith(".pb") || name.endsWith(".json");
+    }
+
+    private static int cellIndex(Path path) {
+        String name = path.getFileName().toString();
+        String digits = name.replaceAll("\\D", "");
+        return digits.isEmpty() ? 0 : Integer.parseInt(digits);
+    }
+
+    private static Map<String, JsonNode> loadGroundTruth(Path file) throws IOException {
+        Map<String, JsonNode> truth = new LinkedHashMap<>();
+        if (!Files.exists(file)) {
+            return truth;
+        }
+        ObjectMapper mapper = new ObjectMapper();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (line.isBlank()) {
+                continue;
+            }
+            JsonNode node = mapper.readTree(line);
+            truth.put(node.get("id").asText(), node);
+        }
+        return truth;
+    }
+
+    private static class Frame {
+        private final String id;
+        private final boolean perCell;
+        private final boolean json;
+        private final List<byte[]> responses = new ArrayList<>();
+        private byte[] image;
+
+        private Frame(String id, boolean perCell, boolean json) {
+            this.id = id;
+            this.perCell = perCell;
+            this.json = json;
+        }
+    }
+
+    private static class StageTimes {
+        private final int count;
+        private final long[] parse;
+        private final long[] prepare;
+        private final long[] decide;
+        private long wallNanos;
+        private int threads;
+
+        private StageTimes(int count) {
+            this.count = count;
+            this.parse = new long[count];
+            this.prepare = new long[count];
+            this.decide = new long[count];
+        }
+
+        /**
+         * 준비 단계를 뺀 예상 벽시계 시간 (스레드 수로 나눈 값)
+         */
+        private long decisionWallNanos() {
+            long sum = 0;
+            for (int i = 0; i < count; i++) {
+                sum += parse[i] + decide[i];
+            }
+            return Math.max(1, sum / threads);
+        }
+
+        private void print(String stage, long[] nanos) {
+            long[] sorted = nanos.clone();
+            Arrays.sort(sorted);
+            System.out.printf("%-10s %10.3f %10.3f %10.3f %10.3f%n", stage,
+                    sorted[count / 2] / 1e6, sorted[(int) (count * 0.95)] / 1e6,
+                    sorted[(int) (count * 0.99)] / 1e6, sorted[count - 1] / 1e6);
+        }
+    }
+
+    private static class Agreement {
+        private int total;
+        private int matched;
+        private int truePositive;
+        private int falsePositive;
+        private int falseNegative;
+        private boolean binary;
+
+        private void record(boolean match, Boolean truth, Boolean predicted) {
+            total++;
+            if (match) {
+                matched++;
+            }
+            if (truth == null) {
+                return;
+            }
+            binary = true;
+            if (truth && predicted) {
+                truePositive++;
+            } else if (!truth && predicted) {
+                falsePositive++;
+            } else if (truth) {
+                falseNegative++;
+            }
+        }
+
+        private String precision() {
+            int predictedPositive = truePositive + falsePositive;
+            return !binary || predictedPositive == 0 ? "-" : String.format("%.3f", (double) truePositive / predictedPositive);
+        }
+
+        private String recall() {
+            int actualPositive = truePositive + falseNegative;
+            return !binary || actualPositive == 0 ? "-" : String.format("%.3f", (double) truePositive / actualPositive);
+        }
+    }
+}
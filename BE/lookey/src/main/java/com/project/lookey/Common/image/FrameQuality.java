@@ -0,0 +1,51 @@
+package com.project.lookey.common.image;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 프레임 품질 판정 결과
+ * @param verdict 판정 (OK가 아니면 다시 촬영 필요)
+ * @param sharpness 라플라시안 분산 (클수록 선명)
+ * @param meanLuminance 평균 밝기 (0~255)
+ */
+public record FrameQuality(
+        Verdict verdict,
+        double sharpness,
+        double meanLuminance
+) {
+
+    public enum Verdict {
+        OK("분석 가능한 프레임입니다."),
+        BLURRY("사진이 흔들렸습니다. 카메라를 천천히 움직이며 다시 촬영해주세요."),
+        TOO_DARK("사진이 너무 어둡습니다. 밝은 곳에서 다시 촬영해주세요."),
+        TOO_BRIGHT("사진이 너무 밝습니다. 빛을 피해 다시 촬영해주세요.");
+
+        private final String guidance;
+
+        Verdict(String guidance) {
+            this.guidance = guidance;
+        }
+
+        public String getGuidance() {
+            return guidance;
+        }
+    }
+
+    public boolean usable() {
+        return verdict == Verdict.OK;
+    }
+
+    /**
+     * 클라이언트에 전달할 재촬영 안내
+     */
+    public Map<String, Object> toRetakeResponse() {
+        Map<String, Object> retake = new HashMap<>();
+        retake.put("retake", true);
+        retake.put("reason", verdict.name());
+        retake.put("guidance", verdict.getGuidance());
+        retake.put("sharpness", Math.round(sharpness * 10) / 10.0);
+        retake.put("meanLuminance", Math.round(meanLuminance * 10) / 10.0);
+        return retake;
+    }
+}
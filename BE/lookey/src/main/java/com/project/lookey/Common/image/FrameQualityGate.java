@@ -0,0 +1,245 @@
+package com.project.lookey.common.image;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 외부 분석 호출 전 프레임 품질 검사
+ * 축소한 흑백 래스터에서 방향별 라플라시안 분산(선명도)과 밝기 히스토그램(노출)을 계산해
+ * 흔들리거나 너무 어둡고 밝은 프레임은 Vision / AI 서버를 호출하지 않고 재촬영 안내
+ *
+ * 흑백 래스터와 히스토그램은 스레드별로 재사용 (프레임마다 새로 할당하지 않음)
+ */
+@Component
+@Slf4j
+public class FrameQualityGate {
+
+    // 분석용 래스터의 긴 변 (임계값은 이 크기 기준으로 맞춰져 있음)
+    public static final int ANALYSIS_SIZE = 128;
+
+    private static final int DARK_LEVEL = 16;
+    private static final int BRIGHT_LEVEL = 240;
+
+    private final ThreadLocal<Scratch> scratches = ThreadLocal.withInitial(Scratch::new);
+
+    private final MeterRegistry meterRegistry;
+    private final Timer gateTimer;
+
+    @Value("${image.quality.enabled:true}")
+    private boolean enabled = true;
+
+    // 이 값보다 선명도(방향별 라플라시안 분산의 최솟값)가 작으면 흔들린 프레임
+    @Value("${image.quality.min-sharpness:150}")
+    private double minSharpness = 150;
+
+    @Value("${image.quality.min-mean-luminance:35}")
+    private double minMeanLuminance = 35;
+
+    @Value("${image.quality.max-mean-luminance:225}")
+    private double maxMeanLuminance = 225;
+
+    // 거의 검거나 흰 픽셀이 이 비율을 넘으면 노출 실패
+    @Value("${image.quality.max-clipped-ratio:0.85}")
+    private double maxClippedRatio = 0.85;
+
+    public FrameQualityGate(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.gateTimer = Timer.builder("image.quality.gate")
+                .description("프레임 품질 검사 소요 시간")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 품질 검사 후 분석할 수 없는 프레임이면 재촬영 예외
+     * @param source 호출 경로 (지표 태그)
+     * @throws FrameRetakeException 흔들림/노출 문제
+     * @throws IllegalArgumentException 이미지를 읽을 수 없는 경우
+     */
+    public void require(byte[] imageBytes, String source) {
+        try {
+            require(new ByteArrayInputStream(imageBytes), source);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("이미지를 읽을 수 없습니다.", e);
+        }
+    }
+
+    public void require(MultipartFile file, String source) throws IOException {
+        try (InputStream input = file.getInputStream()) {
+            require(input, source);
+        }
+    }
+
+    private void require(InputStream input, String source) throws IOException {
+        if (!enabled) {
+            return;
+        }
+
+        FrameQuality quality = assess(input);
+        if (!quality.usable()) {
+            meterRegistry.counter("image.quality.rejected",
+                    "source", source, "reason", quality.verdict().name()).increment();
+            log.info("프레임 품질 불량으로 분석 생략 - {}: {} (선명도 {}, 밝기 {})", source,
+                    quality.verdict(), Math.round(quality.sharpness()), Math.round(quality.meanLuminance()));
+            throw new FrameRetakeException(quality);
+        }
+    }
+
+    public FrameQuality assess(byte[] imageBytes) throws IOException {
+        return assess(new ByteArrayInputStream(imageBytes));
+    }
+
+    FrameQuality assess(InputStream input) throws IOException {
+        long start = System.nanoTime();
+        try {
+            return assess(decodeSubsampled(input));
+        } finally {
+            gateTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 이미 디코딩된 이미지 판정 (흑백 축소 후 검사)
+     */
+    public FrameQuality assess(BufferedImage decoded) {
+        Scratch scratch = scratches.get();
+
+        int width = decoded.getWidth();
+        int height = decoded.getHeight();
+        double scale = (double) ANALYSIS_SIZE / Math.max(width, height);
+        int w = Math.max(3, Math.min(ANALYSIS_SIZE, (int) Math.round(width * scale)));
+        int h = Math.max(3, Math.min(ANALYSIS_SIZE, (int) Math.round(height * scale)));
+
+        Graphics2D g = scratch.gray.createGraphics();
+        try {
+            g.drawImage(decoded, 0, 0, w, h, null);
+        } finally {
+            g.dispose();
+        }
+        return evaluate(scratch, w, h);
+    }
+
+    /**
+     * 흑백 래스터 좌상단 w x h 영역에서 노출/선명도 판정
+     */
+    private FrameQuality evaluate(Scratch scratch, int w, int h) {
+        byte[] pixels = scratch.pixels;
+        int[] histogram = scratch.histogram;
+        Arrays.fill(histogram, 0);
+
+        // 노출: 밝기 히스토그램
+        long luminanceSum = 0;
+        for (int y = 0; y < h; y++) {
+            int row = y * ANALYSIS_SIZE;
+            for (int x = 0; x < w; x++) {
+                int value = pixels[row + x] & 0xFF;
+                histogram[value]++;
+                luminanceSum += value;
+            }
+        }
+        int total = w * h;
+        double meanLuminance = (double) luminanceSum / total;
+
+        int dark = 0;
+        for (int v = 0; v < DARK_LEVEL; v++) {
+            dark += histogram[v];
+        }
+        int bright = 0;
+        for (int v = BRIGHT_LEVEL; v < histogram.length; v++) {
+            bright += histogram[v];
+        }
+
+        // 선명도: 가로/세로 2차 미분(라플라시안 성분) 분산 중 작은 값
+        // 한 방향으로만 흔들린 사진도 그 방향 성분이 낮아지므로 함께 걸러짐
+        long sumX = 0;
+        long sumSquaresX = 0;
+        long sumY = 0;
+        long sumSquaresY = 0;
+        for (int y = 1; y < h - 1; y++) {
+            int row = y * ANALYSIS_SIZE;
+            for (int x = 1; x < w - 1; x++) {
+                int i = row + x;
+                int center = 2 * (pixels[i] & 0xFF);
+                int dxx = center - (pixels[i - 1] & 0xFF) - (pixels[i + 1] & 0xFF);
+                int dyy = center - (pixels[i - ANALYSIS_SIZE] & 0xFF) - (pixels[i + ANALYSIS_SIZE] & 0xFF);
+                sumX += dxx;
+                sumSquaresX += (long) dxx * dxx;
+                sumY += dyy;
+                sumSquaresY += (long) dyy * dyy;
+            }
+        }
+        int interior = (w - 2) * (h - 2);
+        double sharpness = Math.min(variance(sumX, sumSquaresX, interior), variance(sumY, sumSquaresY, interior));
+
+        FrameQuality.Verdict verdict;
+        if (meanLuminance < minMeanLuminance || dark > total * maxClippedRatio) {
+            verdict = FrameQuality.Verdict.TOO_DARK;
+        } else if (meanLuminance > maxMeanLuminance || bright > total * maxClippedRatio) {
+            verdict = FrameQuality.Verdict.TOO_BRIGHT;
+        } else if (sharpness < minSharpness) {
+            verdict = FrameQuality.Verdict.BLURRY;
+        } else {
+            verdict = FrameQuality.Verdict.OK;
+        }
+        return new FrameQuality(verdict, sharpness, meanLuminance);
+    }
+
+    private static double variance(long sum, long sumSquares, int count) {
+        double mean = (double) sum / count;
+        return (double) sumSquares / count - mean * mean;
+    }
+
+    /**
+     * 긴 변이 ANALYSIS_SIZE 이상이 되는 가장 큰 배율로 서브샘플링 디코딩
+     */
+    private static BufferedImage decodeSubsampled(InputStream source) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source)) {
+            if (input == null) {
+                throw new IllegalArgumentException("이미지 스트림을 열 수 없습니다.");
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IllegalArgumentException("지원하지 않는 이미지 형식입니다.");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int longestSide = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int step = Math.max(1, longestSide / ANALYSIS_SIZE);
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * 스레드별 재사용 버퍼
+     */
+    private static class Scratch {
+        private final BufferedImage gray =
+                new BufferedImage(ANALYSIS_SIZE, ANALYSIS_SIZE, BufferedImage.TYPE_BYTE_GRAY);
+        private final byte[] pixels = ((DataBufferByte) gray.getRaster().getDataBuffer()).getData();
+        private final int[] histogram = new int[256];
+    }
+}
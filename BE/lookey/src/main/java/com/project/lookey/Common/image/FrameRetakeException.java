@@ -0,0 +1,18 @@
+package com.project.lookey.common.image;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * 흔들림/노출 문제로 분석할 수 없는 프레임 (422, 외부 분석 호출 전에 거절)
+ */
+@Getter
+public class FrameRetakeException extends ResponseStatusException {
+    private final FrameQuality quality;
+
+    public FrameRetakeException(FrameQuality quality) {
+        super(HttpStatus.UNPROCESSABLE_ENTITY, quality.verdict().getGuidance());
+        this.quality = quality;
+    }
+}
@@ -0,0 +1,219 @@
+package com.project.lookey.common.memory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.annotation.PostConstruct;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 이미지 디코딩 메모리 예산 (입장 제어)
+ * 헤더만 읽어 해상도를 확인하고, 실제 디코딩 크기(긴 변이 목표 크기 근처가 되도록 서브샘플링한 width*height*4)를
+ * 전역 예산에서 예약
+ * 예산이 부족하면 reserve는 잠시 대기하고, tryReserve는 바로 거절 (둘 다 확보하지 못하면 503 + Retry-After)
+ *
+ * 사용 예:
+ * <pre>
+ * try (ImageMemoryBudget.Reservation reservation = memoryBudget.reserve(imageBytes, targetDimension)) {
+ *     // 디코딩 / 분석
+ * }
+ * </pre>
+ */
+@Component
+@Slf4j
+public class ImageMemoryBudget {
+
+    private static final int BYTES_PER_PIXEL = 4;
+    private static final long PERMIT_BYTES = 1024L;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Counter admittedCounter;
+    private final Counter queuedCounter;
+    private final Counter rejectedCounter;
+
+    @Value("${image.memory.enabled:true}")
+    private boolean enabled;
+
+    @Value("${image.memory.budget-mb:256}")
+    private long budgetMegabytes;
+
+    // 예산이 부족할 때 자리가 날 때까지 기다리는 최대 시간 (reserve만 대기)
+    @Value("${image.memory.max-wait-ms:500}")
+    private long maxWaitMillis;
+
+    @Value("${image.memory.retry-after-seconds:2}")
+    private long retryAfterSeconds;
+
+    // 세마포어 퍼밋 1개 = 1KB
+    private Semaphore permits;
+    private int totalPermits;
+
+    public ImageMemoryBudget(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.admittedCounter = Counter.builder("image.memory.admission")
+                .tag("result", "admitted")
+                .description("대기 없이 메모리 예산을 확보한 이미지 요청 수")
+                .register(meterRegistry);
+        this.queuedCounter = Counter.builder("image.memory.admission")
+                .tag("result", "queued")
+                .description("대기 후 메모리 예산을 확보한 이미지 요청 수")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("image.memory.admission")
+                .tag("result", "rejected")
+                .description("메모리 예산 부족으로 거절한 이미지 요청 수")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void init() {
+        long budgetPermits = budgetMegabytes * 1024L * 1024L / PERMIT_BYTES;
+        this.totalPermits = (int) Math.min(Integer.MAX_VALUE, Math.max(1L, budgetPermits));
+        this.permits = new Semaphore(totalPermits, true);
+
+        Gauge.builder("image.memory.budget.used", this, ImageMemoryBudget::usedBytes)
+                .baseUnit("bytes")
+                .description("예약 중인 이미지 디코딩 메모리")
+                .register(meterRegistry);
+        Gauge.builder("image.memory.budget.max", this, budget -> (double) budget.totalPermits * PERMIT_BYTES)
+                .baseUnit("bytes")
+                .description("이미지 디코딩 메모리 전체 예산")
+                .register(meterRegistry);
+
+        log.info("이미지 메모리 예산 - {}MB, 최대 대기 {}ms", budgetMegabytes, maxWaitMillis);
+    }
+
+    /**
+     * 대기 없이 예약 (실행기 스레드를 붙잡지 않아야 하는 Vision 분석용)
+     * @param targetDimension 디코딩 시 긴 변의 목표 크기 (서브샘플링 기준)
+     */
+    public Reservation tryReserve(byte[] imageBytes, int targetDimension) {
+        try {
+            return reserve(new ByteArrayInputStream(imageBytes), targetDimension, false);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("이미지 헤더를 읽을 수 없습니다.", e);
+        }
+    }
+
+    /**
+     * 최대 max-wait-ms까지 대기하며 예약 (boundedElastic 등 대기해도 되는 스레드에서 호출)
+     * @param targetDimension 디코딩 시 긴 변의 목표 크기 (서브샘플링 기준)
+     */
+    public Reservation reserve(MultipartFile file, int targetDimension) throws IOException {
+        try (InputStream input = file.getInputStream()) {
+            return reserve(input, targetDimension, true);
+        }
+    }
+
+    /**
+     * 헤더에서 해상도를 읽어 디코딩 메모리 예약
+     * @param wait 예산이 부족할 때 max-wait-ms까지 대기할지 여부
+     * @throws IllegalArgumentException 이미지 형식을 읽을 수 없는 경우
+     * @throws ImageMemoryBudgetExceededException 예산을 확보하지 못한 경우
+     */
+    private Reservation reserve(InputStream input, int targetDimension, boolean wait) throws IOException {
+        if (!enabled) {
+            return Reservation.NONE;
+        }
+
+        long decodedBytes = decodedSize(input, targetDimension);
+        // 예산보다 큰 이미지도 단독으로는 처리할 수 있도록 전체 예산으로 제한
+        int required = (int) Math.min(totalPermits, Math.max(1L, (decodedBytes + PERMIT_BYTES - 1) / PERMIT_BYTES));
+
+        if (permits.tryAcquire(required)) {
+            admittedCounter.increment();
+            return new Reservation(this, required);
+        }
+
+        if (wait) {
+            try {
+                if (permits.tryAcquire(required, maxWaitMillis, TimeUnit.MILLISECONDS)) {
+                    queuedCounter.increment();
+                    return new Reservation(this, required);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        rejectedCounter.increment();
+        log.warn("이미지 메모리 예산 부족 - 요청: {}KB, 사용 가능: {}KB / {}KB",
+                required, permits.availablePermits(), totalPermits);
+        throw new ImageMemoryBudgetExceededException(retryAfterSeconds);
+    }
+
+    /**
+     * 헤더만 읽어 디코딩 후 크기 계산
+     * 디코더와 같은 정수 배율(긴 변 / 목표 크기)로 서브샘플링한 width * height * 4
+     */
+    static long decodedSize(InputStream source, int targetDimension) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source)) {
+            if (input == null) {
+                throw new IllegalArgumentException("이미지 스트림을 열 수 없습니다.");
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IllegalArgumentException("지원하지 않는 이미지 형식입니다.");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                int step = Math.max(1, Math.max(width, height) / Math.max(1, targetDimension));
+                return (long) ((width + step - 1) / step) * ((height + step - 1) / step) * BYTES_PER_PIXEL;
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private double usedBytes() {
+        return permits == null ? 0.0 : (double) (totalPermits - permits.availablePermits()) * PERMIT_BYTES;
+    }
+
+    private void release(int reserved) {
+        permits.release(reserved);
+    }
+
+    /**
+     * 예약된 메모리 (close 시 반환, 여러 번 호출해도 한 번만 반환)
+     */
+    public static class Reservation implements AutoCloseable {
+        static final Reservation NONE = new Reservation(null, 0);
+
+        private final ImageMemoryBudget budget;
+        private final int reserved;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Reservation(ImageMemoryBudget budget, int reserved) {
+            this.budget = budget;
+            this.reserved = reserved;
+        }
+
+        public long getBytes() {
+            return reserved * PERMIT_BYTES;
+        }
+
+        @Override
+        public void close() {
+            if (budget != null && released.compareAndSet(false, true)) {
+                budget.release(reserved);
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.project.lookey.common.memory;
+
+import lombok.Getter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * 이미지 메모리 예산 부족 (503 + Retry-After)
+ */
+@Getter
+public class ImageMemoryBudgetExceededException extends ResponseStatusException {
+    private final long retryAfterSeconds;
+
+    public ImageMemoryBudgetExceededException(long retryAfterSeconds) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, "이미지 처리 요청이 많습니다. 잠시 후 다시 시도해주세요.");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        return headers;
+    }
+}
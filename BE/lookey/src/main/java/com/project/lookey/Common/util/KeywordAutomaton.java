@@ -0,0 +1,220 @@
+package com.project.lookey.common.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 다중 키워드 동시 검색용 Aho-Corasick 오토마톤
+ * 생성 시 한 번만 컴파일하고, 검색은 문자 단위로 상태를 넘기며 할당 없이 수행
+ *
+ * 사용 예:
+ * <pre>
+ * int state = KeywordAutomaton.ROOT;
+ * for (int i = 0; i < text.length(); i++) {
+ *     state = automaton.next(state, text.charAt(i));
+ *     for (int k = 0; k < automaton.outputCount(state); k++) {
+ *         int keywordId = automaton.output(state, k); // i 위치에서 끝나는 키워드
+ *     }
+ * }
+ * </pre>
+ */
+public class KeywordAutomaton {
+
+    public static final int ROOT = 0;
+
+    private final boolean ignoreCase;
+
+    // 상태별 전이 (CSR 형식, 상태 내에서 문자 오름차순)
+    private final int[] edgeStart;
+    private final char[] edgeChars;
+    private final int[] edgeTargets;
+
+    private final int[] fail;
+
+    // 상태별 출력 키워드 (실패 링크를 따라 도달하는 접미사 키워드 포함)
+    private final int[] outputStart;
+    private final int[] outputKeywords;
+
+    private final int[] keywordLengths;
+
+    private KeywordAutomaton(boolean ignoreCase, int[] edgeStart, char[] edgeChars, int[] edgeTargets,
+                             int[] fail, int[] outputStart, int[] outputKeywords, int[] keywordLengths) {
+        this.ignoreCase = ignoreCase;
+        this.edgeStart = edgeStart;
+        this.edgeChars = edgeChars;
+        this.edgeTargets = edgeTargets;
+        this.fail = fail;
+        this.outputStart = outputStart;
+        this.outputKeywords = outputKeywords;
+        this.keywordLengths = keywordLengths;
+    }
+
+    /**
+     * 키워드 목록으로 오토마톤 생성 (키워드 ID = 목록 인덱스, 빈 키워드는 무시)
+     */
+    public static KeywordAutomaton compile(List<String> keywords, boolean ignoreCase) {
+        List<TreeMap<Character, Integer>> transitions = new ArrayList<>();
+        List<List<Integer>> outputs = new ArrayList<>();
+        transitions.add(new TreeMap<>());
+        outputs.add(new ArrayList<>());
+
+        int[] keywordLengths = new int[keywords.size()];
+        for (int id = 0; id < keywords.size(); id++) {
+            String keyword = keywords.get(id);
+            keywordLengths[id] = keyword.length();
+            if (keyword.isEmpty()) {
+                continue;
+            }
+
+            int state = ROOT;
+            for (int i = 0; i < keyword.length(); i++) {
+                char c = normalize(keyword.charAt(i), ignoreCase);
+                Integer next = transitions.get(state).get(c);
+                if (next == null) {
+                    next = transitions.size();
+                    transitions.add(new TreeMap<>());
+                    outputs.add(new ArrayList<>());
+                    transitions.get(state).put(c, next);
+                }
+                state = next;
+            }
+            outputs.get(state).add(id);
+        }
+
+        // BFS로 실패 링크 계산 및 출력 병합
+        int stateCount = transitions.size();
+        int[] fail = new int[stateCount];
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int child : transitions.get(ROOT).values()) {
+            fail[child] = ROOT;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (Map.Entry<Character, Integer> edge : transitions.get(state).entrySet()) {
+                char c = edge.getKey();
+                int child = edge.getValue();
+
+                int f = fail[state];
+                while (f != ROOT && !transitions.get(f).containsKey(c)) {
+                    f = fail[f];
+                }
+                Integer target = transitions.get(f).get(c);
+                fail[child] = target != null && target != child ? target : ROOT;
+                outputs.get(child).addAll(outputs.get(fail[child]));
+                queue.add(child);
+            }
+        }
+
+        // 배열로 고정
+        int[] edgeStart = new int[stateCount + 1];
+        int edgeCount = 0;
+        for (int s = 0; s < stateCount; s++) {
+            edgeStart[s] = edgeCount;
+            edgeCount += transitions.get(s).size();
+        }
+        edgeStart[stateCount] = edgeCount;
+
+        char[] edgeChars = new char[edgeCount];
+        int[] edgeTargets = new int[edgeCount];
+        int[] outputStart = new int[stateCount + 1];
+        int outputCount = 0;
+        for (int s = 0; s < stateCount; s++) {
+            int e = edgeStart[s];
+            for (Map.Entry<Character, Integer> edge : transitions.get(s).entrySet()) {
+                edgeChars[e] = edge.getKey();
+                edgeTargets[e] = edge.getValue();
+                e++;
+            }
+            outputStart[s] = outputCount;
+            outputCount += outputs.get(s).size();
+        }
+        outputStart[stateCount] = outputCount;
+
+        int[] outputKeywords = new int[outputCount];
+        for (int s = 0; s < stateCount; s++) {
+            List<Integer> out = outputs.get(s);
+            for (int i = 0; i < out.size(); i++) {
+                outputKeywords[outputStart[s] + i] = out.get(i);
+            }
+        }
+
+        return new KeywordAutomaton(ignoreCase, edgeStart, edgeChars, edgeTargets,
+                fail, outputStart, outputKeywords, keywordLengths);
+    }
+
+    /**
+     * 문자 하나를 읽고 다음 상태 반환 (전이가 없으면 실패 링크를 따라감)
+     */
+    public int next(int state, char c) {
+        char normalized = normalize(c, ignoreCase);
+        int s = state;
+        while (true) {
+            int target = transition(s, normalized);
+            if (target >= 0) {
+                return target;
+            }
+            if (s == ROOT) {
+                return ROOT;
+            }
+            s = fail[s];
+        }
+    }
+
+    /**
+     * 실패 링크 없이 직접 전이만 조회 (없으면 -1)
+     */
+    public int transition(int state, char c) {
+        int lo = edgeStart[state];
+        int hi = edgeStart[state + 1] - 1;
+        char normalized = normalize(c, ignoreCase);
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            char midChar = edgeChars[mid];
+            if (midChar < normalized) {
+                lo = mid + 1;
+            } else if (midChar > normalized) {
+                hi = mid - 1;
+            } else {
+                return edgeTargets[mid];
+            }
+        }
+        return -1;
+    }
+
+    public int outputCount(int state) {
+        return outputStart[state + 1] - outputStart[state];
+    }
+
+    public int output(int state, int index) {
+        return outputKeywords[outputStart[state] + index];
+    }
+
+    public int keywordLength(int keywordId) {
+        return keywordLengths[keywordId];
+    }
+
+    public int keywordCount() {
+        return keywordLengths.length;
+    }
+
+    public int stateCount() {
+        return fail.length;
+    }
+
+    private static char normalize(char c, boolean ignoreCase) {
+        return ignoreCase ? Character.toLowerCase(c) : c;
+    }
+
+    @Override
+    public String toString() {
+        return "KeywordAutomaton{states=" + fail.length
+                + ", keywords=" + keywordLengths.length
+                + ", ignoreCase=" + ignoreCase
+                + ", edges=" + edgeChars.length + "}";
+    }
+}
@@ -6,6 +6,7 @@ import com.project.lookey.Haccp.Dto.ApiItem;
 import com.project.lookey.Haccp.Dto.ApiResponse;
 import com.project.lookey.allergy.entity.AllergyList;
 import com.project.lookey.allergy.repository.AllergyListRepository;
+import com.project.lookey.allergy.service.AllergyCheckEngine;
 import com.project.lookey.product.entity.Product;
 import com.project.lookey.product.entity.ProductAllergy;
 import com.project.lookey.product.repository.ProductAllergyRepository;
@@ -31,6 +32,7 @@ public class ProductAllergyService {
     private final ProductAllergyRepository productAllergyRepository;
     private final ObjectMapper objectMapper;
     private final ApiConfig apiConfig;
+    private final AllergyCheckEngine allergyCheckEngine;
 
     @Transactional
     public void updateProductAllergies(int pageNo, int numOfRows) throws Exception {
@@ -70,7 +72,7 @@ public class ProductAllergyService {
         // 5. 상품 & 알러지 매칭
         List<Product> products = productRepository.findAll();
         List<AllergyList> allergies = allergyListRepository.findAll();
-
+        boolean changed = false;
 
         for (ApiResponse.Body.ItemWrapper wrapper : apiResponse.getBody().getItems()) {
             ApiItem apiItem = wrapper.getItem();
@@ -107,7 +109,7 @@ public class ProductAllergyService {
                                     pa.setProduct(product);
                                     pa.setAllergy(allergy);
                                     productAllergyRepository.save(pa);
-
+                                    changed = true;
                                 }
                             }
                         }
@@ -115,6 +117,11 @@ public class ProductAllergyService {
                 }
             }
         }
+
+        // 알레르기 검사 캐시의 상품 알레르기 성분 무효화
+        if (changed) {
+            allergyCheckEngine.invalidateProducts();
+        }
     }
 
     /**
@@ -0,0 +1,204 @@
+package com.project.lookey.allergy.service;
+
+import com.project.lookey.allergy.repository.AllergyRepository;
+import com.project.lookey.product.repository.ProductAllergyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 알레르기 검사 엔진
+ * 상품의 알레르기 성분과 사용자의 알레르기를 AllergyList ID 비트셋으로 메모리에 캐시하고, 검사는 비트 AND로 수행
+ * - 사용자 알레르기: 사용자당 쿼리 한 번 (AllergyService 추가/삭제 시 무효화)
+ * - 상품 알레르기: 캐시에 없는 상품만 묶어 쿼리 한 번 (HACCP 동기화 시 전체 무효화)
+ * 무효화는 트랜잭션이 끝난 뒤에도 한 번 더 수행해 커밋 전 값이 다시 캐시되지 않도록 함
+ * 다른 인스턴스에서 바뀐 값은 TTL이 지나면 반영
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AllergyCheckEngine {
+
+    private static final BitSet NONE = new BitSet();
+
+    private final AllergyRepository allergyRepository;
+    private final ProductAllergyRepository productAllergyRepository;
+
+    @Value("${allergy.cache.user-ttl-seconds:60}")
+    private long userTtlSeconds;
+
+    @Value("${allergy.cache.product-ttl-seconds:600}")
+    private long productTtlSeconds;
+
+    // 캐시할 상품 수 상한 (넘으면 비우고 다시 채움)
+    @Value("${allergy.cache.max-products:100000}")
+    private int maxProducts;
+
+    private final Map<Integer, Entry> userAllergies = new ConcurrentHashMap<>();
+    private final Map<Long, Entry> productAllergies = new ConcurrentHashMap<>();
+
+    // 무효화 세대 (조회 중에 무효화되면 조회 결과를 캐시하지 않음)
+    // 무효화는 세대를 올린 뒤 항목을 지우고, 저장은 compute 안에서 세대를 다시 확인하므로
+    // 같은 키에서 저장이 삭제보다 먼저면 삭제되고, 나중이면 바뀐 세대를 보고 저장하지 않음
+    private final AtomicLong userGeneration = new AtomicLong();
+    private final AtomicLong productGeneration = new AtomicLong();
+
+    /**
+     * 상품에 사용자의 알레르기 성분이 있는지
+     */
+    public boolean hasAllergy(Integer userId, Long productId) {
+        return hasAllergy(userId, List.of(productId)).getOrDefault(productId, false);
+    }
+
+    /**
+     * 여러 상품 일괄 검사 (상품 ID -> 알레르기 여부, 쿼리는 사용자/상품 각각 최대 한 번)
+     */
+    public Map<Long, Boolean> hasAllergy(Integer userId, Collection<Long> productIds) {
+        Map<Long, BitSet> products = productBits(productIds);
+        Map<Long, Boolean> result = new HashMap<>(products.size() * 2);
+        if (products.values().stream().allMatch(BitSet::isEmpty)) {
+            products.keySet().forEach(id -> result.put(id, false));
+            return result;
+        }
+
+        BitSet user = userBits(userId);
+        products.forEach((id, bits) -> result.put(id, bits.intersects(user)));
+        return result;
+    }
+
+    /**
+     * 알레르기 ID 목록(스캔 시 저장해 둔 상품 알레르기 성분 등)에 사용자의 알레르기가 있는지
+     */
+    public boolean hasAnyAllergy(Integer userId, Collection<Long> allergyIds) {
+        if (allergyIds == null || allergyIds.isEmpty()) {
+            return false;
+        }
+        return toBits(allergyIds).intersects(userBits(userId));
+    }
+
+    /**
+     * 상품의 알레르기 성분 ID (오름차순)
+     */
+    public List<Long> allergyIds(Long productId) {
+        BitSet bits = productBits(List.of(productId)).getOrDefault(productId, NONE);
+        List<Long> ids = new ArrayList<>(bits.cardinality());
+        bits.stream().forEach(id -> ids.add((long) id));
+        return ids;
+    }
+
+    /**
+     * 사용자 알레르기 변경 시 (추가/삭제)
+     */
+    public void invalidateUser(Integer userId) {
+        invalidateNowAndAfterTransaction(() -> {
+            userGeneration.incrementAndGet();
+            userAllergies.remove(userId);
+        });
+    }
+
+    /**
+     * 상품 알레르기 성분 변경 시 (HACCP 동기화)
+     */
+    public void invalidateProducts() {
+        invalidateNowAndAfterTransaction(() -> {
+            productGeneration.incrementAndGet();
+            productAllergies.clear();
+        });
+    }
+
+    private BitSet userBits(Integer userId) {
+        long now = System.currentTimeMillis();
+        Entry cached = userAllergies.get(userId);
+        if (cached != null && now - cached.loadedAt < userTtlSeconds * 1000) {
+            return cached.bits;
+        }
+
+        long generation = userGeneration.get();
+        BitSet bits = toBits(allergyRepository.findAllergyListIdsByUserId(userId));
+        userAllergies.compute(userId, (id, current) ->
+                userGeneration.get() == generation ? new Entry(bits, now) : current);
+        return bits;
+    }
+
+    private Map<Long, BitSet> productBits(Collection<Long> productIds) {
+        long now = System.currentTimeMillis();
+        Map<Long, BitSet> found = new HashMap<>(productIds.size() * 2);
+        Set<Long> missing = new LinkedHashSet<>();
+        for (Long productId : productIds) {
+            if (productId == null) {
+                continue;
+            }
+            Entry cached = productAllergies.get(productId);
+            if (cached != null && now - cached.loadedAt < productTtlSeconds * 1000) {
+                found.put(productId, cached.bits);
+            } else {
+                missing.add(productId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return found;
+        }
+
+        long generation = productGeneration.get();
+        Map<Long, BitSet> loaded = new HashMap<>(missing.size() * 2);
+        for (ProductAllergyRepository.AllergyIdView view : productAllergyRepository.findAllergyIdsByProductIds(missing)) {
+            loaded.computeIfAbsent(view.getProductId(), id -> new BitSet()).set(Math.toIntExact(view.getAllergyId()));
+        }
+        for (Long productId : missing) {
+            found.put(productId, loaded.getOrDefault(productId, NONE));
+        }
+
+        if (productGeneration.get() == generation) {
+            if (productAllergies.size() + missing.size() > maxProducts) {
+                productAllergies.clear();
+            }
+            for (Long productId : missing) {
+                Entry entry = new Entry(found.get(productId), now);
+                productAllergies.compute(productId, (id, current) ->
+                        productGeneration.get() == generation ? entry : current);
+            }
+        }
+        log.debug("상품 알레르기 조회 - 요청: {}개, 캐시 미스: {}개", productIds.size(), missing.size());
+        return found;
+    }
+
+    private static BitSet toBits(Collection<Long> allergyIds) {
+        BitSet bits = new BitSet();
+        for (Long id : allergyIds) {
+            if (id != null) {
+                bits.set(Math.toIntExact(id));
+            }
+        }
+        return bits;
+    }
+
+    private static void invalidateNowAndAfterTransaction(Runnable invalidation) {
+        invalidation.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidation.run();
+                }
+            });
+        }
+    }
+
+    // 비트셋은 캐시에 넣은 뒤 변경하지 않음
+    private record Entry(BitSet bits, long loadedAt) {
+    }
+}
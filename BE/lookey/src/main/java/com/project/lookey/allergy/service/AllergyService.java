@@ -27,6 +27,7 @@ public class AllergyService {
     private final AllergyRepository allergyRepository;
     private final AllergyListRepository allergyListRepository;
     private final UserRepository userRepository;
+    private final AllergyCheckEngine allergyCheckEngine;
 
     public AllergyListResponse getMyAllergies(Integer userId) {
         var allergies = allergyRepository.findByUser_IdOrderByCreatedAtDesc(userId);
@@ -91,6 +92,7 @@ public class AllergyService {
         } catch (DataIntegrityViolationException e) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "이미 등록된 알레르기입니다.");
         }
+        allergyCheckEngine.invalidateUser(userId);
     }
 
     @Transactional
@@ -99,5 +101,6 @@ public class AllergyService {
         if (affected == 0) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "알레르기 항목을 찾을 수 없습니다.");
         }
+        allergyCheckEngine.invalidateUser(userId);
     }
 }
\ No newline at end of file
@@ -1,16 +1,54 @@
 package com.project.lookey.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.ExchangeStrategies;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
 
 @Configuration
 public class WebClientConfig {
+
+    // 동시 외부 호출 수 상한 (기본 커넥션 풀은 코어 수 x2 수준이라 비동기 호출에서도 동시 매대 스캔 수를 제한함)
+    @Value("${webclient.pool.max-connections:500}")
+    private int maxConnections;
+
+    // 커넥션을 기다릴 수 있는 요청 수 (초과 시 즉시 실패)
+    @Value("${webclient.pool.pending-acquire-max:1000}")
+    private int pendingAcquireMaxCount;
+
+    // 커넥션 대기 + 연결 + 응답 대기 합이 비동기 요청 타임아웃(WebConfig, 기본 40초) 안에 들어가도록 설정
+    @Value("${webclient.pool.pending-acquire-timeout-ms:5000}")
+    private long pendingAcquireTimeoutMillis;
+
+    @Value("${webclient.connect-timeout-ms:3000}")
+    private int connectTimeoutMillis;
+
+    @Value("${webclient.response-timeout-ms:25000}")
+    private long responseTimeoutMillis;
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider webClientConnectionProvider() {
+        return ConnectionProvider.builder("webclient")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeoutMillis))
+                .build();
+    }
+
     @Bean
-    public WebClient webClient() {
+    public WebClient webClient(ConnectionProvider webClientConnectionProvider) {
         return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(webClientConnectionProvider)
+                        .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMillis)
+                        .responseTimeout(Duration.ofMillis(responseTimeoutMillis))))
                 .exchangeStrategies(ExchangeStrategies.builder()
                         .codecs(c -> c.defaultCodecs().maxInMemorySize(2 * 1024 * 1024))
                         .build())
@@ -1,12 +1,26 @@
 package com.project.lookey.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.ViewControllerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.time.Duration;
+
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    // Mono 응답(매대 스캔/위치 안내) 대기 상한 - 컨테이너 기본값(약 30초)에 맡기지 않고 명시
+    // WebClient 커넥션 대기 + 응답 대기(WebClientConfig)가 이 안에 끝나야 503 대신 AI 서버 오류로 응답함
+    @Value("${spring.mvc.async.request-timeout:40s}")
+    private Duration asyncRequestTimeout;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(asyncRequestTimeout.toMillis());
+    }
+
     @Override
     public void addViewControllers(ViewControllerRegistry registry) {
         // Swagger UI가 기본적으로 우리 API를 로드하도록 리다이렉트
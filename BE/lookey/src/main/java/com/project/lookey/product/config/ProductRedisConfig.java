@@ -2,13 +2,16 @@ package com.project.lookey.product.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.project.lookey.product.dto.ShelfData;
+import com.project.lookey.product.service.ShelfDataCodec;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 @Configuration
@@ -20,9 +23,13 @@ public class ProductRedisConfig {
     @Value("${spring.data.redis.port}")
     private int redisPort;
 
-    // Product 전용 RedisConnectionFactory
+    // 이 크기(바이트) 이상인 큰 매대 데이터만 deflate 압축 (압축하면 크기는 절반 정도, 읽기 시간은 두 배 정도, 0이면 압축하지 않음)
+    @Value("${shelf.data.codec.deflate-threshold:16384}")
+    private int shelfDataDeflateThreshold;
+
+    // Product 전용 RedisConnectionFactory (Lettuce - 동기/리액티브 템플릿이 함께 사용)
     @Bean(name = "productRedisConnectionFactory")
-    public RedisConnectionFactory productRedisConnectionFactory() {
+    public LettuceConnectionFactory productRedisConnectionFactory() {
         return new LettuceConnectionFactory(redisHost, redisPort);
     }
 
@@ -36,15 +43,42 @@ public class ProductRedisConfig {
         template.setKeySerializer(new StringRedisSerializer());
         template.setHashKeySerializer(new StringRedisSerializer());
 
-        // LocalDateTime 지원을 위한 ObjectMapper 설정
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new JavaTimeModule());
-
         // Value는 JSON으로 직렬화 (ShelfData 객체 저장용)
-        GenericJackson2JsonRedisSerializer jsonSerializer = new GenericJackson2JsonRedisSerializer(objectMapper);
+        GenericJackson2JsonRedisSerializer jsonSerializer = jsonSerializer();
         template.setValueSerializer(jsonSerializer);
         template.setHashValueSerializer(jsonSerializer);
 
         return template;
     }
+
+    // Product 전용 ReactiveRedisTemplate (매대 데이터 - 요청 스레드를 점유하지 않도록 논블로킹 조회/저장)
+    // 같은 JSON 직렬화를 사용하므로 동기 템플릿으로 저장한 값과 호환
+    @Bean(name = "productReactiveRedisTemplate")
+    public ReactiveRedisTemplate<String, Object> productReactiveRedisTemplate() {
+        RedisSerializationContext<String, Object> context = RedisSerializationContext
+                .<String, Object>newSerializationContext(new StringRedisSerializer())
+                .value(jsonSerializer())
+                .hashKey(new StringRedisSerializer())
+                .hashValue(jsonSerializer())
+                .build();
+        return new ReactiveRedisTemplate<>(productRedisConnectionFactory(), context);
+    }
+
+    // 매대 데이터 전용 ReactiveRedisTemplate (이진 코덱 - JSON보다 작고 읽을 때 변환이 한 번뿐)
+    @Bean(name = "shelfDataRedisTemplate")
+    public ReactiveRedisTemplate<String, ShelfData> shelfDataRedisTemplate() {
+        ShelfDataCodec codec = new ShelfDataCodec(shelfDataDeflateThreshold);
+        RedisSerializationContext<String, ShelfData> context = RedisSerializationContext
+                .<String, ShelfData>newSerializationContext(new StringRedisSerializer())
+                .value(codec)
+                .build();
+        return new ReactiveRedisTemplate<>(productRedisConnectionFactory(), context);
+    }
+
+    private GenericJackson2JsonRedisSerializer jsonSerializer() {
+        // LocalDateTime 지원을 위한 ObjectMapper 설정
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        return new GenericJackson2JsonRedisSerializer(objectMapper);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.project.lookey.product.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 매대 스캔 후 상품 일괄 조회(ShelfProductResolver) 전용 실행기 설정
+ * 응답 뒤에 도는 조회가 DB 커넥션 풀을 점유해 요청 경로의 JPA 조회가 밀리지 않도록 동시 실행 수를 작게 제한
+ * 대기열이 가득 차면 조회를 건너뜀 (위치 안내 시 DB에서 조회)
+ */
+@Configuration
+public class ShelfResolveExecutorConfig {
+
+    @Value("${shelf.resolve.executor.size:2}")
+    private int size;
+
+    @Value("${shelf.resolve.executor.queue-capacity:32}")
+    private int queueCapacity;
+
+    @Bean(name = "shelfResolveExecutor", destroyMethod = "shutdownNow")
+    public ThreadPoolExecutor shelfResolveExecutor(MeterRegistry meterRegistry) {
+        AtomicInteger sequence = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                size,
+                size,
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "shelf-resolve-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        // executor.active, executor.queued 등 (name=shelf-resolve)
+        new ExecutorServiceMetrics(executor, "shelf-resolve", Tags.empty()).bindTo(meterRegistry);
+        return executor;
+    }
+
+    @Bean(name = "shelfResolveScheduler", destroyMethod = "dispose")
+    public Scheduler shelfResolveScheduler(@Qualifier("shelfResolveExecutor") ThreadPoolExecutor shelfResolveExecutor) {
+        return Schedulers.fromExecutorService(shelfResolveExecutor, "shelf-resolve");
+    }
+}
@@ -2,6 +2,9 @@ package com.project.lookey.product.controller;
 
 import com.project.lookey.cart.service.CartService;
 import com.project.lookey.common.dto.ApiResponse;
+import com.project.lookey.common.image.FrameRetakeException;
+import com.project.lookey.common.image.FrameQualityGate;
+import com.project.lookey.common.memory.ImageMemoryBudget;
 import com.project.lookey.product.dto.MatchCartResponse;
 import com.project.lookey.product.dto.ProductDirectionResponse;
 import com.project.lookey.product.service.AiSearchService;
@@ -15,8 +18,10 @@ import com.project.lookey.OAuth.Service.oauth.CustomOAuth2User;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
-import java.util.List;
+import java.io.IOException;
 import java.util.Map;
 
 @RestController
@@ -26,6 +31,7 @@ public class ProductController {
     private final PyonyCrawler crawler;
     private final CartService cartService;
     private final AiSearchService aiSearchService;
+    private final ImageMemoryBudget memoryBudget;
 
     @PostMapping("/seven/drinks")
     public ResponseEntity<Void> run(@RequestParam(defaultValue="1") int start,
@@ -34,54 +40,63 @@ public class ProductController {
         return ResponseEntity.ok().build();
     }
 
+    /**
+     * 매대 사진에서 장바구니 상품 찾기
+     * AI 서버를 기다리는 동안 요청 스레드를 반환 (비동기 응답) - 동시 매대 스캔 수가 Tomcat 스레드 수에 묶이지 않음
+     */
     @PostMapping(value = "/search", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<?> searchShelf(
+    public Mono<ResponseEntity<Map<String, Object>>> searchShelf(
             @AuthenticationPrincipal CustomOAuth2User principal,
             @RequestPart("file") MultipartFile shelfImage
     ) {
         Integer userId = principal.getUserId();
-        try {
-            // 이미지 검증
-            if (shelfImage == null || shelfImage.isEmpty()) {
-                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
-                    "이미지 파일이 필요합니다.");
-            }
 
-            // 이미지 파일 형식 검증
-            String contentType = shelfImage.getContentType();
-            if (contentType == null || !contentType.equals("image/jpeg")) {
-                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
-                    "JPEG 파일만 허용됩니다. 파일형식: " + contentType);
-            }
-
-            // 사용자 장바구니 상품명 목록 조회
-            List<String> cartProductNames = cartService.getCartProductNames(userId);
-
-            // 단일 이미지를 배열로 변환하여 AI 서비스 호출
-            MultipartFile[] imageArray = {shelfImage};
-            List<String> matchedNames = aiSearchService.findMatchedProducts(imageArray, cartProductNames, userId);
-
-            // 응답 생성
-            MatchCartResponse.Result result = new MatchCartResponse.Result(matchedNames.size(), matchedNames);
-            return ResponseEntity.ok(Map.of(
-                    "status", 200,
-                    "message", "매대에서 장바구니 상품 확인 완료",
-                    "result", result
-            ));
+        // 이미지 검증
+        if (shelfImage == null || shelfImage.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "이미지 파일이 필요합니다.");
+        }
 
-        } catch (ResponseStatusException e) {
-            // 이미 적절한 에러 메시지가 있는 경우 그대로 던짐
-            throw e;
-        } catch (Exception e) {
-            // 예상치 못한 에러의 경우 상세 정보 포함
-            String detailedError = "서버 오류: " + e.getClass().getSimpleName() + " - " + e.getMessage() +
-                                  " (userId: " + userId + ", 이미지: " + (shelfImage != null ? "1" : "null") + "장)";
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, detailedError);
+        // 이미지 파일 형식 검증
+        String contentType = shelfImage.getContentType();
+        if (contentType == null || !contentType.equals("image/jpeg")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "JPEG 파일만 허용됩니다. 파일형식: " + contentType);
         }
+
+        // 단일 이미지를 배열로 변환하여 AI 서비스 호출 (서버에서는 품질 검사 썸네일만 디코딩하므로 그 크기로 메모리 예약)
+        MultipartFile[] imageArray = {shelfImage};
+        return Mono.using(
+                        () -> memoryBudget.reserve(shelfImage, FrameQualityGate.ANALYSIS_SIZE),
+                        // 사용자 장바구니 상품명 목록 조회 (JPA - boundedElastic)
+                        reservation -> Mono.fromCallable(() -> cartService.getCartProductNames(userId))
+                                .flatMap(cartProductNames ->
+                                        aiSearchService.findMatchedProducts(imageArray, cartProductNames, userId)),
+                        ImageMemoryBudget.Reservation::close)
+                // 메모리 예약 대기(최대 max-wait-ms)와 DB 조회가 요청 스레드를 막지 않도록
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(matchedNames -> {
+                    // 응답 생성
+                    MatchCartResponse.Result result = new MatchCartResponse.Result(matchedNames.size(), matchedNames);
+                    return ResponseEntity.ok(Map.<String, Object>of(
+                            "status", 200,
+                            "message", "매대에서 장바구니 상품 확인 완료",
+                            "result", result
+                    ));
+                })
+                .onErrorMap(e -> !(e instanceof ResponseStatusException), e -> {
+                    if (e instanceof IllegalArgumentException) {
+                        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "이미지를 읽을 수 없습니다. (" + e.getMessage() + ")");
+                    }
+                    // 예상치 못한 에러의 경우 상세 정보 포함
+                    String detailedError = "서버 오류: " + e.getClass().getSimpleName() + " - " + e.getMessage() +
+                                          " (userId: " + userId + ", 이미지: 1장)";
+                    return new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, detailedError);
+                });
     }
 
     @PostMapping(value = "/search/location", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<ApiResponse<ProductDirectionResponse.Result>> findProductDirection(
+    public Mono<ResponseEntity<ApiResponse<ProductDirectionResponse.Result>>> findProductDirection(
             @AuthenticationPrincipal CustomOAuth2User principal,
             @RequestPart("current_frame") MultipartFile currentFrame,
             @RequestPart("product_name") String productName
@@ -102,19 +117,38 @@ public class ProductController {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "상품명이 필요합니다.");
         }
 
-        // AI 서비스로 상품 위치 조회
-        ProductDirectionResponse.Result result = aiSearchService.findProductDirection(currentFrame, productName.trim(), userId);
-
-        // 케이스별 메시지 설정
-        String message;
-        if ("DIRECTION".equals(result.caseType())) {
-            message = "상품 방향 안내 성공";
-        } else if ("SINGLE_RECOGNIZED".equals(result.caseType())) {
-            message = "단일 상품 인식 완료";
-        } else {
-            message = "상품 검색 완료";
-        }
+        // AI 서비스로 상품 위치 조회 (서버에서는 품질 검사 썸네일만 디코딩하므로 그 크기로 메모리 예약)
+        return Mono.using(
+                        () -> memoryBudget.reserve(currentFrame, FrameQualityGate.ANALYSIS_SIZE),
+                        reservation -> aiSearchService.findProductDirection(currentFrame, productName.trim(), userId),
+                        ImageMemoryBudget.Reservation::close)
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorMap(e -> !(e instanceof ResponseStatusException), e -> e instanceof IOException
+                        ? new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "이미지 읽기 실패: " + e.getMessage())
+                        : e instanceof IllegalArgumentException
+                        ? new ResponseStatusException(HttpStatus.BAD_REQUEST, "이미지를 읽을 수 없습니다. (" + e.getMessage() + ")")
+                        : e)
+                .map(result -> {
+                    // 케이스별 메시지 설정
+                    String message;
+                    if ("DIRECTION".equals(result.caseType())) {
+                        message = "상품 방향 안내 성공";
+                    } else if ("SINGLE_RECOGNIZED".equals(result.caseType())) {
+                        message = "단일 상품 인식 완료";
+                    } else {
+                        message = "상품 검색 완료";
+                    }
+
+                    return ResponseEntity.ok(new ApiResponse<>(200, message, result));
+                });
+    }
 
-        return ResponseEntity.ok(new ApiResponse<>(200, message, result));
+    /**
+     * 흔들리거나 노출이 나쁜 사진 - 재촬영 안내 (422)
+     */
+    @ExceptionHandler(FrameRetakeException.class)
+    public ResponseEntity<ApiResponse<Map<String, Object>>> handleRetake(FrameRetakeException e) {
+        return ResponseEntity.status(e.getStatusCode())
+                .body(new ApiResponse<>(e.getStatusCode().value(), e.getReason(), e.getQuality().toRetakeResponse()));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,49 @@
+package com.project.lookey.product.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * 매대 스캔 시 상품명으로 미리 조회해 둔 상품 정보 (id가 null이면 DB에 없는 상품)
+ * @param allergyIds 상품에 포함된 알레르기(AllergyList) ID
+ * @param allergy 스캔한 사용자의 알레르기 해당 여부
+ */
+public record ResolvedProduct(
+        @JsonProperty("id")
+        Long id,
+
+        @JsonProperty("name")
+        String name,
+
+        @JsonProperty("price")
+        Integer price,
+
+        @JsonProperty("event")
+        String event,
+
+        @JsonProperty("allergy_ids")
+        List<Long> allergyIds,
+
+        @JsonProperty("allergy")
+        boolean allergy
+) {
+    public static ResolvedProduct notFound(String name) {
+        return new ResolvedProduct(null, name, null, null, List.of(), false);
+    }
+
+    public boolean found() {
+        return id != null;
+    }
+
+    /**
+     * 위치 안내 응답 정보 (DB에 없는 상품은 요청한 이름만, 알레르기 없음)
+     * @param allergy 현재 사용자 알레르기 기준 검사 결과
+     */
+    public ProductDirectionResponse.Info toInfo(String requestedName, boolean allergy) {
+        if (!found()) {
+            return new ProductDirectionResponse.Info(requestedName, null, null, false);
+        }
+        return new ProductDirectionResponse.Info(name, price, event, allergy);
+    }
+}
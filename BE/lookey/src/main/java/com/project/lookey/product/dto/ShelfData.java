@@ -1,25 +1,137 @@
 package com.project.lookey.product.dto;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.project.lookey.product.service.ShelfIndex;
+
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * 매대 스캔 결과 (Redis 저장)
+ * 값 비교(equals/hashCode)는 저장되는 네 값으로만 하고, 색인은 저장하지 않고 처음 조회할 때 items로 구성
+ */
+public final class ShelfData {
+
+    @JsonProperty("items")
+    private final List<ShelfItem> items;
+
+    @JsonProperty("created_at")
+    private final String createdAt;
 
-public record ShelfData(
-        @JsonProperty("items")
-        List<ShelfItem> items,
+    @JsonProperty("user_id")
+    private final Integer userId;
+
+    // 스캔 시 미리 조회한 상품 정보 (상품명 -> 상품, 없으면 위치 안내 시 DB 조회)
+    @JsonProperty("products")
+    private final Map<String, ResolvedProduct> products;
+
+    // 상품명 색인 (같은 매대에서 만든 인스턴스끼리 공유)
+    private transient volatile ShelfIndex index;
+
+    @JsonCreator
+    public ShelfData(@JsonProperty("items") List<ShelfItem> items,
+                     @JsonProperty("created_at") String createdAt,
+                     @JsonProperty("user_id") Integer userId,
+                     @JsonProperty("products") Map<String, ResolvedProduct> products) {
+        this.items = items;
+        this.createdAt = createdAt;
+        this.userId = userId;
+        this.products = products;
+    }
 
-        @JsonProperty("created_at")
-        String createdAt,
+    public ShelfData(List<ShelfItem> items, String createdAt, Integer userId) {
+        this(items, createdAt, userId, null);
+    }
 
-        @JsonProperty("user_id")
-        Integer userId
-) {
     public static ShelfData from(ShelfDetectionResponse response, Integer userId) {
+        return from(response, userId, null);
+    }
+
+    public static ShelfData from(ShelfDetectionResponse response, Integer userId, Map<String, ResolvedProduct> products) {
         return new ShelfData(
                 response.items(),
                 LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME),
-                userId
+                userId,
+                products
         );
     }
-}
\ No newline at end of file
+
+    public List<ShelfItem> items() {
+        return items;
+    }
+
+    public String createdAt() {
+        return createdAt;
+    }
+
+    public Integer userId() {
+        return userId;
+    }
+
+    public Map<String, ResolvedProduct> products() {
+        return products;
+    }
+
+    /**
+     * 상품명 색인 (첫 호출 시 구성)
+     */
+    public ShelfIndex index() {
+        ShelfIndex built = index;
+        if (built == null) {
+            synchronized (this) {
+                built = index;
+                if (built == null) {
+                    built = ShelfIndex.of(items);
+                    index = built;
+                }
+            }
+        }
+        return built;
+    }
+
+    /**
+     * 같은 매대에 조회한 상품 정보를 더한 매대 데이터 (색인 재사용)
+     */
+    public ShelfData withProducts(Map<String, ResolvedProduct> products) {
+        ShelfData withProducts = new ShelfData(items, createdAt, userId, products);
+        withProducts.index = index();
+        return withProducts;
+    }
+
+    /**
+     * 스캔 시 조회해 둔 상품 정보 (스캔 때 조회하지 않은 이름이면 빈 값)
+     */
+    public Optional<ResolvedProduct> resolvedProduct(String name) {
+        return products == null || name == null ? Optional.empty() : Optional.ofNullable(products.get(name));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ShelfData other)) {
+            return false;
+        }
+        return Objects.equals(items, other.items)
+                && Objects.equals(createdAt, other.createdAt)
+                && Objects.equals(userId, other.userId)
+                && Objects.equals(products, other.products);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(items, createdAt, userId, products);
+    }
+
+    @Override
+    public String toString() {
+        return "ShelfData[items=" + items + ", createdAt=" + createdAt + ", userId=" + userId
+                + ", products=" + products + "]";
+    }
+}
@@ -5,8 +5,11 @@ import com.project.lookey.allergy.entity.AllergyList;
 import com.project.lookey.product.entity.Product;
 import com.project.lookey.product.entity.ProductAllergy;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -17,5 +20,17 @@ public interface ProductAllergyRepository extends JpaRepository<ProductAllergy,
 
     List<ProductAllergy> findByProduct(Product product);
 
+    interface AllergyIdView {
+        Long getProductId();
+        Long getAllergyId();
+    }
+
+    @Query("""
+        select pa.product.id as productId, pa.allergy.id as allergyId
+        from ProductAllergy pa
+        where pa.product.id in :productIds
+    """)
+    List<AllergyIdView> findAllergyIdsByProductIds(@Param("productIds") Collection<Long> productIds);
+
 }
 
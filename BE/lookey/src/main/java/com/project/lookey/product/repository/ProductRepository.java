@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,6 +14,8 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
 
     Optional<Product> findByName(String name);
 
+    List<Product> findByNameIn(Collection<String> names);
+
     interface NameView {
         Long getId();
         String getName();
@@ -25,4 +28,11 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
         order by p.name asc
     """)
     List<NameView> findNamesByKeyword(@Param("q") String q);
+
+    @Query("""
+        select p.id as id, p.name as name
+        from Product p
+        order by p.name asc
+    """)
+    List<NameView> findAllNames();
 }
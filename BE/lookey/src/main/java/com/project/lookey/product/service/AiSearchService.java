@@ -1,17 +1,19 @@
 package com.project.lookey.product.service;
 
+import com.project.lookey.common.image.FrameQualityGate;
 import com.project.lookey.product.dto.CurrentFrameResponse;
 import com.project.lookey.product.dto.ProductDirectionResponse;
+import com.project.lookey.product.dto.ResolvedProduct;
 import com.project.lookey.product.dto.ShelfData;
 import com.project.lookey.product.dto.ShelfDetectionResponse;
 import com.project.lookey.product.dto.ShelfItem;
 import com.project.lookey.product.entity.Product;
-import com.project.lookey.product.entity.ProductAllergy;
 import com.project.lookey.product.repository.ProductRepository;
-import com.project.lookey.product.repository.ProductAllergyRepository;
-import com.project.lookey.allergy.repository.AllergyRepository;
+import com.project.lookey.allergy.service.AllergyCheckEngine;
+import io.netty.handler.timeout.ReadTimeoutException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.http.HttpStatus;
@@ -21,13 +23,18 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeoutException;
 
 @Service
 @RequiredArgsConstructor
@@ -36,147 +43,199 @@ public class AiSearchService {
 
     private final WebClient webClient;
     private final ProductRepository productRepository;
-    private final ProductAllergyRepository productAllergyRepository;
-    private final AllergyRepository allergyRepository;
+    private final AllergyCheckEngine allergyCheckEngine;
     private final ShelfDataService shelfDataService;
+    private final ShelfProductResolver productResolver;
+    private final ProductNameCatalog nameCatalog;
+    private final FrameQualityGate qualityGate;
+
+    @Qualifier("shelfResolveScheduler")
+    private final Scheduler shelfResolveScheduler;
 
     @Value("${ai.search.url}")
     private String aiServerUrl;
 
-    public List<String> findMatchedProducts(MultipartFile[] images, List<String> cartProductNames, Integer userId) {
-        try {
-            // 1단계: AI 서버에서 매대 전체 상품 감지
-            ShelfDetectionResponse shelfResponse = detectShelfProducts(images);
-
-            // 2단계: Redis에 매대 데이터 저장
-            shelfDataService.saveShelfData(userId, shelfResponse);
+    /**
+     * 매대 사진에서 장바구니 상품 찾기
+     * AI 서버 응답과 Redis 저장은 논블로킹으로 기다리고, 이미지 읽기/품질 검사는 boundedElastic에서 실행
+     * 장바구니/매칭 상품 일괄 조회(JPA)는 매대 데이터를 저장하고 응답한 뒤 전용 실행기에서 수행해 저장된 매대 데이터에 추가
+     */
+    public Mono<List<String>> findMatchedProducts(MultipartFile[] images, List<String> cartProductNames, Integer userId) {
+        // 흔들리거나 노출이 나쁜 사진은 AI 서버 호출 전에 재촬영 안내
+        return Mono.fromCallable(() -> readUsableFrames(images, "shelf"))
+                .subscribeOn(Schedulers.boundedElastic())
+                // 1단계: AI 서버에서 매대 전체 상품 감지
+                .flatMap(this::detectShelfProducts)
+                .flatMap(shelfResponse -> {
+                    // 2단계: 장바구니 상품과 매칭
+                    List<String> matchedNames = CartMatcher.compile(cartProductNames).matchedNames(shelfResponse.items());
+
+                    log.info("매대 상품 매칭 완료 - userId: {}, 전체 상품: {}개, 매칭된 상품: {}개",
+                            userId, shelfResponse.items().size(), matchedNames.size());
+
+                    // 3단계: 매대 데이터 저장 후 응답, 상품 정보/알레르기 일괄 조회는 응답 경로 밖에서 수행
+                    return shelfDataService.saveShelfData(userId, shelfResponse)
+                            .doOnNext(saved -> resolveShelfProductsLater(saved, cartProductNames, matchedNames, userId))
+                            .thenReturn(matchedNames);
+                })
+                .onErrorMap(e -> !(e instanceof ResponseStatusException), e -> {
+                    log.error("매대 상품 검색 중 오류 발생 - userId: {}", userId, e);
+                    return new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "매대 상품 검색 중 오류가 발생했습니다: " + e.getMessage());
+                });
+    }
 
-            // 3단계: 장바구니 상품과 매칭
-            List<String> matchedNames = matchProductsWithCart(shelfResponse.items(), cartProductNames);
+    /**
+     * 위치 안내에서 주로 요청되는 이름(장바구니, 매칭된 매대 상품)을 미리 조회해 저장된 매대 데이터에 추가
+     * 나머지 매대 상품은 위치 안내를 요청할 때 조회
+     * 스캔 응답을 기다리게 하지 않도록 구독만 하고 반환 (조회가 끝나기 전이나 실패/대기열 초과 시 위치 안내는 DB에서 조회)
+     * 전용 실행기에서 실행해 동시에 잡는 DB 커넥션 수를 제한
+     */
+    private void resolveShelfProductsLater(ShelfData saved, List<String> cartProductNames,
+                                           List<String> matchedNames, Integer userId) {
+        List<String> names = new ArrayList<>();
+        if (cartProductNames != null) {
+            names.addAll(cartProductNames);
+        }
+        names.addAll(matchedNames);
+        if (names.isEmpty()) {
+            return;
+        }
 
-            log.info("매대 상품 매칭 완료 - userId: {}, 전체 상품: {}개, 매칭된 상품: {}개",
-                    userId, shelfResponse.items().size(), matchedNames.size());
+        Mono.fromCallable(() -> productResolver.resolve(names, userId))
+                .subscribeOn(shelfResolveScheduler)
+                .filter(products -> !products.isEmpty())
+                .flatMap(products -> shelfDataService.saveProducts(userId, saved, products))
+                .subscribe(null, e -> log.warn("매대 상품 일괄 조회 실패 - userId: {}, 위치 안내 시 DB 조회로 대체", userId, e));
+    }
 
-            return matchedNames;
+    /**
+     * 이미지 바이트 읽기 + 프레임 품질 검사 (불량이면 FrameRetakeException)
+     */
+    private List<NamedImage> readUsableFrames(MultipartFile[] images, String source) {
+        List<NamedImage> frames = new ArrayList<>(images.length);
+        for (MultipartFile image : images) {
+            frames.add(readUsableFrame(image, source));
+        }
+        return frames;
+    }
 
-        } catch (Exception e) {
-            log.error("매대 상품 검색 중 오류 발생 - userId: {}", userId, e);
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "매대 상품 검색 중 오류가 발생했습니다: " + e.getMessage());
+    private NamedImage readUsableFrame(MultipartFile image, String source) {
+        try {
+            byte[] bytes = image.getBytes();
+            qualityGate.require(bytes, source);
+            return new NamedImage(image.getOriginalFilename(), bytes);
+        } catch (IllegalArgumentException | IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "이미지 파일을 읽을 수 없습니다: " + e.getMessage());
         }
     }
 
     /**
      * AI 서버에서 매대 전체 상품 감지
      */
-    private ShelfDetectionResponse detectShelfProducts(MultipartFile[] images) {
-        try {
-            MultipartBodyBuilder builder = new MultipartBodyBuilder();
-
-            // 이미지 1장 추가 (API 문서에 따라 1장으로 변경)
-            for (MultipartFile image : images) {
-                ByteArrayResource resource = new ByteArrayResource(image.getBytes()) {
-                    @Override
-                    public String getFilename() {
-                        return image.getOriginalFilename();
-                    }
-                };
-                builder.part("shelf_images", resource);
-            }
-
-            String requestUrl = aiServerUrl + "/api/v1/product/search/ai";
-            ShelfDetectionResponse response = webClient
-                    .post()
-                    .uri(requestUrl)
-                    .contentType(MediaType.MULTIPART_FORM_DATA)
-                    .body(BodyInserters.fromMultipartData(builder.build()))
-                    .retrieve()
-                    .bodyToMono(ShelfDetectionResponse.class)
-                    .block();
-
-            if (response == null || response.items() == null) {
-                throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, "AI 서버에서 올바른 응답을 받지 못했습니다.");
-            }
+    private Mono<ShelfDetectionResponse> detectShelfProducts(List<NamedImage> images) {
+        MultipartBodyBuilder builder = new MultipartBodyBuilder();
 
+        // 이미지 1장 추가 (API 문서에 따라 1장으로 변경)
+        for (NamedImage image : images) {
+            builder.part("shelf_images", image.toResource());
+        }
 
-            return response;
+        String requestUrl = aiServerUrl + "/api/v1/product/search/ai";
+        return webClient
+                .post()
+                .uri(requestUrl)
+                .contentType(MediaType.MULTIPART_FORM_DATA)
+                .body(BodyInserters.fromMultipartData(builder.build()))
+                .retrieve()
+                .bodyToMono(ShelfDetectionResponse.class)
+                .filter(response -> response.items() != null)
+                .switchIfEmpty(Mono.error(() ->
+                        new ResponseStatusException(HttpStatus.BAD_GATEWAY, "AI 서버에서 올바른 응답을 받지 못했습니다.")))
+                .onErrorMap(AiSearchService::toAiServerError);
+    }
 
-        } catch (WebClientResponseException e) {
-            String errorDetails = "AI 서버 오류 (상태코드: " + e.getStatusCode() + ")";
-            if (e.getStatusCode().is5xxServerError()) {
-                throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, errorDetails + " - AI 서버에 일시적인 문제가 발생했습니다.");
+    /**
+     * AI 서버 호출 오류를 응답 상태로 변환
+     */
+    private static Throwable toAiServerError(Throwable e) {
+        if (e instanceof ResponseStatusException) {
+            return e;
+        }
+        if (e instanceof WebClientRequestException
+                && (e.getCause() instanceof ReadTimeoutException || e.getCause() instanceof TimeoutException)) {
+            // 응답 대기(webclient.response-timeout-ms) 또는 커넥션 대기 초과 - 비동기 요청 타임아웃 전에 응답
+            return new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "AI 서버 응답 시간이 초과되었습니다.");
+        }
+        if (e instanceof WebClientResponseException responseException) {
+            String errorDetails = "AI 서버 오류 (상태코드: " + responseException.getStatusCode() + ")";
+            if (responseException.getStatusCode().is5xxServerError()) {
+                return new ResponseStatusException(HttpStatus.BAD_GATEWAY, errorDetails + " - AI 서버에 일시적인 문제가 발생했습니다.");
             } else {
-                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, errorDetails + " - AI 서버 요청이 올바르지 않습니다.");
+                return new ResponseStatusException(HttpStatus.BAD_REQUEST, errorDetails + " - AI 서버 요청이 올바르지 않습니다.");
             }
-        } catch (IOException e) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "이미지 파일을 읽을 수 없습니다: " + e.getMessage());
-        } catch (Exception e) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "AI 서비스 처리 중 오류가 발생했습니다: " + e.getMessage());
         }
+        return new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "AI 서비스 처리 중 오류가 발생했습니다: " + e.getMessage());
     }
 
     /**
-     * 매대 상품과 장바구니 상품 매칭
+     * 현재 화면 기준 상품 방향 안내
+     * 매대 데이터 조회(Redis)와 현재 화면 감지(AI 서버)는 동시에 진행하고,
+     * 위치 계산은 boundedElastic에서 실행 (스캔 때 조회해 두지 않은 상품만 DB 조회)
      */
-    private List<String> matchProductsWithCart(List<ShelfItem> shelfItems, List<String> cartProductNames) {
-        return shelfItems.stream()
-                .map(ShelfItem::name)
-                .filter(shelfProductName ->
-                    cartProductNames.stream()
-                            .anyMatch(cartProductName ->
-                                    isProductNameMatch(shelfProductName, cartProductName)
-                            )
-                )
-                .distinct()
-                .collect(Collectors.toList());
+    public Mono<ProductDirectionResponse.Result> findProductDirection(MultipartFile currentFrame, String productName, Integer userId) {
+        Mono<CurrentFrameResponse> currentFrameResponse = Mono.fromCallable(() -> readUsableFrame(currentFrame, "location"))
+                .subscribeOn(Schedulers.boundedElastic())
+                // 2단계: AI 서버에서 현재 화면의 상품들 감지
+                .flatMap(this::callLocationAI);
+
+        // 1단계: Redis에서 저장된 매대 데이터 조회
+        Mono<Optional<ShelfData>> shelfData = shelfDataService.getShelfData(userId)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty());
+
+        return Mono.zip(shelfData, currentFrameResponse)
+                .publishOn(Schedulers.boundedElastic())
+                // 3단계: 매대 데이터와 현재 화면 비교하여 위치 계산
+                .map(tuple -> {
+                    ProductDirectionResponse.Result result =
+                            calculateLocationResult(tuple.getT1().orElse(null), tuple.getT2(), productName, userId);
+
+                    log.info("상품 위치 안내 완료 - userId: {}, 상품: {}, 결과: {}", userId, productName, result.caseType());
+
+                    return result;
+                })
+                // 이미 적절한 에러 메시지가 있는 경우 그대로 전달
+                .onErrorMap(e -> !(e instanceof ResponseStatusException), e -> {
+                    log.error("상품 위치 안내 중 예상치 못한 오류 - userId: {}, 상품: {}", userId, productName, e);
+                    return new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "상품 위치 안내 중 오류가 발생했습니다: " + e.getMessage());
+                });
     }
 
     /**
-     * 상품명 매칭 로직 (정확한 매칭 + 부분 매칭)
+     * DB에서 상품 정보와 사용자 알레르기 여부 조회 (스캔 시 조회하지 않은 이름)
      */
-    private boolean isProductNameMatch(String shelfProductName, String cartProductName) {
-        if (shelfProductName == null || cartProductName == null) {
-            return false;
-        }
-
-        // 정확한 매칭
-        if (shelfProductName.equals(cartProductName)) {
-            return true;
-        }
-
-        // 대소문자 무시 매칭
-        if (shelfProductName.equalsIgnoreCase(cartProductName)) {
-            return true;
-        }
-
-        // 부분 매칭 (공백 제거 후)
-        String normalizedShelf = shelfProductName.replaceAll("\\s+", "");
-        String normalizedCart = cartProductName.replaceAll("\\s+", "");
-
-        return normalizedShelf.contains(normalizedCart) || normalizedCart.contains(normalizedShelf);
-    }
-
-    public ProductDirectionResponse.Result findProductDirection(MultipartFile currentFrame, String productName, Integer userId) {
-        try {
-            // 1단계: Redis에서 저장된 매대 데이터 조회
-            ShelfData shelfData = shelfDataService.getShelfData(userId);
-
-            // 2단계: AI 서버에서 현재 화면의 상품들 감지
-            CurrentFrameResponse currentFrameResponse = callLocationAI(currentFrame);
-
-            // 3단계: 매대 데이터와 현재 화면 비교하여 위치 계산
-            ProductDirectionResponse.Result result = calculateLocationResult(shelfData, currentFrameResponse, productName, userId);
-
-            log.info("상품 위치 안내 완료 - userId: {}, 상품: {}, 결과: {}", userId, productName, result.caseType());
-
-            return result;
-
-        } catch (ResponseStatusException e) {
-            // 이미 적절한 에러 메시지가 있는 경우 그대로 던짐
-            throw e;
-        } catch (Exception e) {
-            log.error("상품 위치 안내 중 예상치 못한 오류 - userId: {}, 상품: {}", userId, productName, e);
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "상품 위치 안내 중 오류가 발생했습니다: " + e.getMessage());
+    private ProductDirectionResponse.Info findProductInfo(String productName, Integer userId) {
+        Optional<Product> productOpt = findProductByName(productName);
+        if (productOpt.isPresent()) {
+            Product product = productOpt.get();
+
+            // 사용자 알레르기 체크
+            boolean hasAllergy = checkUserAllergy(product, userId);
+
+            return new ProductDirectionResponse.Info(
+                    product.getName(),
+                    product.getPrice(),
+                    product.getEvent(),
+                    hasAllergy
+            );
         }
+        // DB에서 찾지 못한 경우도 SINGLE_RECOGNIZED로 반환 (알레르기 정보 없음)
+        return new ProductDirectionResponse.Info(
+                productName,
+                null,
+                null,
+                false
+        );
     }
 
     private Optional<Product> findProductByName(String productName) {
@@ -189,15 +248,11 @@ public class AiSearchService {
             return exactMatch;
         }
 
-        // 정확한 매칭이 없으면 부분 매칭으로 조회
-        List<ProductRepository.NameView> products = productRepository.findNamesByKeyword(productName);
-        log.debug("부분 매칭 결과 - 개수: {}", products.size());
-
-        if (!products.isEmpty()) {
-            // 첫 번째 매칭 상품의 ID로 전체 정보 조회
-            ProductRepository.NameView nameView = products.get(0);
-            log.debug("부분 매칭된 상품 - ID: {}, 이름: {}", nameView.getId(), nameView.getName());
-            return productRepository.findById(nameView.getId());
+        // 정확한 매칭이 없으면 부분 매칭으로 조회 (메모리 상품명 목록의 이름순 첫 상품)
+        Optional<Long> keywordMatch = nameCatalog.firstContaining(productName);
+        if (keywordMatch.isPresent()) {
+            log.debug("부분 매칭된 상품 - ID: {}", keywordMatch.get());
+            return productRepository.findById(keywordMatch.get());
         }
 
         log.debug("상품을 찾을 수 없음 - 입력: '{}'", productName);
@@ -205,36 +260,18 @@ public class AiSearchService {
     }
 
     /**
-     * 상품에 대한 사용자의 알레르기 여부 체크
+     * 상품에 대한 사용자의 알레르기 여부 체크 (알레르기 검사 엔진 캐시 사용)
      * @param product 상품 엔티티
      * @param userId 사용자 ID
      * @return 알레르기가 있으면 true, 없으면 false
      */
     private boolean checkUserAllergy(Product product, Integer userId) {
         try {
-            // 1. 해당 상품이 포함하는 알레르기 목록 조회
-            List<ProductAllergy> productAllergies = productAllergyRepository.findByProduct(product);
-
-            if (productAllergies.isEmpty()) {
-                log.debug("상품에 알레르기 정보 없음 - 상품: {}", product.getName());
-                return false;
+            boolean hasAllergy = allergyCheckEngine.hasAllergy(userId, product.getId());
+            if (hasAllergy) {
+                log.info("사용자 알레르기 감지 - 상품: '{}', 사용자: {}", product.getName(), userId);
             }
-
-            // 2. 상품의 각 알레르기에 대해 사용자가 해당 알레르기를 가지고 있는지 확인
-            for (ProductAllergy productAllergy : productAllergies) {
-                Long allergyListId = productAllergy.getAllergy().getId();
-                boolean userHasAllergy = allergyRepository.existsByUser_IdAndAllergyList_Id(userId, allergyListId);
-
-                if (userHasAllergy) {
-                    log.info("사용자 알레르기 감지 - 상품: '{}', 알레르기: '{}', 사용자: {}",
-                            product.getName(), productAllergy.getAllergy().getName(), userId);
-                    return true;
-                }
-            }
-
-            log.debug("사용자 알레르기 없음 - 상품: '{}', 사용자: {}", product.getName(), userId);
-            return false;
-
+            return hasAllergy;
         } catch (Exception e) {
             log.error("알레르기 체크 중 오류 - 상품: '{}', 사용자: {}", product.getName(), userId, e);
             // 오류 발생 시 안전을 위해 false 반환 (알레르기 없음으로 처리)
@@ -243,52 +280,42 @@ public class AiSearchService {
     }
 
     /**
-     * AI 서버에서 현재 화면의 상품들 감지
+     * 스캔 시 조회해 둔 상품의 알레르기 성분으로 현재 사용자 알레르기 검사 (오류 시 스캔 시점 결과 사용)
      */
-    private CurrentFrameResponse callLocationAI(MultipartFile currentFrame) {
+    private boolean checkUserAllergy(ResolvedProduct product, Integer userId) {
+        if (!product.found()) {
+            return false;
+        }
         try {
-            MultipartBodyBuilder builder = new MultipartBodyBuilder();
-
-            // 현재 화면 이미지 추가
-            ByteArrayResource resource = new ByteArrayResource(currentFrame.getBytes()) {
-                @Override
-                public String getFilename() {
-                    return currentFrame.getOriginalFilename();
-                }
-            };
-            builder.part("current_frame", resource);
-
-            String requestUrl = aiServerUrl + "/api/v1/product/search/location/ai";
-            CurrentFrameResponse response = webClient
-                    .post()
-                    .uri(requestUrl)
-                    .contentType(MediaType.MULTIPART_FORM_DATA)
-                    .body(BodyInserters.fromMultipartData(builder.build()))
-                    .retrieve()
-                    .bodyToMono(CurrentFrameResponse.class)
-                    .block();
-
-            if (response == null) {
-                throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, "AI 서버에서 응답을 받지 못했습니다.");
-            }
-
-
-            return response;
-
-        } catch (WebClientResponseException e) {
-            String errorDetails = "AI 서버 오류 (상태코드: " + e.getStatusCode() + ")";
-            if (e.getStatusCode().is5xxServerError()) {
-                throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, errorDetails + " - AI 서버에 일시적인 문제가 발생했습니다.");
-            } else {
-                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, errorDetails + " - AI 서버 요청이 올바르지 않습니다.");
-            }
-        } catch (IOException e) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "이미지 파일을 읽을 수 없습니다: " + e.getMessage());
+            return allergyCheckEngine.hasAnyAllergy(userId, product.allergyIds());
         } catch (Exception e) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "AI 서비스 처리 중 오류가 발생했습니다: " + e.getMessage());
+            log.error("알레르기 체크 중 오류 - 상품: '{}', 사용자: {}, 스캔 시점 결과 사용", product.name(), userId, e);
+            return product.allergy();
         }
     }
 
+    /**
+     * AI 서버에서 현재 화면의 상품들 감지
+     */
+    private Mono<CurrentFrameResponse> callLocationAI(NamedImage currentFrame) {
+        MultipartBodyBuilder builder = new MultipartBodyBuilder();
+
+        // 현재 화면 이미지 추가
+        builder.part("current_frame", currentFrame.toResource());
+
+        String requestUrl = aiServerUrl + "/api/v1/product/search/location/ai";
+        return webClient
+                .post()
+                .uri(requestUrl)
+                .contentType(MediaType.MULTIPART_FORM_DATA)
+                .body(BodyInserters.fromMultipartData(builder.build()))
+                .retrieve()
+                .bodyToMono(CurrentFrameResponse.class)
+                .switchIfEmpty(Mono.error(() ->
+                        new ResponseStatusException(HttpStatus.BAD_GATEWAY, "AI 서버에서 응답을 받지 못했습니다.")))
+                .onErrorMap(AiSearchService::toAiServerError);
+    }
+
     /**
      * 개별 경계 범위를 이용한 방향 계산
      */
@@ -352,20 +379,16 @@ public class AiSearchService {
         }
 
 
-        // 매대에서 타겟 상품 찾기
-        ShelfItem targetProduct = shelfData.items().stream()
-                .filter(item -> isProductNameMatch(item.name(), productName))
-                .findFirst()
+        // 매대에서 타겟 상품 찾기 (색인 조회)
+        ShelfIndex shelfIndex = shelfData.index();
+        ShelfItem targetProduct = shelfIndex.findFirst(productName)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "해당 상품이 매대에서 발견되지 않았습니다."));
 
         // 현재 화면에 상품이 여러 개 감지된 경우 (multiple: true)
         if (currentFrame.multiple()) {
 
-            // 현재 화면의 상품들을 매대 데이터와 매칭
-            Optional<ShelfItem> currentProductOpt = shelfData.items().stream()
-                    .filter(shelfItem -> currentFrame.items().stream()
-                            .anyMatch(currentItem -> isProductNameMatch(shelfItem.name(), currentItem)))
-                    .findFirst();
+            // 현재 화면의 상품들을 매대 데이터와 매칭 (화면 상품 중 하나라도 일치하는 가장 앞선 매대 상품)
+            Optional<ShelfItem> currentProductOpt = shelfIndex.findFirstMatchingAny(currentFrame.items());
 
             if (currentProductOpt.isPresent()) {
                 ShelfItem currentProduct = currentProductOpt.get();
@@ -384,39 +407,18 @@ public class AiSearchService {
                 String detectedProduct = currentFrame.items().get(0);
 
                 // AI가 감지한 상품명과 FE에서 요청한 상품명이 같은지 확인
-                if (isProductNameMatch(detectedProduct, productName)) {
-                    // 상품명이 같은 경우: SINGLE_RECOGNIZED + DB에서 상품 정보 조회
-                    Optional<Product> productOpt = findProductByName(productName);
-                    if (productOpt.isPresent()) {
-                        Product product = productOpt.get();
-
-                        // 사용자 알레르기 체크
-                        boolean hasAllergy = checkUserAllergy(product, userId);
-
-                        ProductDirectionResponse.Info info = new ProductDirectionResponse.Info(
-                                product.getName(),
-                                product.getPrice(),
-                                product.getEvent(),
-                                hasAllergy
-                        );
-                        return new ProductDirectionResponse.Result("SINGLE_RECOGNIZED", null, info);
-                    } else {
-                        // DB에서 찾지 못한 경우도 SINGLE_RECOGNIZED로 반환 (알레르기 정보 없음)
-                        ProductDirectionResponse.Info info = new ProductDirectionResponse.Info(
-                                productName,
-                                null,
-                                null,
-                                false
-                        );
-                        return new ProductDirectionResponse.Result("SINGLE_RECOGNIZED", null, info);
-                    }
+                if (ProductNames.matches(detectedProduct, productName)) {
+                    // 상품명이 같은 경우: SINGLE_RECOGNIZED + 스캔 시 조회해 둔 상품 정보 (없으면 DB에서 조회)
+                    // 알레르기는 저장해 둔 상품 알레르기 성분과 현재 사용자 알레르기로 다시 검사 (스캔 이후 변경 반영)
+                    ProductDirectionResponse.Info info = shelfData.resolvedProduct(productName)
+                            .map(resolved -> resolved.toInfo(productName, checkUserAllergy(resolved, userId)))
+                            .orElseGet(() -> findProductInfo(productName, userId));
+                    return new ProductDirectionResponse.Result("SINGLE_RECOGNIZED", null, info);
                 } else {
                     // 상품명이 다른 경우: DIRECTION + 매대 데이터 기반 방향 안내
 
                     // 매대 데이터에서 AI가 감지한 상품 찾기
-                    Optional<ShelfItem> currentProductOpt = shelfData.items().stream()
-                            .filter(item -> isProductNameMatch(item.name(), detectedProduct))
-                            .findFirst();
+                    Optional<ShelfItem> currentProductOpt = shelfIndex.findFirst(detectedProduct);
 
                     if (currentProductOpt.isPresent()) {
                         ShelfItem currentProduct = currentProductOpt.get();
@@ -434,4 +436,18 @@ public class AiSearchService {
             }
         }
     }
+
+    /**
+     * 요청 처리 동안 메모리에 읽어 둔 업로드 이미지 (AI 서버 multipart 파트로 전송)
+     */
+    private record NamedImage(String filename, byte[] bytes) {
+        ByteArrayResource toResource() {
+            return new ByteArrayResource(bytes) {
+                @Override
+                public String getFilename() {
+                    return filename;
+                }
+            };
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,356 @@
+package com.project.lookey.product.service;
+
+import com.project.lookey.common.util.KeywordAutomaton;
+import com.project.lookey.product.dto.ShelfItem;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 장바구니 상품명 매칭기 (매대 스캔 요청마다 한 번 구성)
+ * 장바구니 이름을 한 번만 정규화해 오토마톤으로 만들고, 매대 상품명은 정규식/할당 없이 문자 단위로 따라가며 판정
+ * - 대소문자 무시 일치: 대소문자를 접은 장바구니 이름 트라이를 따라감
+ * - 매대 이름이 장바구니 이름을 포함: 공백 제거 장바구니 이름 오토마톤(Aho-Corasick)으로 매대 이름을 훑음
+ * - 장바구니 이름이 매대 이름을 포함: 공백 제거 장바구니 이름의 접미사 오토마톤을 매대 이름으로 따라감
+ *
+ * 결과는 모든 (매대 상품, 장바구니 상품) 쌍을 ProductNames.matches로 비교한 것과 같음
+ */
+public final class CartMatcher {
+
+    private static final CartMatcher EMPTY = new CartMatcher(List.of());
+
+    private final int cartSize;
+
+    // 대소문자를 접은 장바구니 이름 트라이 (String.equalsIgnoreCase와 같은 규칙)
+    private final KeywordAutomaton foldedNames;
+
+    // 공백 제거 장바구니 이름 (매대 이름에 등장하는지)
+    private final KeywordAutomaton containedNames;
+
+    // 공백 제거 장바구니 이름의 모든 부분 문자열 (매대 이름이 그중 하나인지)
+    private final SubstringAutomaton substrings;
+
+    // 공백만으로 된 장바구니 이름이 있으면 모든 매대 이름이 포함함
+    private final boolean matchesAnyName;
+
+    private CartMatcher(List<String> cartNames) {
+        List<String> folded = new ArrayList<>(cartNames.size());
+        List<String> normalized = new ArrayList<>(cartNames.size());
+        boolean blank = false;
+        for (String name : cartNames) {
+            String stripped = ProductNames.stripWhitespace(name);
+            folded.add(fold(name));
+            normalized.add(stripped);
+            blank |= stripped.isEmpty();
+        }
+        this.cartSize = cartNames.size();
+        this.foldedNames = KeywordAutomaton.compile(folded, false);
+        this.containedNames = KeywordAutomaton.compile(normalized, false);
+        this.substrings = SubstringAutomaton.of(normalized);
+        this.matchesAnyName = blank;
+    }
+
+    public static CartMatcher compile(Collection<String> cartNames) {
+        if (cartNames == null || cartNames.isEmpty()) {
+            return EMPTY;
+        }
+        List<String> names = new ArrayList<>(cartNames.size());
+        for (String name : cartNames) {
+            if (name != null) {
+                names.add(name);
+            }
+        }
+        return names.isEmpty() ? EMPTY : new CartMatcher(names);
+    }
+
+    /**
+     * 장바구니 상품과 일치하는 매대 상품명 (매대 순서, 중복 제거)
+     */
+    public List<String> matchedNames(List<ShelfItem> shelfItems) {
+        Set<String> names = new LinkedHashSet<>();
+        if (shelfItems == null || cartSize == 0) {
+            return new ArrayList<>(names);
+        }
+        for (ShelfItem item : shelfItems) {
+            String name = item.name();
+            if (name != null && !names.contains(name) && matches(name)) {
+                names.add(name);
+            }
+        }
+        return new ArrayList<>(names);
+    }
+
+    /**
+     * 장바구니 상품 중 하나라도 매대 상품명과 일치하는지 (ProductNames.matches 기준)
+     */
+    public boolean matches(String shelfName) {
+        if (shelfName == null || cartSize == 0) {
+            return false;
+        }
+        if (matchesAnyName) {
+            return true;
+        }
+        return equalsIgnoreCase(shelfName) || containsCartName(shelfName) || substrings.contains(shelfName);
+    }
+
+    /**
+     * 트라이를 처음부터 따라가 이름 전체가 같은 장바구니 이름이 있는지 확인
+     */
+    private boolean equalsIgnoreCase(String shelfName) {
+        int state = KeywordAutomaton.ROOT;
+        for (int i = 0; i < shelfName.length() && state >= 0; i++) {
+            state = foldedNames.transition(state, fold(shelfName.charAt(i)));
+        }
+        if (state <= KeywordAutomaton.ROOT) {
+            return false;
+        }
+        for (int k = 0; k < foldedNames.outputCount(state); k++) {
+            if (foldedNames.keywordLength(foldedNames.output(state, k)) == shelfName.length()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 공백을 건너뛰며 훑어 장바구니 이름이 등장하는지 확인
+     */
+    private boolean containsCartName(String shelfName) {
+        int state = KeywordAutomaton.ROOT;
+        for (int i = 0; i < shelfName.length(); i++) {
+            char c = shelfName.charAt(i);
+            if (ProductNames.isWhitespace(c)) {
+                continue;
+            }
+            state = containedNames.next(state, c);
+            if (containedNames.outputCount(state) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String fold(String name) {
+        char[] folded = new char[name.length()];
+        for (int i = 0; i < folded.length; i++) {
+            folded[i] = fold(name.charAt(i));
+        }
+        return new String(folded);
+    }
+
+    // String.equalsIgnoreCase와 같은 문자 비교 (대문자로 바꾼 뒤 소문자로)
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    @Override
+    public String toString() {
+        return "CartMatcher{names=" + cartSize + ", substringStates=" + substrings.stateCount()
+                + ", matchesAnyName=" + matchesAnyName + "}";
+    }
+
+    /**
+     * 여러 문자열의 부분 문자열을 모두 인식하는 접미사 오토마톤 (일반화 접미사 오토마톤)
+     * 상태 수는 전체 길이의 2배 이하, 전이는 상태별 문자 오름차순 배열(CSR)로 고정
+     */
+    private static final class SubstringAutomaton {
+
+        private static final int ROOT = 0;
+
+        private final int[] edgeStart;
+        private final char[] edgeChars;
+        private final int[] edgeTargets;
+
+        private SubstringAutomaton(int[] edgeStart, char[] edgeChars, int[] edgeTargets) {
+            this.edgeStart = edgeStart;
+            this.edgeChars = edgeChars;
+            this.edgeTargets = edgeTargets;
+        }
+
+        static SubstringAutomaton of(List<String> texts) {
+            Builder builder = new Builder(texts);
+            for (String text : texts) {
+                int last = ROOT;
+                for (int i = 0; i < text.length(); i++) {
+                    last = builder.extend(last, text.charAt(i));
+                }
+            }
+            return builder.freeze();
+        }
+
+        /**
+         * 공백을 제거한 이름이 어떤 문자열의 부분 문자열인지 (빈 이름은 항상 포함)
+         */
+        boolean contains(String name) {
+            int state = ROOT;
+            for (int i = 0; i < name.length(); i++) {
+                char c = name.charAt(i);
+                if (ProductNames.isWhitespace(c)) {
+                    continue;
+                }
+                state = transition(state, c);
+                if (state < 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        int stateCount() {
+            return edgeStart.length - 1;
+        }
+
+        private int transition(int state, char c) {
+            int lo = edgeStart[state];
+            int hi = edgeStart[state + 1] - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                char midChar = edgeChars[mid];
+                if (midChar < c) {
+                    lo = mid + 1;
+                } else if (midChar > c) {
+                    hi = mid - 1;
+                } else {
+                    return edgeTargets[mid];
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * 구성용 상태/전이 (상태별 전이는 연결 리스트, 구성 후 배열로 고정)
+         */
+        private static final class Builder {
+
+            private final int[] length;
+            private final int[] link;
+            private final int[] firstEdge;
+            private int states;
+
+            private char[] edgeChars;
+            private int[] edgeTargets;
+            private int[] nextEdge;
+            private int edges;
+
+            Builder(List<String> texts) {
+                int capacity = 1;
+                for (String text : texts) {
+                    capacity += 2 * text.length();
+                }
+                this.length = new int[capacity];
+                this.link = new int[capacity];
+                this.firstEdge = new int[capacity];
+                this.edgeChars = new char[capacity * 2];
+                this.edgeTargets = new int[capacity * 2];
+                this.nextEdge = new int[capacity * 2];
+                newState(0, -1);
+            }
+
+            /**
+             * last 상태(지금까지 읽은 문자열 전체)에 문자 c를 이어 붙이고 새 last 반환
+             */
+            int extend(int last, char c) {
+                int existing = edge(last, c);
+                if (existing >= 0) {
+                    // 다른 문자열에서 이미 나온 접두사
+                    if (length[last] + 1 == length[existing]) {
+                        return existing;
+                    }
+                    return split(last, c, existing);
+                }
+
+                int current = newState(length[last] + 1, ROOT);
+                int p = last;
+                while (p >= 0 && edge(p, c) < 0) {
+                    addEdge(p, c, current);
+                    p = link[p];
+                }
+                if (p >= 0) {
+                    int q = edge(p, c);
+                    link[current] = length[p] + 1 == length[q] ? q : split(p, c, q);
+                }
+                return current;
+            }
+
+            /**
+             * q를 길이 length[p] + 1인 복제 상태로 나누고, p부터 q로 가던 전이를 복제 상태로 돌림
+             */
+            private int split(int p, char c, int q) {
+                int clone = newState(length[p] + 1, link[q]);
+                for (int e = firstEdge[q]; e >= 0; e = nextEdge[e]) {
+                    addEdge(clone, edgeChars[e], edgeTargets[e]);
+                }
+                link[q] = clone;
+                for (; p >= 0 && edge(p, c) == q; p = link[p]) {
+                    setEdge(p, c, clone);
+                }
+                return clone;
+            }
+
+            private int newState(int stateLength, int stateLink) {
+                int state = states++;
+                length[state] = stateLength;
+                link[state] = stateLink;
+                firstEdge[state] = -1;
+                return state;
+            }
+
+            private int edge(int state, char c) {
+                for (int e = firstEdge[state]; e >= 0; e = nextEdge[e]) {
+                    if (edgeChars[e] == c) {
+                        return edgeTargets[e];
+                    }
+                }
+                return -1;
+            }
+
+            private void setEdge(int state, char c, int target) {
+                for (int e = firstEdge[state]; e >= 0; e = nextEdge[e]) {
+                    if (edgeChars[e] == c) {
+                        edgeTargets[e] = target;
+                        return;
+                    }
+                }
+            }
+
+            private void addEdge(int state, char c, int target) {
+                if (edges == edgeChars.length) {
+                    edgeChars = Arrays.copyOf(edgeChars, edges * 2);
+                    edgeTargets = Arrays.copyOf(edgeTargets, edges * 2);
+                    nextEdge = Arrays.copyOf(nextEdge, edges * 2);
+                }
+                edgeChars[edges] = c;
+                edgeTargets[edges] = target;
+                nextEdge[edges] = firstEdge[state];
+                firstEdge[state] = edges++;
+            }
+
+            SubstringAutomaton freeze() {
+                int[] start = new int[states + 1];
+                char[] chars = new char[edges];
+                int[] targets = new int[edges];
+                long[] sorted = new long[edges];
+                int offset = 0;
+                for (int s = 0; s < states; s++) {
+                    start[s] = offset;
+                    int count = 0;
+                    for (int e = firstEdge[s]; e >= 0; e = nextEdge[e]) {
+                        sorted[count++] = ((long) edgeChars[e] << 32) | edgeTargets[e];
+                    }
+                    Arrays.sort(sorted, 0, count);
+                    for (int i = 0; i < count; i++) {
+                        chars[offset] = (char) (sorted[i] >>> 32);
+                        targets[offset] = (int) sorted[i];
+                        offset++;
+                    }
+                }
+                start[states] = offset;
+                return new SubstringAutomaton(start, chars, targets);
+            }
+        }
+    }
+}
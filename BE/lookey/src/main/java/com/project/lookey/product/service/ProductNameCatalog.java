@@ -0,0 +1,85 @@
+package com.project.lookey.product.service;
+
+import com.project.lookey.product.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * 상품명 부분 일치 조회용 메모리 목록 (상품 ID + 이름, 이름순)
+ * 이름마다 LIKE '%q%' 쿼리를 보내는 대신 목록을 한 번 읽어 두고 메모리에서 찾음
+ * 결과는 findNamesByKeyword의 첫 상품과 같음 (대소문자 구분 없이 포함, DB 이름순 첫 상품)
+ * 크롤링으로 추가된 상품은 ttl-seconds 뒤 다시 읽을 때 반영
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductNameCatalog {
+
+    private final ProductRepository productRepository;
+
+    @Value("${shelf.resolve.catalog-ttl-seconds:600}")
+    private long ttlSeconds;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * 이름에 keyword가 포함된 이름순 첫 상품 ID
+     */
+    public Optional<Long> firstContaining(String keyword) {
+        if (keyword == null) {
+            return Optional.empty();
+        }
+        String lowerKeyword = keyword.toLowerCase(Locale.ROOT);
+        Snapshot current = current();
+        for (int i = 0; i < current.ids.length; i++) {
+            if (current.lowerNames[i].contains(lowerKeyword)) {
+                return Optional.of(current.ids[i]);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * 다음 조회 때 다시 읽도록 (상품 추가/변경 시)
+     */
+    public void invalidate() {
+        snapshot = null;
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current != null && System.currentTimeMillis() - current.loadedAt < ttlSeconds * 1000L) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot;
+            if (current == null || System.currentTimeMillis() - current.loadedAt >= ttlSeconds * 1000L) {
+                current = load();
+                snapshot = current;
+            }
+            return current;
+        }
+    }
+
+    private Snapshot load() {
+        List<ProductRepository.NameView> views = productRepository.findAllNames();
+        long[] ids = new long[views.size()];
+        String[] lowerNames = new String[views.size()];
+        for (int i = 0; i < views.size(); i++) {
+            ids[i] = views.get(i).getId();
+            String name = views.get(i).getName();
+            lowerNames[i] = name != null ? name.toLowerCase(Locale.ROOT) : "";
+        }
+        log.info("상품명 목록 로드 - {}개", ids.length);
+        return new Snapshot(ids, lowerNames, System.currentTimeMillis());
+    }
+
+    private record Snapshot(long[] ids, String[] lowerNames, long loadedAt) {
+    }
+}
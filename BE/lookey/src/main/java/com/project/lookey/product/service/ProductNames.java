@@ -0,0 +1,58 @@
+package com.project.lookey.product.service;
+
+/**
+ * 상품명 비교 규칙 (매대 인식 결과 / 장바구니 / 요청 상품명 공통)
+ * 정확히 같음 -> 대소문자 무시 같음 -> 공백 제거 후 한쪽이 다른 쪽을 포함 (대소문자 구분)
+ */
+public final class ProductNames {
+
+    private ProductNames() {
+    }
+
+    /**
+     * 상품명 매칭 (정확한 매칭 + 부분 매칭)
+     */
+    public static boolean matches(String first, String second) {
+        if (first == null || second == null) {
+            return false;
+        }
+
+        // 정확한 매칭 / 대소문자 무시 매칭
+        if (first.equals(second) || first.equalsIgnoreCase(second)) {
+            return true;
+        }
+
+        // 부분 매칭 (공백 제거 후)
+        String normalizedFirst = stripWhitespace(first);
+        String normalizedSecond = stripWhitespace(second);
+        return normalizedFirst.contains(normalizedSecond) || normalizedSecond.contains(normalizedFirst);
+    }
+
+    /**
+     * 공백 문자 제거 (replaceAll("\\s+", "")와 같은 결과, 정규식/공백이 없으면 할당 없음)
+     */
+    public static String stripWhitespace(String name) {
+        int first = 0;
+        while (first < name.length() && !isWhitespace(name.charAt(first))) {
+            first++;
+        }
+        if (first == name.length()) {
+            return name;
+        }
+
+        StringBuilder stripped = new StringBuilder(name.length());
+        stripped.append(name, 0, first);
+        for (int i = first + 1; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (!isWhitespace(c)) {
+                stripped.append(c);
+            }
+        }
+        return stripped.toString();
+    }
+
+    // 정규식 \s 와 같은 문자 집합 ([ \t\n\x0B\f\r])
+    static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
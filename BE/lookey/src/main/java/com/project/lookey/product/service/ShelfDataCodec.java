@@ -0,0 +1,433 @@
+package com.project.lookey.product.service;
+
+import com.project.lookey.product.dto.ResolvedProduct;
+import com.project.lookey.product.dto.ShelfData;
+import com.project.lookey.product.dto.ShelfItem;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 매대 데이터 이진 코덱 (Redis 저장용)
+ * JSON(클래스 정보 포함 + 읽을 때 convertValue 한 번 더) 대신 버전이 붙은 압축 이진 형식으로 저장
+ *
+ * 형식 (버전 1):
+ * <pre>
+ * 'L' 'S' 버전(1) 플래그(bit0: deflate) [deflate면 원본 길이(varint)] 본문
+ * 본문: 사용자 ID, 생성 시각, 문자열 사전(상품명/행사 등 중복 제거), 상품 목록(이름 참조 + 박스), 조회 상품 정보
+ * </pre>
+ * - 정수는 varint (부호가 있는 값은 zigzag), 문자열은 UTF-8 길이 + 바이트, null은 0으로 표시하고 값은 +1
+ * - 박스(x, y, w, h)는 zigzag varint 4개 (좌표가 16384 미만이면 상품당 8바이트 이하)
+ * - 본문이 deflate-threshold 이상이고 압축하면 줄어드는 경우만 deflate
+ * - 압축 본문의 원본 길이가 MAX_BODY_SIZE를 넘거나 압축 크기로 나올 수 없으면 배열을 잡기 전에 거부
+ */
+public final class ShelfDataCodec implements RedisSerializer<ShelfData> {
+
+    private static final byte MAGIC_0 = 'L';
+    private static final byte MAGIC_1 = 'S';
+    private static final byte VERSION = 1;
+    private static final int FLAG_DEFLATE = 1;
+
+    private static final int HEADER_SIZE = 4;
+
+    // 압축 본문의 원본 길이 상한 (매대 한 장은 수십 KB 이내 - 손상/위조된 길이로 큰 배열을 잡지 않도록)
+    static final int MAX_BODY_SIZE = 4 * 1024 * 1024;
+    // deflate 최대 압축률 (약 1032:1) - 압축 바이트 수로 나올 수 없는 원본 길이는 거부
+    private static final int MAX_DEFLATE_RATIO = 1032;
+
+    // 상품 정보 플래그
+    private static final int PRODUCT_FOUND = 1;
+    private static final int PRODUCT_ALLERGY = 1 << 1;
+
+    private final int deflateThreshold;
+
+    /**
+     * @param deflateThreshold 압축을 시도할 본문 크기 (바이트, 0 이하면 압축하지 않음)
+     */
+    public ShelfDataCodec(int deflateThreshold) {
+        this.deflateThreshold = deflateThreshold;
+    }
+
+    @Override
+    public byte[] serialize(ShelfData shelfData) throws SerializationException {
+        if (shelfData == null) {
+            return null;
+        }
+
+        // 문자열 사전 (처음 등장한 순서)
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        List<ShelfItem> items = shelfData.items();
+        if (items != null) {
+            items.forEach(item -> intern(dictionary, item.name()));
+        }
+        Map<String, ResolvedProduct> products = shelfData.products();
+        if (products != null) {
+            products.forEach((name, product) -> {
+                intern(dictionary, name);
+                intern(dictionary, product.name());
+                intern(dictionary, product.event());
+            });
+        }
+
+        Writer body = new Writer(64 + (items == null ? 0 : items.size() * 10) + dictionary.size() * 24);
+        body.nullableInt(shelfData.userId());
+        body.string(shelfData.createdAt());
+
+        body.varint(dictionary.size());
+        for (String value : dictionary.keySet()) {
+            body.string(value);
+        }
+
+        if (items == null) {
+            body.varint(0);
+        } else {
+            body.varint(items.size() + 1);
+            for (ShelfItem item : items) {
+                body.ref(dictionary, item.name());
+                body.signed(item.x());
+                body.signed(item.y());
+                body.signed(item.w());
+                body.signed(item.h());
+            }
+        }
+
+        if (products == null) {
+            body.varint(0);
+        } else {
+            body.varint(products.size() + 1);
+            for (Map.Entry<String, ResolvedProduct> entry : products.entrySet()) {
+                ResolvedProduct product = entry.getValue();
+                body.ref(dictionary, entry.getKey());
+                body.varint((product.found() ? PRODUCT_FOUND : 0) | (product.allergy() ? PRODUCT_ALLERGY : 0));
+                body.ref(dictionary, product.name());
+                if (product.found()) {
+                    body.signedLong(product.id());
+                    body.nullableInt(product.price());
+                    body.ref(dictionary, product.event());
+                    List<Long> allergyIds = product.allergyIds() == null ? List.of() : product.allergyIds();
+                    body.varint(allergyIds.size());
+                    for (Long allergyId : allergyIds) {
+                        body.signedLong(allergyId);
+                    }
+                }
+            }
+        }
+
+        return frame(body);
+    }
+
+    @Override
+    public ShelfData deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes.length < HEADER_SIZE || bytes[0] != MAGIC_0 || bytes[1] != MAGIC_1) {
+            throw new SerializationException("매대 데이터 이진 형식이 아닙니다.");
+        }
+        if (bytes[2] != VERSION) {
+            throw new SerializationException("지원하지 않는 매대 데이터 형식 버전: " + bytes[2]);
+        }
+
+        Reader body = (bytes[3] & FLAG_DEFLATE) != 0
+                ? new Reader(inflate(bytes))
+                : new Reader(bytes, HEADER_SIZE);
+
+        Integer userId = body.nullableInt();
+        String createdAt = body.string();
+
+        String[] dictionary = new String[body.count()];
+        for (int i = 0; i < dictionary.length; i++) {
+            dictionary[i] = body.string();
+        }
+
+        List<ShelfItem> items = null;
+        int itemCount = body.count();
+        if (itemCount > 0) {
+            items = new ArrayList<>(itemCount - 1);
+            for (int i = 0; i < itemCount - 1; i++) {
+                items.add(new ShelfItem(body.ref(dictionary), body.signed(), body.signed(), body.signed(), body.signed()));
+            }
+        }
+
+        Map<String, ResolvedProduct> products = null;
+        int productCount = body.count();
+        if (productCount > 0) {
+            products = new HashMap<>(productCount * 2);
+            for (int i = 0; i < productCount - 1; i++) {
+                String key = body.ref(dictionary);
+                int flags = body.varint();
+                String name = body.ref(dictionary);
+                if ((flags & PRODUCT_FOUND) == 0) {
+                    products.put(key, ResolvedProduct.notFound(name));
+                    continue;
+                }
+                long id = body.signedLong();
+                Integer price = body.nullableInt();
+                String event = body.ref(dictionary);
+                Long[] allergyIds = new Long[body.count()];
+                for (int a = 0; a < allergyIds.length; a++) {
+                    allergyIds[a] = body.signedLong();
+                }
+                products.put(key, new ResolvedProduct(id, name, price, event, List.of(allergyIds),
+                        (flags & PRODUCT_ALLERGY) != 0));
+            }
+        }
+
+        body.requireEnd();
+        return new ShelfData(items, createdAt, userId, products);
+    }
+
+    private byte[] frame(Writer body) {
+        // 읽을 때 거부되는 크기는 압축하지 않고 원본 저장
+        if (deflateThreshold > 0 && body.size >= deflateThreshold && body.size <= MAX_BODY_SIZE) {
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+            try {
+                deflater.setInput(body.buffer, 0, body.size);
+                deflater.finish();
+                Writer framed = new Writer(HEADER_SIZE + 5 + body.size);
+                framed.header(FLAG_DEFLATE);
+                framed.varint(body.size);
+                byte[] chunk = new byte[Math.max(64, body.size / 2)];
+                while (!deflater.finished() && framed.size < body.size) {
+                    int length = deflater.deflate(chunk);
+                    framed.bytes(chunk, 0, length);
+                }
+                // 압축해도 줄지 않으면 원본 저장
+                if (deflater.finished() && framed.size < body.size) {
+                    return framed.toByteArray();
+                }
+            } finally {
+                deflater.end();
+            }
+        }
+
+        Writer framed = new Writer(HEADER_SIZE + body.size);
+        framed.header(0);
+        framed.bytes(body.buffer, 0, body.size);
+        return framed.toByteArray();
+    }
+
+    private static byte[] inflate(byte[] bytes) {
+        Reader header = new Reader(bytes, HEADER_SIZE);
+        int length = header.varint();
+        long compressed = bytes.length - header.position;
+        if (length > MAX_BODY_SIZE || length > compressed * MAX_DEFLATE_RATIO) {
+            throw new SerializationException("매대 데이터 압축 본문 길이 오류: " + length);
+        }
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(bytes, header.position, bytes.length - header.position);
+            byte[] body = new byte[length];
+            int read = 0;
+            while (read < length) {
+                int inflated = inflater.inflate(body, read, length - read);
+                if (inflated == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += inflated;
+            }
+            if (read != length) {
+                throw new SerializationException("매대 데이터 압축 본문 길이 불일치: " + read + " / " + length);
+            }
+            return body;
+        } catch (DataFormatException e) {
+            throw new SerializationException("매대 데이터 압축 해제 실패", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void intern(Map<String, Integer> dictionary, String value) {
+        if (value != null) {
+            dictionary.putIfAbsent(value, dictionary.size());
+        }
+    }
+
+    /**
+     * 바이트 버퍼 쓰기 (varint / 문자열 / 사전 참조)
+     */
+    private static final class Writer {
+
+        private byte[] buffer;
+        private int size;
+
+        Writer(int capacity) {
+            this.buffer = new byte[Math.max(16, capacity)];
+        }
+
+        void header(int flags) {
+            ensure(HEADER_SIZE);
+            buffer[size++] = MAGIC_0;
+            buffer[size++] = MAGIC_1;
+            buffer[size++] = VERSION;
+            buffer[size++] = (byte) flags;
+        }
+
+        void varint(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        void signed(int value) {
+            varint(Integer.toUnsignedLong((value << 1) ^ (value >> 31)));
+        }
+
+        void signedLong(long value) {
+            varint((value << 1) ^ (value >> 63));
+        }
+
+        void nullableInt(Integer value) {
+            if (value == null) {
+                varint(0);
+            } else {
+                varint(Integer.toUnsignedLong((value << 1) ^ (value >> 31)) + 1);
+            }
+        }
+
+        void string(String value) {
+            if (value == null) {
+                varint(0);
+                return;
+            }
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            varint(utf8.length + 1L);
+            bytes(utf8, 0, utf8.length);
+        }
+
+        void ref(Map<String, Integer> dictionary, String value) {
+            varint(value == null ? 0 : dictionary.get(value) + 1L);
+        }
+
+        void bytes(byte[] source, int offset, int length) {
+            ensure(length);
+            System.arraycopy(source, offset, buffer, size, length);
+            size += length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+            }
+        }
+    }
+
+    /**
+     * 바이트 버퍼 읽기 (범위를 벗어나면 SerializationException)
+     */
+    private static final class Reader {
+
+        private final byte[] buffer;
+        private int position;
+
+        Reader(byte[] buffer) {
+            this(buffer, 0);
+        }
+
+        Reader(byte[] buffer, int position) {
+            this.buffer = buffer;
+            this.position = position;
+        }
+
+        int varint() {
+            long value = varlong();
+            if (value > Integer.MAX_VALUE) {
+                throw new SerializationException("매대 데이터 값 범위 초과: " + value);
+            }
+            return (int) value;
+        }
+
+        long varlong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (position >= buffer.length) {
+                    throw new SerializationException("매대 데이터가 잘렸습니다.");
+                }
+                byte b = buffer[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new SerializationException("매대 데이터 varint 형식 오류");
+        }
+
+        /**
+         * 개수 (남은 바이트 수를 넘으면 손상된 데이터)
+         */
+        int count() {
+            int count = varint();
+            if (count > buffer.length - position + 1) {
+                throw new SerializationException("매대 데이터 개수 오류: " + count);
+            }
+            return count;
+        }
+
+        int signed() {
+            long value = varlong();
+            return (int) (value >>> 1) ^ -(int) (value & 1);
+        }
+
+        long signedLong() {
+            long value = varlong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        Integer nullableInt() {
+            long value = varlong();
+            if (value == 0) {
+                return null;
+            }
+            value--;
+            return (int) (value >>> 1) ^ -(int) (value & 1);
+        }
+
+        String string() {
+            int length = varint();
+            if (length == 0) {
+                return null;
+            }
+            length--;
+            if (length > buffer.length - position) {
+                throw new SerializationException("매대 데이터가 잘렸습니다.");
+            }
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        String ref(String[] dictionary) {
+            int ref = varint();
+            if (ref == 0) {
+                return null;
+            }
+            if (ref > dictionary.length) {
+                throw new SerializationException("매대 데이터 사전 참조 오류: " + ref);
+            }
+            return dictionary[ref - 1];
+        }
+
+        void requireEnd() {
+            if (position != buffer.length) {
+                throw new SerializationException("매대 데이터 뒤에 알 수 없는 바이트: " + (buffer.length - position));
+            }
+        }
+    }
+}
@@ -1,84 +1,156 @@
 package com.project.lookey.product.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.lookey.product.dto.ResolvedProduct;
 import com.project.lookey.product.dto.ShelfData;
 import com.project.lookey.product.dto.ShelfDetectionResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
-
-import java.util.concurrent.TimeUnit;
-
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 매대 데이터 Redis 저장소 (논블로킹 - 요청 스레드를 점유하지 않음, 이진 코덱 ShelfDataCodec으로 저장)
+ * 같은 매대를 다시 읽으면 인스턴스에 남아 있는 매대 데이터를 돌려줘 이미 구성된 색인(ShelfIndex) 재사용
+ * (최근 매대는 사용자 수 상한이 있는 LRU, 보관 시간이 지나면 Redis에서 다시 읽음)
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ShelfDataService {
 
-    @Qualifier("productRedisTemplate")
-    private final RedisTemplate<String, Object> redisTemplate;
+    // 이진 코덱 (ShelfDataCodec) 저장소
+    @Qualifier("shelfDataRedisTemplate")
+    private final ReactiveRedisTemplate<String, ShelfData> shelfDataTemplate;
+
+    // 이전 JSON 형식 저장소 (배포 전에 저장된 매대 데이터 읽기용, TTL이 지나면 사용되지 않음)
+    @Qualifier("productReactiveRedisTemplate")
+    private final ReactiveRedisTemplate<String, Object> redisTemplate;
 
     private final ObjectMapper objectMapper;
 
-    private static final String SHELF_DATA_KEY_PREFIX = "shelf_data:";
-    private static final long TTL_MINUTES = 30;
+    private static final String SHELF_DATA_KEY_PREFIX = "shelf_data:v2:";
+    private static final String LEGACY_SHELF_DATA_KEY_PREFIX = "shelf_data:";
+    private static final Duration TTL = Duration.ofMinutes(30);
+
+    // 저장된 값이 그대로일 때만 교체 (남은 TTL 유지)
+    private static final RedisScript<Long> REPLACE_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/shelf-data-replace.lua"), Long.class);
+
+    // 최근 매대를 기억할 사용자 수 상한 (넘으면 가장 오래 쓰지 않은 사용자부터 제거)
+    @Value("${shelf.recent.max-users:1000}")
+    private int maxRecentShelves;
+
+    // 최근 매대 보관 시간
+    @Value("${shelf.recent.ttl-seconds:300}")
+    private long recentTtlSeconds;
+
+    // 사용자별 최근 매대 데이터 (인스턴스 로컬 LRU, 접근은 recentShelves 잠금 안에서)
+    private final Map<Integer, RecentShelf> recentShelves = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, RecentShelf> eldest) {
+            return size() > maxRecentShelves || isExpired(eldest.getValue(), System.currentTimeMillis());
+        }
+    };
 
     /**
-     * 매대 데이터를 Redis에 저장
+     * 매대 데이터를 Redis에 저장 (상품 정보는 saveProducts로 나중에 추가)
      * @param userId 사용자 ID
      * @param response AI 서버 응답 데이터
+     * @return 저장한 매대 데이터
      */
-    public void saveShelfData(Integer userId, ShelfDetectionResponse response) {
-        try {
-            String key = generateKey(userId);
-            ShelfData shelfData = ShelfData.from(response, userId);
-
-            // Redis에 저장 (TTL 30분)
-            redisTemplate.opsForValue().set(key, shelfData, TTL_MINUTES, TimeUnit.MINUTES);
-
-            log.info("매대 데이터 저장 완료 - userId: {}, 상품 개수: {}", userId, response.items().size());
-        } catch (Exception e) {
-            log.error("매대 데이터 저장 실패 - userId: {}", userId, e);
-            throw new RuntimeException("매대 데이터 저장 중 오류가 발생했습니다.", e);
-        }
+    public Mono<ShelfData> saveShelfData(Integer userId, ShelfDetectionResponse response) {
+        String key = generateKey(userId);
+        ShelfData shelfData = ShelfData.from(response, userId);
+
+        // Redis에 저장 (TTL 30분)
+        return shelfDataTemplate.opsForValue().set(key, shelfData, TTL)
+                .doOnSuccess(saved -> remember(userId, shelfData))
+                .doOnSuccess(saved -> log.info("매대 데이터 저장 완료 - userId: {}, 상품 개수: {}",
+                        userId, response.items().size()))
+                .onErrorMap(e -> {
+                    log.error("매대 데이터 저장 실패 - userId: {}", userId, e);
+                    return new RuntimeException("매대 데이터 저장 중 오류가 발생했습니다.", e);
+                })
+                .thenReturn(shelfData);
     }
 
     /**
-     * Redis에서 매대 데이터 조회
+     * 저장해 둔 매대 데이터에 스캔 후 조회한 상품 정보 추가
+     * 그 사이 새 스캔이 저장되었거나 삭제/만료되었으면 추가하지 않음 (새 매대 데이터를 덮어쓰지 않도록)
+     * @param saved saveShelfData가 저장한 매대 데이터
+     * @param products 상품명 -> 상품
+     * @return 추가 여부
+     */
+    public Mono<Boolean> saveProducts(Integer userId, ShelfData saved, Map<String, ResolvedProduct> products) {
+        ShelfData withProducts = saved.withProducts(products);
+        return shelfDataTemplate.execute(REPLACE_SCRIPT, List.of(generateKey(userId)), List.of(saved, withProducts))
+                .next()
+                .map(replaced -> replaced == 1L)
+                .doOnNext(replaced -> {
+                    if (replaced) {
+                        synchronized (recentShelves) {
+                            recentShelves.computeIfPresent(userId, (id, recent) -> recent.shelfData == saved
+                                    ? new RecentShelf(withProducts, recent.storedAt)
+                                    : recent);
+                        }
+                    }
+                    log.info("매대 상품 정보 저장 {} - userId: {}, 상품: {}개",
+                            replaced ? "완료" : "생략 (새 매대 데이터 있음)", userId, products.size());
+                })
+                .onErrorResume(e -> {
+                    log.warn("매대 상품 정보 저장 실패 - userId: {}, 위치 안내 시 DB 조회로 대체", userId, e);
+                    return Mono.just(false);
+                });
+    }
+
+    /**
+     * Redis에서 매대 데이터 조회 (이진 형식이 없으면 이전 JSON 형식)
      * @param userId 사용자 ID
-     * @return 저장된 매대 데이터, 없으면 null
+     * @return 저장된 매대 데이터, 없으면 빈 Mono
      */
-    public ShelfData getShelfData(Integer userId) {
-        try {
-            String key = generateKey(userId);
-            Object rawData = redisTemplate.opsForValue().get(key);
-
-            if (rawData == null) {
-                log.info("매대 데이터 없음 - userId: {}", userId);
-                return null;
-            }
-
-            // ObjectMapper를 사용해서 안전하게 변환
-            ShelfData shelfData = objectMapper.convertValue(rawData, ShelfData.class);
-
-            if (shelfData != null) {
-                log.info("매대 데이터 조회 성공 - userId: {}, 상품 개수: {}", userId, shelfData.items().size());
-            }
-
-            return shelfData;
-        } catch (Exception e) {
-            log.error("매대 데이터 조회 실패 - userId: {}, 캐시 데이터 삭제", userId, e);
-            // 직렬화 오류가 발생한 경우 해당 캐시 데이터를 삭제
-            try {
-                String key = generateKey(userId);
-                redisTemplate.delete(key);
-                log.info("손상된 캐시 데이터 삭제 완료 - userId: {}", userId);
-            } catch (Exception deleteEx) {
-                log.error("캐시 데이터 삭제 실패 - userId: {}", userId, deleteEx);
-            }
-            return null;
-        }
+    public Mono<ShelfData> getShelfData(Integer userId) {
+        String key = generateKey(userId);
+        return shelfDataTemplate.opsForValue().get(key)
+                .onErrorResume(e -> discardCorrupted(key, userId, e))
+                .switchIfEmpty(Mono.defer(() -> getLegacyShelfData(userId)))
+                .map(shelfData -> recentOrRemember(userId, shelfData))
+                .doOnNext(shelfData -> log.info("매대 데이터 조회 성공 - userId: {}, 상품 개수: {}",
+                        userId, shelfData.items().size()))
+                .switchIfEmpty(Mono.fromRunnable(() -> log.info("매대 데이터 없음 - userId: {}", userId)));
+    }
+
+    private Mono<ShelfData> getLegacyShelfData(Integer userId) {
+        String key = LEGACY_SHELF_DATA_KEY_PREFIX + userId;
+        return redisTemplate.opsForValue().get(key)
+                // ObjectMapper를 사용해서 안전하게 변환
+                .map(rawData -> objectMapper.convertValue(rawData, ShelfData.class))
+                .onErrorResume(e -> discardCorrupted(key, userId, e));
+    }
+
+    /**
+     * 직렬화 오류가 발생한 경우 해당 캐시 데이터를 삭제
+     */
+    private Mono<ShelfData> discardCorrupted(String key, Integer userId, Throwable e) {
+        log.error("매대 데이터 조회 실패 - userId: {}, 캐시 데이터 삭제", userId, e);
+        return redisTemplate.delete(key)
+                .doOnSuccess(deleted -> log.info("손상된 캐시 데이터 삭제 완료 - userId: {}", userId))
+                .onErrorResume(deleteEx -> {
+                    log.error("캐시 데이터 삭제 실패 - userId: {}", userId, deleteEx);
+                    return Mono.empty();
+                })
+                .then(Mono.empty());
     }
 
 
@@ -86,14 +158,51 @@ public class ShelfDataService {
      * 사용자의 매대 데이터 삭제 (캐시 초기화)
      * @param userId 사용자 ID
      */
-    public void clearShelfData(Integer userId) {
-        try {
-            String key = generateKey(userId);
-            redisTemplate.delete(key);
-            log.info("매대 데이터 삭제 완료 - userId: {}", userId);
-        } catch (Exception e) {
-            log.error("매대 데이터 삭제 실패 - userId: {}", userId, e);
+    public Mono<Void> clearShelfData(Integer userId) {
+        String key = generateKey(userId);
+        synchronized (recentShelves) {
+            recentShelves.remove(userId);
+        }
+        return redisTemplate.delete(key, LEGACY_SHELF_DATA_KEY_PREFIX + userId)
+                .doOnSuccess(deleted -> log.info("매대 데이터 삭제 완료 - userId: {}", userId))
+                .onErrorResume(e -> {
+                    log.error("매대 데이터 삭제 실패 - userId: {}", userId, e);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    /**
+     * 방금 읽은 매대가 최근 매대와 같으면 최근 매대(색인 포함)를, 다르면 새 매대를 기억하고 반환
+     * 상품 정보가 나중에 추가된 경우(다른 인스턴스에서 추가)도 다른 매대로 취급
+     */
+    private ShelfData recentOrRemember(Integer userId, ShelfData shelfData) {
+        RecentShelf recent;
+        synchronized (recentShelves) {
+            recent = recentShelves.get(userId);
         }
+        // 비교는 잠금 밖에서 (상품 수에 비례)
+        if (recent != null && !isExpired(recent, System.currentTimeMillis())
+                && Objects.equals(recent.shelfData.createdAt(), shelfData.createdAt())
+                && Objects.equals(recent.shelfData.items(), shelfData.items())
+                && Objects.equals(recent.shelfData.products(), shelfData.products())) {
+            return recent.shelfData;
+        }
+        remember(userId, shelfData);
+        return shelfData;
+    }
+
+    private void remember(Integer userId, ShelfData shelfData) {
+        synchronized (recentShelves) {
+            recentShelves.put(userId, new RecentShelf(shelfData, System.currentTimeMillis()));
+        }
+    }
+
+    private boolean isExpired(RecentShelf recent, long now) {
+        return now - recent.storedAt > recentTtlSeconds * 1000;
+    }
+
+    private record RecentShelf(ShelfData shelfData, long storedAt) {
     }
 
     /**
@@ -104,4 +213,4 @@ public class ShelfDataService {
     private String generateKey(Integer userId) {
         return SHELF_DATA_KEY_PREFIX + userId;
     }
-}
\ No newline at end of file
+}
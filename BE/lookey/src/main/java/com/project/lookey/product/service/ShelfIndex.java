@@ -0,0 +1,248 @@
+package com.project.lookey.product.service;
+
+import com.project.lookey.common.util.KeywordAutomaton;
+import com.project.lookey.product.dto.ShelfItem;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 매대 상품명 색인 (위치 안내 시 목표/화면 상품 조회)
+ * - 대소문자 무시 해시, 공백 제거 이름의 문자/바이그램 역색인(상품명이 질의를 포함),
+ *   공백 제거 이름 오토마톤(질의가 상품명을 포함)
+ *
+ * 이름 조회 결과는 ProductNames.matches로 매대를 앞에서부터 훑어 처음 일치하는 상품과 같음
+ * 색인은 첫 조회 시 한 번 구성 (위치 안내 없이 끝나는 매대 스캔은 구성 비용 없음)
+ */
+public final class ShelfIndex {
+
+    private static final int[] NO_ITEMS = new int[0];
+
+    private final List<ShelfItem> items;
+
+    private volatile Tables tables;
+
+    private ShelfIndex(List<ShelfItem> items) {
+        this.items = items;
+    }
+
+    public static ShelfIndex of(List<ShelfItem> items) {
+        return new ShelfIndex(items == null ? List.of() : items);
+    }
+
+    /**
+     * 이름이 일치하는 매대 상품 중 가장 앞선 상품
+     */
+    public Optional<ShelfItem> findFirst(String name) {
+        return tables().findFirst(name);
+    }
+
+    /**
+     * 이름 중 하나라도 일치하는 매대 상품 중 가장 앞선 상품
+     */
+    public Optional<ShelfItem> findFirstMatchingAny(Collection<String> names) {
+        return tables().findFirstMatchingAny(names);
+    }
+
+    public List<ShelfItem> items() {
+        return items;
+    }
+
+    private Tables tables() {
+        Tables built = tables;
+        if (built == null) {
+            synchronized (this) {
+                built = tables;
+                if (built == null) {
+                    built = new Tables(items);
+                    tables = built;
+                }
+            }
+        }
+        return built;
+    }
+
+    @Override
+    public String toString() {
+        return "ShelfIndex{items=" + items.size() + ", built=" + (tables != null) + "}";
+    }
+
+    /**
+     * 이름 색인 (구성 후 변경 없음)
+     */
+    private static final class Tables {
+
+        private final List<ShelfItem> items;
+
+        // 소문자 이름 -> 가장 앞선 상품 위치
+        private final Map<String, Integer> lowerCaseNames;
+
+        // 공백 제거 이름
+        private final String[] normalizedNames;
+
+        // 공백 제거 이름의 문자 / 연속 두 문자 -> 포함하는 상품 위치 (오름차순)
+        private final Map<Character, int[]> charPostings;
+        private final Map<Integer, int[]> bigramPostings;
+
+        // 공백 제거 이름 오토마톤 (키워드 ID = 상품 위치)
+        private final KeywordAutomaton nameAutomaton;
+
+        // 공백만으로 된 이름 (어떤 질의에도 포함됨), 이름이 있는 첫 상품
+        private final int firstBlankName;
+        private final int firstNamed;
+
+        private Tables(List<ShelfItem> items) {
+            this.items = items;
+            int count = items.size();
+
+            this.lowerCaseNames = new HashMap<>(count * 2);
+            this.normalizedNames = new String[count];
+            Map<Character, List<Integer>> chars = new HashMap<>();
+            Map<Integer, List<Integer>> bigrams = new HashMap<>();
+            List<String> keywords = new ArrayList<>(count);
+            int blank = -1;
+            int named = -1;
+
+            for (int i = 0; i < count; i++) {
+                String name = items.get(i).name();
+                if (name == null) {
+                    keywords.add("");
+                    continue;
+                }
+                if (named < 0) {
+                    named = i;
+                }
+                lowerCaseNames.putIfAbsent(name.toLowerCase(Locale.ROOT), i);
+
+                String normalized = ProductNames.stripWhitespace(name);
+                normalizedNames[i] = normalized;
+                keywords.add(normalized);
+                if (normalized.isEmpty() && blank < 0) {
+                    blank = i;
+                }
+
+                for (int c = 0; c < normalized.length(); c++) {
+                    addPosting(chars, normalized.charAt(c), i);
+                    if (c + 1 < normalized.length()) {
+                        addPosting(bigrams, bigram(normalized.charAt(c), normalized.charAt(c + 1)), i);
+                    }
+                }
+            }
+
+            this.charPostings = toArrays(chars);
+            this.bigramPostings = toArrays(bigrams);
+            this.nameAutomaton = KeywordAutomaton.compile(keywords, false);
+            this.firstBlankName = blank;
+            this.firstNamed = named;
+        }
+
+        public Optional<ShelfItem> findFirst(String name) {
+            int index = firstMatch(name, Integer.MAX_VALUE);
+            return index < 0 ? Optional.empty() : Optional.of(items.get(index));
+        }
+
+        public Optional<ShelfItem> findFirstMatchingAny(Collection<String> names) {
+            int best = Integer.MAX_VALUE;
+            for (String name : names) {
+                int index = firstMatch(name, best);
+                if (index >= 0) {
+                    best = index;
+                }
+            }
+            return best == Integer.MAX_VALUE ? Optional.empty() : Optional.of(items.get(best));
+        }
+
+
+        /**
+         * limit보다 앞선 위치에서만 찾음 (없으면 -1)
+         */
+        private int firstMatch(String name, int limit) {
+            if (name == null || firstNamed < 0) {
+                return -1;
+            }
+
+            int best = limit;
+
+            // 대소문자 무시 일치
+            Integer exact = lowerCaseNames.get(name.toLowerCase(Locale.ROOT));
+            if (exact != null && exact < best && items.get(exact).name().equalsIgnoreCase(name)) {
+                best = exact;
+            }
+
+            String normalized = ProductNames.stripWhitespace(name);
+            if (normalized.isEmpty()) {
+                // 빈 문자열은 모든 이름에 포함
+                best = Math.min(best, firstNamed);
+                return best == limit ? -1 : best;
+            }
+            if (firstBlankName >= 0) {
+                best = Math.min(best, firstBlankName);
+            }
+
+            // 질의가 상품명을 포함: 질의를 오토마톤으로 한 번 훑어 등장하는 상품명 수집
+            int state = KeywordAutomaton.ROOT;
+            for (int i = 0; i < normalized.length(); i++) {
+                state = nameAutomaton.next(state, normalized.charAt(i));
+                for (int k = 0; k < nameAutomaton.outputCount(state); k++) {
+                    best = Math.min(best, nameAutomaton.output(state, k));
+                }
+            }
+
+            // 상품명이 질의를 포함: 가장 짧은 역색인 목록의 후보만 확인
+            int[] candidates = candidates(normalized);
+            for (int candidate : candidates) {
+                if (candidate >= best) {
+                    break;
+                }
+                if (normalizedNames[candidate].contains(normalized)) {
+                    best = candidate;
+                    break;
+                }
+            }
+
+            return best == limit ? -1 : best;
+        }
+
+        private int[] candidates(String normalized) {
+            if (normalized.length() == 1) {
+                return charPostings.getOrDefault(normalized.charAt(0), NO_ITEMS);
+            }
+            int[] shortest = null;
+            for (int i = 0; i + 1 < normalized.length(); i++) {
+                int[] postings = bigramPostings.get(bigram(normalized.charAt(i), normalized.charAt(i + 1)));
+                if (postings == null) {
+                    return NO_ITEMS;
+                }
+                if (shortest == null || postings.length < shortest.length) {
+                    shortest = postings;
+                }
+            }
+            return shortest;
+        }
+
+        private static int bigram(char first, char second) {
+            return (first << 16) | second;
+        }
+
+        private static <K> void addPosting(Map<K, List<Integer>> postings, K key, int index) {
+            List<Integer> list = postings.computeIfAbsent(key, k -> new ArrayList<>());
+            // 한 이름에 같은 문자가 여러 번 나와도 한 번만
+            if (list.isEmpty() || list.get(list.size() - 1) != index) {
+                list.add(index);
+            }
+        }
+
+        private static <K> Map<K, int[]> toArrays(Map<K, List<Integer>> postings) {
+            Map<K, int[]> arrays = new HashMap<>(postings.size() * 2);
+            for (Map.Entry<K, List<Integer>> entry : postings.entrySet()) {
+                arrays.put(entry.getKey(), entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+            }
+            return arrays;
+        }
+    }
+}
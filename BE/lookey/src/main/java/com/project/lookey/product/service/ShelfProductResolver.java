@@ -0,0 +1,129 @@
+package com.project.lookey.product.service;
+
+import com.project.lookey.allergy.service.AllergyCheckEngine;
+import com.project.lookey.product.dto.ResolvedProduct;
+import com.project.lookey.product.entity.Product;
+import com.project.lookey.product.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 매대 스캔 후 상품명 일괄 조회 (상품 정보 + 사용자 알레르기 여부, 스캔 응답 뒤 저장된 매대 데이터에 추가)
+ * 위치 안내의 상품 조회(정확한 이름 -> 부분 이름 첫 상품)와 같은 규칙을 이름마다가 아닌 묶음 쿼리로 수행
+ * - 정확한 이름: IN 쿼리 한 번
+ * - 정확히 일치하지 않는 이름: 메모리 상품명 목록(ProductNameCatalog)에서 부분 이름 검색 후 상품 IN 쿼리 한 번
+ * - 알레르기: AllergyCheckEngine 일괄 검사 (캐시에 없으면 상품/사용자 각각 한 번)
+ * 전용 실행기(shelfResolveScheduler)에서만 호출되어 동시에 잡는 DB 커넥션 수가 제한됨
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class ShelfProductResolver {
+
+    private final ProductRepository productRepository;
+    private final AllergyCheckEngine allergyCheckEngine;
+    private final ProductNameCatalog nameCatalog;
+
+    /**
+     * 상품명 -> 조회 결과 (DB에 없으면 ResolvedProduct.notFound)
+     * @param names 조회할 상품명
+     */
+    public Map<String, ResolvedProduct> resolve(Collection<String> names, Integer userId) {
+        Set<String> distinct = new LinkedHashSet<>();
+        for (String name : names) {
+            if (name != null) {
+                distinct.add(name);
+            }
+        }
+        if (distinct.isEmpty()) {
+            return Map.of();
+        }
+
+        // 1. 정확한 이름 (DB 정렬 규칙처럼 대소문자 차이는 같은 이름으로 취급, 같은 이름이 여럿이면 ID 순)
+        List<Product> exactProducts = new ArrayList<>(productRepository.findByNameIn(distinct));
+        exactProducts.sort(Comparator.comparing(Product::getId));
+        Map<String, Product> byName = new HashMap<>();
+        for (Product product : exactProducts) {
+            byName.putIfAbsent(product.getName(), product);
+        }
+
+        Map<String, Product> resolved = new LinkedHashMap<>();
+        List<String> unmatched = new ArrayList<>();
+        for (String name : distinct) {
+            Product product = byName.get(name);
+            if (product == null) {
+                product = exactProducts.stream()
+                        .filter(candidate -> candidate.getName().equalsIgnoreCase(name))
+                        .findFirst()
+                        .orElse(null);
+            }
+            if (product != null) {
+                resolved.put(name, product);
+            } else {
+                unmatched.add(name);
+            }
+        }
+
+        // 2. 부분 이름 (이름순 첫 상품, 쿼리 없이 메모리 목록에서)
+        Map<String, Long> keywordMatches = new LinkedHashMap<>();
+        Set<String> notFound = new HashSet<>();
+        for (String name : unmatched) {
+            Optional<Long> id = nameCatalog.firstContaining(name);
+            if (id.isPresent()) {
+                keywordMatches.put(name, id.get());
+            } else {
+                notFound.add(name);
+            }
+        }
+        if (!keywordMatches.isEmpty()) {
+            Map<Long, Product> byId = new HashMap<>();
+            for (Product product : productRepository.findAllById(new HashSet<>(keywordMatches.values()))) {
+                byId.put(product.getId(), product);
+            }
+            keywordMatches.forEach((name, id) -> {
+                Product product = byId.get(id);
+                if (product != null) {
+                    resolved.put(name, product);
+                } else {
+                    notFound.add(name);
+                }
+            });
+        }
+
+        // 3. 알레르기 (알레르기 검사 엔진으로 일괄 검사 - 캐시에 없는 상품/사용자만 각각 쿼리 한 번)
+        Set<Long> productIds = new HashSet<>();
+        resolved.values().forEach(product -> productIds.add(product.getId()));
+        Map<Long, Boolean> allergies = productIds.isEmpty() ? Map.of() : allergyCheckEngine.hasAllergy(userId, productIds);
+
+        Map<String, ResolvedProduct> result = new HashMap<>();
+        for (String name : distinct) {
+            Product product = resolved.get(name);
+            if (product != null) {
+                result.put(name, new ResolvedProduct(product.getId(), product.getName(), product.getPrice(),
+                        product.getEvent(), allergyCheckEngine.allergyIds(product.getId()),
+                        allergies.getOrDefault(product.getId(), false)));
+            } else if (notFound.contains(name)) {
+                result.put(name, ResolvedProduct.notFound(name));
+            }
+        }
+
+        log.debug("매대 상품 일괄 조회 - 이름: {}개, 조회됨: {}개, 없음: {}개, 부분 이름 검색: {}개",
+                distinct.size(), resolved.size(), notFound.size(), unmatched.size());
+        return result;
+    }
+}
@@ -0,0 +1,66 @@
+package com.project.lookey.vision.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Vision API 전용 실행기 설정
+ * 블로킹 gRPC 호출이 공용 ForkJoinPool을 점유하지 않도록 크기가 제한된 전용 스레드 풀 사용
+ */
+@Configuration
+public class VisionExecutorConfig {
+
+    @Value("${vision.executor.core-size:8}")
+    private int coreSize;
+
+    @Value("${vision.executor.max-size:16}")
+    private int maxSize;
+
+    // 대기열이 가득 차면 요청을 거절 (무한정 쌓이지 않도록)
+    @Value("${vision.executor.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Bean(name = "visionExecutor", destroyMethod = "shutdownNow")
+    public ThreadPoolExecutor visionExecutor(MeterRegistry meterRegistry) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                coreSize,
+                Math.max(coreSize, maxSize),
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                namedThreadFactory("vision-"),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        // executor.active, executor.queued, executor.pool.size 등 (name=vision)
+        new ExecutorServiceMetrics(executor, "vision", Tags.empty()).bindTo(meterRegistry);
+        return executor;
+    }
+
+    // 작업 취소 시 실행 중인 스레드를 인터럽트하여 진행 중인 호출도 중단
+    @Bean(name = "visionScheduler", destroyMethod = "dispose")
+    public Scheduler visionScheduler(@Qualifier("visionExecutor") ThreadPoolExecutor visionExecutor) {
+        return Schedulers.fromExecutorService(visionExecutor, "vision");
+    }
+
+    private ThreadFactory namedThreadFactory(String prefix) {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,48 @@
+package com.project.lookey.vision.config;
+
+import com.project.lookey.vision.controller.VisionStreamHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+import org.springframework.web.socket.server.standard.ServletServerContainerFactoryBean;
+
+/**
+ * Vision 프레임 스트리밍 WebSocket 설정
+ */
+@Configuration
+@EnableWebSocket
+@RequiredArgsConstructor
+public class VisionWebSocketConfig implements WebSocketConfigurer {
+
+    private final VisionStreamHandler visionStreamHandler;
+
+    // 프레임 1장 최대 크기 - 컨테이너가 세션마다 이 크기의 버퍼를 미리 할당하므로 휴대폰 프레임 크기(2MB)로 제한
+    // 초과 프레임은 1009(TOO_BIG)로 연결 종료
+    @Value("${vision.stream.max-frame-bytes:2097152}")
+    private int maxFrameBytes;
+
+    // 브라우저 접속 허용 origin 패턴 (쉼표 구분, 비우면 같은 origin만 - Origin 헤더 없는 앱 클라이언트는 영향 없음)
+    @Value("${vision.stream.allowed-origins:}")
+    private String[] allowedOrigins;
+
+    @Value("${vision.stream.idle-timeout-ms:60000}")
+    private long idleTimeoutMillis;
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(visionStreamHandler, "/api/v1/vision/ai/stream")
+                .setAllowedOriginPatterns(allowedOrigins);
+    }
+
+    @Bean
+    public ServletServerContainerFactoryBean createWebSocketContainer() {
+        ServletServerContainerFactoryBean container = new ServletServerContainerFactoryBean();
+        container.setMaxBinaryMessageBufferSize(maxFrameBytes);
+        container.setMaxSessionIdleTimeout(idleTimeoutMillis);
+        return container;
+    }
+}
@@ -1,6 +1,13 @@
 package com.project.lookey.vision.controller;
 
-import com.project.lookey.vision.service.VisionApiService;
+import com.project.lookey.OAuth.Service.oauth.CustomOAuth2User;
+import com.project.lookey.common.image.FrameRetakeException;
+import com.project.lookey.common.memory.ImageMemoryBudgetExceededException;
+import com.project.lookey.vision.exception.VisionException;
+import com.project.lookey.vision.service.VisionAnalysisMode;
+import com.project.lookey.vision.service.VisionLane;
+import com.project.lookey.vision.service.VisionNavigationService;
+import com.project.lookey.vision.service.VisionOutput;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -10,7 +17,11 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.http.MediaType;
 import org.springframework.web.multipart.MultipartFile;
@@ -18,6 +29,9 @@ import reactor.core.publisher.Mono;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 
 @Slf4j
 @RestController
@@ -26,7 +40,11 @@ import java.util.Map;
 @Tag(name = "Vision Analysis API", description = "Google Cloud Vision API를 이용한 이미지 분석")
 public class VisionAnalysisController {
 
-    private final VisionApiService visionApiService;
+    private final VisionNavigationService visionNavigationService;
+
+    // Vision 실행기 대기열이 가득 차 거절할 때 안내할 재시도 간격
+    @Value("${vision.executor.retry-after-seconds:1}")
+    private long executorRetryAfterSeconds;
 
     @PostMapping(value = "/analyze", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @Operation(
@@ -40,16 +58,72 @@ public class VisionAnalysisController {
                     content = @Content(schema = @Schema(implementation = Map.class))
             ),
             @ApiResponse(responseCode = "400", description = "잘못된 요청 (파일이 없거나 올바르지 않음)"),
-            @ApiResponse(responseCode = "500", description = "서버 내부 오류")
+            @ApiResponse(responseCode = "409", description = "같은 사용자의 더 최근 프레임으로 대체됨 (superseded)"),
+            @ApiResponse(responseCode = "422", description = "흔들리거나 노출이 맞지 않는 프레임 (재촬영 안내)"),
+            @ApiResponse(responseCode = "429", description = "사용자별 Vision 분석 예산 초과"),
+            @ApiResponse(responseCode = "500", description = "서버 내부 오류"),
+            @ApiResponse(responseCode = "503", description = "이미지 메모리 예산 부족 또는 분석 대기열 포화 (Retry-After 헤더 참고)")
     })
     public Mono<ResponseEntity<Map<String, Object>>> analyzeImage(
+            @AuthenticationPrincipal CustomOAuth2User principal,
             @Parameter(description = "분석할 이미지 파일", required = true,
                       content = @Content(mediaType = MediaType.MULTIPART_FORM_DATA_VALUE))
-            @RequestPart("file") MultipartFile file) {
+            @RequestPart("file") MultipartFile file,
+            @Parameter(description = "분석 모드 (PARALLEL, BATCHED, GEOMETRY). 미지정 시 서버 기본값")
+            @RequestParam(value = "mode", required = false) VisionAnalysisMode mode,
+            @Parameter(description = "응답에 포함할 항목 (directions,people,obstacles,category,counter 중 쉼표 구분). 미지정 시 전체")
+            @RequestParam(value = "outputs", required = false) String outputs) {
+
+        return analyze(principal, file, mode, () -> VisionOutput.parse(outputs));
+    }
 
+    @PostMapping(value = "/analyze/safety", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(
+            summary = "안전 항목 빠른 분석",
+            description = "사람, 장애물, 방향만 분석합니다. 카테고리/카운터 분석을 기다리지 않으므로 /analyze보다 먼저 응답합니다."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "분석 성공",
+                    content = @Content(schema = @Schema(implementation = Map.class))
+            ),
+            @ApiResponse(responseCode = "400", description = "잘못된 요청 (파일이 없거나 안전 항목이 아닌 outputs)"),
+            @ApiResponse(responseCode = "409", description = "같은 사용자의 더 최근 프레임으로 대체됨 (superseded)"),
+            @ApiResponse(responseCode = "422", description = "흔들리거나 노출이 맞지 않는 프레임 (재촬영 안내)"),
+            @ApiResponse(responseCode = "429", description = "사용자별 Vision 분석 예산 초과"),
+            @ApiResponse(responseCode = "500", description = "서버 내부 오류"),
+            @ApiResponse(responseCode = "503", description = "이미지 메모리 예산 부족 또는 분석 대기열 포화 (Retry-After 헤더 참고)")
+    })
+    public Mono<ResponseEntity<Map<String, Object>>> analyzeSafety(
+            @AuthenticationPrincipal CustomOAuth2User principal,
+            @Parameter(description = "분석할 이미지 파일", required = true,
+                      content = @Content(mediaType = MediaType.MULTIPART_FORM_DATA_VALUE))
+            @RequestPart("file") MultipartFile file,
+            @Parameter(description = "분석 모드 (PARALLEL, BATCHED, GEOMETRY). 미지정 시 서버 기본값")
+            @RequestParam(value = "mode", required = false) VisionAnalysisMode mode,
+            @Parameter(description = "응답에 포함할 안전 항목 (directions,people,obstacles 중 쉼표 구분). 미지정 시 전체")
+            @RequestParam(value = "outputs", required = false) String outputs) {
+
+        return analyze(principal, file, mode, () -> {
+            Set<VisionOutput> requested = VisionOutput.parse(outputs);
+            Set<VisionOutput> safety = VisionLane.SAFETY.filter(requested);
+            if (safety.size() != requested.size() && outputs != null && !outputs.isBlank()) {
+                throw new IllegalArgumentException("안전 항목(directions, people, obstacles)만 요청할 수 있습니다.");
+            }
+            return safety;
+        });
+    }
+
+    private Mono<ResponseEntity<Map<String, Object>>> analyze(CustomOAuth2User principal, MultipartFile file,
+                                                              VisionAnalysisMode mode,
+                                                              Supplier<Set<VisionOutput>> outputs) {
         log.info("Vision API 이미지 분석 요청 - 파일명: {}, 크기: {} bytes",
                 file.getOriginalFilename(), file.getSize());
 
+        // 인증된 요청만 사용자별 프레임 캐시/시간축 안정화 사용 (Vision API는 임시 permitAll)
+        Integer userId = principal != null ? principal.getUserId() : null;
+
         return Mono.fromCallable(() -> {
             // 파일 유효성 검사
             if (file.isEmpty()) {
@@ -69,7 +143,8 @@ public class VisionAnalysisController {
 
             return file.getBytes();
         })
-        .flatMap(visionApiService::analyzeImage)
+        .flatMap(imageBytes -> visionNavigationService.analyzeForUser(
+                imageBytes, mode, userId, outputs.get()))
         .map(this::createSuccessResponse)
         .onErrorResume(this::createErrorResponse);
     }
@@ -88,13 +163,55 @@ public class VisionAnalysisController {
     }
 
     private Mono<ResponseEntity<Map<String, Object>>> createErrorResponse(Throwable error) {
-        log.error("Vision API 분석 실패", error);
-
         Map<String, Object> errorResponse = new HashMap<>();
         errorResponse.put("success", false);
+        errorResponse.put("timestamp", System.currentTimeMillis());
+
+        if (error instanceof FrameRetakeException retakeException) {
+            log.debug("Vision API 분석 생략 - 재촬영 필요: {}", retakeException.getQuality().verdict());
+            errorResponse.put("message", retakeException.getReason());
+            errorResponse.put("code", "RETAKE_REQUIRED");
+            errorResponse.put("data", retakeException.getQuality().toRetakeResponse());
+            return Mono.just(ResponseEntity.status(retakeException.getStatusCode()).body(errorResponse));
+        }
+
+        if (error instanceof ImageMemoryBudgetExceededException budgetException) {
+            log.warn("Vision API 요청 거절 - 이미지 메모리 예산 부족");
+            errorResponse.put("message", budgetException.getReason());
+            errorResponse.put("code", "MEMORY_BUDGET_EXCEEDED");
+            errorResponse.put("retryAfterSeconds", budgetException.getRetryAfterSeconds());
+            return Mono.just(ResponseEntity.status(budgetException.getStatusCode())
+                    .headers(budgetException.getHeaders())
+                    .body(errorResponse));
+        }
+
+        if (isExecutorRejection(error)) {
+            log.warn("Vision API 요청 거절 - 분석 실행기 대기열 포화");
+            errorResponse.put("message", "이미지 분석 요청이 많습니다. 잠시 후 다시 시도해주세요.");
+            errorResponse.put("code", "EXECUTOR_SATURATED");
+            errorResponse.put("retryAfterSeconds", executorRetryAfterSeconds);
+            return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(executorRetryAfterSeconds))
+                    .body(errorResponse));
+        }
+
+        if (error instanceof VisionException visionException) {
+            // 대체된 프레임은 정상 흐름이므로 디버그 로그만 남김
+            if ("SUPERSEDED".equals(visionException.getCode())) {
+                log.debug("Vision API 분석 생략 - {}", visionException.getInfo());
+                errorResponse.put("superseded", true);
+            } else {
+                log.warn("Vision API 오류 - {}: {}", visionException.getCode(), visionException.getMessage());
+            }
+            errorResponse.put("message", visionException.getMessage());
+            errorResponse.put("code", visionException.getCode());
+            errorResponse.put("error", visionException.getInfo());
+            return Mono.just(ResponseEntity.status(visionException.getHttpStatus()).body(errorResponse));
+        }
+
+        log.error("Vision API 분석 실패", error);
         errorResponse.put("message", "이미지 분석 중 오류가 발생했습니다.");
         errorResponse.put("error", error.getMessage());
-        errorResponse.put("timestamp", System.currentTimeMillis());
 
         int statusCode = 500;
         if (error instanceof IllegalArgumentException) {
@@ -103,4 +220,16 @@ public class VisionAnalysisController {
 
         return Mono.just(ResponseEntity.status(statusCode).body(errorResponse));
     }
-}
\ No newline at end of file
+
+    /**
+     * Vision 실행기 거절(AbortPolicy) 여부 - 래핑된 경우도 원인까지 확인
+     */
+    private static boolean isExecutorRejection(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RejectedExecutionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,276 @@
+package com.project.lookey.vision.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.lookey.OAuth.Service.oauth.CustomOAuth2User;
+import com.project.lookey.common.image.FrameRetakeException;
+import com.project.lookey.common.memory.ImageMemoryBudgetExceededException;
+import com.project.lookey.vision.service.VisionAnalysisMode;
+import com.project.lookey.vision.service.VisionNavigationService;
+import com.project.lookey.vision.service.VisionOutput;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.BinaryWebSocketHandler;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.Disposable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.security.Principal;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 연속 내비게이션용 프레임 스트리밍 WebSocket 핸들러 (/api/v1/vision/ai/stream)
+ * - 클라이언트는 JPEG 프레임을 바이너리 메시지로 계속 전송
+ * - 분석이 끝날 때마다 결과를 텍스트(JSON) 메시지로 푸시
+ * - 분석 중에 들어온 프레임은 최신 1장만 남기고 나머지는 폐기
+ */
+@Component
+@Slf4j
+public class VisionStreamHandler extends BinaryWebSocketHandler {
+
+    private final VisionNavigationService visionNavigationService;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, VisionStreamSession> sessions = new ConcurrentHashMap<>();
+
+    private final Counter analyzedCounter;
+    private final Counter droppedCounter;
+
+    // 느린 클라이언트로의 전송이 이 시간을 넘기면 세션 종료
+    @Value("${vision.stream.send-time-limit-ms:5000}")
+    private int sendTimeLimitMillis;
+
+    @Value("${vision.stream.send-buffer-bytes:65536}")
+    private int sendBufferBytes;
+
+    // 프레임 1장 최대 크기 (VisionWebSocketConfig 컨테이너 버퍼와 같은 값)
+    @Value("${vision.stream.max-frame-bytes:2097152}")
+    private int maxFrameBytes;
+
+    public VisionStreamHandler(VisionNavigationService visionNavigationService, ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry) {
+        this.visionNavigationService = visionNavigationService;
+        this.objectMapper = objectMapper;
+        this.analyzedCounter = Counter.builder("vision.stream.frames")
+                .tag("result", "analyzed")
+                .description("스트리밍 세션에서 분석한 프레임 수")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("vision.stream.frames")
+                .tag("result", "dropped")
+                .description("더 새로운 프레임이 도착해 분석 없이 폐기한 프레임 수")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        WebSocketSession concurrentSession =
+                new ConcurrentWebSocketSessionDecorator(session, sendTimeLimitMillis, sendBufferBytes);
+        VisionAnalysisMode mode = resolveMode(session);
+        Set<VisionOutput> outputs = resolveOutputs(session);
+        Integer userId = resolveUserId(session.getPrincipal());
+
+        sessions.put(session.getId(), new VisionStreamSession(
+                concurrentSession, mode, userId, outputs, visionNavigationService.newSession()));
+        log.info("Vision 스트리밍 세션 시작 - sessionId: {}, userId: {}, mode: {}", session.getId(), userId, mode);
+    }
+
+    @Override
+    protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) {
+        VisionStreamSession stream = sessions.get(session.getId());
+        if (stream == null) {
+            return;
+        }
+
+        ByteBuffer payload = message.getPayload();
+        if (payload.remaining() > maxFrameBytes) {
+            log.warn("Vision 스트리밍 프레임 크기 초과 - sessionId: {}, {}바이트 (최대 {}바이트)",
+                    session.getId(), payload.remaining(), maxFrameBytes);
+            closeTooBig(session);
+            return;
+        }
+        if (!payload.hasRemaining()) {
+            send(stream, errorMessage(0L, "빈 프레임은 분석할 수 없습니다."));
+            return;
+        }
+
+        byte[] imageBytes = new byte[payload.remaining()];
+        payload.get(imageBytes);
+
+        if (stream.offer(imageBytes)) {
+            droppedCounter.increment();
+        }
+        drain(stream);
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) {
+        log.warn("Vision 스트리밍 전송 오류 - sessionId: {}, 원인: {}", session.getId(), exception.getMessage());
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        VisionStreamSession stream = sessions.remove(session.getId());
+        if (stream != null) {
+            stream.close();
+        }
+        log.info("Vision 스트리밍 세션 종료 - sessionId: {}, status: {}", session.getId(), status);
+    }
+
+    /**
+     * 진행 중인 분석이 없으면 가장 최근 프레임 분석 시작
+     */
+    private void drain(VisionStreamSession stream) {
+        if (!stream.isOpen() || !stream.tryAcquire()) {
+            return;
+        }
+
+        VisionStreamSession.Frame frame = stream.poll();
+        if (frame == null) {
+            stream.release();
+            // release 직전에 들어온 프레임 처리
+            if (stream.hasPending()) {
+                drain(stream);
+            }
+            return;
+        }
+
+        // 안전 레인 결과를 먼저 보내고, 편의 레인 결과는 준비되는 대로 추가 메시지로 전송
+        Disposable.Swap slot = stream.startFrame();
+        slot.update(visionNavigationService.analyzeFrameLanes(
+                        stream.getNavigation(), frame.getImageBytes(), stream.getMode(), stream.getUserId(),
+                        stream.getOutputs())
+                .subscribe(
+                        lane -> {
+                            Map<String, Object> message = resultMessage(frame.getSequence(), lane.data());
+                            message.put("lane", lane.lane().name().toLowerCase(Locale.ROOT));
+                            send(stream, message);
+                        },
+                        error -> {
+                            if (error instanceof FrameRetakeException retakeException) {
+                                Map<String, Object> message = errorMessage(frame.getSequence(), retakeException.getReason());
+                                message.put("data", retakeException.getQuality().toRetakeResponse());
+                                send(stream, message);
+                            } else if (error instanceof ImageMemoryBudgetExceededException budgetException) {
+                                // 메모리 예산 부족은 다음 프레임에서 회복되므로 경고만 남김
+                                log.warn("Vision 스트리밍 프레임 거절 - frame: {}, 이미지 메모리 예산 부족", frame.getSequence());
+                                Map<String, Object> message = errorMessage(frame.getSequence(), budgetException.getReason());
+                                message.put("retryAfterSeconds", budgetException.getRetryAfterSeconds());
+                                send(stream, message);
+                            } else {
+                                log.error("Vision 스트리밍 프레임 분석 실패 - frame: {}", frame.getSequence(), error);
+                                send(stream, errorMessage(frame.getSequence(), error.getMessage()));
+                            }
+                            finish(stream);
+                        },
+                        () -> {
+                            analyzedCounter.increment();
+                            finish(stream);
+                        }));
+    }
+
+    private void closeTooBig(WebSocketSession session) {
+        try {
+            session.close(CloseStatus.TOO_BIG_TO_PROCESS);
+        } catch (IOException e) {
+            log.debug("Vision 스트리밍 세션 종료 실패 - sessionId: {}, 원인: {}", session.getId(), e.getMessage());
+        }
+    }
+
+    private void finish(VisionStreamSession stream) {
+        stream.release();
+        drain(stream);
+    }
+
+    private void send(VisionStreamSession stream, Map<String, Object> payload) {
+        if (!stream.isOpen()) {
+            return;
+        }
+        try {
+            stream.getSession().sendMessage(new TextMessage(objectMapper.writeValueAsString(payload)));
+        } catch (JsonProcessingException e) {
+            log.error("Vision 스트리밍 응답 직렬화 실패", e);
+        } catch (IOException | IllegalStateException e) {
+            log.warn("Vision 스트리밍 응답 전송 실패 - sessionId: {}, 원인: {}", stream.getSession().getId(), e.getMessage());
+        }
+    }
+
+    private Map<String, Object> resultMessage(long sequence, Map<String, Object> analysisResult) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("frame", sequence);
+        response.put("data", analysisResult);
+        response.put("timestamp", System.currentTimeMillis());
+        return response;
+    }
+
+    private Map<String, Object> errorMessage(long sequence, String error) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("frame", sequence);
+        response.put("message", "이미지 분석 중 오류가 발생했습니다.");
+        response.put("error", error);
+        response.put("timestamp", System.currentTimeMillis());
+        return response;
+    }
+
+    /**
+     * 연결 URL의 mode 쿼리 파라미터 (없거나 잘못되면 서버 기본값)
+     */
+    private VisionAnalysisMode resolveMode(WebSocketSession session) {
+        String mode = queryParam(session, "mode");
+        if (mode == null || mode.isBlank()) {
+            return null;
+        }
+        try {
+            return VisionAnalysisMode.valueOf(mode.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            log.warn("알 수 없는 분석 모드 - mode: {}, 기본값 사용", mode);
+            return null;
+        }
+    }
+
+    /**
+     * 연결 URL의 outputs 쿼리 파라미터 (없거나 잘못되면 전체 항목)
+     */
+    private Set<VisionOutput> resolveOutputs(WebSocketSession session) {
+        try {
+            return VisionOutput.parse(queryParam(session, "outputs"));
+        } catch (IllegalArgumentException e) {
+            log.warn("{} - 전체 항목으로 분석", e.getMessage());
+            return EnumSet.allOf(VisionOutput.class);
+        }
+    }
+
+    private String queryParam(WebSocketSession session, String name) {
+        if (session.getUri() == null) {
+            return null;
+        }
+        return UriComponentsBuilder.fromUri(session.getUri()).build().getQueryParams().getFirst(name);
+    }
+
+    /**
+     * 핸드셰이크 시 JWT 필터가 설정한 인증 정보에서 사용자 ID 추출 (비로그인 시 null)
+     */
+    private Integer resolveUserId(Principal principal) {
+        if (principal instanceof Authentication authentication
+                && authentication.getPrincipal() instanceof CustomOAuth2User user) {
+            return user.getUserId();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,138 @@
+package com.project.lookey.vision.controller;
+
+import com.project.lookey.vision.service.NavigationSession;
+import com.project.lookey.vision.service.VisionAnalysisMode;
+import com.project.lookey.vision.service.VisionOutput;
+import org.springframework.web.socket.WebSocketSession;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 프레임 스트리밍 세션 상태
+ * 대기 프레임은 최신 1장만 보관하고(latest-wins), 분석은 세션당 한 번에 하나만 진행
+ */
+class VisionStreamSession {
+
+    private final WebSocketSession session;
+    private final VisionAnalysisMode mode;
+    private final Integer userId;
+    private final Set<VisionOutput> outputs;
+    // 시간축 안정화/적응형 샘플링 상태
+    private final NavigationSession navigation;
+
+    private final AtomicReference<Frame> pending = new AtomicReference<>();
+    private final AtomicBoolean inFlight = new AtomicBoolean(false);
+    private final AtomicLong sequence = new AtomicLong();
+    // 진행 중인 프레임 분석의 구독 자리 (프레임마다 새로 만들어 구독 전에 등록)
+    private final AtomicReference<Disposable.Swap> current = new AtomicReference<>();
+    private volatile boolean closed;
+
+    VisionStreamSession(WebSocketSession session, VisionAnalysisMode mode, Integer userId,
+                        Set<VisionOutput> outputs, NavigationSession navigation) {
+        this.session = session;
+        this.mode = mode;
+        this.userId = userId;
+        this.outputs = outputs;
+        this.navigation = navigation;
+    }
+
+    /**
+     * 새 프레임 등록. 아직 분석되지 않은 이전 프레임을 대체했으면 true
+     */
+    boolean offer(byte[] imageBytes) {
+        Frame frame = new Frame(sequence.incrementAndGet(), imageBytes);
+        return pending.getAndSet(frame) != null;
+    }
+
+    /**
+     * 진행 중인 분석이 없을 때만 분석 권한 획득
+     */
+    boolean tryAcquire() {
+        return inFlight.compareAndSet(false, true);
+    }
+
+    void release() {
+        inFlight.set(false);
+    }
+
+    Frame poll() {
+        return pending.getAndSet(null);
+    }
+
+    boolean hasPending() {
+        return pending.get() != null;
+    }
+
+    /**
+     * 이번 프레임 분석의 구독 자리를 구독 전에 등록
+     * 구독이 동기로 끝나 다음 프레임이 먼저 시작되어도 각 프레임은 자기 자리만 갱신하므로 다음 프레임의 구독을 덮어쓰지 않음
+     * 이미 닫힌 세션이면 자리가 해제된 상태라 구독하자마자 취소됨
+     */
+    Disposable.Swap startFrame() {
+        Disposable.Swap slot = Disposables.swap();
+        current.set(slot);
+        if (closed) {
+            slot.dispose();
+        }
+        return slot;
+    }
+
+    /**
+     * 연결 종료 시 대기 프레임 폐기 및 진행 중인 분석 취소
+     */
+    void close() {
+        closed = true;
+        pending.set(null);
+        Disposable.Swap running = current.get();
+        if (running != null) {
+            running.dispose();
+        }
+    }
+
+    boolean isOpen() {
+        return session.isOpen();
+    }
+
+    WebSocketSession getSession() {
+        return session;
+    }
+
+    VisionAnalysisMode getMode() {
+        return mode;
+    }
+
+    Integer getUserId() {
+        return userId;
+    }
+
+    Set<VisionOutput> getOutputs() {
+        return outputs;
+    }
+
+    NavigationSession getNavigation() {
+        return navigation;
+    }
+
+    static class Frame {
+        private final long sequence;
+        private final byte[] imageBytes;
+
+        Frame(long sequence, byte[] imageBytes) {
+            this.sequence = sequence;
+            this.imageBytes = imageBytes;
+        }
+
+        long getSequence() {
+            return sequence;
+        }
+
+        byte[] getImageBytes() {
+            return imageBytes;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.project.lookey.vision.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+@Getter
+public class VisionException extends RuntimeException {
+    private final HttpStatus httpStatus;
+    private final String code;
+    private final String info;
+
+    public VisionException(HttpStatus httpStatus, String message, String code, String info) {
+        super(message);
+        this.httpStatus = httpStatus;
+        this.code = code;
+        this.info = info;
+    }
+
+    // 자주 사용되는 예외들을 위한 정적 메서드
+    public static VisionException userQuotaExceeded() {
+        return new VisionException(
+            HttpStatus.TOO_MANY_REQUESTS,
+            "Vision 분석 요청이 너무 많습니다. 잠시 후 다시 시도해주세요.",
+            "USER_QUOTA_EXCEEDED",
+            "Per-user Vision budget exhausted"
+        );
+    }
+
+    public static VisionException superseded() {
+        return new VisionException(
+            HttpStatus.CONFLICT,
+            "더 최근 프레임이 도착하여 이 프레임은 분석하지 않았습니다.",
+            "SUPERSEDED",
+            "Replaced by a newer frame from the same user"
+        );
+    }
+}
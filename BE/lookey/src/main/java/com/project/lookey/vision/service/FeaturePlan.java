@@ -0,0 +1,74 @@
+package com.project.lookey.vision.service;
+
+import com.google.cloud.vision.v1.Feature;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 요청 항목별 Vision Feature 계획
+ * 셀마다 필요한 Feature만 담고, 필요한 Feature가 없는 셀은 호출하지 않음
+ */
+public class FeaturePlan {
+    private final Set<VisionOutput> outputs;
+    private final List<List<Feature>> featuresByCell;
+    private final List<Feature> fullFrameFeatures;
+    private final String key;
+
+    FeaturePlan(Set<VisionOutput> outputs, List<List<Feature>> featuresByCell,
+                List<Feature> fullFrameFeatures, String key) {
+        this.outputs = outputs;
+        this.featuresByCell = featuresByCell;
+        this.fullFrameFeatures = fullFrameFeatures;
+        this.key = key;
+    }
+
+    public boolean includes(VisionOutput output) {
+        return outputs.contains(output);
+    }
+
+    public Set<VisionOutput> getOutputs() {
+        return outputs;
+    }
+
+    public List<Feature> featuresForCell(int cell) {
+        return featuresByCell.get(cell);
+    }
+
+    /**
+     * 좌표 기반 분석(원본 1회 호출)용 Feature
+     */
+    public List<Feature> getFullFrameFeatures() {
+        return fullFrameFeatures;
+    }
+
+    /**
+     * Vision으로 보낼 이미지 수 (예산 차감 단위)
+     */
+    public int imageCount(VisionAnalysisMode mode) {
+        if (mode == VisionAnalysisMode.GEOMETRY) {
+            return fullFrameFeatures.isEmpty() ? 0 : 1;
+        }
+        int count = 0;
+        for (List<Feature> features : featuresByCell) {
+            if (!features.isEmpty()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 두 계획이 셀별/전체 프레임 모두 같은 Feature를 요청하는지 (같은 호출로 두 계획의 항목을 모두 계산 가능)
+     */
+    boolean sameFeaturesAs(FeaturePlan other) {
+        return featuresByCell.equals(other.featuresByCell) && fullFrameFeatures.equals(other.fullFrameFeatures);
+    }
+
+    /**
+     * 캐시 키 구분용 (요청 항목이 다르면 결과도 다름)
+     */
+    public String getKey() {
+        return key;
+    }
+}
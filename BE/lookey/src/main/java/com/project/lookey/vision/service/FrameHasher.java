@@ -0,0 +1,67 @@
+package com.project.lookey.vision.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.io.IOException;
+
+/**
+ * 프레임 지각 해시(dHash) 계산
+ * 축소된 흑백 래스터에서 인접 픽셀 밝기 비교로 64비트 해시를 만들어
+ * 거의 같은 프레임은 해밍 거리가 작게 나오도록 함
+ */
+@Component
+@RequiredArgsConstructor
+public class FrameHasher {
+
+    private final VisionImagePreparer imagePreparer;
+
+    private static final int HASH_WIDTH = 9;
+    private static final int HASH_HEIGHT = 8;
+
+    // 해시 계산용 디코딩 목표 크기 (원본을 이 정도로 서브샘플링해서 읽음)
+    private static final int DECODE_TARGET = 64;
+
+    /**
+     * 64비트 dHash 계산
+     */
+    public long hash(byte[] imageBytes) throws IOException {
+        // 해시 계산에는 고해상도가 필요 없으므로 서브샘플링으로 작게 디코딩
+        BufferedImage decoded = imagePreparer.decodeSubsampled(imageBytes, DECODE_TARGET);
+
+        BufferedImage gray = new BufferedImage(HASH_WIDTH, HASH_HEIGHT, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D g = gray.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(decoded, 0, 0, HASH_WIDTH, HASH_HEIGHT, null);
+        } finally {
+            g.dispose();
+        }
+
+        byte[] pixels = ((DataBufferByte) gray.getRaster().getDataBuffer()).getData();
+        long hash = 0L;
+        for (int y = 0; y < HASH_HEIGHT; y++) {
+            int row = y * HASH_WIDTH;
+            for (int x = 0; x < HASH_WIDTH - 1; x++) {
+                int left = pixels[row + x] & 0xFF;
+                int right = pixels[row + x + 1] & 0xFF;
+                hash <<= 1;
+                if (left > right) {
+                    hash |= 1L;
+                }
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * 두 해시의 해밍 거리
+     */
+    public static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+}
@@ -0,0 +1,129 @@
+package com.project.lookey.vision.service;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.cloud.vision.v1.BatchAnnotateImagesRequest;
+import com.google.cloud.vision.v1.BatchAnnotateImagesResponse;
+import com.google.cloud.vision.v1.ImageAnnotatorClient;
+import com.google.cloud.vision.v1.ImageAnnotatorSettings;
+import com.google.common.util.concurrent.MoreExecutors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+
+/**
+ * Google Cloud Vision 백엔드
+ * 인증 파일이 없거나 클라이언트 생성에 실패해도 애플리케이션은 시작하고, 호출 불가 상태로 남음
+ */
+@Component
+@ConditionalOnProperty(name = "vision.backend", havingValue = "google", matchIfMissing = true)
+@Slf4j
+public class GoogleVisionBackend implements VisionBackend {
+
+    private final Scheduler visionScheduler;
+
+    private ImageAnnotatorClient visionClient;
+
+    @Value("${google.cloud.vision.credentials}")
+    private String credentialsPath;
+
+    // true: gRPC futureCall 기반 비동기 호출, false: 실행기 스레드에서 블로킹 호출
+    @Value("${vision.analysis.non-blocking:true}")
+    private boolean nonBlockingCalls;
+
+    public GoogleVisionBackend(@Qualifier("visionScheduler") Scheduler visionScheduler) {
+        this.visionScheduler = visionScheduler;
+    }
+
+    @PostConstruct
+    public void initializeVisionClient() {
+        try {
+
+            // 파일 존재 확인
+            File credFile = new File(credentialsPath);
+            if (!credFile.exists()) {
+                throw new RuntimeException("Credentials file not found: " + credentialsPath);
+            }
+
+            // 직접 파일에서 인증 정보 로드
+            GoogleCredentials credentials;
+            try (InputStream input = new FileInputStream(credFile)) {
+                credentials = GoogleCredentials.fromStream(input);
+            }
+
+            ImageAnnotatorSettings settings = ImageAnnotatorSettings.newBuilder()
+                    .setCredentialsProvider(() -> credentials)
+                    .build();
+
+            this.visionClient = ImageAnnotatorClient.create(settings);
+            log.info("Google Cloud Vision API client initialized successfully");
+        } catch (Exception e) {
+            log.error("Failed to initialize Vision API client", e);
+            log.warn("Vision API will be unavailable. Application will continue without Vision API functionality.");
+            // 애플리케이션 시작을 위해 예외를 던지지 않음
+            this.visionClient = null;
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (visionClient != null) {
+            visionClient.close();
+        }
+    }
+
+    /**
+     * 비동기 모드에서는 gRPC futureCall의 ApiFuture를 Mono로 연결하여 응답을 기다리는 동안 스레드를 점유하지 않고,
+     * 동기 모드에서는 Vision 전용 실행기에서 블로킹 호출
+     */
+    @Override
+    public Mono<BatchAnnotateImagesResponse> annotate(BatchAnnotateImagesRequest request) {
+        return nonBlockingCalls
+                ? futureCall(request)
+                : Mono.fromCallable(() -> visionClient.batchAnnotateImages(request))
+                        .subscribeOn(visionScheduler);
+    }
+
+    private Mono<BatchAnnotateImagesResponse> futureCall(BatchAnnotateImagesRequest batchRequest) {
+        return Mono.create(sink -> {
+            ApiFuture<BatchAnnotateImagesResponse> future =
+                    visionClient.batchAnnotateImagesCallable().futureCall(batchRequest);
+
+            ApiFutures.addCallback(future, new ApiFutureCallback<>() {
+                @Override
+                public void onSuccess(BatchAnnotateImagesResponse response) {
+                    sink.success(response);
+                }
+
+                @Override
+                public void onFailure(Throwable t) {
+                    sink.error(t);
+                }
+            }, MoreExecutors.directExecutor());
+
+            sink.onCancel(() -> future.cancel(true));
+        });
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return visionClient != null;
+    }
+
+    @Override
+    public String name() {
+        return "google";
+    }
+}
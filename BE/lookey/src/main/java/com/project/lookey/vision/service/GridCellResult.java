@@ -0,0 +1,32 @@
+package com.project.lookey.vision.service;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * 격자 셀 단위 분석 결과 (vision.grid.include-cells=true일 때 응답의 grid.cells)
+ */
+public class GridCellResult {
+    private final int row;
+    private final int column;
+    private final boolean aisle;
+    private final boolean people;
+    private final boolean obstacles;
+
+    @JsonCreator
+    public GridCellResult(@JsonProperty("row") int row, @JsonProperty("column") int column,
+                          @JsonProperty("aisle") boolean aisle, @JsonProperty("people") boolean people,
+                          @JsonProperty("obstacles") boolean obstacles) {
+        this.row = row;
+        this.column = column;
+        this.aisle = aisle;
+        this.people = people;
+        this.obstacles = obstacles;
+    }
+
+    public int getRow() { return row; }
+    public int getColumn() { return column; }
+    public boolean isAisle() { return aisle; }
+    public boolean isPeople() { return people; }
+    public boolean isObstacles() { return obstacles; }
+}
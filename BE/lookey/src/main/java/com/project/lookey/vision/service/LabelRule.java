@@ -0,0 +1,45 @@
+package com.project.lookey.vision.service;
+
+/**
+ * Vision 라벨/객체 이름 분류 규칙
+ * 키워드 목록은 LabelRuleEngine에서 설정(vision.rules.*)으로 주입
+ */
+public enum LabelRule {
+
+    AISLE(MatchMode.CONTAINS),
+    PERSON_OBJECT(MatchMode.CONTAINS),
+    PEOPLE_LABEL(MatchMode.WORD),          // personal care 같은 오탐 방지용 단어 경계 매칭
+    OBSTACLE_OBJECT(MatchMode.CONTAINS),
+    BEVERAGE_CATEGORY(MatchMode.CONTAINS),
+    SNACK_CATEGORY(MatchMode.CONTAINS),
+    COUNTER_DIRECT(MatchMode.EXACT),
+    ELECTRONIC_DEVICE(MatchMode.EXACT),
+    MACHINE(MatchMode.EXACT),
+    VENDING_BEVERAGE(MatchMode.EXACT),
+    CONVENIENCE_STORE(MatchMode.EXACT),
+    ARCHITECTURE(MatchMode.EXACT);
+
+    private final MatchMode matchMode;
+
+    LabelRule(MatchMode matchMode) {
+        this.matchMode = matchMode;
+    }
+
+    public MatchMode getMatchMode() {
+        return matchMode;
+    }
+
+    public long mask() {
+        return 1L << ordinal();
+    }
+
+    public boolean in(long matched) {
+        return (matched & mask()) != 0;
+    }
+
+    public enum MatchMode {
+        CONTAINS,   // 부분 문자열
+        WORD,       // 공백 기준 단어 경계
+        EXACT       // 전체 일치
+    }
+}
@@ -0,0 +1,204 @@
+package com.project.lookey.vision.service;
+
+import com.project.lookey.common.util.KeywordAutomaton;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 라벨 분류 규칙 엔진
+ * 모든 규칙의 키워드를 기동 시 하나의 Aho-Corasick 오토마톤으로 컴파일하고,
+ * 라벨 하나를 한 번만 훑어 일치한 규칙을 비트마스크로 반환 (소문자 변환/문자열 생성 없음)
+ */
+@Component
+@Slf4j
+public class LabelRuleEngine {
+
+    @Value("${vision.rules.aisle:aisle}")
+    private List<String> aisleKeywords;
+
+    @Value("${vision.rules.person-object:person}")
+    private List<String> personObjectKeywords;
+
+    @Value("${vision.rules.people-label:person,people,human,man,woman}")
+    private List<String> peopleLabelKeywords;
+
+    @Value("${vision.rules.obstacle-object:chair,table,cart,box,bag,bicycle,vehicle}")
+    private List<String> obstacleObjectKeywords;
+
+    // 실제 Vision API 결과 기반 음료 관련 라벨
+    @Value("${vision.rules.beverage-category:drink can,soft drink,energy drink,diet drink,"
+            + "carbonated soft drinks,bottle,plastic bottle,aluminum can,steel and tin cans,beverage can,"
+            + "juice,water,soda,coffee,tea,milk}")
+    private List<String> beverageCategoryKeywords;
+
+    // 실제 Vision API 결과 기반 식품 관련 라벨
+    @Value("${vision.rules.snack-category:food,convenience food,frozen food,food storage,"
+            + "packaged goods,processed food,candy,chocolate,chip,cookie,cracker,"
+            + "biscuit,gum,cereal,bar,nut}")
+    private List<String> snackCategoryKeywords;
+
+    @Value("${vision.rules.counter-direct:cash register,checkout,cashier,pos,terminal,"
+            + "checkout counter,service desk,reception desk}")
+    private List<String> counterDirectKeywords;
+
+    @Value("${vision.rules.electronic-device:electronic device}")
+    private List<String> electronicDeviceKeywords;
+
+    @Value("${vision.rules.machine:machine}")
+    private List<String> machineKeywords;
+
+    @Value("${vision.rules.vending-beverage:beverage,drink,soft drink,bottle}")
+    private List<String> vendingBeverageKeywords;
+
+    @Value("${vision.rules.convenience-store:convenience store,retail,supermarket}")
+    private List<String> convenienceStoreKeywords;
+
+    @Value("${vision.rules.architecture:building,interior design,architecture}")
+    private List<String> architectureKeywords;
+
+    private KeywordAutomaton automaton;
+
+    // 키워드 ID별로 매칭 방식에 따라 켜질 규칙 비트
+    private long[] containsMasks;
+    private long[] wordMasks;
+    private long[] exactMasks;
+
+    @PostConstruct
+    public void compile() {
+        Map<LabelRule, List<String>> keywordsByRule = new EnumMap<>(LabelRule.class);
+        keywordsByRule.put(LabelRule.AISLE, aisleKeywords);
+        keywordsByRule.put(LabelRule.PERSON_OBJECT, personObjectKeywords);
+        keywordsByRule.put(LabelRule.PEOPLE_LABEL, peopleLabelKeywords);
+        keywordsByRule.put(LabelRule.OBSTACLE_OBJECT, obstacleObjectKeywords);
+        keywordsByRule.put(LabelRule.BEVERAGE_CATEGORY, beverageCategoryKeywords);
+        keywordsByRule.put(LabelRule.SNACK_CATEGORY, snackCategoryKeywords);
+        keywordsByRule.put(LabelRule.COUNTER_DIRECT, counterDirectKeywords);
+        keywordsByRule.put(LabelRule.ELECTRONIC_DEVICE, electronicDeviceKeywords);
+        keywordsByRule.put(LabelRule.MACHINE, machineKeywords);
+        keywordsByRule.put(LabelRule.VENDING_BEVERAGE, vendingBeverageKeywords);
+        keywordsByRule.put(LabelRule.CONVENIENCE_STORE, convenienceStoreKeywords);
+        keywordsByRule.put(LabelRule.ARCHITECTURE, architectureKeywords);
+        compile(keywordsByRule);
+    }
+
+    /**
+     * 규칙별 키워드로 오토마톤 재구성 (같은 키워드는 하나의 ID를 공유)
+     */
+    void compile(Map<LabelRule, List<String>> keywordsByRule) {
+        List<String> keywords = new ArrayList<>();
+        Map<String, Integer> idByKeyword = new HashMap<>();
+        Map<Integer, Long> contains = new HashMap<>();
+        Map<Integer, Long> word = new HashMap<>();
+        Map<Integer, Long> exact = new HashMap<>();
+
+        keywordsByRule.forEach((rule, ruleKeywords) -> {
+            for (String raw : ruleKeywords) {
+                String keyword = raw.trim().toLowerCase(Locale.ROOT);
+                if (keyword.isEmpty()) {
+                    continue;
+                }
+                int id = idByKeyword.computeIfAbsent(keyword, k -> {
+                    keywords.add(k);
+                    return keywords.size() - 1;
+                });
+                Map<Integer, Long> target = switch (rule.getMatchMode()) {
+                    case CONTAINS -> contains;
+                    case WORD -> word;
+                    case EXACT -> exact;
+                };
+                target.merge(id, rule.mask(), (a, b) -> a | b);
+            }
+        });
+
+        this.containsMasks = toArray(contains, keywords.size());
+        this.wordMasks = toArray(word, keywords.size());
+        this.exactMasks = toArray(exact, keywords.size());
+        this.automaton = KeywordAutomaton.compile(keywords, true);
+
+        log.info("라벨 규칙 엔진 컴파일 완료 - 키워드: {}개, 상태: {}개", keywords.size(), automaton.stateCount());
+    }
+
+    /**
+     * 텍스트가 일치하는 규칙 비트마스크 반환 (대소문자 무시)
+     */
+    public long classify(CharSequence text) {
+        if (text == null) {
+            return 0L;
+        }
+
+        long matched = 0L;
+        int length = text.length();
+        int state = KeywordAutomaton.ROOT;
+        for (int i = 0; i < length; i++) {
+            state = automaton.next(state, text.charAt(i));
+            for (int k = 0, n = automaton.outputCount(state); k < n; k++) {
+                int keywordId = automaton.output(state, k);
+                int end = i + 1;
+                int start = end - automaton.keywordLength(keywordId);
+
+                matched |= containsMasks[keywordId];
+                if (wordMasks[keywordId] != 0 && isWordBoundary(text, start, end)) {
+                    matched |= wordMasks[keywordId];
+                }
+                if (exactMasks[keywordId] != 0 && start == 0 && end == length) {
+                    matched |= exactMasks[keywordId];
+                }
+            }
+        }
+        return matched;
+    }
+
+    public boolean matches(CharSequence text, LabelRule rule) {
+        return rule.in(classify(text));
+    }
+
+    /**
+     * 텍스트 전체와 일치하는 키워드 ID (없으면 -1)
+     * 서로 다른 키워드가 몇 개 나왔는지 셀 때 사용
+     */
+    public int exactKeywordId(CharSequence text) {
+        if (text == null || text.length() == 0) {
+            return -1;
+        }
+
+        int state = KeywordAutomaton.ROOT;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            state = automaton.transition(state, text.charAt(i));
+            if (state < 0) {
+                return -1;
+            }
+        }
+        for (int k = 0, n = automaton.outputCount(state); k < n; k++) {
+            int keywordId = automaton.output(state, k);
+            if (automaton.keywordLength(keywordId) == length) {
+                return keywordId;
+            }
+        }
+        return -1;
+    }
+
+    public int keywordCount() {
+        return automaton.keywordCount();
+    }
+
+    private static boolean isWordBoundary(CharSequence text, int start, int end) {
+        return (start == 0 || text.charAt(start - 1) == ' ')
+                && (end == text.length() || text.charAt(end) == ' ');
+    }
+
+    private static long[] toArray(Map<Integer, Long> masks, int size) {
+        long[] array = new long[size];
+        masks.forEach((id, mask) -> array[id] = mask);
+        return array;
+    }
+}
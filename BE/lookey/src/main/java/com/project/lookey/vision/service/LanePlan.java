@@ -0,0 +1,25 @@
+package com.project.lookey.vision.service;
+
+/**
+ * 요청 항목의 레인별 Feature 계획
+ * - safety: 안전 항목 + 같은 호출로 함께 계산되는 편의 항목 (추가 비용 없음)
+ * - convenience: 별도 호출이 필요한 편의 항목 (낮은 우선순위, 부하 시 생략)
+ * 해당 레인에 계산할 항목이 없으면 null
+ */
+public class LanePlan {
+    private final FeaturePlan safety;
+    private final FeaturePlan convenience;
+
+    LanePlan(FeaturePlan safety, FeaturePlan convenience) {
+        this.safety = safety;
+        this.convenience = convenience;
+    }
+
+    public FeaturePlan getSafety() {
+        return safety;
+    }
+
+    public FeaturePlan getConvenience() {
+        return convenience;
+    }
+}
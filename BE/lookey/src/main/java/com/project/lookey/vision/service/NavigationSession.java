@@ -0,0 +1,196 @@
+package com.project.lookey.vision.service;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 내비게이션 세션별 시간축 상태
+ * - 최근 N개 프레임 결과로 방향/사람/장애물/카운터 값을 히스테리시스 투표로 안정화
+ * - 결과가 안정적이고 화면 변화가 작으면 Vision 호출을 건너뛸 수 있는지 판단
+ * 세션 하나는 분석 모드와 안전 항목 조합(FeaturePlan) 하나에만 사용
+ * (다른 조합의 결과는 계산하지 않은 항목이 false라 투표와 생략 결과를 오염시킴)
+ */
+public class NavigationSession {
+
+    private final Settings settings;
+
+    // "people.left" 같은 키별 투표 기록
+    private final Map<String, VoteTrack> tracks = new HashMap<>();
+    private final Deque<String> recentCategories = new ArrayDeque<>();
+    private String category;
+
+    private ParallelAnalysisResult smoothed;
+    private int stableFrames;
+
+    private Long lastAnalyzedHash;
+    private long lastAnalyzedAt;
+    private int skippedSinceAnalysis;
+    private volatile long lastSeenAt = System.currentTimeMillis();
+
+    NavigationSession(Settings settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * 이번 프레임의 Vision 호출 생략 여부
+     * 최근 결과가 연속으로 안정적이고, 직전 분석 프레임과 해시 거리가 작고,
+     * 생략 횟수/시간이 상한 이내일 때만 생략
+     */
+    synchronized boolean shouldSkip(Long frameHash, long now) {
+        lastSeenAt = now;
+        if (smoothed == null || frameHash == null || lastAnalyzedHash == null) {
+            return false;
+        }
+        boolean skip = stableFrames >= settings.stableFrames
+                && skippedSinceAnalysis < settings.maxSkippedFrames
+                && now - lastAnalyzedAt < settings.maxSkipMillis
+                && FrameHasher.distance(frameHash, lastAnalyzedHash) <= settings.skipMaxDistance;
+        if (skip) {
+            skippedSinceAnalysis++;
+        }
+        return skip;
+    }
+
+    /**
+     * 새 분석 결과를 투표 창에 반영하고 안정화된 결과 반환
+     * 실패 기본값은 반영하지 않음 (일시적 실패로 장애물 경고가 꺼지지 않도록)
+     * 이때는 직전 안정화 판단을 유지하되 fallback(degraded)으로 표시해 반환
+     */
+    synchronized ParallelAnalysisResult update(ParallelAnalysisResult raw, Long frameHash, long now) {
+        lastSeenAt = now;
+        if (raw.isFallback()) {
+            stableFrames = 0;
+            return smoothed != null ? asFallback(smoothed) : raw;
+        }
+
+        lastAnalyzedHash = frameHash;
+        lastAnalyzedAt = now;
+        skippedSinceAnalysis = 0;
+
+        ParallelAnalysisResult next = new ParallelAnalysisResult(
+                vote("directions", raw.getDirections(), settings.enterVotes),
+                vote("people", raw.getPeopleByRegion(), settings.hazardEnterVotes),
+                vote("obstacles", raw.getObstaclesByRegion(), settings.hazardEnterVotes),
+                voteCategory(raw.getCenterCategory()),
+                track("counter").observe(raw.getCounterDetection(), settings.enterVotes, settings.exitVotes, settings.window),
+                false,
+                raw.getGridCells(),  // 셀 단위 결과는 안정화 없이 최신 값 전달
+                raw.isRegionalDirections());
+
+        // 원시 결과가 안정화 결과와 같으면 안정 구간 연장, 다르면 즉시 전체 속도 분석으로 복귀
+        stableFrames = sameAs(raw, next) ? stableFrames + 1 : 0;
+        smoothed = next;
+        return next;
+    }
+
+    synchronized ParallelAnalysisResult getSmoothed() {
+        return smoothed;
+    }
+
+    long getLastSeenAt() {
+        return lastSeenAt;
+    }
+
+    private Map<String, Boolean> vote(String group, Map<String, Boolean> values, int enterVotes) {
+        Map<String, Boolean> result = new LinkedHashMap<>();
+        values.forEach((key, value) -> result.put(key,
+                track(group + "." + key).observe(Boolean.TRUE.equals(value), enterVotes, settings.exitVotes, settings.window)));
+        return result;
+    }
+
+    /**
+     * 다른 카테고리가 창 안에서 enterVotes 이상 나와야 전환
+     */
+    private String voteCategory(String rawCategory) {
+        recentCategories.addLast(rawCategory);
+        while (recentCategories.size() > settings.window) {
+            recentCategories.removeFirst();
+        }
+        if (category == null) {
+            category = rawCategory;
+        } else if (!category.equals(rawCategory)) {
+            long votes = recentCategories.stream().filter(rawCategory::equals).count();
+            if (votes >= settings.enterVotes) {
+                category = rawCategory;
+            }
+        }
+        return category;
+    }
+
+    private VoteTrack track(String key) {
+        return tracks.computeIfAbsent(key, k -> new VoteTrack());
+    }
+
+    private static ParallelAnalysisResult asFallback(ParallelAnalysisResult result) {
+        return new ParallelAnalysisResult(result.getDirections(), result.getPeopleByRegion(),
+                result.getObstaclesByRegion(), result.getCenterCategory(), result.getCounterDetection(),
+                true, result.getGridCells(), result.isRegionalDirections());
+    }
+
+    private static boolean sameAs(ParallelAnalysisResult a, ParallelAnalysisResult b) {
+        return a.getDirections().equals(b.getDirections())
+                && a.getPeopleByRegion().equals(b.getPeopleByRegion())
+                && a.getObstaclesByRegion().equals(b.getObstaclesByRegion())
+                && Objects.equals(a.getCenterCategory(), b.getCenterCategory())
+                && a.getCounterDetection() == b.getCounterDetection();
+    }
+
+    /**
+     * 불리언 값 하나의 히스테리시스 투표
+     * 꺼진 상태: 창 안의 true가 enterVotes 이상이면 켬 / 켜진 상태: exitVotes 이하로 줄면 끔
+     */
+    private static class VoteTrack {
+        private long history;
+        private int observed;
+        private boolean state;
+
+        boolean observe(boolean value, int enterVotes, int exitVotes, int window) {
+            long windowMask = window >= 64 ? -1L : (1L << window) - 1;
+            history = ((history << 1) | (value ? 1L : 0L)) & windowMask;
+
+            // 첫 프레임은 그대로 사용 (세션 시작 직후 경고가 늦어지지 않도록)
+            if (observed++ == 0) {
+                state = value;
+                return state;
+            }
+
+            int votes = Long.bitCount(history);
+            if (!state && votes >= enterVotes) {
+                state = true;
+            } else if (state && votes <= exitVotes) {
+                state = false;
+            }
+            return state;
+        }
+    }
+
+    /**
+     * 세션 공통 설정
+     */
+    static class Settings {
+        private final int window;
+        private final int enterVotes;
+        private final int exitVotes;
+        private final int hazardEnterVotes;
+        private final int stableFrames;
+        private final int maxSkippedFrames;
+        private final long maxSkipMillis;
+        private final int skipMaxDistance;
+
+        Settings(int window, int enterVotes, int exitVotes, int hazardEnterVotes,
+                 int stableFrames, int maxSkippedFrames, long maxSkipMillis, int skipMaxDistance) {
+            this.window = Math.max(1, Math.min(64, window));
+            this.enterVotes = enterVotes;
+            this.exitVotes = exitVotes;
+            this.hazardEnterVotes = hazardEnterVotes;
+            this.stableFrames = stableFrames;
+            this.maxSkippedFrames = maxSkippedFrames;
+            this.maxSkipMillis = maxSkipMillis;
+            this.skipMaxDistance = skipMaxDistance;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.project.lookey.vision.service;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 영역 분석 결과 (좌/중/우 + 선택적 격자 셀 결과)
+ */
+public class ParallelAnalysisResult {
+    private final Map<String, Boolean> directions;
+    private final Map<String, Boolean> peopleByRegion;
+    private final Map<String, Boolean> obstaclesByRegion;
+    private final String centerCategory;
+    private final boolean counterDetection;
+    // 분석 실패로 채워진 안전 기본값 여부
+    private final boolean fallback;
+    // 격자 셀 단위 결과 (응답에 포함하지 않으면 null)
+    private final List<GridCellResult> gridCells;
+    // 방향(통로) 판단이 영역별인지 여부 (좌표 기반 분석은 위치 없는 전체 프레임 라벨로 판단하므로 false - 모든 영역이 같은 값)
+    private final boolean regionalDirections;
+
+    public ParallelAnalysisResult(Map<String, Boolean> directions,
+                                  Map<String, Boolean> peopleByRegion,
+                                  Map<String, Boolean> obstaclesByRegion,
+                                  String centerCategory,
+                                  boolean counterDetection,
+                                  boolean fallback) {
+        this(directions, peopleByRegion, obstaclesByRegion, centerCategory, counterDetection, fallback, null);
+    }
+
+    public ParallelAnalysisResult(Map<String, Boolean> directions,
+                                  Map<String, Boolean> peopleByRegion,
+                                  Map<String, Boolean> obstaclesByRegion,
+                                  String centerCategory,
+                                  boolean counterDetection,
+                                  boolean fallback,
+                                  List<GridCellResult> gridCells) {
+        this(directions, peopleByRegion, obstaclesByRegion, centerCategory, counterDetection, fallback, gridCells, true);
+    }
+
+    // 분석 결과 캐시(Redis) 역직렬화용 (앱 ObjectMapper에 파라미터 이름 모듈이 없어 이름을 명시)
+    // regionalDirections가 없는 이전 캐시 값은 영역별 판단으로 취급
+    @JsonCreator
+    public ParallelAnalysisResult(@JsonProperty("directions") Map<String, Boolean> directions,
+                                  @JsonProperty("peopleByRegion") Map<String, Boolean> peopleByRegion,
+                                  @JsonProperty("obstaclesByRegion") Map<String, Boolean> obstaclesByRegion,
+                                  @JsonProperty("centerCategory") String centerCategory,
+                                  @JsonProperty("counterDetection") boolean counterDetection,
+                                  @JsonProperty("fallback") boolean fallback,
+                                  @JsonProperty("gridCells") List<GridCellResult> gridCells,
+                                  @JsonProperty("regionalDirections") Boolean regionalDirections) {
+        this.regionalDirections = regionalDirections == null || regionalDirections;
+        this.directions = directions;
+        this.peopleByRegion = peopleByRegion;
+        this.obstaclesByRegion = obstaclesByRegion;
+        this.centerCategory = centerCategory;
+        this.counterDetection = counterDetection;
+        this.fallback = fallback;
+        this.gridCells = gridCells;
+    }
+
+    public Map<String, Boolean> getDirections() { return directions; }
+    public Map<String, Boolean> getPeopleByRegion() { return peopleByRegion; }
+    public Map<String, Boolean> getObstaclesByRegion() { return obstaclesByRegion; }
+    public String getCenterCategory() { return centerCategory; }
+    public boolean getCounterDetection() { return counterDetection; }
+    public boolean isFallback() { return fallback; }
+    public List<GridCellResult> getGridCells() { return gridCells; }
+    public boolean isRegionalDirections() { return regionalDirections; }
+}
@@ -0,0 +1,189 @@
+package com.project.lookey.vision.service;
+
+import com.google.cloud.vision.v1.AnnotateImageRequest;
+import com.google.cloud.vision.v1.AnnotateImageResponse;
+import com.google.cloud.vision.v1.BatchAnnotateImagesRequest;
+import com.google.cloud.vision.v1.BatchAnnotateImagesResponse;
+import com.google.cloud.vision.v1.BoundingPoly;
+import com.google.cloud.vision.v1.EntityAnnotation;
+import com.google.cloud.vision.v1.Feature;
+import com.google.cloud.vision.v1.LocalizedObjectAnnotation;
+import com.google.cloud.vision.v1.NormalizedVertex;
+import com.google.protobuf.util.JsonFormat;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 녹화/합성 응답 백엔드 (vision.backend=recorded)
+ * Google 인증 정보나 네트워크 없이 실제에 가까운 지연 시간으로 내비게이션 엔드포인트를 부하 테스트하고,
+ * 서비스 자체 오버헤드를 Google 지연과 분리해 측정하기 위한 대역
+ *
+ * - vision.backend.recorded.dir 아래의 AnnotateImageResponse(.pb 또는 .json)를 순서대로 돌려가며 반환
+ *   (하위 디렉터리 포함, 재생 도구 코퍼스의 responses 디렉터리를 그대로 사용 가능)
+ * - 디렉터리가 없거나 비어 있으면 매장 라벨/객체를 무작위로 조합한 합성 응답
+ * - 요청하지 않은 Feature의 결과는 제거해 실제 응답과 같은 크기/내용 유지
+ * - 지연 시간은 로그 정규 분포 (중앙값 median-ms, 퍼짐 sigma, 최대 max-ms), error-rate 비율로 호출 실패
+ */
+@Component
+@ConditionalOnProperty(name = "vision.backend", havingValue = "recorded")
+@Slf4j
+public class RecordedVisionBackend implements VisionBackend {
+
+    private static final List<String> SYNTHETIC_LABELS = List.of(
+            "Aisle", "Shelf", "Retail", "Convenience store", "Supermarket", "Food", "Snack",
+            "Soft drink", "Drink can", "Bottle", "Cash register", "Electronic device", "Machine", "Person");
+
+    private static final List<String> SYNTHETIC_OBJECTS = List.of(
+            "Person", "Bottle", "Box", "Chair", "Shopping cart", "Packaged goods");
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private List<AnnotateImageResponse> recorded = List.of();
+
+    @Value("${vision.backend.recorded.dir:}")
+    private String recordedDir;
+
+    @Value("${vision.backend.recorded.latency.median-ms:250}")
+    private double medianLatencyMillis;
+
+    // 로그 정규 분포 표준편차 (0이면 항상 중앙값)
+    @Value("${vision.backend.recorded.latency.sigma:0.5}")
+    private double latencySigma;
+
+    @Value("${vision.backend.recorded.latency.max-ms:5000}")
+    private long maxLatencyMillis;
+
+    @Value("${vision.backend.recorded.error-rate:0}")
+    private double errorRate;
+
+    @PostConstruct
+    public void load() throws IOException {
+        if (recordedDir.isBlank() || !Files.isDirectory(Paths.get(recordedDir))) {
+            log.info("녹화 응답 없음 - 합성 Vision 응답 사용 (지연 중앙값 {}ms)", medianLatencyMillis);
+            return;
+        }
+
+        List<AnnotateImageResponse> responses = new ArrayList<>();
+        try (Stream<Path> files = Files.walk(Paths.get(recordedDir))) {
+            for (Path file : files.filter(Files::isRegularFile).sorted().collect(Collectors.toList())) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(".pb")) {
+                    responses.add(AnnotateImageResponse.parseFrom(Files.readAllBytes(file)));
+                } else if (name.endsWith(".json")) {
+                    AnnotateImageResponse.Builder builder = AnnotateImageResponse.newBuilder();
+                    JsonFormat.parser().ignoringUnknownFields()
+                            .merge(Files.readString(file, StandardCharsets.UTF_8), builder);
+                    responses.add(builder.build());
+                }
+            }
+        }
+        this.recorded = List.copyOf(responses);
+        log.info("녹화 Vision 응답 {}개 로드 ({}), 지연 중앙값 {}ms", recorded.size(), recordedDir, medianLatencyMillis);
+    }
+
+    @Override
+    public Mono<BatchAnnotateImagesResponse> annotate(BatchAnnotateImagesRequest request) {
+        return Mono.defer(() -> {
+            BatchAnnotateImagesResponse.Builder batch = BatchAnnotateImagesResponse.newBuilder();
+            for (AnnotateImageRequest imageRequest : request.getRequestsList()) {
+                batch.addResponses(respond(imageRequest));
+            }
+
+            // 배치 한 번에 지연 한 번 (실제 API와 같이 배치 전체가 함께 반환)
+            Mono<BatchAnnotateImagesResponse> response = ThreadLocalRandom.current().nextDouble() < errorRate
+                    ? Mono.error(new IllegalStateException("녹화 Vision 백엔드 모의 호출 실패"))
+                    : Mono.just(batch.build());
+            return Mono.delay(sampleLatency()).then(response);
+        });
+    }
+
+    private AnnotateImageResponse respond(AnnotateImageRequest request) {
+        AnnotateImageResponse source = recorded.isEmpty()
+                ? synthetic()
+                : recorded.get((int) (sequence.getAndIncrement() % recorded.size()));
+
+        boolean wantsObjects = false;
+        boolean wantsLabels = false;
+        for (Feature feature : request.getFeaturesList()) {
+            wantsObjects |= feature.getType() == Feature.Type.OBJECT_LOCALIZATION;
+            wantsLabels |= feature.getType() == Feature.Type.LABEL_DETECTION;
+        }
+
+        AnnotateImageResponse.Builder response = source.toBuilder();
+        if (!wantsObjects) {
+            response.clearLocalizedObjectAnnotations();
+        }
+        if (!wantsLabels) {
+            response.clearLabelAnnotations();
+        }
+        return response.build();
+    }
+
+    /**
+     * 매장 장면과 비슷한 라벨/객체를 무작위로 조합한 응답
+     */
+    private AnnotateImageResponse synthetic() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        AnnotateImageResponse.Builder response = AnnotateImageResponse.newBuilder();
+
+        int labelCount = 3 + random.nextInt(6);
+        for (int i = 0; i < labelCount; i++) {
+            response.addLabelAnnotations(EntityAnnotation.newBuilder()
+                    .setDescription(SYNTHETIC_LABELS.get(random.nextInt(SYNTHETIC_LABELS.size())))
+                    .setScore(0.4f + random.nextFloat() * 0.6f));
+        }
+
+        int objectCount = random.nextInt(4);
+        for (int i = 0; i < objectCount; i++) {
+            float x = random.nextFloat() * 0.8f;
+            float y = random.nextFloat() * 0.8f;
+            float width = 0.05f + random.nextFloat() * (0.95f - x) * 0.5f;
+            float height = 0.05f + random.nextFloat() * (0.95f - y) * 0.5f;
+            response.addLocalizedObjectAnnotations(LocalizedObjectAnnotation.newBuilder()
+                    .setName(SYNTHETIC_OBJECTS.get(random.nextInt(SYNTHETIC_OBJECTS.size())))
+                    .setScore(0.3f + random.nextFloat() * 0.7f)
+                    .setBoundingPoly(BoundingPoly.newBuilder()
+                            .addNormalizedVertices(vertex(x, y))
+                            .addNormalizedVertices(vertex(x + width, y))
+                            .addNormalizedVertices(vertex(x + width, y + height))
+                            .addNormalizedVertices(vertex(x, y + height))));
+        }
+        return response.build();
+    }
+
+    private static NormalizedVertex vertex(float x, float y) {
+        return NormalizedVertex.newBuilder().setX(x).setY(y).build();
+    }
+
+    private Duration sampleLatency() {
+        double millis = medianLatencyMillis * Math.exp(latencySigma * ThreadLocalRandom.current().nextGaussian());
+        return Duration.ofMillis(Math.min(maxLatencyMillis, Math.max(0L, Math.round(millis))));
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return true;
+    }
+
+    @Override
+    public String name() {
+        return "recorded";
+    }
+}
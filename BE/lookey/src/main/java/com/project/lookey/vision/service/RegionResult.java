@@ -0,0 +1,48 @@
+package com.project.lookey.vision.service;
+
+import com.google.cloud.vision.v1.EntityAnnotation;
+import com.google.cloud.vision.v1.LocalizedObjectAnnotation;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 영역(격자 셀 또는 띠)별 분석 결과
+ */
+public class RegionResult {
+    private static final RegionResult EMPTY = new RegionResult(Collections.emptyList(), Collections.emptyList(), false);
+    private static final RegionResult FAILED = new RegionResult(Collections.emptyList(), Collections.emptyList(), true);
+
+    private final List<LocalizedObjectAnnotation> objects;
+    private final List<EntityAnnotation> labels;
+    // Vision 호출/응답 실패 (빈 결과를 "감지 없음"으로 판단하면 안 됨)
+    private final boolean failed;
+
+    public RegionResult(List<LocalizedObjectAnnotation> objects, List<EntityAnnotation> labels) {
+        this(objects, labels, false);
+    }
+
+    private RegionResult(List<LocalizedObjectAnnotation> objects, List<EntityAnnotation> labels, boolean failed) {
+        this.objects = objects;
+        this.labels = labels;
+        this.failed = failed;
+    }
+
+    /**
+     * 요청 항목에 필요 없어 호출하지 않은 영역
+     */
+    public static RegionResult empty() {
+        return EMPTY;
+    }
+
+    /**
+     * 호출 또는 응답이 실패한 영역
+     */
+    public static RegionResult failed() {
+        return FAILED;
+    }
+
+    public List<LocalizedObjectAnnotation> getObjects() { return objects; }
+    public List<EntityAnnotation> getLabels() { return labels; }
+    public boolean isFailed() { return failed; }
+}
@@ -0,0 +1,13 @@
+package com.project.lookey.vision.service;
+
+/**
+ * Vision API 분석 모드
+ */
+public enum VisionAnalysisMode {
+    // 3분할 영역별로 개별 batchAnnotateImages 호출 (기존 방식)
+    PARALLEL,
+    // 3분할 영역을 하나의 BatchAnnotateImagesRequest로 묶어 단일 호출
+    BATCHED,
+    // 원본 이미지 1회 호출 후 객체 boundingPoly 좌표로 좌/전/우 영역 배정
+    GEOMETRY
+}
@@ -2,488 +2,477 @@ package com.project.lookey.vision.service;
 
 import com.google.cloud.vision.v1.*;
 import com.google.protobuf.ByteString;
+import com.project.lookey.common.image.FrameQualityGate;
+import com.project.lookey.common.memory.ImageMemoryBudget;
+import com.project.lookey.vision.exception.VisionException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
+import reactor.core.scheduler.Scheduler;
 
-import javax.annotation.PostConstruct;
-import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class VisionApiService { // Updated response format
 
-    private ImageAnnotatorClient visionClient;
-
-    @Value("${google.cloud.project.id}")
-    private String projectId;
-
-    @Value("${google.cloud.vision.credentials}")
-    private String credentialsPath;
-
-    // 실제 Vision API 결과 기반 향상된 키워드 맵
-    private static final Set<String> ENHANCED_BEVERAGE_KEYWORDS = Set.of(
-            // 실제 감지되는 음료 관련 라벨
-            "drink can", "soft drink", "energy drink", "diet drink",
-            "carbonated soft drinks", "bottle", "plastic bottle",
-            "aluminum can", "steel and tin cans", "beverage can",
-            "juice", "water", "soda", "coffee", "tea", "milk"
-    );
-
-    private static final Set<String> ENHANCED_SNACK_KEYWORDS = Set.of(
-            // 실제 감지되는 식품 관련 라벨
-            "food", "convenience food", "frozen food", "food storage",
-            "packaged goods", "processed food",
-            "candy", "chocolate", "chip", "cookie", "cracker",
-            "biscuit", "gum", "cereal", "bar", "nut"
-    );
+    private final FrameHasher frameHasher;
+    private final VisionFrameCache frameCache;
+    private final VisionImagePreparer imagePreparer;
+    private final VisionDecisionEngine decisions;
+    private final VisionQuotaManager quotaManager;
+    private final VisionCircuitBreaker circuitBreaker;
+    private final VisionGrid grid;
+    private final VisionResultCache resultCache;
+    private final VisionFeaturePlanner featurePlanner;
+    private final ImageMemoryBudget memoryBudget;
+    private final FrameQualityGate qualityGate;
+    private final VisionBackend backend;
+    private final MeterRegistry meterRegistry;
+
+    // Vision 전용 실행기 기반 스케줄러 (VisionExecutorConfig)
+    @Qualifier("visionScheduler")
+    private final Scheduler visionScheduler;
+
+    // 기본 분석 모드 (PARALLEL, BATCHED, GEOMETRY) - 요청별로 mode 파라미터로 변경 가능
+    @Value("${vision.analysis.mode:PARALLEL}")
+    private VisionAnalysisMode analysisMode;
+
+    // 요청당 분석 시한 - 초과 시 진행 중인 영역 호출 취소
+    @Value("${vision.analysis.deadline-ms:8000}")
+    private long deadlineMillis;
+
+    // Vision 배치 요청당 최대 이미지 수
+    private static final int MAX_IMAGES_PER_BATCH = 16;
 
+    public Mono<Map<String, Object>> analyzeImage(byte[] imageBytes) {
+        return analyzeImage(imageBytes, null, null, null);
+    }
 
-    @PostConstruct
-    public void initializeVisionClient() {
-        try {
+    /**
+     * @param mode 분석 모드 (null이면 설정된 기본 모드 사용)
+     * @param userId 사용자 ID (null이면 프레임 중복 캐시 미사용)
+     * @param outputs 응답에 포함할 항목 (null이면 전체) - 필요한 Vision Feature만 요청
+     */
+    public Mono<Map<String, Object>> analyzeImage(byte[] imageBytes, VisionAnalysisMode mode, Integer userId,
+                                                  Set<VisionOutput> outputs) {
+        FeaturePlan plan = featurePlanner.plan(outputs);
+        return analyze(imageBytes, mode, userId, null, plan)
+                .map(result -> toResponseMap(result, plan));
+    }
 
-            // 파일 존재 확인
-            java.io.File credFile = new java.io.File(credentialsPath);
-            if (!credFile.exists()) {
-                throw new RuntimeException("Credentials file not found: " + credentialsPath);
+    /**
+     * 분석 결과 (응답 맵 변환 전)
+     * @param frameHash 호출 측에서 이미 계산한 프레임 해시 (null이면 필요할 때 계산)
+     */
+    Mono<ParallelAnalysisResult> analyze(byte[] imageBytes, VisionAnalysisMode mode, Integer userId, Long frameHash,
+                                         FeaturePlan plan) {
+        VisionAnalysisMode effectiveMode = mode != null ? mode : analysisMode;
+        return Mono.defer(() -> {
+            if (!backend.isAvailable()) {
+                return Mono.error(new RuntimeException("Vision API 클라이언트가 초기화되지 않았습니다. 인증 설정을 확인해주세요."));
             }
 
-            // 직접 파일에서 인증 정보 로드
-            com.google.auth.oauth2.GoogleCredentials credentials =
-                com.google.auth.oauth2.GoogleCredentials.fromStream(
-                    new java.io.FileInputStream(credentialsPath)
-                );
+            log.info("Starting Vision API image analysis");
+            long startTime = System.currentTimeMillis();
 
-            com.google.cloud.vision.v1.ImageAnnotatorSettings settings =
-                com.google.cloud.vision.v1.ImageAnnotatorSettings.newBuilder()
-                .setCredentialsProvider(() -> credentials)
-                .build();
+            // 직전 프레임과 거의 같으면 캐시 결과 재사용 (사용자별, 인스턴스 로컬)
+            Long hash = userId != null && frameCache.isEnabled()
+                    ? (frameHash != null ? frameHash : hashFrame(imageBytes))
+                    : null;
+            String variant = effectiveMode + ":" + plan.getKey();
+            Optional<ParallelAnalysisResult> cached = hash != null
+                    ? frameCache.lookup(userId, variant, hash)
+                    : Optional.empty();
+
+            // 3분할 분석 (모든 기능 포함)
+            Mono<ParallelAnalysisResult> analysis = cached.map(Mono::just).orElseGet(() ->
+                    resultCache.getOrCompute(imageBytes, variant,
+                                    () -> admitAndAnalyze(imageBytes, effectiveMode, userId, plan))
+                            // 실패 시 기본값은 캐시하지 않음
+                            .doOnNext(result -> {
+                                if (hash != null && !result.isFallback()) {
+                                    frameCache.put(userId, variant, hash, result);
+                                }
+                            }));
+
+            return analysis.doOnNext(result ->
+                    log.info("Vision API analysis completed in {}ms", System.currentTimeMillis() - startTime));
+        }).subscribeOn(visionScheduler);
+    }
 
-            this.visionClient = ImageAnnotatorClient.create(settings);
-            log.info("Google Cloud Vision API client initialized successfully");
-        } catch (Exception e) {
-            log.error("Failed to initialize Vision API client", e);
-            log.warn("Vision API will be unavailable. Application will continue without Vision API functionality.");
-            // 애플리케이션 시작을 위해 예외를 던지지 않음
-            this.visionClient = null;
-        }
+    /**
+     * 품질 검사와 디코딩 메모리 예약 후 분석 (메모리는 분석이 끝나거나 취소되면 반환)
+     * - 흔들림/노출 불량: 422 재촬영 안내
+     * - 메모리 예산 부족: 503 (Vision 실행기 스레드가 기다리지 않도록 대기 없이 거절)
+     * 둘 다 호출 예산을 소모하기 전에 거절
+     */
+    private Mono<ParallelAnalysisResult> admitAndAnalyze(byte[] imageBytes, VisionAnalysisMode mode, Integer userId,
+                                                         FeaturePlan plan) {
+        return Mono.fromRunnable(() -> qualityGate.require(imageBytes, "vision"))
+                .then(Mono.using(
+                        () -> memoryBudget.tryReserve(imageBytes, imagePreparer.getMaxDimension()),
+                        reservation -> admitToVision(imageBytes, mode, userId, plan),
+                        ImageMemoryBudget.Reservation::close));
     }
 
-    public Mono<Map<String, Object>> analyzeImage(byte[] imageBytes) {
-        return Mono.fromCallable(() -> {
-            if (visionClient == null) {
-                throw new RuntimeException("Vision API 클라이언트가 초기화되지 않았습니다. 인증 설정을 확인해주세요.");
-            }
+    /**
+     * 서킷 브레이커와 호출 예산 확인 후 분석
+     * - 서킷 OPEN / 전역 예산 소진: Vision 호출 없이 즉시 기본값 (degraded)
+     * - 사용자 예산 초과: 429
+     */
+    private Mono<ParallelAnalysisResult> admitToVision(byte[] imageBytes, VisionAnalysisMode mode, Integer userId,
+                                                       FeaturePlan plan) {
+        if (!circuitBreaker.tryAcquire()) {
+            log.warn("Vision 서킷 OPEN - 호출 없이 기본값 반환");
+            return Mono.just(decisions.safeDefaultResult());
+        }
 
-            log.info("Starting Vision API image analysis");
-            long startTime = System.currentTimeMillis();
+        VisionQuotaManager.Decision decision = quotaManager.acquire(userId, plan.imageCount(mode));
+        if (decision == VisionQuotaManager.Decision.USER_LIMITED) {
+            circuitBreaker.release();
+            return Mono.error(VisionException.userQuotaExceeded());
+        }
+        if (decision == VisionQuotaManager.Decision.GLOBAL_LIMITED) {
+            circuitBreaker.release();
+            return Mono.just(decisions.safeDefaultResult());
+        }
 
-            // 3분할 병렬 분석 (모든 기능 포함)
-            ParallelAnalysisResult parallelResult = analyzeImageWithParallelRegions(imageBytes);
+        return analyzeWithDeadline(imageBytes, mode, plan)
+                .doFinally(signal -> circuitBreaker.release());
+    }
 
-            // 결과 분석 및 변환
-            Map<String, Object> analysisResult = new HashMap<>();
+    /**
+     * 모드별 분석 + 요청 시한 적용
+     * 시한을 넘기면 구독이 취소되어 진행 중인 영역 호출도 함께 중단됨
+     * 서킷 브레이커에는 셀/호출 수와 관계없이 분석 단위로 한 번 기록 (HALF_OPEN 시험 분석 자리와 같은 단위)
+     * - 정상 결과: 성공 / Vision 호출·응답 실패로 채운 기본값(fallback) 또는 시한 초과: 실패
+     * - 그 밖의 오류(디코딩 실패 등)는 Vision 상태와 무관하므로 기록하지 않음
+     */
+    private Mono<ParallelAnalysisResult> analyzeWithDeadline(byte[] imageBytes, VisionAnalysisMode mode, FeaturePlan plan) {
+        Mono<ParallelAnalysisResult> analysis = mode == VisionAnalysisMode.GEOMETRY
+                ? analyzeImageWithGeometry(imageBytes, plan)
+                : analyzeImageWithParallelRegions(imageBytes, mode, plan);
+
+        return analysis
+                .timeout(Duration.ofMillis(deadlineMillis))
+                .doOnNext(result -> {
+                    if (result.isFallback()) {
+                        circuitBreaker.onFailure();
+                    } else {
+                        circuitBreaker.onSuccess();
+                    }
+                })
+                .onErrorResume(e -> {
+                    if (e instanceof TimeoutException) {
+                        circuitBreaker.onFailure();
+                        log.warn("Vision 분석 시한({}ms) 초과, 진행 중인 호출 취소 후 기본값 반환", deadlineMillis);
+                    } else {
+                        log.error("Vision 분석 실패, 기본값 반환", e);
+                    }
+                    return Mono.just(decisions.safeDefaultResult());
+                });
+    }
 
-            // 3분할 결과 사용
-            Map<String, Boolean> finalPeopleResult = parallelResult.getPeopleByRegion();
-            log.info("=== 최종 JSON 응답 생성 ===");
-            log.info("peopleByRegion 맵 내용: {}", finalPeopleResult);
+    /**
+     * 분석 결과를 API 응답 맵으로 변환 (요청한 항목만 포함)
+     */
+    Map<String, Object> toResponseMap(ParallelAnalysisResult parallelResult, FeaturePlan plan) {
+        // 결과 분석 및 변환
+        Map<String, Object> analysisResult = new HashMap<>();
 
-            analysisResult.put("people", finalPeopleResult);
+        if (plan.includes(VisionOutput.PEOPLE)) {
+            analysisResult.put("people", parallelResult.getPeopleByRegion());
+        }
+        if (plan.includes(VisionOutput.DIRECTIONS)) {
             analysisResult.put("directions", parallelResult.getDirections());
+            // region: 영역별 통로 판단 / frame: 전체 프레임 판단을 모든 영역에 같은 값으로 채움 (좌표 기반 분석)
+            analysisResult.put("directions_scope", parallelResult.isRegionalDirections() ? "region" : "frame");
+        }
+        if (plan.includes(VisionOutput.CATEGORY)) {
             analysisResult.put("category", parallelResult.getCenterCategory());
+        }
+        if (plan.includes(VisionOutput.OBSTACLES)) {
             analysisResult.put("obstacles", parallelResult.getObstaclesByRegion());
+        }
+        if (plan.includes(VisionOutput.COUNTER)) {
             analysisResult.put("counter", parallelResult.getCounterDetection());
+        }
+        // 분석 실패/서킷 OPEN/예산 소진으로 채운 기본값이면 true
+        analysisResult.put("degraded", parallelResult.isFallback());
+
+        // 셀 단위 결과 (vision.grid.include-cells=true)
+        if (parallelResult.getGridCells() != null) {
+            Map<String, Object> gridPayload = new HashMap<>();
+            gridPayload.put("columns", grid.getColumns());
+            gridPayload.put("rows", grid.getRows());
+            gridPayload.put("cells", parallelResult.getGridCells());
+            analysisResult.put("grid", gridPayload);
+        }
 
-            long endTime = System.currentTimeMillis();
-            log.info("Vision API analysis completed in {}ms", endTime - startTime);
-
-            return analysisResult;
-        }).subscribeOn(Schedulers.boundedElastic());
+        return analysisResult;
     }
 
-    private DetectionResult detectObjectsAndLabels(byte[] imageBytes) {
+    /**
+     * 프레임 지각 해시 계산 (실패 시 캐시 미사용)
+     */
+    Long hashFrame(byte[] imageBytes) {
         try {
-            ByteString imgBytes = ByteString.copyFrom(imageBytes);
-            Image img = Image.newBuilder().setContent(imgBytes).build();
-
-            // Object Detection Feature
-            Feature objectFeature = Feature.newBuilder()
-                    .setType(Feature.Type.OBJECT_LOCALIZATION)
-                    .setMaxResults(20)
-                    .build();
-
-            // Label Detection Feature
-            Feature labelFeature = Feature.newBuilder()
-                    .setType(Feature.Type.LABEL_DETECTION)
-                    .setMaxResults(20)
-                    .build();
-
-            AnnotateImageRequest request = AnnotateImageRequest.newBuilder()
-                    .addFeatures(objectFeature)
-                    .addFeatures(labelFeature)
-                    .setImage(img)
-                    .build();
-
-            BatchAnnotateImagesResponse response = visionClient.batchAnnotateImages(
-                    Collections.singletonList(request));
-
-            AnnotateImageResponse imageResponse = response.getResponsesList().get(0);
-
-            if (imageResponse.hasError()) {
-                throw new RuntimeException("Vision API Error: " + imageResponse.getError().getMessage());
-            }
-
-
-            return new DetectionResult(
-                    imageResponse.getLocalizedObjectAnnotationsList(),
-                    imageResponse.getLabelAnnotationsList()
-            );
-
+            return frameHasher.hash(imageBytes);
         } catch (Exception e) {
-            log.error("Vision API detection failed", e);
-            throw new RuntimeException("Vision API 호출 실패", e);
+            log.warn("프레임 해시 계산 실패, 캐시 없이 분석 진행: {}", e.getMessage());
+            return null;
         }
     }
 
-
-
-
     /**
-     * 3분할 병렬 분석 (방향, 사람, 카테고리)
+     * Vision 백엔드 호출 (vision.backend)
+     * 구독이 취소되면 진행 중인 호출도 취소됨
+     * 백엔드 응답 시간은 vision.backend.call{backend}로 따로 기록 (서비스 자체 오버헤드와 분리)
+     * 호출 결과는 분석 단위로 서킷 브레이커에 기록 (analyzeWithDeadline)
      */
-    private ParallelAnalysisResult analyzeImageWithParallelRegions(byte[] imageBytes) {
-        log.info("=== 3분할 병렬 분석 시작 ===");
-
-        try {
-            // 이미지를 BufferedImage로 변환
-            BufferedImage originalImage = ImageIO.read(new ByteArrayInputStream(imageBytes));
-            int width = originalImage.getWidth();
-            int height = originalImage.getHeight();
-
-            // 3분할 영역 생성
-            int regionWidth = width / 3;
-            BufferedImage leftRegion = originalImage.getSubimage(0, 0, regionWidth, height);
-            BufferedImage centerRegion = originalImage.getSubimage(regionWidth, 0, regionWidth, height);
-            BufferedImage rightRegion = originalImage.getSubimage(regionWidth * 2, 0, width - regionWidth * 2, height);
-
-
-            // 3개 영역 병렬 분석 (Object + Label Detection)
-            CompletableFuture<RegionResult> leftAnalysis = analyzeRegionWithObjectsAsync(leftRegion, "LEFT");
-            CompletableFuture<RegionResult> centerAnalysis = analyzeRegionWithObjectsAsync(centerRegion, "CENTER");
-            CompletableFuture<RegionResult> rightAnalysis = analyzeRegionWithObjectsAsync(rightRegion, "RIGHT");
-
-            // 모든 분석 완료 대기
-            CompletableFuture.allOf(leftAnalysis, centerAnalysis, rightAnalysis).join();
-
-            RegionResult leftResult = leftAnalysis.join();
-            RegionResult centerResult = centerAnalysis.join();
-            RegionResult rightResult = rightAnalysis.join();
-
-            // 방향 분석
-            Map<String, Boolean> directions = new HashMap<>();
-            directions.put("left", canMoveInRegion(leftResult.getLabels(), "LEFT"));
-            directions.put("front", canMoveInRegion(centerResult.getLabels(), "CENTER"));
-            directions.put("right", canMoveInRegion(rightResult.getLabels(), "RIGHT"));
-
-            // 사람 위치 분석
-            Map<String, Boolean> peopleByRegion = new HashMap<>();
-            boolean leftPeople = detectPeopleInRegion(leftResult, "LEFT");
-            boolean centerPeople = detectPeopleInRegion(centerResult, "CENTER");
-            boolean rightPeople = detectPeopleInRegion(rightResult, "RIGHT");
-
-            peopleByRegion.put("left", leftPeople);
-            peopleByRegion.put("front", centerPeople);
-            peopleByRegion.put("right", rightPeople);
-
-
-            // 장애물 위치 분석
-            Map<String, Boolean> obstaclesByRegion = new HashMap<>();
-            obstaclesByRegion.put("left", detectObstaclesInRegion(leftResult, "LEFT"));
-            obstaclesByRegion.put("front", detectObstaclesInRegion(centerResult, "CENTER"));
-            obstaclesByRegion.put("right", detectObstaclesInRegion(rightResult, "RIGHT"));
+    private Mono<BatchAnnotateImagesResponse> annotate(List<AnnotateImageRequest> requests) {
+        BatchAnnotateImagesRequest batchRequest = BatchAnnotateImagesRequest.newBuilder()
+                .addAllRequests(requests)
+                .build();
 
-            // 카테고리 분석 (CENTER만)
-            String centerCategory = analyzeCategory(centerResult.getLabels());
+        Timer backendTimer = Timer.builder("vision.backend.call")
+                .tag("backend", backend.name())
+                .description("Vision 백엔드 배치 호출 시간")
+                .register(meterRegistry);
 
-            // 카운터 감지 (전체 영역 통합 분석)
-            boolean counterDetection = detectCounterInRegions(leftResult, centerResult, rightResult);
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return backend.annotate(batchRequest)
+                    .doOnSuccess(response -> sample.stop(backendTimer));
+        });
+    }
 
+    private Mono<DetectionResult> detectObjectsAndLabels(ByteString imgBytes, List<Feature> features) {
+        Image img = Image.newBuilder().setContent(imgBytes).build();
 
-            return new ParallelAnalysisResult(directions, peopleByRegion, obstaclesByRegion, centerCategory, counterDetection);
+        AnnotateImageRequest request = AnnotateImageRequest.newBuilder()
+                .addAllFeatures(features)
+                .setImage(img)
+                .build();
 
-        } catch (Exception e) {
-            log.error("3분할 분석 실패, 기본값 반환", e);
-            // 안전한 기본값 반환
-            Map<String, Boolean> safeDirections = new HashMap<>();
-            safeDirections.put("front", false);
-            safeDirections.put("left", false);
-            safeDirections.put("right", false);
-
-            Map<String, Boolean> safePeople = new HashMap<>();
-            safePeople.put("front", false);
-            safePeople.put("left", false);
-            safePeople.put("right", false);
-
-            Map<String, Boolean> safeObstacles = new HashMap<>();
-            safeObstacles.put("front", false);
-            safeObstacles.put("left", false);
-            safeObstacles.put("right", false);
-
-            return new ParallelAnalysisResult(safeDirections, safePeople, safeObstacles, "unknown", false);
-        }
+        return annotate(Collections.singletonList(request))
+                .map(response -> {
+                    AnnotateImageResponse imageResponse = response.getResponsesList().get(0);
+
+                    if (imageResponse.hasError()) {
+                        throw new RuntimeException("Vision API Error: " + imageResponse.getError().getMessage());
+                    }
+
+                    return new DetectionResult(
+                            imageResponse.getLocalizedObjectAnnotationsList(),
+                            imageResponse.getLabelAnnotationsList()
+                    );
+                })
+                .onErrorMap(e -> {
+                    log.error("Vision API detection failed", e);
+                    return new RuntimeException("Vision API 호출 실패", e);
+                });
     }
 
     /**
-     * 영역 비동기 분석 (Object + Label Detection)
+     * 격자 분할 분석 (방향, 사람, 카테고리)
+     * 셀별로 병렬 호출(fan-out)하거나 단일 배치 호출 후, 셀 결과를 좌/중/우 띠로 합침
      */
-    private CompletableFuture<RegionResult> analyzeRegionWithObjectsAsync(BufferedImage regionImage, String regionName) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-
-                // BufferedImage를 byte[]로 변환
-                ByteArrayOutputStream baos = new ByteArrayOutputStream();
-                ImageIO.write(regionImage, "jpeg", baos);
-                byte[] regionBytes = baos.toByteArray();
-
-                // Vision API 호출 (Object + Label Detection)
-                ByteString imgBytes = ByteString.copyFrom(regionBytes);
-                Image img = Image.newBuilder().setContent(imgBytes).build();
-
-                // Object Detection Feature
-                Feature objectFeature = Feature.newBuilder()
-                        .setType(Feature.Type.OBJECT_LOCALIZATION)
-                        .setMaxResults(10)
-                        .build();
-
-                // Label Detection Feature
-                Feature labelFeature = Feature.newBuilder()
-                        .setType(Feature.Type.LABEL_DETECTION)
-                        .setMaxResults(10)
-                        .build();
-
-                AnnotateImageRequest request = AnnotateImageRequest.newBuilder()
-                        .addFeatures(objectFeature)
-                        .addFeatures(labelFeature)
-                        .setImage(img)
-                        .build();
-
-                BatchAnnotateImagesResponse response = visionClient.batchAnnotateImages(
-                        List.of(request));
-
-                AnnotateImageResponse imageResponse = response.getResponsesList().get(0);
-                List<LocalizedObjectAnnotation> objects = imageResponse.getLocalizedObjectAnnotationsList();
-                List<EntityAnnotation> labels = imageResponse.getLabelAnnotationsList();
-
-
-                return new RegionResult(objects, labels);
-
-            } catch (Exception e) {
-                log.error("{} 영역 분석 실패", regionName, e);
-                return new RegionResult(Collections.emptyList(), Collections.emptyList());
-            }
-        });
+    private Mono<ParallelAnalysisResult> analyzeImageWithParallelRegions(byte[] imageBytes, VisionAnalysisMode mode,
+                                                                         FeaturePlan plan) {
+        int cellCount = grid.cellCount();
+        log.info("=== {}x{} 격자 분석 시작 (모드: {}) ===", grid.getColumns(), grid.getRows(), mode);
+        Timer.Sample sample = Timer.start(meterRegistry);
+
+        return Mono.fromCallable(() -> splitIntoRegions(imageBytes))
+                .subscribeOn(visionScheduler)
+                .flatMap(cells -> {
+                    if (mode == VisionAnalysisMode.BATCHED) {
+                        return analyzeRegionsInSingleBatch(cells, cellNames(), plan);
+                    }
+
+                    // 셀 병렬 분석 (Object + Label Detection), 결과는 셀 순서 유지
+                    return Flux.range(0, cellCount)
+                            .flatMapSequential(cell -> analyzeRegionWithObjectsAsync(
+                                    cells.get(cell), grid.cellName(cell), plan.featuresForCell(cell)), cellCount)
+                            .collectList();
+                })
+                .map(decisions::mergeCells)
+                .doOnSuccess(result -> sample.stop(Timer.builder("vision.grid.analysis")
+                        .description("격자 분석 소요 시간 (셀 수별)")
+                        .tag("cells", String.valueOf(cellCount))
+                        .tag("mode", mode.name())
+                        .register(meterRegistry)));
     }
 
     /**
-     * 영역별 이동 가능 여부 판단
+     * 이미지를 격자 셀로 분할
      */
-    private boolean canMoveInRegion(List<EntityAnnotation> labels, String regionName) {
-        boolean hasAisleLabels = labels.stream()
-                .anyMatch(label -> label.getDescription().toLowerCase().contains("aisle"));
-
+    private List<BufferedImage> splitIntoRegions(byte[] imageBytes) throws IOException {
+        // 목표 크기로 서브샘플링 디코딩 + EXIF 방향 보정
+        BufferedImage originalImage = imagePreparer.decode(imageBytes);
+        if (originalImage == null) {
+            throw new IOException("이미지를 디코딩할 수 없습니다.");
+        }
+        return grid.split(originalImage);
+    }
 
-        return hasAisleLabels;
+    private List<String> cellNames() {
+        List<String> names = new ArrayList<>(grid.cellCount());
+        for (int cell = 0; cell < grid.cellCount(); cell++) {
+            names.add(grid.cellName(cell));
+        }
+        return names;
     }
 
     /**
-     * 영역별 사람 감지
+     * 원본 이미지 1회 호출 후 boundingPoly 좌표로 격자 셀 배정
+     * 크롭/재인코딩 없이 원본 바이트를 그대로 전송 (목표 크기 초과 시에만 축소)
+     * 사람/장애물은 객체 좌표로 영역별 판단하고,
+     * 라벨은 위치 정보가 없으므로 방향/카테고리/카운터는 프레임 단위로 판단 (응답의 directions_scope=frame)
      */
-    private boolean detectPeopleInRegion(RegionResult regionResult, String regionName) {
-
-        // Object Detection 우선
-        boolean objectDetection = regionResult.getObjects().stream()
-                .anyMatch(obj -> obj.getName().toLowerCase().contains("person") && obj.getScore() > 0.5f);
-
-
-        // Label Detection 보완 - 정확한 단어 매칭으로 수정
-        Set<String> peopleLabels = Set.of("person", "people", "human", "man", "woman");
-        boolean labelDetection = regionResult.getLabels().stream().anyMatch(label -> {
-            String desc = label.getDescription().toLowerCase();
-
-            // contains() 대신 정확한 단어 매칭 사용 (personal care 같은 false positive 방지)
-            boolean hasPeopleLabel = peopleLabels.stream().anyMatch(keyword -> {
-                // 단어 경계를 고려한 정확한 매칭
-                return desc.equals(keyword) ||
-                       desc.startsWith(keyword + " ") ||
-                       desc.endsWith(" " + keyword) ||
-                       desc.contains(" " + keyword + " ");
-            });
-
-            boolean highConfidence = label.getScore() > 0.6f;
-
-
-            return hasPeopleLabel && highConfidence;
-        });
-
-        boolean hasPeople = objectDetection || labelDetection;
-
-
-        return hasPeople;
+    private Mono<ParallelAnalysisResult> analyzeImageWithGeometry(byte[] imageBytes, FeaturePlan plan) {
+        log.info("=== 좌표 기반 영역 분석 시작 ===");
+
+        // 목표 크기 이하이면 원본 그대로, 크거나 회전이 필요하면 축소/보정 후 재인코딩
+        // Vision 호출 실패만 기본값(fallback)으로 대체하고, 이미지 준비 실패는 오류로 전달
+        return Mono.fromCallable(() -> imagePreparer.prepareForUpload(imageBytes))
+                .subscribeOn(visionScheduler)
+                .flatMap(upload -> detectObjectsAndLabels(upload, plan.getFullFrameFeatures())
+                        .map(detection -> decisions.assignByGeometry(detection.getObjects(), detection.getLabels()))
+                        .onErrorResume(e -> {
+                            log.error("좌표 기반 분석 실패, 기본값 반환", e);
+                            return Mono.just(decisions.safeDefaultResult());
+                        }));
     }
 
     /**
-     * 영역별 장애물 감지
+     * 영역 비동기 분석 (Object + Label Detection)
+     * 인코딩은 Vision 전용 실행기에서 수행하고, 구독 취소 시 진행 중인 호출도 취소
      */
-    private boolean detectObstaclesInRegion(RegionResult regionResult, String regionName) {
-        Set<String> obstacleTypes = Set.of("chair", "table", "cart", "box", "bag", "bicycle", "vehicle");
-
-        boolean hasObstacles = regionResult.getObjects().stream()
-                .anyMatch(obj -> {
-                    String objectName = obj.getName().toLowerCase();
-                    return obstacleTypes.stream().anyMatch(objectName::contains) && obj.getScore() > 0.5f;
+    private Mono<RegionResult> analyzeRegionWithObjectsAsync(BufferedImage regionImage, String regionName,
+                                                            List<Feature> features) {
+        // 요청 항목에 필요 없는 셀은 호출하지 않음
+        if (features.isEmpty()) {
+            return Mono.just(RegionResult.empty());
+        }
+        return Mono.fromCallable(() -> buildRegionRequest(encodeRegion(regionImage), features))
+                .subscribeOn(visionScheduler)
+                .flatMap(request -> annotate(List.of(request)))
+                .map(response -> decisions.toRegionResult(response.getResponsesList().get(0), regionName))
+                .onErrorResume(e -> {
+                    log.error("{} 영역 분석 실패", regionName, e);
+                    return Mono.just(RegionResult.failed());
                 });
-
-
-        return hasObstacles;
     }
 
     /**
-     * 영역 독립적 카운터 감지 (다중 증거 시스템)
+     * 모든 영역을 하나의 BatchAnnotateImagesRequest로 묶어 단일 호출로 분석
+     * 응답 순서는 요청 순서와 동일하므로 인덱스로 영역 결과를 분리
      */
-    private boolean detectCounterInRegions(RegionResult leftResult, RegionResult centerResult, RegionResult rightResult) {
-        // 모든 영역의 라벨과 객체를 통합하여 분석
-        List<EntityAnnotation> allLabels = new ArrayList<>();
-        allLabels.addAll(leftResult.getLabels());
-        allLabels.addAll(centerResult.getLabels());
-        allLabels.addAll(rightResult.getLabels());
-
-        List<LocalizedObjectAnnotation> allObjects = new ArrayList<>();
-        allObjects.addAll(leftResult.getObjects());
-        allObjects.addAll(centerResult.getObjects());
-        allObjects.addAll(rightResult.getObjects());
-
-
-        // 라벨 세트 생성 (소문자, 빠른 검색용)
-        Set<String> labelSet = allLabels.stream()
-                .filter(label -> label.getScore() > 0.6f)  // 신뢰도 0.6 이상만
-                .map(label -> label.getDescription().toLowerCase())
-                .collect(Collectors.toSet());
-
-
-        // 1단계: 직접 카운터 키워드 (100% 확실)
-        Set<String> directCounterKeywords = Set.of(
-            "cash register", "checkout", "cashier", "pos", "terminal",
-            "checkout counter", "service desk", "reception desk"
-        );
-
-        boolean hasDirectCounterKeyword = directCounterKeywords.stream()
-                .anyMatch(labelSet::contains);
-
-        if (hasDirectCounterKeyword) {
-            return true;
-        }
-
-        // 2단계: Electronic Device + Machine 조합 (핵심 증거)
-        boolean hasElectronicDevice = labelSet.contains("electronic device");
-        boolean hasMachine = labelSet.contains("machine");
-
-
-        if (hasElectronicDevice && hasMachine) {
-            // 3단계: 자판기 환경 제외 로직
-            boolean isVendingMachine = isVendingMachineEnvironment(labelSet);
-
-            if (!isVendingMachine) {
-                // 4단계: 환경 컨텍스트 확인
-                boolean isConvenienceStore = isConvenienceStoreEnvironment(labelSet);
-                boolean isArchitecturalSpace = isArchitecturalEnvironment(labelSet);
-
-                if (isConvenienceStore || isArchitecturalSpace) {
-                    return true;
-                }
-            }
-        }
-
-        return false;
+    private Mono<List<RegionResult>> analyzeRegionsInSingleBatch(List<BufferedImage> regionImages, List<String> regionNames,
+                                                                 FeaturePlan plan) {
+        return Mono.fromCallable(() -> {
+                    List<AnnotateImageRequest> requests = new ArrayList<>(regionImages.size());
+                    for (int i = 0; i < regionImages.size(); i++) {
+                        List<Feature> features = plan.featuresForCell(i);
+                        if (features.isEmpty()) {
+                            // 요청 항목에 필요 없는 셀은 제외 (빈 결과)
+                            requests.add(null);
+                            continue;
+                        }
+                        try {
+                            requests.add(buildRegionRequest(encodeRegion(regionImages.get(i)), features));
+                        } catch (IOException e) {
+                            log.error("{} 영역 인코딩 실패", regionNames.get(i), e);
+                            requests.add(null);
+                        }
+                    }
+                    return requests;
+                })
+                .subscribeOn(visionScheduler)
+                .flatMap(requests -> {
+                    List<AnnotateImageRequest> validRequests = requests.stream()
+                            .filter(Objects::nonNull)
+                            .collect(Collectors.toList());
+
+                    // 배치당 이미지 수 제한이 있어 나눠서 병렬 호출 후 순서대로 이어붙임
+                    List<List<AnnotateImageRequest>> chunks = new ArrayList<>();
+                    for (int i = 0; i < validRequests.size(); i += MAX_IMAGES_PER_BATCH) {
+                        chunks.add(validRequests.subList(i, Math.min(validRequests.size(), i + MAX_IMAGES_PER_BATCH)));
+                    }
+
+                    Mono<List<AnnotateImageResponse>> responses = Flux.fromIterable(chunks)
+                            .flatMapSequential(chunk -> annotate(chunk)
+                                    .map(BatchAnnotateImagesResponse::getResponsesList))
+                            .collectList()
+                            .map(responseLists -> responseLists.stream()
+                                    .flatMap(List::stream)
+                                    .collect(Collectors.toList()))
+                            .onErrorResume(e -> {
+                                log.error("배치 영역 분석 실패", e);
+                                return Mono.just(Collections.emptyList());
+                            });
+
+                    return responses.map(responseList -> splitBatchResponses(requests, responseList, regionNames, plan));
+                });
     }
 
     /**
-     * 자판기 환경 감지
+     * 배치 응답을 요청 순서대로 영역 결과에 대응
+     * 호출하지 않은 영역은 빈 결과, 인코딩 실패/응답 누락(배치 호출 실패) 영역은 실패 결과
      */
-    private boolean isVendingMachineEnvironment(Set<String> labelSet) {
-        int beverageCount = 0;
-        String[] beverageLabels = {"beverage", "drink", "soft drink", "bottle"};
-
-        for (String label : beverageLabels) {
-            if (labelSet.contains(label)) {
-                beverageCount++;
+    private List<RegionResult> splitBatchResponses(List<AnnotateImageRequest> requests,
+                                                   List<AnnotateImageResponse> responses,
+                                                   List<String> regionNames, FeaturePlan plan) {
+        List<RegionResult> results = new ArrayList<>(requests.size());
+        int responseIndex = 0;
+        for (int i = 0; i < requests.size(); i++) {
+            if (requests.get(i) == null) {
+                results.add(plan.featuresForCell(i).isEmpty() ? RegionResult.empty() : RegionResult.failed());
+                continue;
             }
+            if (responseIndex >= responses.size()) {
+                results.add(RegionResult.failed());
+                continue;
+            }
+            results.add(decisions.toRegionResult(responses.get(responseIndex++), regionNames.get(i)));
         }
-
-        // Machine + 음료 관련 라벨 3개 이상 = 자판기
-        boolean isVending = labelSet.contains("machine") && beverageCount >= 3;
-        return isVending;
+        return results;
     }
 
     /**
-     * 편의점 환경 감지
+     * 영역 이미지를 JPEG로 인코딩 (재사용 ImageWriter/버퍼)
      */
-    private boolean isConvenienceStoreEnvironment(Set<String> labelSet) {
-        return labelSet.contains("convenience store") ||
-               labelSet.contains("retail") ||
-               labelSet.contains("supermarket");
+    private ByteString encodeRegion(BufferedImage regionImage) throws IOException {
+        return imagePreparer.encodeJpeg(regionImage);
     }
 
     /**
-     * 건물 내부 환경 감지 (nopeople_counter.jpeg 케이스)
+     * 영역 분석용 요청 생성 (계획된 Feature만 포함)
      */
-    private boolean isArchitecturalEnvironment(Set<String> labelSet) {
-        return labelSet.contains("building") ||
-               labelSet.contains("interior design") ||
-               labelSet.contains("architecture");
-    }
-
+    private AnnotateImageRequest buildRegionRequest(ByteString regionBytes, List<Feature> features) {
+        Image img = Image.newBuilder().setContent(regionBytes).build();
 
-
-    private String analyzeCategory(List<EntityAnnotation> labels) {
-        // 계산대가 감지되어도 snack/beverage 분류는 유지 (계산대 근처에 상품이 있을 수 있음)
-
-        Map<String, Double> categoryScores = new HashMap<>();
-        categoryScores.put("beverage", 0.0);
-        categoryScores.put("snack", 0.0);
-
-        for (EntityAnnotation label : labels) {
-            String description = label.getDescription().toLowerCase();
-            float score = label.getScore();
-
-            if (ENHANCED_BEVERAGE_KEYWORDS.stream().anyMatch(description::contains)) {
-                categoryScores.merge("beverage", (double) score, Double::sum);
-                log.debug("음료 키워드 매칭: '{}' (점수: {:.2f})", description, score);
-            }
-            if (ENHANCED_SNACK_KEYWORDS.stream().anyMatch(description::contains)) {
-                categoryScores.merge("snack", (double) score, Double::sum);
-                log.debug("스낵 키워드 매칭: '{}' (점수: {:.2f})", description, score);
-            }
-        }
-
-        return categoryScores.entrySet().stream()
-                .max(Map.Entry.comparingByValue())
-                .filter(entry -> entry.getValue() > 0.5) // 신뢰도 높임 (0.3 → 0.5)
-                .map(Map.Entry::getKey)
-                .orElse("unknown");
+        return AnnotateImageRequest.newBuilder()
+                .addAllFeatures(features)
+                .setImage(img)
+                .build();
     }
 
-
     // 내부 클래스
     private static class DetectionResult {
         private final List<LocalizedObjectAnnotation> objects;
@@ -502,49 +491,4 @@ public class VisionApiService { // Updated response format
             return labels;
         }
     }
-
-    /**
-     * 3분할 병렬 분석 결과
-     */
-    private static class ParallelAnalysisResult {
-        private final Map<String, Boolean> directions;
-        private final Map<String, Boolean> peopleByRegion;
-        private final Map<String, Boolean> obstaclesByRegion;
-        private final String centerCategory;
-        private final boolean counterDetection;
-
-        public ParallelAnalysisResult(Map<String, Boolean> directions,
-                                    Map<String, Boolean> peopleByRegion,
-                                    Map<String, Boolean> obstaclesByRegion,
-                                    String centerCategory,
-                                    boolean counterDetection) {
-            this.directions = directions;
-            this.peopleByRegion = peopleByRegion;
-            this.obstaclesByRegion = obstaclesByRegion;
-            this.centerCategory = centerCategory;
-            this.counterDetection = counterDetection;
-        }
-
-        public Map<String, Boolean> getDirections() { return directions; }
-        public Map<String, Boolean> getPeopleByRegion() { return peopleByRegion; }
-        public Map<String, Boolean> getObstaclesByRegion() { return obstaclesByRegion; }
-        public String getCenterCategory() { return centerCategory; }
-        public boolean getCounterDetection() { return counterDetection; }
-    }
-
-    /**
-     * 영역별 분석 결과
-     */
-    private static class RegionResult {
-        private final List<LocalizedObjectAnnotation> objects;
-        private final List<EntityAnnotation> labels;
-
-        public RegionResult(List<LocalizedObjectAnnotation> objects, List<EntityAnnotation> labels) {
-            this.objects = objects;
-            this.labels = labels;
-        }
-
-        public List<LocalizedObjectAnnotation> getObjects() { return objects; }
-        public List<EntityAnnotation> getLabels() { return labels; }
-    }
-}
\ No newline at end of file
+}
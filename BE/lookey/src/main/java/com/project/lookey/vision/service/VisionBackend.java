@@ -0,0 +1,28 @@
+package com.project.lookey.vision.service;
+
+import com.google.cloud.vision.v1.BatchAnnotateImagesRequest;
+import com.google.cloud.vision.v1.BatchAnnotateImagesResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * Vision 주석 호출 백엔드 (vision.backend)
+ * - google: Google Cloud Vision (기본값)
+ * - recorded: 녹화/합성 응답을 설정한 지연 분포로 반환 (인증 정보나 네트워크 없이 부하 테스트)
+ */
+public interface VisionBackend {
+
+    /**
+     * 배치 주석 요청 (구독이 취소되면 진행 중인 호출도 취소)
+     */
+    Mono<BatchAnnotateImagesResponse> annotate(BatchAnnotateImagesRequest request);
+
+    /**
+     * 호출 가능 여부 (false면 분석 요청을 바로 실패 처리)
+     */
+    boolean isAvailable();
+
+    /**
+     * 지표 태그용 이름
+     */
+    String name();
+}
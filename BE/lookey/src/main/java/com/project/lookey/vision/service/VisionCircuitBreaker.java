@@ -0,0 +1,173 @@
+package com.project.lookey.vision.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Vision API 서킷 브레이커 (분석 횟수 기반 슬라이딩 창)
+ * 시험 분석 자리(tryAcquire)와 결과(onSuccess/onFailure) 모두 분석 단위로 셈 (셀이 여러 개여도 분석당 한 번)
+ * - CLOSED: 최근 N회 분석의 실패율이 임계값을 넘으면 OPEN
+ * - OPEN: 대기 시간 동안 호출 없이 즉시 기본값 반환
+ * - HALF_OPEN: 제한된 시험 분석만 허용하고 성공하면 CLOSED, 실패하면 다시 OPEN
+ */
+@Component
+@Slf4j
+public class VisionCircuitBreaker {
+
+    public enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    private final Counter rejectedCounter;
+
+    @Value("${vision.circuit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${vision.circuit.window-size:20}")
+    private int windowSize;
+
+    // 실패율 계산에 필요한 최소 호출 수
+    @Value("${vision.circuit.minimum-calls:10}")
+    private int minimumCalls;
+
+    @Value("${vision.circuit.failure-rate-threshold:0.5}")
+    private double failureRateThreshold;
+
+    @Value("${vision.circuit.open-ms:30000}")
+    private long openMillis;
+
+    @Value("${vision.circuit.half-open-trials:2}")
+    private int halfOpenTrials;
+
+    private State state = State.CLOSED;
+    private boolean[] outcomes;
+    private int outcomeIndex;
+    private int recordedCalls;
+    private int failedCalls;
+    private long openedAt;
+    private int trialsInFlight;
+    private int trialSuccesses;
+
+    public VisionCircuitBreaker(MeterRegistry meterRegistry) {
+        this.rejectedCounter = Counter.builder("vision.circuit.rejected")
+                .description("서킷 OPEN 상태로 Vision 호출 없이 기본값을 반환한 분석 수")
+                .register(meterRegistry);
+        Gauge.builder("vision.circuit.state", this, breaker -> breaker.getState().ordinal())
+                .description("서킷 상태 (0: CLOSED, 1: HALF_OPEN, 2: OPEN)")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 분석 시작 가능 여부 (OPEN이면 false, HALF_OPEN이면 시험 분석 수 제한)
+     */
+    public synchronized boolean tryAcquire() {
+        if (!enabled) {
+            return true;
+        }
+        if (state == State.OPEN) {
+            if (System.currentTimeMillis() - openedAt < openMillis) {
+                rejectedCounter.increment();
+                return false;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialsInFlight >= halfOpenTrials) {
+                rejectedCounter.increment();
+                return false;
+            }
+            trialsInFlight++;
+        }
+        return true;
+    }
+
+    /**
+     * 분석 성공 (분석당 한 번)
+     */
+    public synchronized void onSuccess() {
+        if (!enabled) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            if (++trialSuccesses >= halfOpenTrials) {
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+        record(false);
+    }
+
+    /**
+     * 분석 실패 - Vision 호출/응답 실패 또는 시한 초과 (분석당 한 번)
+     */
+    public synchronized void onFailure() {
+        if (!enabled) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            transitionTo(State.OPEN);
+            return;
+        }
+        record(true);
+        if (state == State.CLOSED && recordedCalls >= minimumCalls
+                && (double) failedCalls / recordedCalls >= failureRateThreshold) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    /**
+     * 분석 종료 시 호출 - HALF_OPEN 시험 분석 자리 반환
+     */
+    public synchronized void release() {
+        if (state == State.HALF_OPEN && trialsInFlight > 0) {
+            trialsInFlight--;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void record(boolean failed) {
+        if (outcomes == null || outcomes.length != windowSize) {
+            outcomes = new boolean[Math.max(1, windowSize)];
+            outcomeIndex = 0;
+            recordedCalls = 0;
+            failedCalls = 0;
+        }
+        if (recordedCalls == outcomes.length) {
+            if (outcomes[outcomeIndex]) {
+                failedCalls--;
+            }
+        } else {
+            recordedCalls++;
+        }
+        outcomes[outcomeIndex] = failed;
+        if (failed) {
+            failedCalls++;
+        }
+        outcomeIndex = (outcomeIndex + 1) % outcomes.length;
+    }
+
+    private void transitionTo(State next) {
+        if (state == next) {
+            return;
+        }
+        log.warn("Vision 서킷 상태 변경: {} -> {}", state, next);
+        state = next;
+        trialsInFlight = 0;
+        trialSuccesses = 0;
+        if (next == State.OPEN) {
+            openedAt = System.currentTimeMillis();
+        }
+        if (next == State.CLOSED) {
+            outcomes = null;
+            recordedCalls = 0;
+            failedCalls = 0;
+        }
+    }
+}
@@ -0,0 +1,354 @@
+package com.project.lookey.vision.service;
+
+import com.google.cloud.vision.v1.AnnotateImageResponse;
+import com.google.cloud.vision.v1.EntityAnnotation;
+import com.google.cloud.vision.v1.LocalizedObjectAnnotation;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Vision 응답 -> 방향/사람/장애물/카테고리/카운터 판단
+ * 호출/이미지 처리와 분리된 순수 판단 단계 (오프라인 재생 도구에서도 같은 코드로 평가)
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class VisionDecisionEngine {
+
+    private final LabelRuleEngine labelRules;
+    private final VisionGrid grid;
+
+    // 사람/장애물 객체 인정 점수 (초과)
+    @Value("${vision.rules.object-min-score:0.5}")
+    private float objectMinScore;
+
+    // 사람 라벨 보완 / 카운터 증거 라벨 인정 점수 (초과)
+    @Value("${vision.rules.label-min-score:0.6}")
+    private float labelMinScore;
+
+    // 카테고리 점수 합 인정 기준 (초과)
+    @Value("${vision.rules.category-min-score:0.5}")
+    private double categoryMinScore;
+
+    /**
+     * 셀 결과를 좌/중/우 띠로 합쳐 판단하고, 설정 시 셀 단위 결과도 함께 반환
+     * 호출한 셀이 모두 실패하면 안전 기본값, 일부만 실패하면 판단은 유지하되 fallback(degraded)으로 표시
+     * (실패한 셀의 빈 결과는 "사람/장애물 없음"이 아니므로 캐시하지 않음)
+     */
+    public ParallelAnalysisResult mergeCells(List<RegionResult> cellResults) {
+        int failedCells = 0;
+        int calledCells = 0;
+        for (RegionResult cellResult : cellResults) {
+            if (cellResult.isFailed()) {
+                failedCells++;
+            }
+            if (cellResult != RegionResult.empty()) {
+                calledCells++;
+            }
+        }
+        if (failedCells > 0 && failedCells == calledCells) {
+            log.warn("격자 셀 {}개 분석 모두 실패, 기본값 반환", failedCells);
+            return safeDefaultResult();
+        }
+        boolean fallback = failedCells > 0;
+        if (fallback) {
+            log.warn("격자 셀 {}/{}개 분석 실패, degraded 결과 반환", failedCells, calledCells);
+        }
+
+        RegionResult left = mergeBand(cellResults, grid.cellsInBand(0));
+        RegionResult center = mergeBand(cellResults, grid.cellsInBand(1));
+        RegionResult right = mergeBand(cellResults, grid.cellsInBand(2));
+        ParallelAnalysisResult merged = evaluateRegions(left, center, right, fallback);
+
+        if (!grid.isIncludeCells()) {
+            return merged;
+        }
+
+        List<GridCellResult> cells = new ArrayList<>(cellResults.size());
+        for (int cell = 0; cell < cellResults.size(); cell++) {
+            RegionResult cellResult = cellResults.get(cell);
+            String cellName = grid.cellName(cell);
+            cells.add(new GridCellResult(
+                    cell / grid.getColumns(),
+                    cell % grid.getColumns(),
+                    canMoveInRegion(cellResult.getLabels(), cellName),
+                    detectPeopleInRegion(cellResult, cellName),
+                    detectObstaclesInRegion(cellResult, cellName)));
+        }
+        return new ParallelAnalysisResult(merged.getDirections(), merged.getPeopleByRegion(),
+                merged.getObstaclesByRegion(), merged.getCenterCategory(), merged.getCounterDetection(),
+                fallback, cells);
+    }
+
+    /**
+     * 띠에 속한 셀 결과 합치기
+     * 객체는 모두 모으고, 라벨은 같은 설명이 여러 셀에서 나오면 최고 점수 하나만 유지 (카테고리 점수 중복 합산 방지)
+     */
+    private RegionResult mergeBand(List<RegionResult> cellResults, List<Integer> cells) {
+        if (cells.size() == 1) {
+            return cellResults.get(cells.get(0));
+        }
+
+        List<LocalizedObjectAnnotation> objects = new ArrayList<>();
+        Map<String, EntityAnnotation> labelsByDescription = new LinkedHashMap<>();
+        for (int cell : cells) {
+            RegionResult cellResult = cellResults.get(cell);
+            objects.addAll(cellResult.getObjects());
+            for (EntityAnnotation label : cellResult.getLabels()) {
+                labelsByDescription.merge(label.getDescription().toLowerCase(), label,
+                        (a, b) -> a.getScore() >= b.getScore() ? a : b);
+            }
+        }
+        return new RegionResult(objects, new ArrayList<>(labelsByDescription.values()));
+    }
+
+    /**
+     * 전체 프레임 응답을 boundingPoly 좌표로 격자 셀에 배정해 판단
+     * 객체는 정규화 좌표 범위가 겹치는 모든 셀에 배정되어 사람/장애물은 객체 위치로만 영역별 판단
+     * 라벨은 위치 정보가 없으므로 영역에 나누지 않고 방향(통로)/카테고리/카운터를 프레임 단위로 한 번 판단
+     * (방향은 모든 영역이 같은 값이며 regionalDirections=false로 표시)
+     */
+    public ParallelAnalysisResult assignByGeometry(List<LocalizedObjectAnnotation> detectedObjects,
+                                                   List<EntityAnnotation> labels) {
+        List<List<LocalizedObjectAnnotation>> objectsByCell = new ArrayList<>();
+        for (int i = 0; i < grid.cellCount(); i++) {
+            objectsByCell.add(new ArrayList<>());
+        }
+
+        for (LocalizedObjectAnnotation object : detectedObjects) {
+            for (int cell : grid.cellsOverlappedBy(object.getBoundingPoly())) {
+                objectsByCell.get(cell).add(object);
+            }
+        }
+
+        List<RegionResult> cellResults = new ArrayList<>(grid.cellCount());
+        for (List<LocalizedObjectAnnotation> objects : objectsByCell) {
+            cellResults.add(new RegionResult(objects, List.of()));
+        }
+        ParallelAnalysisResult byObjects = mergeCells(cellResults);
+
+        // 프레임 단위 라벨 판단
+        RegionResult frame = new RegionResult(List.of(), labels);
+        boolean aisle = canMoveInRegion(labels, "FRAME");
+        Map<String, Boolean> directions = new HashMap<>();
+        directions.put("left", aisle);
+        directions.put("front", aisle);
+        directions.put("right", aisle);
+
+        List<GridCellResult> cells = null;
+        if (byObjects.getGridCells() != null) {
+            cells = new ArrayList<>(byObjects.getGridCells().size());
+            for (GridCellResult cell : byObjects.getGridCells()) {
+                cells.add(new GridCellResult(cell.getRow(), cell.getColumn(), aisle, cell.isPeople(), cell.isObstacles()));
+            }
+        }
+        return new ParallelAnalysisResult(directions, byObjects.getPeopleByRegion(), byObjects.getObstaclesByRegion(),
+                analyzeCategory(labels), detectCounterInRegions(frame, RegionResult.empty(), RegionResult.empty()),
+                byObjects.isFallback(), cells, false);
+    }
+
+    /**
+     * 영역별 분석 결과를 방향/사람/장애물/카테고리/카운터 판단으로 변환
+     */
+    private ParallelAnalysisResult evaluateRegions(RegionResult leftResult, RegionResult centerResult, RegionResult rightResult,
+                                                   boolean fallback) {
+        // 방향 분석
+        Map<String, Boolean> directions = new HashMap<>();
+        directions.put("left", canMoveInRegion(leftResult.getLabels(), "LEFT"));
+        directions.put("front", canMoveInRegion(centerResult.getLabels(), "CENTER"));
+        directions.put("right", canMoveInRegion(rightResult.getLabels(), "RIGHT"));
+
+        // 사람 위치 분석
+        Map<String, Boolean> peopleByRegion = new HashMap<>();
+        peopleByRegion.put("left", detectPeopleInRegion(leftResult, "LEFT"));
+        peopleByRegion.put("front", detectPeopleInRegion(centerResult, "CENTER"));
+        peopleByRegion.put("right", detectPeopleInRegion(rightResult, "RIGHT"));
+
+        // 장애물 위치 분석
+        Map<String, Boolean> obstaclesByRegion = new HashMap<>();
+        obstaclesByRegion.put("left", detectObstaclesInRegion(leftResult, "LEFT"));
+        obstaclesByRegion.put("front", detectObstaclesInRegion(centerResult, "CENTER"));
+        obstaclesByRegion.put("right", detectObstaclesInRegion(rightResult, "RIGHT"));
+
+        // 카테고리 분석 (CENTER만)
+        String centerCategory = analyzeCategory(centerResult.getLabels());
+
+        // 카운터 감지 (전체 영역 통합 분석)
+        boolean counterDetection = detectCounterInRegions(leftResult, centerResult, rightResult);
+
+        return new ParallelAnalysisResult(directions, peopleByRegion, obstaclesByRegion, centerCategory, counterDetection, fallback);
+    }
+
+    /**
+     * 분석 실패 시 안전한 기본값
+     */
+    public ParallelAnalysisResult safeDefaultResult() {
+        Map<String, Boolean> safeDirections = new HashMap<>();
+        safeDirections.put("front", false);
+        safeDirections.put("left", false);
+        safeDirections.put("right", false);
+
+        Map<String, Boolean> safePeople = new HashMap<>();
+        safePeople.put("front", false);
+        safePeople.put("left", false);
+        safePeople.put("right", false);
+
+        Map<String, Boolean> safeObstacles = new HashMap<>();
+        safeObstacles.put("front", false);
+        safeObstacles.put("left", false);
+        safeObstacles.put("right", false);
+
+        return new ParallelAnalysisResult(safeDirections, safePeople, safeObstacles, "unknown", false, true);
+    }
+
+    /**
+     * Vision 응답을 영역 결과로 변환 (오류 응답은 실패 결과)
+     */
+    public RegionResult toRegionResult(AnnotateImageResponse imageResponse, String regionName) {
+        if (imageResponse.hasError()) {
+            log.error("{} 영역 분석 실패: {}", regionName, imageResponse.getError().getMessage());
+            return RegionResult.failed();
+        }
+        return new RegionResult(imageResponse.getLocalizedObjectAnnotationsList(), imageResponse.getLabelAnnotationsList());
+    }
+
+    /**
+     * 영역별 이동 가능 여부 판단
+     */
+    private boolean canMoveInRegion(List<EntityAnnotation> labels, String regionName) {
+        boolean hasAisleLabels = labels.stream()
+                .anyMatch(label -> labelRules.matches(label.getDescription(), LabelRule.AISLE));
+
+
+        return hasAisleLabels;
+    }
+
+    /**
+     * 영역별 사람 감지
+     */
+    private boolean detectPeopleInRegion(RegionResult regionResult, String regionName) {
+
+        // Object Detection 우선
+        boolean objectDetection = regionResult.getObjects().stream()
+                .anyMatch(obj -> obj.getScore() > objectMinScore && labelRules.matches(obj.getName(), LabelRule.PERSON_OBJECT));
+
+
+        // Label Detection 보완 - 단어 경계 매칭 (personal care 같은 false positive 방지)
+        boolean labelDetection = regionResult.getLabels().stream()
+                .anyMatch(label -> label.getScore() > labelMinScore
+                        && labelRules.matches(label.getDescription(), LabelRule.PEOPLE_LABEL));
+
+        boolean hasPeople = objectDetection || labelDetection;
+
+
+        return hasPeople;
+    }
+
+    /**
+     * 영역별 장애물 감지
+     */
+    private boolean detectObstaclesInRegion(RegionResult regionResult, String regionName) {
+        boolean hasObstacles = regionResult.getObjects().stream()
+                .anyMatch(obj -> obj.getScore() > objectMinScore && labelRules.matches(obj.getName(), LabelRule.OBSTACLE_OBJECT));
+
+
+        return hasObstacles;
+    }
+
+    /**
+     * 영역 독립적 카운터 감지 (다중 증거 시스템)
+     */
+    private boolean detectCounterInRegions(RegionResult leftResult, RegionResult centerResult, RegionResult rightResult) {
+        // 모든 영역의 라벨을 통합해 신뢰도가 기준을 넘는 라벨이 일치한 규칙을 모음
+        long matched = 0L;
+        BitSet vendingBeverages = new BitSet();
+        for (RegionResult regionResult : List.of(leftResult, centerResult, rightResult)) {
+            for (EntityAnnotation label : regionResult.getLabels()) {
+                if (label.getScore() <= labelMinScore) {
+                    continue;
+                }
+                long labelRulesMatched = labelRules.classify(label.getDescription());
+                matched |= labelRulesMatched;
+                if (LabelRule.VENDING_BEVERAGE.in(labelRulesMatched)) {
+                    vendingBeverages.set(labelRules.exactKeywordId(label.getDescription()));
+                }
+            }
+        }
+
+
+        // 1단계: 직접 카운터 키워드 (100% 확실)
+        if (LabelRule.COUNTER_DIRECT.in(matched)) {
+            return true;
+        }
+
+        // 2단계: Electronic Device + Machine 조합 (핵심 증거)
+        boolean hasElectronicDevice = LabelRule.ELECTRONIC_DEVICE.in(matched);
+        boolean hasMachine = LabelRule.MACHINE.in(matched);
+
+
+        if (hasElectronicDevice && hasMachine) {
+            // 3단계: 자판기 환경 제외 로직
+            boolean isVendingMachine = isVendingMachineEnvironment(matched, vendingBeverages.cardinality());
+
+            if (!isVendingMachine) {
+                // 4단계: 환경 컨텍스트 확인
+                boolean isConvenienceStore = LabelRule.CONVENIENCE_STORE.in(matched);
+                boolean isArchitecturalSpace = LabelRule.ARCHITECTURE.in(matched);  // nopeople_counter.jpeg 케이스
+
+                if (isConvenienceStore || isArchitecturalSpace) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * 자판기 환경 감지
+     */
+    private boolean isVendingMachineEnvironment(long matched, int beverageCount) {
+        // Machine + 음료 관련 라벨 3개 이상 = 자판기
+        boolean isVending = LabelRule.MACHINE.in(matched) && beverageCount >= 3;
+        return isVending;
+    }
+
+
+
+    private String analyzeCategory(List<EntityAnnotation> labels) {
+        // 계산대가 감지되어도 snack/beverage 분류는 유지 (계산대 근처에 상품이 있을 수 있음)
+
+        Map<String, Double> categoryScores = new HashMap<>();
+        categoryScores.put("beverage", 0.0);
+        categoryScores.put("snack", 0.0);
+
+        for (EntityAnnotation label : labels) {
+            long matched = labelRules.classify(label.getDescription());
+            float score = label.getScore();
+
+            if (LabelRule.BEVERAGE_CATEGORY.in(matched)) {
+                categoryScores.merge("beverage", (double) score, Double::sum);
+                log.debug("음료 키워드 매칭: '{}' (점수: {})", label.getDescription(), score);
+            }
+            if (LabelRule.SNACK_CATEGORY.in(matched)) {
+                categoryScores.merge("snack", (double) score, Double::sum);
+                log.debug("스낵 키워드 매칭: '{}' (점수: {})", label.getDescription(), score);
+            }
+        }
+
+        return categoryScores.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .filter(entry -> entry.getValue() > categoryMinScore) // 신뢰도 높임 (0.3 → 0.5)
+                .map(Map.Entry::getKey)
+                .orElse("unknown");
+    }
+}
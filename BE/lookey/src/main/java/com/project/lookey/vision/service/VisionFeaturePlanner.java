@@ -0,0 +1,126 @@
+package com.project.lookey.vision.service;
+
+import com.google.cloud.vision.v1.Feature;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 요청 항목(outputs)으로 셀별 최소 Feature 집합 계산
+ * - directions: 모든 띠의 라벨 (aisle)
+ * - people: 모든 띠의 객체 + 라벨 (단어 경계 라벨 보완 판단)
+ * - obstacles: 모든 띠의 객체
+ * - category: 가운데 띠의 라벨
+ * - counter: 모든 띠의 라벨
+ * 항목 조합은 32가지뿐이므로 계산한 계획은 재사용
+ *
+ * 레인 분리: 편의 항목(category, counter)은 안전 항목 계획에 더해도 Feature가 바뀌지 않으면
+ * 안전 레인 호출 결과로 함께 계산하고, 바뀌는 경우에만 편의 레인의 별도 호출로 분리
+ */
+@Component
+@RequiredArgsConstructor
+public class VisionFeaturePlanner {
+
+    private static final int CENTER_BAND = 1;
+
+    private final VisionGrid grid;
+
+    private final Map<Set<VisionOutput>, FeaturePlan> plans = new ConcurrentHashMap<>();
+    private final Map<Set<VisionOutput>, LanePlan> lanePlans = new ConcurrentHashMap<>();
+
+    @Value("${vision.features.cell-max-results:10}")
+    private int cellMaxResults;
+
+    @Value("${vision.features.full-frame-max-results:20}")
+    private int fullFrameMaxResults;
+
+    public FeaturePlan fullPlan() {
+        return plan(EnumSet.allOf(VisionOutput.class));
+    }
+
+    public FeaturePlan plan(Set<VisionOutput> outputs) {
+        return plans.computeIfAbsent(normalize(outputs), this::build);
+    }
+
+    public LanePlan lanes(Set<VisionOutput> outputs) {
+        return lanePlans.computeIfAbsent(normalize(outputs), this::buildLanes);
+    }
+
+    private static Set<VisionOutput> normalize(Set<VisionOutput> outputs) {
+        return outputs == null || outputs.isEmpty()
+                ? EnumSet.allOf(VisionOutput.class)
+                : EnumSet.copyOf(outputs);
+    }
+
+    private LanePlan buildLanes(Set<VisionOutput> outputs) {
+        Set<VisionOutput> safety = VisionLane.SAFETY.filter(outputs);
+        Set<VisionOutput> convenience = VisionLane.CONVENIENCE.filter(outputs);
+
+        if (!safety.isEmpty()) {
+            FeaturePlan safetyPlan = plan(safety);
+            Set<VisionOutput> piggybacked = EnumSet.noneOf(VisionOutput.class);
+            for (VisionOutput output : convenience) {
+                Set<VisionOutput> widened = EnumSet.copyOf(safety);
+                widened.add(output);
+                if (plan(widened).sameFeaturesAs(safetyPlan)) {
+                    piggybacked.add(output);
+                }
+            }
+            safety.addAll(piggybacked);
+            convenience.removeAll(piggybacked);
+        }
+
+        return new LanePlan(
+                safety.isEmpty() ? null : plan(safety),
+                convenience.isEmpty() ? null : plan(convenience));
+    }
+
+    private FeaturePlan build(Set<VisionOutput> outputs) {
+        boolean objectsEverywhere = outputs.contains(VisionOutput.PEOPLE) || outputs.contains(VisionOutput.OBSTACLES);
+        boolean labelsEverywhere = outputs.contains(VisionOutput.DIRECTIONS)
+                || outputs.contains(VisionOutput.PEOPLE)
+                || outputs.contains(VisionOutput.COUNTER);
+        boolean centerLabels = outputs.contains(VisionOutput.CATEGORY);
+
+        List<Integer> centerCells = grid.cellsInBand(CENTER_BAND);
+        List<List<Feature>> featuresByCell = new ArrayList<>(grid.cellCount());
+        for (int cell = 0; cell < grid.cellCount(); cell++) {
+            boolean labels = labelsEverywhere || (centerLabels && centerCells.contains(cell));
+            featuresByCell.add(features(objectsEverywhere, labels, cellMaxResults));
+        }
+
+        List<Feature> fullFrame = features(objectsEverywhere, labelsEverywhere || centerLabels, fullFrameMaxResults);
+
+        int mask = 0;
+        for (VisionOutput output : outputs) {
+            mask |= 1 << output.ordinal();
+        }
+        return new FeaturePlan(outputs, featuresByCell, fullFrame, Integer.toString(mask));
+    }
+
+    private static List<Feature> features(boolean objects, boolean labels, int maxResults) {
+        List<Feature> features = new ArrayList<>(2);
+        if (objects) {
+            // Object Detection Feature
+            features.add(Feature.newBuilder()
+                    .setType(Feature.Type.OBJECT_LOCALIZATION)
+                    .setMaxResults(maxResults)
+                    .build());
+        }
+        if (labels) {
+            // Label Detection Feature
+            features.add(Feature.newBuilder()
+                    .setType(Feature.Type.LABEL_DETECTION)
+                    .setMaxResults(maxResults)
+                    .build());
+        }
+        return List.copyOf(features);
+    }
+}
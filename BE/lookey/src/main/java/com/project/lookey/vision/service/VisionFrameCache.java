@@ -0,0 +1,157 @@
+package com.project.lookey.vision.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 사용자별 프레임 중복 제거 캐시
+ * 최근 분석한 프레임의 지각 해시와 결과를 짧은 시간 동안 보관하고,
+ * 해밍 거리가 임계값 이하인 프레임이 들어오면 Vision API 호출 없이 캐시 결과를 반환
+ * 사용자 목록은 크기가 제한된 LRU (요청마다 전체를 훑지 않고, 가장 오래 쓰지 않은 사용자가 만료되었거나 상한을 넘으면 제거)
+ */
+@Component
+@Slf4j
+public class VisionFrameCache {
+
+    // 사용자별 최근 프레임 (접근 순서 LRU, 사용자 목록과 각 사용자 항목 접근은 모두 entriesByUser 잠금 안에서)
+    private final Map<Integer, Deque<Entry>> entriesByUser = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Deque<Entry>> eldest) {
+            return size() > maxUsers || isExpired(eldest.getValue(), System.currentTimeMillis());
+        }
+    };
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    @Value("${vision.dedup.enabled:true}")
+    private boolean enabled;
+
+    // 같은 프레임으로 볼 최대 해밍 거리 (64비트 중)
+    @Value("${vision.dedup.max-distance:5}")
+    private int maxDistance;
+
+    // 캐시 결과를 재사용할 시간 창
+    @Value("${vision.dedup.window-ms:2000}")
+    private long windowMillis;
+
+    @Value("${vision.dedup.entries-per-user:4}")
+    private int entriesPerUser;
+
+    // 캐시를 유지할 사용자 수 상한
+    @Value("${vision.dedup.max-users:10000}")
+    private int maxUsers;
+
+    public VisionFrameCache(MeterRegistry meterRegistry) {
+        this.hitCounter = Counter.builder("vision.frame.cache")
+                .tag("result", "hit")
+                .description("지각 해시 캐시로 Vision API 호출을 생략한 프레임 수")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("vision.frame.cache")
+                .tag("result", "miss")
+                .description("캐시에 없어 Vision API를 호출한 프레임 수")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 시간 창 안에서 해밍 거리가 가장 가까운 캐시 결과 조회
+     */
+    Optional<ParallelAnalysisResult> lookup(Integer userId, String variant, long frameHash) {
+        long now = System.currentTimeMillis();
+        Entry best = null;
+        int bestDistance = Integer.MAX_VALUE;
+
+        // 사용자당 항목은 entries-per-user개 이하라 잠금 안에서 비교
+        synchronized (entriesByUser) {
+            Deque<Entry> entries = entriesByUser.get(userId);
+            if (entries != null) {
+                Iterator<Entry> iterator = entries.iterator();
+                while (iterator.hasNext()) {
+                    Entry entry = iterator.next();
+                    if (now - entry.createdAt > windowMillis) {
+                        iterator.remove();
+                        continue;
+                    }
+                    if (!entry.variant.equals(variant)) {
+                        continue;
+                    }
+                    int distance = FrameHasher.distance(entry.frameHash, frameHash);
+                    if (distance <= maxDistance && distance < bestDistance) {
+                        best = entry;
+                        bestDistance = distance;
+                    }
+                }
+                if (entries.isEmpty()) {
+                    entriesByUser.remove(userId);
+                }
+            }
+        }
+
+        if (best == null) {
+            missCounter.increment();
+            return Optional.empty();
+        }
+
+        hitCounter.increment();
+        log.debug("프레임 캐시 적중 - userId: {}, 해밍 거리: {}", userId, bestDistance);
+        return Optional.of(best.result);
+    }
+
+    /**
+     * 분석 결과 저장 (사용자별 최근 N개만 유지)
+     * 항목 생성과 추가가 같은 잠금 안에서 일어나므로 정리 중에 빈 항목이 제거되어 결과가 사라지지 않음
+     */
+    void put(Integer userId, String variant, long frameHash, ParallelAnalysisResult result) {
+        Entry entry = new Entry(frameHash, variant, result, System.currentTimeMillis());
+        synchronized (entriesByUser) {
+            Deque<Entry> entries = entriesByUser.get(userId);
+            if (entries == null) {
+                entries = new ArrayDeque<>();
+                entries.addFirst(entry);
+                entriesByUser.put(userId, entries);
+                return;
+            }
+            entries.addFirst(entry);
+            while (entries.size() > entriesPerUser) {
+                entries.removeLast();
+            }
+        }
+    }
+
+    /**
+     * 가장 최근 항목이 시간 창을 지났으면 만료 (잠금 안에서 호출)
+     */
+    private boolean isExpired(Deque<Entry> entries, long now) {
+        Entry newest = entries.peekFirst();
+        return newest == null || now - newest.createdAt > windowMillis;
+    }
+
+    private static class Entry {
+        private final long frameHash;
+        // 분석 모드 + 요청 항목 (같은 variant의 결과만 재사용)
+        private final String variant;
+        private final ParallelAnalysisResult result;
+        private final long createdAt;
+
+        Entry(long frameHash, String variant, ParallelAnalysisResult result, long createdAt) {
+            this.frameHash = frameHash;
+            this.variant = variant;
+            this.result = result;
+            this.createdAt = createdAt;
+        }
+    }
+}
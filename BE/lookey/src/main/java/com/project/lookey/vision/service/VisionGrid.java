@@ -0,0 +1,157 @@
+package com.project.lookey.vision.service;
+
+import com.google.cloud.vision.v1.BoundingPoly;
+import com.google.cloud.vision.v1.NormalizedVertex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 분석 격자 설정 (vision.grid.columns x vision.grid.rows)
+ * 셀 인덱스는 행 우선 (row * columns + column)
+ * 응답의 left/front/right는 가로 3등분 띠이며, 각 셀은 가로 범위가 겹치는 띠에 합쳐짐
+ * 기본값 3x1은 기존 좌/중/우 3분할과 동일
+ */
+@Component
+public class VisionGrid {
+
+    public static final int BAND_COUNT = 3;
+
+    @Value("${vision.grid.columns:3}")
+    private int columns;
+
+    @Value("${vision.grid.rows:1}")
+    private int rows;
+
+    // 응답에 셀 단위 결과(grid) 포함 여부
+    @Value("${vision.grid.include-cells:false}")
+    private boolean includeCells;
+
+    private List<List<Integer>> cellsByBand;
+
+    @PostConstruct
+    public void init() {
+        if (columns < 1 || rows < 1) {
+            throw new IllegalStateException("vision.grid.columns/rows는 1 이상이어야 합니다.");
+        }
+
+        cellsByBand = new ArrayList<>(BAND_COUNT);
+        for (int band = 0; band < BAND_COUNT; band++) {
+            List<Integer> cells = new ArrayList<>();
+            for (int row = 0; row < rows; row++) {
+                for (int column = 0; column < columns; column++) {
+                    if (columnOverlapsBand(column, band)) {
+                        cells.add(row * columns + column);
+                    }
+                }
+            }
+            cellsByBand.add(cells);
+        }
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int cellCount() {
+        return columns * rows;
+    }
+
+    public boolean isIncludeCells() {
+        return includeCells;
+    }
+
+    public String cellName(int cell) {
+        return "R" + (cell / columns) + "C" + (cell % columns);
+    }
+
+    /**
+     * 띠(0: left, 1: front, 2: right)에 합쳐질 셀 인덱스
+     */
+    public List<Integer> cellsInBand(int band) {
+        return cellsByBand.get(band);
+    }
+
+    /**
+     * 이미지를 격자 셀로 분할 (마지막 행/열이 나머지 픽셀 포함)
+     */
+    public List<BufferedImage> split(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int cellWidth = width / columns;
+        int cellHeight = height / rows;
+
+        List<BufferedImage> cells = new ArrayList<>(cellCount());
+        for (int row = 0; row < rows; row++) {
+            int y = row * cellHeight;
+            int h = row == rows - 1 ? height - y : cellHeight;
+            for (int column = 0; column < columns; column++) {
+                int x = column * cellWidth;
+                int w = column == columns - 1 ? width - x : cellWidth;
+                cells.add(image.getSubimage(x, y, w, h));
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * 정규화 좌표(0~1) 범위와 겹치는 셀 인덱스
+     * 좌표 정보가 없는 객체는 위치를 알 수 없으므로 모든 셀에 배정
+     */
+    public List<Integer> cellsOverlappedBy(BoundingPoly boundingPoly) {
+        List<Integer> cells = new ArrayList<>();
+        if (boundingPoly.getNormalizedVerticesCount() == 0) {
+            for (int cell = 0; cell < cellCount(); cell++) {
+                cells.add(cell);
+            }
+            return cells;
+        }
+
+        float minX = 1f;
+        float maxX = 0f;
+        float minY = 1f;
+        float maxY = 0f;
+        for (NormalizedVertex vertex : boundingPoly.getNormalizedVerticesList()) {
+            minX = Math.min(minX, vertex.getX());
+            maxX = Math.max(maxX, vertex.getX());
+            minY = Math.min(minY, vertex.getY());
+            maxY = Math.max(maxY, vertex.getY());
+        }
+
+        for (int row = 0; row < rows; row++) {
+            // 1행 격자는 세로 위치와 무관
+            if (rows > 1 && !overlaps(minY, maxY, row, rows)) {
+                continue;
+            }
+            for (int column = 0; column < columns; column++) {
+                // 경계에 맞닿기만 한 경우는 제외
+                if (overlaps(minX, maxX, column, columns)) {
+                    cells.add(row * columns + column);
+                }
+            }
+        }
+        return cells;
+    }
+
+    private static boolean overlaps(float min, float max, int index, int count) {
+        float start = (float) index / count;
+        float end = (float) (index + 1) / count;
+        return min < end && max > start;
+    }
+
+    /**
+     * 열과 띠의 가로 범위가 겹치는지 (정수 연산으로 경계 오차 없음)
+     */
+    private boolean columnOverlapsBand(int column, int band) {
+        return column * BAND_COUNT < (band + 1) * columns
+                && (column + 1) * BAND_COUNT > band * columns;
+    }
+}
@@ -0,0 +1,287 @@
+package com.project.lookey.vision.service;
+
+import com.google.protobuf.ByteString;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * Vision 업로드용 이미지 준비 단계
+ * - 서브샘플링 디코딩으로 고해상도 사진을 목표 크기 근처로만 읽음 (전체 해상도 BufferedImage 생성 방지)
+ * - EXIF Orientation 반영
+ * - 스레드별로 재사용하는 ImageWriter와 버퍼로 지정 품질 JPEG 재인코딩
+ */
+@Component
+@Slf4j
+public class VisionImagePreparer {
+
+    // 재사용 버퍼가 이 크기를 넘으면 보관하지 않음 (큰 배열이 스레드에 계속 남지 않도록)
+    private static final int MAX_RETAINED_BUFFER = 4 * 1024 * 1024;
+
+    private static final int ORIENTATION_NORMAL = 1;
+
+    private final ThreadLocal<JpegEncoder> encoders = ThreadLocal.withInitial(JpegEncoder::new);
+
+    // 디코딩 후 긴 변의 목표 크기 (서브샘플링은 정수 배율이므로 결과는 이 값 이상)
+    @Value("${vision.image.max-dimension:1280}")
+    private int maxDimension;
+
+    @Value("${vision.image.jpeg-quality:0.85}")
+    private float jpegQuality;
+
+    /**
+     * 디코딩 후 긴 변의 목표 크기 (메모리 예산 예약 기준)
+     */
+    public int getMaxDimension() {
+        return maxDimension;
+    }
+
+    /**
+     * 목표 크기로 서브샘플링 디코딩 후 EXIF 방향 보정
+     */
+    public BufferedImage decode(byte[] imageBytes) throws IOException {
+        BufferedImage decoded = decodeSubsampled(imageBytes, maxDimension);
+        return applyOrientation(decoded, readExifOrientation(imageBytes));
+    }
+
+    /**
+     * 긴 변이 targetDimension 근처가 되도록 서브샘플링 디코딩 (방향 보정 없음)
+     */
+    public BufferedImage decodeSubsampled(byte[] imageBytes, int targetDimension) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(imageBytes))) {
+            ImageReader reader = readerFor(input);
+            try {
+                reader.setInput(input, true, true);
+                int longestSide = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int step = Math.max(1, longestSide / targetDimension);
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * 재사용 ImageWriter로 JPEG 인코딩
+     */
+    public ByteString encodeJpeg(BufferedImage image) throws IOException {
+        return encoders.get().encode(image, jpegQuality);
+    }
+
+    /**
+     * 원본 그대로 업로드 (좌표 기반 분석용)
+     * 이미 목표 크기 이하이고 방향 보정이 필요 없으면 재인코딩 없이 원본 바이트 사용
+     */
+    public ByteString prepareForUpload(byte[] imageBytes) throws IOException {
+        int orientation = readExifOrientation(imageBytes);
+        if (orientation == ORIENTATION_NORMAL && longestSide(imageBytes) <= maxDimension) {
+            return ByteString.copyFrom(imageBytes);
+        }
+        return encodeJpeg(decode(imageBytes));
+    }
+
+    /**
+     * 헤더만 읽어 긴 변 길이 확인 (디코딩 없음)
+     */
+    private int longestSide(byte[] imageBytes) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(imageBytes))) {
+            ImageReader reader = readerFor(input);
+            try {
+                reader.setInput(input, true, true);
+                return Math.max(reader.getWidth(0), reader.getHeight(0));
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private ImageReader readerFor(ImageInputStream input) throws IOException {
+        if (input == null) {
+            throw new IOException("이미지 스트림을 열 수 없습니다.");
+        }
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+        if (!readers.hasNext()) {
+            throw new IOException("지원하지 않는 이미지 형식입니다.");
+        }
+        return readers.next();
+    }
+
+    /**
+     * EXIF Orientation 값에 따라 회전/반전
+     */
+    private BufferedImage applyOrientation(BufferedImage image, int orientation) {
+        if (orientation <= ORIENTATION_NORMAL || orientation > 8) {
+            return image;
+        }
+
+        int w = image.getWidth();
+        int h = image.getHeight();
+        boolean swapsAxes = orientation >= 5;
+
+        // (x, y) -> (x', y') 변환 행렬: AffineTransform(m00, m10, m01, m11, m02, m12)
+        AffineTransform transform = switch (orientation) {
+            case 2 -> new AffineTransform(-1, 0, 0, 1, w, 0);   // 좌우 반전
+            case 3 -> new AffineTransform(-1, 0, 0, -1, w, h);  // 180도
+            case 4 -> new AffineTransform(1, 0, 0, -1, 0, h);   // 상하 반전
+            case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);    // 전치
+            case 6 -> new AffineTransform(0, 1, -1, 0, h, 0);   // 시계 방향 90도
+            case 7 -> new AffineTransform(0, -1, -1, 0, h, w);  // 역전치
+            default -> new AffineTransform(0, -1, 1, 0, 0, w);  // 반시계 방향 90도
+        };
+
+        BufferedImage oriented = new BufferedImage(
+                swapsAxes ? h : w,
+                swapsAxes ? w : h,
+                BufferedImage.TYPE_3BYTE_BGR);
+        Graphics2D g = oriented.createGraphics();
+        try {
+            g.drawImage(image, transform, null);
+        } finally {
+            g.dispose();
+        }
+        return oriented;
+    }
+
+    /**
+     * JPEG APP1(Exif) 세그먼트에서 Orientation(0x0112) 값 조회
+     * JPEG가 아니거나 값이 없으면 1(정상) 반환
+     */
+    static int readExifOrientation(byte[] bytes) {
+        if (bytes.length < 4 || (bytes[0] & 0xFF) != 0xFF || (bytes[1] & 0xFF) != 0xD8) {
+            return ORIENTATION_NORMAL;
+        }
+
+        int pos = 2;
+        while (pos + 4 <= bytes.length) {
+            if ((bytes[pos] & 0xFF) != 0xFF) {
+                return ORIENTATION_NORMAL;
+            }
+            int marker = bytes[pos + 1] & 0xFF;
+            // SOS 이후는 이미지 데이터
+            if (marker == 0xDA || marker == 0xD9) {
+                return ORIENTATION_NORMAL;
+            }
+            int length = ((bytes[pos + 2] & 0xFF) << 8) | (bytes[pos + 3] & 0xFF);
+            int segmentStart = pos + 4;
+            if (marker == 0xE1 && isExifHeader(bytes, segmentStart)) {
+                return readOrientationFromTiff(bytes, segmentStart + 6, pos + 2 + length);
+            }
+            pos += 2 + length;
+        }
+        return ORIENTATION_NORMAL;
+    }
+
+    private static boolean isExifHeader(byte[] bytes, int offset) {
+        return offset + 6 <= bytes.length
+                && bytes[offset] == 'E' && bytes[offset + 1] == 'x'
+                && bytes[offset + 2] == 'i' && bytes[offset + 3] == 'f'
+                && bytes[offset + 4] == 0 && bytes[offset + 5] == 0;
+    }
+
+    private static int readOrientationFromTiff(byte[] bytes, int tiffStart, int segmentEnd) {
+        int end = Math.min(segmentEnd, bytes.length);
+        if (tiffStart + 8 > end) {
+            return ORIENTATION_NORMAL;
+        }
+
+        boolean littleEndian = bytes[tiffStart] == 'I' && bytes[tiffStart + 1] == 'I';
+        int ifdOffset = readInt(bytes, tiffStart + 4, littleEndian);
+        int ifdStart = tiffStart + ifdOffset;
+        if (ifdOffset < 8 || ifdStart + 2 > end) {
+            return ORIENTATION_NORMAL;
+        }
+
+        int entryCount = readShort(bytes, ifdStart, littleEndian);
+        for (int i = 0; i < entryCount; i++) {
+            int entry = ifdStart + 2 + i * 12;
+            if (entry + 12 > end) {
+                break;
+            }
+            if (readShort(bytes, entry, littleEndian) == 0x0112) {
+                return readShort(bytes, entry + 8, littleEndian);
+            }
+        }
+        return ORIENTATION_NORMAL;
+    }
+
+    private static int readShort(byte[] bytes, int offset, boolean littleEndian) {
+        int b0 = bytes[offset] & 0xFF;
+        int b1 = bytes[offset + 1] & 0xFF;
+        return littleEndian ? (b1 << 8) | b0 : (b0 << 8) | b1;
+    }
+
+    private static int readInt(byte[] bytes, int offset, boolean littleEndian) {
+        int high = readShort(bytes, offset + (littleEndian ? 2 : 0), littleEndian);
+        int low = readShort(bytes, offset + (littleEndian ? 0 : 2), littleEndian);
+        return (high << 16) | low;
+    }
+
+    /**
+     * 스레드별 JPEG 인코더 (ImageWriter와 출력 버퍼 재사용)
+     */
+    private static class JpegEncoder {
+        private final ImageWriter writer;
+        private final ImageWriteParam param;
+        private ReusableOutputStream buffer = new ReusableOutputStream();
+
+        JpegEncoder() {
+            this.writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+            this.param = writer.getDefaultWriteParam();
+            this.param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        }
+
+        ByteString encode(BufferedImage image, float quality) throws IOException {
+            buffer.reset();
+            param.setCompressionQuality(quality);
+
+            try (MemoryCacheImageOutputStream output = new MemoryCacheImageOutputStream(buffer)) {
+                writer.setOutput(output);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.setOutput(null);
+            }
+
+            ByteString encoded = buffer.toByteString();
+            if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+                buffer = new ReusableOutputStream();
+            }
+            return encoded;
+        }
+    }
+
+    /**
+     * toByteArray() 중간 복사 없이 내부 배열에서 바로 ByteString을 만드는 출력 버퍼
+     */
+    private static class ReusableOutputStream extends ByteArrayOutputStream {
+        ReusableOutputStream() {
+            super(256 * 1024);
+        }
+
+        ByteString toByteString() {
+            return ByteString.copyFrom(buf, 0, count);
+        }
+
+        int capacity() {
+            return buf.length;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.project.lookey.vision.service;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * 분석 항목 우선순위 구분
+ * - SAFETY: 사람/장애물/방향 - 먼저 계산해 먼저 응답
+ * - CONVENIENCE: 카테고리/카운터 - 안전 항목 뒤에 낮은 우선순위로 계산, 부하 시 생략
+ */
+public enum VisionLane {
+    SAFETY,
+    CONVENIENCE;
+
+    /**
+     * 요청 항목 중 이 레인에 속한 항목
+     */
+    public Set<VisionOutput> filter(Set<VisionOutput> outputs) {
+        Set<VisionOutput> filtered = EnumSet.noneOf(VisionOutput.class);
+        for (VisionOutput output : outputs) {
+            if (output.getLane() == this) {
+                filtered.add(output);
+            }
+        }
+        return filtered;
+    }
+}
@@ -0,0 +1,144 @@
+package com.project.lookey.vision.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 레인별 우선순위 정책
+ * - 편의 레인은 동시 실행 수를 제한하고(bulkhead), 서킷이 닫혀 있지 않거나
+ *   Vision 실행기 대기열이 쌓이면 실행하지 않고 생략 (안전 레인 몫을 뺏지 않도록)
+ * - 레인별 지연 시간을 SLO 구간과 함께 따로 기록 (vision.lane.latency{lane})
+ */
+@Component
+@Slf4j
+public class VisionLanePolicy {
+
+    public static final String DROP_BREAKER = "breaker";
+    public static final String DROP_SATURATED = "saturated";
+    public static final String DROP_BULKHEAD = "bulkhead";
+    public static final String DROP_TIMEOUT = "timeout";
+    public static final String DROP_ERROR = "error";
+
+    private final VisionCircuitBreaker circuitBreaker;
+    private final ThreadPoolExecutor visionExecutor;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicInteger convenienceInFlight = new AtomicInteger();
+    private final Map<VisionLane, Timer> latencyTimers = new EnumMap<>(VisionLane.class);
+
+    @Value("${vision.lanes.convenience.max-concurrent:4}")
+    private int maxConcurrentConvenience;
+
+    // Vision 실행기 대기 작업이 이 수 이상이면 편의 레인 생략
+    @Value("${vision.lanes.convenience.shed-queue-depth:4}")
+    private int shedQueueDepth;
+
+    @Value("${vision.lanes.convenience.deadline-ms:2000}")
+    private long convenienceDeadlineMillis;
+
+    @Value("${vision.lanes.safety.slo-ms:1000}")
+    private long safetySloMillis;
+
+    @Value("${vision.lanes.convenience.slo-ms:3000}")
+    private long convenienceSloMillis;
+
+    public VisionLanePolicy(VisionCircuitBreaker circuitBreaker,
+                            @Qualifier("visionExecutor") ThreadPoolExecutor visionExecutor,
+                            MeterRegistry meterRegistry) {
+        this.circuitBreaker = circuitBreaker;
+        this.visionExecutor = visionExecutor;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        latencyTimers.put(VisionLane.SAFETY, latencyTimer(VisionLane.SAFETY, safetySloMillis,
+                "안전 항목(사람/장애물/방향) 응답 시간"));
+        latencyTimers.put(VisionLane.CONVENIENCE, latencyTimer(VisionLane.CONVENIENCE, convenienceSloMillis,
+                "편의 항목(카테고리/카운터) 별도 분석 시간"));
+
+        Gauge.builder("vision.lane.convenience.in-flight", convenienceInFlight, AtomicInteger::get)
+                .description("진행 중인 편의 레인 분석 수")
+                .register(meterRegistry);
+    }
+
+    private Timer latencyTimer(VisionLane lane, long sloMillis, String description) {
+        return Timer.builder("vision.lane.latency")
+                .tag("lane", laneTag(lane))
+                .description(description)
+                .serviceLevelObjectives(Duration.ofMillis(sloMillis))
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * 편의 레인 입장 시도
+     * @return 생략 사유 (입장하면 null, 입장한 경우 끝날 때 releaseConvenience 호출)
+     */
+    public String tryAdmitConvenience() {
+        String reason = shedReason();
+        if (reason != null) {
+            recordDropped(reason);
+            return reason;
+        }
+        if (convenienceInFlight.incrementAndGet() > maxConcurrentConvenience) {
+            convenienceInFlight.decrementAndGet();
+            recordDropped(DROP_BULKHEAD);
+            return DROP_BULKHEAD;
+        }
+        return null;
+    }
+
+    public void releaseConvenience() {
+        convenienceInFlight.decrementAndGet();
+    }
+
+    private String shedReason() {
+        if (circuitBreaker.getState() != VisionCircuitBreaker.State.CLOSED) {
+            return DROP_BREAKER;
+        }
+        if (visionExecutor.getQueue().size() >= shedQueueDepth
+                || visionExecutor.getActiveCount() >= visionExecutor.getMaximumPoolSize()) {
+            return DROP_SATURATED;
+        }
+        return null;
+    }
+
+    public void recordDropped(String reason) {
+        log.debug("편의 레인 생략 - 사유: {}", reason);
+        meterRegistry.counter("vision.lane.dropped", "reason", reason).increment();
+    }
+
+    /**
+     * 레인 지연 시간 기록 (구독 시점부터 값이 나올 때까지)
+     */
+    public <T> Mono<T> timed(VisionLane lane, Mono<T> work) {
+        Timer timer = latencyTimers.get(lane);
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return work.doOnNext(value -> sample.stop(timer));
+        });
+    }
+
+    public Duration getConvenienceDeadline() {
+        return Duration.ofMillis(convenienceDeadlineMillis);
+    }
+
+    static String laneTag(VisionLane lane) {
+        return lane.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,297 @@
+package com.project.lookey.vision.service;
+
+import com.project.lookey.vision.exception.VisionException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * 연속 프레임 분석 (내비게이션 세션 단위)
+ * 세션별 시간축 안정화와 적응형 샘플링을 적용해 VisionApiService 호출
+ *
+ * 안전 항목(사람/장애물/방향)을 먼저 분석해 먼저 내보내고,
+ * 별도 호출이 필요한 편의 항목(카테고리/카운터)은 그 뒤에 낮은 우선순위로 분석 (부하 시 생략)
+ */
+@Service
+@Slf4j
+public class VisionNavigationService {
+
+    private final VisionApiService visionApiService;
+    private final Scheduler visionScheduler;
+    private final VisionRequestCoalescer coalescer;
+    private final VisionFeaturePlanner featurePlanner;
+    private final VisionLanePolicy lanePolicy;
+
+    // REST 요청용 사용자 + 분석 모드 + 안전 항목 조합별 세션 (WebSocket은 연결마다 세션 보유 - 연결 중 항목 고정)
+    // 요청 항목이 다른 결과는 계산하지 않은 항목이 false로 투표되므로 같은 세션에서 섞지 않음
+    // 접근 순서 LRU - 요청마다 전체를 훑지 않고 가장 오래 쓰지 않은 세션이 유휴 시간을 넘었거나 상한을 넘으면 제거
+    private final Map<SessionKey, NavigationSession> userSessions = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<SessionKey, NavigationSession> eldest) {
+            return size() > maxSessions
+                    || System.currentTimeMillis() - eldest.getValue().getLastSeenAt() > sessionIdleMillis;
+        }
+    };
+
+    private final Counter analyzedCounter;
+    private final Counter skippedCounter;
+
+    @Value("${vision.smoothing.enabled:true}")
+    private boolean enabled;
+
+    // 투표 창 크기 (프레임 수)
+    @Value("${vision.smoothing.window:5}")
+    private int window;
+
+    @Value("${vision.smoothing.enter-votes:3}")
+    private int enterVotes;
+
+    @Value("${vision.smoothing.exit-votes:1}")
+    private int exitVotes;
+
+    // 사람/장애물은 더 빨리 켜지도록 별도 기준
+    @Value("${vision.smoothing.hazard-enter-votes:2}")
+    private int hazardEnterVotes;
+
+    // 이 횟수만큼 연속으로 결과가 안정적이어야 생략 시작
+    @Value("${vision.sampling.stable-frames:3}")
+    private int stableFrames;
+
+    // 연속 생략 상한 - 넘으면 화면이 같아 보여도 다시 분석
+    @Value("${vision.sampling.max-skipped-frames:4}")
+    private int maxSkippedFrames;
+
+    @Value("${vision.sampling.max-skip-ms:1500}")
+    private long maxSkipMillis;
+
+    @Value("${vision.sampling.max-distance:6}")
+    private int skipMaxDistance;
+
+    // 사용자당 분석 1개 + 최신 대기 1개로 제한 (REST 요청)
+    @Value("${vision.coalesce.enabled:true}")
+    private boolean coalesceEnabled;
+
+    @Value("${vision.smoothing.session-idle-ms:10000}")
+    private long sessionIdleMillis;
+
+    // REST 세션 수 상한
+    @Value("${vision.smoothing.max-sessions:10000}")
+    private int maxSessions;
+
+    private NavigationSession.Settings settings;
+
+    public VisionNavigationService(VisionApiService visionApiService,
+                                   @Qualifier("visionScheduler") Scheduler visionScheduler,
+                                   VisionRequestCoalescer coalescer,
+                                   VisionFeaturePlanner featurePlanner,
+                                   VisionLanePolicy lanePolicy,
+                                   MeterRegistry meterRegistry) {
+        this.visionApiService = visionApiService;
+        this.visionScheduler = visionScheduler;
+        this.coalescer = coalescer;
+        this.featurePlanner = featurePlanner;
+        this.lanePolicy = lanePolicy;
+        this.analyzedCounter = Counter.builder("vision.sampling.frames")
+                .tag("result", "analyzed")
+                .description("세션에서 Vision 분석을 수행한 프레임 수")
+                .register(meterRegistry);
+        this.skippedCounter = Counter.builder("vision.sampling.frames")
+                .tag("result", "skipped")
+                .description("결과가 안정적이어서 Vision 호출을 생략한 프레임 수")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        this.settings = new NavigationSession.Settings(window, enterVotes, exitVotes, hazardEnterVotes,
+                stableFrames, maxSkippedFrames, maxSkipMillis, skipMaxDistance);
+    }
+
+    public NavigationSession newSession() {
+        return new NavigationSession(settings);
+    }
+
+    /**
+     * 사용자별 세션으로 분석 (비로그인 요청은 세션 없이 단건 분석)
+     * 같은 사용자의 요청은 최신 요청 우선으로 한 번에 하나만 분석
+     * 레인별 결과를 하나의 응답으로 합침
+     */
+    public Mono<Map<String, Object>> analyzeForUser(byte[] imageBytes, VisionAnalysisMode mode, Integer userId,
+                                                    Set<VisionOutput> outputs) {
+        if (userId == null) {
+            return merge(analyzeLanes(null, imageBytes, mode, null, outputs));
+        }
+
+        Supplier<Mono<Map<String, Object>>> work = () -> {
+            if (!enabled) {
+                return merge(analyzeLanes(null, imageBytes, mode, userId, outputs));
+            }
+            FeaturePlan safety = featurePlanner.lanes(outputs).getSafety();
+            NavigationSession session = safety == null ? null : userSession(new SessionKey(userId, mode, safety.getKey()));
+            return analyzeFrame(session, imageBytes, mode, userId, outputs);
+        };
+        return coalesceEnabled ? coalescer.submit(userId, work) : Mono.defer(work);
+    }
+
+    /**
+     * 세션 프레임 분석 (레인별 결과를 합친 단일 응답)
+     */
+    public Mono<Map<String, Object>> analyzeFrame(NavigationSession session, byte[] imageBytes,
+                                                  VisionAnalysisMode mode, Integer userId, Set<VisionOutput> outputs) {
+        return merge(analyzeFrameLanes(session, imageBytes, mode, userId, outputs));
+    }
+
+    /**
+     * 세션 프레임 분석 (레인별로 끝나는 대로 내보냄 - 안전 레인이 항상 먼저)
+     */
+    public Flux<LaneResult> analyzeFrameLanes(NavigationSession session, byte[] imageBytes,
+                                              VisionAnalysisMode mode, Integer userId, Set<VisionOutput> outputs) {
+        return analyzeLanes(enabled ? session : null, imageBytes, mode, userId, outputs);
+    }
+
+    /**
+     * 안전 레인이 끝난 뒤 편의 레인 시작 (같은 프레임의 안전 레인과 실행기/호출 예산을 다투지 않도록)
+     * @param session null이면 시간축 안정화 없이 단건 분석
+     */
+    private Flux<LaneResult> analyzeLanes(NavigationSession session, byte[] imageBytes, VisionAnalysisMode mode,
+                                          Integer userId, Set<VisionOutput> outputs) {
+        LanePlan lanes = featurePlanner.lanes(outputs);
+
+        Mono<LaneResult> safety = lanes.getSafety() == null
+                ? Mono.empty()
+                : lanePolicy.timed(VisionLane.SAFETY, analyzeSafety(session, imageBytes, mode, userId, lanes.getSafety()))
+                        .map(data -> new LaneResult(VisionLane.SAFETY, data));
+
+        Mono<LaneResult> convenience = lanes.getConvenience() == null
+                ? Mono.empty()
+                : analyzeConvenience(imageBytes, mode, userId, lanes.getConvenience(), lanes.getSafety() != null)
+                        .map(data -> new LaneResult(VisionLane.CONVENIENCE, data));
+
+        return Flux.concat(safety, convenience);
+    }
+
+    /**
+     * 안전 레인 분석
+     * 생략 조건을 만족하면 Vision 호출 없이 직전 안정화 결과 반환
+     */
+    private Mono<Map<String, Object>> analyzeSafety(NavigationSession session, byte[] imageBytes,
+                                                    VisionAnalysisMode mode, Integer userId, FeaturePlan plan) {
+        if (session == null) {
+            return visionApiService.analyze(imageBytes, mode, userId, null, plan)
+                    .map(result -> visionApiService.toResponseMap(result, plan));
+        }
+
+        return Mono.defer(() -> {
+            Long frameHash = visionApiService.hashFrame(imageBytes);
+            if (session.shouldSkip(frameHash, System.currentTimeMillis())) {
+                skippedCounter.increment();
+                log.debug("안정 구간 프레임 - Vision 호출 생략");
+                return Mono.just(visionApiService.toResponseMap(session.getSmoothed(), plan));
+            }
+
+            analyzedCounter.increment();
+            return visionApiService.analyze(imageBytes, mode, userId, frameHash, plan)
+                    .map(raw -> session.update(raw, frameHash, System.currentTimeMillis()))
+                    .map(smoothed -> visionApiService.toResponseMap(smoothed, plan));
+        }).subscribeOn(visionScheduler);
+    }
+
+    /**
+     * 편의 레인 분석 (입장 제한/시한 적용)
+     * 안전 레인과 함께 요청된 경우 실패해도 생략으로 처리해 안전 결과는 그대로 전달
+     * @param optional 생략 가능 여부 (편의 항목만 요청한 경우 false - 오류를 그대로 전달)
+     */
+    private Mono<Map<String, Object>> analyzeConvenience(byte[] imageBytes, VisionAnalysisMode mode, Integer userId,
+                                                         FeaturePlan plan, boolean optional) {
+        return Mono.defer(() -> {
+            String rejected = lanePolicy.tryAdmitConvenience();
+            if (rejected != null) {
+                return Mono.just(droppedResponse(plan, rejected));
+            }
+
+            Mono<Map<String, Object>> analysis = lanePolicy.timed(VisionLane.CONVENIENCE,
+                            visionApiService.analyze(imageBytes, mode, userId, null, plan)
+                                    .map(result -> visionApiService.toResponseMap(result, plan)))
+                    .timeout(lanePolicy.getConvenienceDeadline())
+                    .doFinally(signal -> lanePolicy.releaseConvenience());
+
+            if (!optional) {
+                return analysis;
+            }
+            return analysis.onErrorResume(e -> !(e instanceof VisionException), e -> {
+                String reason = e instanceof TimeoutException
+                        ? VisionLanePolicy.DROP_TIMEOUT
+                        : VisionLanePolicy.DROP_ERROR;
+                lanePolicy.recordDropped(reason);
+                log.warn("편의 레인 분석 생략 - 사유: {}, 원인: {}", reason, e.getMessage());
+                return Mono.just(droppedResponse(plan, reason));
+            });
+        });
+    }
+
+    private static Map<String, Object> droppedResponse(FeaturePlan plan, String reason) {
+        List<String> dropped = new ArrayList<>();
+        for (VisionOutput output : plan.getOutputs()) {
+            dropped.add(output.getKey());
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("dropped", dropped);
+        response.put("droppedReason", reason);
+        return response;
+    }
+
+    /**
+     * 레인별 결과를 하나의 응답으로 합침 (degraded는 한 레인이라도 기본값이면 true)
+     */
+    private static Mono<Map<String, Object>> merge(Flux<LaneResult> lanes) {
+        return lanes.reduceWith(HashMap::new, (merged, lane) -> {
+            boolean degraded = Boolean.TRUE.equals(merged.get("degraded"))
+                    || Boolean.TRUE.equals(lane.data().get("degraded"));
+            merged.putAll(lane.data());
+            merged.put("degraded", degraded);
+            return merged;
+        });
+    }
+
+    /**
+     * 세션 조회 (유휴 시간이 지난 세션은 새로 시작)
+     */
+    private NavigationSession userSession(SessionKey key) {
+        synchronized (userSessions) {
+            NavigationSession session = userSessions.get(key);
+            if (session == null || System.currentTimeMillis() - session.getLastSeenAt() > sessionIdleMillis) {
+                session = newSession();
+                userSessions.put(key, session);
+            }
+            return session;
+        }
+    }
+
+    /**
+     * REST 세션 키 (mode가 null이면 서버 기본 모드)
+     */
+    private record SessionKey(Integer userId, VisionAnalysisMode mode, String planKey) {
+    }
+
+    /**
+     * 레인 하나의 응답 항목
+     */
+    public record LaneResult(VisionLane lane, Map<String, Object> data) {
+    }
+}
@@ -0,0 +1,60 @@
+package com.project.lookey.vision.service;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 클라이언트가 요청할 수 있는 분석 결과 항목 (응답 키와 동일)
+ */
+public enum VisionOutput {
+    DIRECTIONS("directions", VisionLane.SAFETY),
+    PEOPLE("people", VisionLane.SAFETY),
+    OBSTACLES("obstacles", VisionLane.SAFETY),
+    CATEGORY("category", VisionLane.CONVENIENCE),
+    COUNTER("counter", VisionLane.CONVENIENCE);
+
+    private final String key;
+    private final VisionLane lane;
+
+    VisionOutput(String key, VisionLane lane) {
+        this.key = key;
+        this.lane = lane;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public VisionLane getLane() {
+        return lane;
+    }
+
+    /**
+     * "directions,people" 형식 파싱 (비어 있으면 전체)
+     */
+    public static Set<VisionOutput> parse(String outputs) {
+        if (outputs == null || outputs.isBlank()) {
+            return EnumSet.allOf(VisionOutput.class);
+        }
+
+        Set<VisionOutput> parsed = EnumSet.noneOf(VisionOutput.class);
+        for (String token : outputs.split(",")) {
+            String key = token.trim().toLowerCase(Locale.ROOT);
+            if (key.isEmpty()) {
+                continue;
+            }
+            VisionOutput output = null;
+            for (VisionOutput candidate : values()) {
+                if (candidate.key.equals(key)) {
+                    output = candidate;
+                }
+            }
+            if (output == null) {
+                throw new IllegalArgumentException("지원하지 않는 outputs 항목입니다: " + token.trim());
+            }
+            parsed.add(output);
+        }
+        return parsed.isEmpty() ? EnumSet.allOf(VisionOutput.class) : parsed;
+    }
+}
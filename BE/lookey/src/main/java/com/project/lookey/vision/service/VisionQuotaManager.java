@@ -0,0 +1,138 @@
+package com.project.lookey.vision.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Google Vision 호출 예산 관리
+ * 전역 버킷과 사용자별 버킷을 Redis 토큰 버킷(Lua 스크립트)으로 관리하여 여러 인스턴스가 같은 예산을 공유
+ * 토큰 1개 = Vision에 보내는 이미지 1장
+ */
+@Component
+@Slf4j
+public class VisionQuotaManager {
+
+    private static final String GLOBAL_KEY = "vision_quota:global";
+    private static final String USER_KEY_PREFIX = "vision_quota:user:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final DefaultRedisScript<List> tokenBucketScript;
+
+    private final Counter allowedCounter;
+    private final Counter globalLimitedCounter;
+    private final Counter userLimitedCounter;
+    private final Counter consumedUnits;
+    private final AtomicLong globalRemaining = new AtomicLong(-1);
+
+    @Value("${vision.quota.enabled:true}")
+    private boolean enabled;
+
+    // Redis 장애 시 호출 허용 여부 (예산 확인 실패로 내비게이션이 멈추지 않도록 기본 허용)
+    @Value("${vision.quota.fail-open:true}")
+    private boolean failOpen;
+
+    @Value("${vision.quota.global.capacity:600}")
+    private long globalCapacity;
+
+    @Value("${vision.quota.global.refill-per-second:10}")
+    private double globalRefillPerSecond;
+
+    @Value("${vision.quota.user.capacity:30}")
+    private long userCapacity;
+
+    @Value("${vision.quota.user.refill-per-second:1}")
+    private double userRefillPerSecond;
+
+    public VisionQuotaManager(StringRedisTemplate redisTemplate, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.tokenBucketScript = new DefaultRedisScript<>();
+        this.tokenBucketScript.setLocation(new ClassPathResource("redis/vision-token-bucket.lua"));
+        this.tokenBucketScript.setResultType(List.class);
+
+        this.allowedCounter = Counter.builder("vision.quota.requests")
+                .tag("result", "allowed")
+                .description("예산 안에서 허용된 분석 수")
+                .register(meterRegistry);
+        this.globalLimitedCounter = Counter.builder("vision.quota.requests")
+                .tag("result", "global_limited")
+                .description("전역 예산 소진으로 거절된 분석 수")
+                .register(meterRegistry);
+        this.userLimitedCounter = Counter.builder("vision.quota.requests")
+                .tag("result", "user_limited")
+                .description("사용자 예산 초과로 거절된 분석 수")
+                .register(meterRegistry);
+        this.consumedUnits = Counter.builder("vision.quota.consumed")
+                .baseUnit("images")
+                .description("차감된 Vision 예산 (이미지 수)")
+                .register(meterRegistry);
+        Gauge.builder("vision.quota.global.remaining", globalRemaining, AtomicLong::get)
+                .description("마지막으로 확인한 전역 버킷 잔여 토큰 (-1: 미확인)")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 예산 차감 시도 (블로킹 Redis 호출 - Vision 실행기에서 호출)
+     * @param userId null이면 전역 버킷만 확인
+     * @param units 이번 분석에서 Vision에 보낼 이미지 수
+     */
+    public Decision acquire(Integer userId, int units) {
+        if (!enabled) {
+            return Decision.ALLOWED;
+        }
+
+        List<String> keys = userId != null
+                ? List.of(GLOBAL_KEY, USER_KEY_PREFIX + userId)
+                : List.of(GLOBAL_KEY);
+
+        List<?> result;
+        try {
+            result = redisTemplate.execute(tokenBucketScript, keys,
+                    String.valueOf(units),
+                    String.valueOf(globalCapacity), String.valueOf(globalRefillPerSecond),
+                    String.valueOf(userCapacity), String.valueOf(userRefillPerSecond));
+        } catch (Exception e) {
+            log.warn("Vision 예산 확인 실패 ({}): {}", failOpen ? "허용" : "거절", e.getMessage());
+            return failOpen ? Decision.ALLOWED : Decision.GLOBAL_LIMITED;
+        }
+
+        if (result == null || result.size() < 2) {
+            return failOpen ? Decision.ALLOWED : Decision.GLOBAL_LIMITED;
+        }
+
+        globalRemaining.set(((Number) result.get(1)).longValue());
+        int code = ((Number) result.get(0)).intValue();
+        switch (code) {
+            case 0 -> {
+                allowedCounter.increment();
+                consumedUnits.increment(units);
+                return Decision.ALLOWED;
+            }
+            case 2 -> {
+                userLimitedCounter.increment();
+                log.debug("사용자 Vision 예산 초과 - userId: {}", userId);
+                return Decision.USER_LIMITED;
+            }
+            default -> {
+                globalLimitedCounter.increment();
+                log.warn("전역 Vision 예산 소진 - 잔여: {}", globalRemaining.get());
+                return Decision.GLOBAL_LIMITED;
+            }
+        }
+    }
+
+    public enum Decision {
+        ALLOWED,
+        GLOBAL_LIMITED,
+        USER_LIMITED
+    }
+}
@@ -0,0 +1,137 @@
+package com.project.lookey.vision.service;
+
+import com.project.lookey.vision.exception.VisionException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 사용자별 최신 요청 우선(latest-wins) 분석 입장 제어
+ * - 사용자당 분석은 한 번에 하나만 진행
+ * - 진행 중에 들어온 요청은 1개만 대기하고, 더 새로운 요청이 오면 대기 중이던 요청은 즉시 superseded 응답
+ */
+@Component
+@Slf4j
+public class VisionRequestCoalescer {
+
+    private final Map<Integer, Slot> slots = new ConcurrentHashMap<>();
+
+    private final Counter supersededCounter;
+
+    public VisionRequestCoalescer(MeterRegistry meterRegistry) {
+        this.supersededCounter = Counter.builder("vision.coalesce.superseded")
+                .description("더 새로운 프레임에 밀려 분석 없이 종료된 요청 수")
+                .register(meterRegistry);
+    }
+
+    public <T> Mono<T> submit(Integer userId, Supplier<Mono<T>> work) {
+        return Mono.create(sink -> {
+            Pending<T> pending = new Pending<>(work, sink);
+            Pending<?>[] superseded = new Pending<?>[1];
+            boolean[] startNow = new boolean[1];
+
+            slots.compute(userId, (id, slot) -> {
+                Slot current = slot != null ? slot : new Slot();
+                if (!current.inFlight) {
+                    current.inFlight = true;
+                    startNow[0] = true;
+                } else {
+                    superseded[0] = current.queued;
+                    current.queued = pending;
+                }
+                return current;
+            });
+
+            if (superseded[0] != null) {
+                supersededCounter.increment();
+                log.debug("대기 중이던 프레임 대체 - userId: {}", userId);
+                superseded[0].sink.error(VisionException.superseded());
+            }
+
+            // 대기 중에 클라이언트가 끊으면 대기열에서 제거
+            sink.onCancel(() -> {
+                slots.computeIfPresent(userId, (id, slot) -> {
+                    if (slot.queued == pending) {
+                        slot.queued = null;
+                    }
+                    return slot;
+                });
+                pending.cancel();
+            });
+
+            if (startNow[0]) {
+                start(userId, pending);
+            }
+        });
+    }
+
+    private <T> void start(Integer userId, Pending<T> pending) {
+        Mono<T> work;
+        try {
+            work = pending.work.get();
+        } catch (Exception e) {
+            pending.sink.error(e);
+            startNext(userId);
+            return;
+        }
+
+        pending.setRunning(work
+                .doFinally(signal -> startNext(userId))
+                .subscribe(pending.sink::success, pending.sink::error, pending.sink::success));
+    }
+
+    /**
+     * 진행 중인 분석 종료 후 대기 요청 시작 (없으면 슬롯 제거)
+     */
+    private void startNext(Integer userId) {
+        Pending<?>[] next = new Pending<?>[1];
+        slots.computeIfPresent(userId, (id, slot) -> {
+            next[0] = slot.queued;
+            slot.queued = null;
+            return next[0] != null ? slot : null;
+        });
+        if (next[0] != null) {
+            start(userId, next[0]);
+        }
+    }
+
+    private static class Slot {
+        private boolean inFlight;
+        private Pending<?> queued;
+    }
+
+    private static class Pending<T> {
+        private final Supplier<Mono<T>> work;
+        private final MonoSink<T> sink;
+        private volatile Disposable running;
+        private volatile boolean cancelled;
+
+        Pending(Supplier<Mono<T>> work, MonoSink<T> sink) {
+            this.work = work;
+            this.sink = sink;
+        }
+
+        void setRunning(Disposable running) {
+            this.running = running;
+            if (cancelled) {
+                running.dispose();
+            }
+        }
+
+        void cancel() {
+            cancelled = true;
+            Disposable current = running;
+            if (current != null) {
+                current.dispose();
+            }
+        }
+    }
+}
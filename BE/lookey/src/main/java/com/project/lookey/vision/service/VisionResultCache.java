@@ -0,0 +1,272 @@
+package com.project.lookey.vision.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 이미지 내용 기반 분석 결과 캐시 (모든 인스턴스가 Redis로 공유)
+ * 키는 이미지 바이트의 SHA-256이며 짧은 TTL 동안만 보관
+ * 같은 이미지의 동시 요청은 인스턴스 내에서는 하나의 분석을 공유하고(정상 결과만),
+ * 인스턴스 간에는 SETNX 잠금을 잡은 쪽만 Vision을 호출하고 나머지는 결과가 저장되거나 잠금이 풀리기를 기다림
+ */
+@Component
+@Slf4j
+public class VisionResultCache {
+
+    private static final String KEY_PREFIX = "vision_result:";
+    private static final String LOCK_PREFIX = "vision_result_lock:";
+
+    // 잠금 값이 해제하려는 토큰과 같을 때만 삭제
+    private static final RedisScript<Long> UNLOCK_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/vision-result-unlock.lua"), Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Scheduler visionScheduler;
+    private final VisionGrid grid;
+
+    // 인스턴스 내 진행 중인 분석 (같은 키는 하나의 분석 공유)
+    private final Map<String, Mono<ParallelAnalysisResult>> inFlight = new ConcurrentHashMap<>();
+    private final String instanceId = UUID.randomUUID().toString();
+    private final AtomicLong lockSequence = new AtomicLong();
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter sharedCounter;
+    private final Counter peerCounter;
+
+    @Value("${vision.result-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${vision.result-cache.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    // 다른 인스턴스가 분석 중일 때 잠금 유지/대기 한도 (분석 시한보다 약간 길게)
+    @Value("${vision.result-cache.lock-ms:9000}")
+    private long lockMillis;
+
+    @Value("${vision.result-cache.poll-ms:150}")
+    private long pollMillis;
+
+    public VisionResultCache(StringRedisTemplate redisTemplate, ObjectMapper objectMapper,
+                             @Qualifier("visionScheduler") Scheduler visionScheduler,
+                             VisionGrid grid, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.visionScheduler = visionScheduler;
+        this.grid = grid;
+        this.hitCounter = counter(meterRegistry, "hit", "Redis에 저장된 결과를 재사용한 요청 수");
+        this.missCounter = counter(meterRegistry, "miss", "캐시에 없어 직접 분석한 요청 수");
+        this.sharedCounter = counter(meterRegistry, "shared", "인스턴스 내 진행 중인 같은 이미지 분석에 합류한 요청 수");
+        this.peerCounter = counter(meterRegistry, "peer", "다른 인스턴스의 분석 결과를 기다려 받은 요청 수");
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result, String description) {
+        return Counter.builder("vision.result.cache")
+                .tag("result", result)
+                .description(description)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 캐시 조회 후 없으면 분석 (실패 기본값은 저장하지 않음)
+     */
+    public Mono<ParallelAnalysisResult> getOrCompute(byte[] imageBytes, String variant,
+                                                     Supplier<Mono<ParallelAnalysisResult>> compute) {
+        if (!enabled) {
+            return compute.get();
+        }
+
+        String key = key(imageBytes, variant);
+        Mono<ParallelAnalysisResult> existing = inFlight.get(key);
+        if (existing != null) {
+            sharedCounter.increment();
+            return join(existing, compute);
+        }
+
+        Mono<ParallelAnalysisResult> flight = read(key)
+                .doOnNext(result -> hitCounter.increment())
+                .switchIfEmpty(Mono.defer(() -> computeWithLock(key, compute)))
+                .doFinally(signal -> inFlight.remove(key))
+                .cache();
+
+        Mono<ParallelAnalysisResult> raced = inFlight.putIfAbsent(key, flight);
+        if (raced != null) {
+            sharedCounter.increment();
+            return join(raced, compute);
+        }
+        return flight;
+    }
+
+    /**
+     * 진행 중인 분석에는 정상 결과일 때만 합류
+     * 오류(사용자 호출 예산 초과, 재촬영 안내, 취소 등)와 기본값은 먼저 요청한 사용자 기준이므로
+     * 합류한 요청은 자기 기준으로 허용 확인부터 다시 분석
+     */
+    private Mono<ParallelAnalysisResult> join(Mono<ParallelAnalysisResult> flight,
+                                              Supplier<Mono<ParallelAnalysisResult>> compute) {
+        return flight
+                .onErrorResume(e -> Mono.empty())
+                .filter(result -> !result.isFallback())
+                .switchIfEmpty(Mono.defer(() -> {
+                    missCounter.increment();
+                    return compute.get();
+                }));
+    }
+
+    /**
+     * 클러스터 잠금을 잡으면 직접 분석, 못 잡으면 다른 인스턴스의 결과를 기다림
+     * 잠금이 풀렸는데 결과가 없으면(기본값/실패라 저장하지 않음) 기다리지 않고 직접 분석, 시간 초과 시에도 직접 분석
+     */
+    private Mono<ParallelAnalysisResult> computeWithLock(String key, Supplier<Mono<ParallelAnalysisResult>> compute) {
+        return Mono.fromCallable(() -> tryLock(key))
+                .subscribeOn(visionScheduler)
+                .flatMap(token -> {
+                    if (token.isPresent()) {
+                        missCounter.increment();
+                        return compute.get()
+                                .flatMap(result -> write(key, result).thenReturn(result))
+                                .doFinally(signal -> unlock(key, token.get()));
+                    }
+
+                    return peer(key)
+                            .filter(peer -> peer.result() != null || !peer.locked())
+                            .repeatWhenEmpty(attempts -> attempts
+                                    .delayElements(Duration.ofMillis(pollMillis))
+                                    .take(Math.max(1, lockMillis / pollMillis)))
+                            .flatMap(peer -> {
+                                if (peer.result() != null) {
+                                    peerCounter.increment();
+                                    return Mono.just(peer.result());
+                                }
+                                log.debug("다른 인스턴스의 분석이 결과 없이 끝남 - 직접 분석");
+                                missCounter.increment();
+                                return compute.get();
+                            })
+                            .switchIfEmpty(Mono.defer(() -> {
+                                log.warn("다른 인스턴스의 분석 결과 대기 시간 초과 - 직접 분석");
+                                missCounter.increment();
+                                return compute.get();
+                            }));
+                });
+    }
+
+    /**
+     * 저장된 결과와 잠금 유지 여부를 한 번에 조회 (조회 실패 시 빈 값 - 다음 주기에 다시 조회)
+     */
+    private Mono<PeerState> peer(String key) {
+        return Mono.fromCallable(() -> {
+                    List<String> values = redisTemplate.opsForValue().multiGet(List.of(key, LOCK_PREFIX + key));
+                    if (values == null) {
+                        return null;
+                    }
+                    String json = values.get(0);
+                    ParallelAnalysisResult result = json != null
+                            ? objectMapper.readValue(json, ParallelAnalysisResult.class)
+                            : null;
+                    return new PeerState(result, values.get(1) != null);
+                })
+                .subscribeOn(visionScheduler)
+                .onErrorResume(e -> {
+                    log.warn("분석 결과 캐시 조회 실패: {}", e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<ParallelAnalysisResult> read(String key) {
+        return Mono.fromCallable(() -> {
+                    String json = redisTemplate.opsForValue().get(key);
+                    return json != null ? objectMapper.readValue(json, ParallelAnalysisResult.class) : null;
+                })
+                .subscribeOn(visionScheduler)
+                .onErrorResume(e -> {
+                    log.warn("분석 결과 캐시 조회 실패: {}", e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Void> write(String key, ParallelAnalysisResult result) {
+        if (result.isFallback()) {
+            return Mono.empty();
+        }
+        return Mono.fromRunnable(() -> {
+                    try {
+                        redisTemplate.opsForValue().set(key, objectMapper.writeValueAsString(result),
+                                Duration.ofSeconds(ttlSeconds));
+                    } catch (Exception e) {
+                        log.warn("분석 결과 캐시 저장 실패: {}", e.getMessage());
+                    }
+                })
+                .subscribeOn(visionScheduler)
+                .then();
+    }
+
+    /**
+     * 잠금 획득 - 잡으면 해제용 토큰, 다른 쪽이 잡고 있으면 빈 값 (Redis 장애 시 잠금 없이 진행)
+     */
+    private Optional<String> tryLock(String key) {
+        String token = instanceId + ":" + lockSequence.incrementAndGet();
+        try {
+            Boolean locked = redisTemplate.opsForValue()
+                    .setIfAbsent(LOCK_PREFIX + key, token, Duration.ofMillis(lockMillis));
+            return Boolean.FALSE.equals(locked) ? Optional.empty() : Optional.of(token);
+        } catch (Exception e) {
+            log.warn("분석 결과 캐시 잠금 실패, 잠금 없이 분석: {}", e.getMessage());
+            return Optional.of(token);
+        }
+    }
+
+    /**
+     * 잡은 잠금일 때만 해제 (분석이 lock-ms를 넘겨 만료된 뒤 다른 인스턴스가 잡은 잠금은 지우지 않음)
+     */
+    private void unlock(String key, String token) {
+        try {
+            redisTemplate.execute(UNLOCK_SCRIPT, List.of(LOCK_PREFIX + key), token);
+        } catch (Exception e) {
+            log.debug("분석 결과 캐시 잠금 해제 실패 (TTL로 만료): {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 분석 모드/요청 항목(variant)과 격자 크기가 결과에 영향을 주므로 키에 포함
+     */
+    private String key(byte[] imageBytes, String variant) {
+        return KEY_PREFIX + variant + ":" + grid.getColumns() + "x" + grid.getRows() + ":" + sha256(imageBytes);
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256을 사용할 수 없습니다.", e);
+        }
+    }
+
+    /**
+     * 다른 인스턴스 분석 상태 (결과가 없고 잠금도 없으면 결과 없이 끝난 것)
+     */
+    private record PeerState(ParallelAnalysisResult result, boolean locked) {
+    }
+}
@@ -0,0 +1,16 @@
+-- 매대 데이터 교체 (스캔 후 상품 정보 추가용)
+-- KEYS[1]: 매대 데이터 키
+-- ARGV[1]: 저장해 둔 기존 값, ARGV[2]: 새 값
+-- 반환: 1 교체, 0 값이 다름(그 사이 새 스캔 저장/삭제) - 남은 TTL은 그대로 유지
+
+if redis.call('GET', KEYS[1]) ~= ARGV[1] then
+    return 0
+end
+
+local ttl = redis.call('PTTL', KEYS[1])
+if ttl > 0 then
+    redis.call('SET', KEYS[1], ARGV[2], 'PX', ttl)
+else
+    redis.call('SET', KEYS[1], ARGV[2])
+end
+return 1
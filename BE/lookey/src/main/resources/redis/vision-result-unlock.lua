@@ -0,0 +1,9 @@
+-- 분석 결과 캐시 잠금 해제
+-- KEYS[1]: 잠금 키
+-- ARGV[1]: 잠금을 잡을 때 저장한 토큰
+-- 반환: 1 해제, 0 이미 만료되었거나 다른 쪽이 잡은 잠금 (지우지 않음)
+
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    return redis.call('DEL', KEYS[1])
+end
+return 0
@@ -0,0 +1,47 @@
+-- Vision API 호출 예산 토큰 버킷 (전역 + 사용자)
+-- KEYS[1]: 전역 버킷, KEYS[2]: 사용자 버킷 (선택)
+-- ARGV[1]: 차감할 토큰 수, ARGV[2..3]: 전역 용량/초당 충전량, ARGV[4..5]: 사용자 용량/초당 충전량
+-- 반환: {결과(0 허용, 1 전역 부족, 2 사용자 부족), 전역 잔여 토큰}
+-- 두 버킷 모두 여유가 있을 때만 함께 차감하고, 시각은 인스턴스 간 시계 차이가 없도록 Redis 서버 시간 사용
+
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+local cost = tonumber(ARGV[1])
+
+local function refill(key, capacity, rate)
+    local values = redis.call('HMGET', key, 'tokens', 'ts')
+    local tokens = tonumber(values[1])
+    local ts = tonumber(values[2])
+    if tokens == nil or ts == nil then
+        return capacity
+    end
+    return math.min(capacity, tokens + math.max(0, now - ts) * rate / 1000)
+end
+
+local function save(key, tokens, capacity, rate)
+    redis.call('HSET', key, 'tokens', tostring(tokens), 'ts', tostring(now))
+    -- 가득 찰 때까지 걸리는 시간이 지나면 키 제거 (없으면 가득 찬 것으로 간주)
+    redis.call('PEXPIRE', key, math.ceil(capacity / math.max(rate, 0.001) * 1000) + 1000)
+end
+
+local globalCapacity = tonumber(ARGV[2])
+local globalRate = tonumber(ARGV[3])
+local globalTokens = refill(KEYS[1], globalCapacity, globalRate)
+
+if #KEYS > 1 then
+    local userCapacity = tonumber(ARGV[4])
+    local userRate = tonumber(ARGV[5])
+    local userTokens = refill(KEYS[2], userCapacity, userRate)
+    if userTokens < cost then
+        return {2, math.floor(globalTokens)}
+    end
+    if globalTokens < cost then
+        return {1, math.floor(globalTokens)}
+    end
+    save(KEYS[2], userTokens - cost, userCapacity, userRate)
+elseif globalTokens < cost then
+    return {1, math.floor(globalTokens)}
+end
+
+save(KEYS[1], globalTokens - cost, globalCapacity, globalRate)
+return {0, math.floor(globalTokens - cost)}
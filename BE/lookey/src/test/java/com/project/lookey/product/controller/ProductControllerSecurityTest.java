@@ -0,0 +1,107 @@
+package com.project.lookey.product.controller;
+
+import com.project.lookey.common.memory.ImageMemoryBudget;
+import com.project.lookey.OAuth.Entity.User;
+import com.project.lookey.OAuth.Repository.UserRepository;
+import com.project.lookey.OAuth.Service.jwt.JwtProvider;
+import com.project.lookey.OAuth.Service.oauth.CustomOAuth2UserService;
+import com.project.lookey.cart.service.CartService;
+import com.project.lookey.config.SecurityConfig;
+import com.project.lookey.product.service.AiSearchService;
+import com.project.lookey.product.service.PyonyCrawler;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 매대 스캔 API 인증 (실제 SecurityConfig + JWT 필터)
+ * Mono 응답은 비동기 재디스패치에서 쓰이므로 재디스패치까지 통과하는지 확인
+ */
+@WebMvcTest(ProductController.class)
+@Import({SecurityConfig.class, JwtProvider.class})
+@TestPropertySource(properties = {
+		"jwt.secret=bG9va2V5LXRlc3Qtc2VjcmV0LWtleS0zMi1ieXRlcy1sb25n",
+		"spring.security.oauth2.client.registration.google.client-id=test",
+		"spring.security.oauth2.client.registration.google.client-secret=test"
+})
+class ProductControllerSecurityTest {
+
+	private static final int USER_ID = 7;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JwtProvider jwtProvider;
+
+	@MockitoBean
+	private UserRepository userRepository;
+
+	@MockitoBean
+	private CustomOAuth2UserService customOAuth2UserService;
+
+	@MockitoBean
+	private PyonyCrawler crawler;
+
+	@MockitoBean
+	private CartService cartService;
+
+	@MockitoBean
+	private AiSearchService aiSearchService;
+
+	@MockitoBean
+	private ImageMemoryBudget memoryBudget;
+
+	@Test
+	void searchShelfWithTokenCompletesAsyncDispatch() throws Exception {
+		when(userRepository.findById(USER_ID)).thenReturn(Optional.of(
+				User.builder().id(USER_ID).email("user@lookey.com").name("user").build()));
+		when(memoryBudget.reserve(any(), anyInt())).thenReturn(mock(ImageMemoryBudget.Reservation.class));
+		when(cartService.getCartProductNames(USER_ID)).thenReturn(List.of("콜라"));
+		when(aiSearchService.findMatchedProducts(any(), anyList(), eq(USER_ID))).thenReturn(Mono.just(List.of("콜라")));
+		String token = jwtProvider.createToken(USER_ID, "user@lookey.com");
+
+		MvcResult started = mockMvc.perform(multipart("/api/v1/product/search")
+						.file(shelfImage())
+						.header("Authorization", "Bearer " + token))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		mockMvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.result.count").value(1))
+				.andExpect(jsonPath("$.result.matched_names[0]").value("콜라"));
+	}
+
+	@Test
+	void searchShelfWithoutTokenIsRejected() throws Exception {
+		mockMvc.perform(multipart("/api/v1/product/search").file(shelfImage()))
+				.andExpect(status().isUnauthorized());
+	}
+
+	private static MockMultipartFile shelfImage() {
+		return new MockMultipartFile("file", "shelf.jpg", "image/jpeg", new byte[]{(byte) 0xFF, (byte) 0xD8, 0x00});
+	}
+}
@@ -0,0 +1,59 @@
+package com.project.lookey.product.service;
+
+import com.project.lookey.product.dto.ShelfItem;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 장바구니 매칭 결과가 기존 방식(매대 상품 x 장바구니 상품 쌍마다 replaceAll 비교)과 같은지
+ */
+class CartMatcherTest {
+
+	@Test
+	void matchesLegacyOnEdgeCases() {
+		List<ShelfItem> items = new ArrayList<>();
+		for (String name : Arrays.asList("코카콜라 제로", null, "COKE", "  ", "", "칠성 사이다", "Straße",
+				"ǅemal", "펩시\t콜라", "코카콜라 제로", "ıi")) {
+			items.add(new ShelfItem(name, 10, 10, 4, 4));
+		}
+		List<List<String>> carts = List.of(
+				List.of(),
+				Arrays.asList("coke", null),
+				List.of("콜라"),
+				List.of("코카 콜라 제로 500ml"),
+				List.of("STRASSE", "straße"),
+				List.of("ǆEMAL"),
+				List.of("II"),
+				List.of(" \n"),
+				List.of("사이 다"),
+				List.of("없는상품", "펩시콜라"));
+
+		for (List<String> cart : carts) {
+			assertThat(CartMatcher.compile(cart).matchedNames(items))
+					.as("cart %s", cart)
+					.isEqualTo(ShelfFixtures.legacyMatchedNames(items, cart));
+		}
+	}
+
+	@Test
+	void matchesLegacyOnRandomShelves() {
+		Random random = new Random(7);
+		for (int i = 0; i < 2000; i++) {
+			List<ShelfItem> items = ShelfFixtures.shelf(1 + random.nextInt(60), random);
+			if (random.nextInt(10) == 0) {
+				items.add(random.nextInt(items.size()), new ShelfItem(random.nextBoolean() ? null : " ", 0, 0, 2, 2));
+			}
+			List<String> cart = ShelfFixtures.queries(items, random.nextInt(12), random);
+
+			assertThat(CartMatcher.compile(cart).matchedNames(items))
+					.as("cart %s", cart)
+					.isEqualTo(ShelfFixtures.legacyMatchedNames(items, cart));
+		}
+	}
+}
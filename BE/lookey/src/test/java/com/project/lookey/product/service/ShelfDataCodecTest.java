@@ -0,0 +1,116 @@
+package com.project.lookey.product.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.project.lookey.product.dto.ShelfData;
+import com.project.lookey.product.dto.ShelfItem;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 매대 데이터 이진 코덱 왕복과 손상된 데이터 거부
+ */
+class ShelfDataCodecTest {
+
+	private final ShelfDataCodec raw = new ShelfDataCodec(0);
+	private final ShelfDataCodec deflate = new ShelfDataCodec(1024);
+
+	@Test
+	void roundTripWithAndWithoutDeflate() {
+		for (int size : new int[]{0, 1, 20, 200, 1000}) {
+			ShelfData data = shelf(size, new Random(size));
+
+			assertThat(raw.deserialize(raw.serialize(data))).as("binary %d", size).isEqualTo(data);
+			assertThat(deflate.deserialize(deflate.serialize(data))).as("deflate %d", size).isEqualTo(data);
+		}
+	}
+
+	@Test
+	void legacyJsonPathReadsSameShelf() {
+		// 코덱 도입 전 저장된 값 (ProductRedisConfig JSON 직렬화 + ShelfDataService convertValue)
+		ObjectMapper redisMapper = new ObjectMapper();
+		redisMapper.registerModule(new JavaTimeModule());
+		GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer(redisMapper);
+		ShelfData data = shelf(200, new Random(200));
+
+		ShelfData read = new ObjectMapper().convertValue(json.deserialize(json.serialize(data)), ShelfData.class);
+
+		assertThat(read).isEqualTo(data);
+	}
+
+	@Test
+	void deflatesLargeShelves() {
+		ShelfData data = shelf(1000, new Random(1000));
+
+		byte[] compressed = deflate.serialize(data);
+
+		assertThat(compressed[3] & 1).isEqualTo(1);
+		assertThat(compressed.length).isLessThan(raw.serialize(data).length);
+	}
+
+	@Test
+	void roundTripWithNullValues() {
+		ShelfData data = new ShelfData(Arrays.asList(new ShelfItem(null, -5, 0, 0, 0), new ShelfItem("콜라", 1, 2, 3, 4)),
+				null, null, null);
+
+		ShelfData empty = new ShelfData(null, null, null);
+
+		assertThat(raw.deserialize(raw.serialize(data))).isEqualTo(data);
+		assertThat(raw.deserialize(raw.serialize(empty))).isEqualTo(empty);
+	}
+
+	@Test
+	void rejectsCorruptedInput() {
+		byte[] bytes = raw.serialize(shelf(5, new Random(5)));
+		byte[] otherVersion = bytes.clone();
+		otherVersion[2] = 9;
+
+		for (byte[] corrupted : List.of(Arrays.copyOf(bytes, bytes.length - 3), otherVersion, new byte[]{'{', '}'},
+				Arrays.copyOf(bytes, bytes.length + 1))) {
+			assertThatThrownBy(() -> raw.deserialize(corrupted)).isInstanceOf(SerializationException.class);
+		}
+	}
+
+	@Test
+	void rejectsInflateLengthAboveLimitBeforeAllocating() {
+		byte[] oversized = deflated(ShelfDataCodec.MAX_BODY_SIZE + 1, new byte[64]);
+		byte[] impossibleRatio = deflated(1_000_000, new byte[8]);
+
+		assertThatThrownBy(() -> raw.deserialize(oversized))
+				.isInstanceOf(SerializationException.class)
+				.hasMessageContaining("길이 오류");
+		assertThatThrownBy(() -> raw.deserialize(impossibleRatio))
+				.isInstanceOf(SerializationException.class)
+				.hasMessageContaining("길이 오류");
+	}
+
+	private static ShelfData shelf(int size, Random random) {
+		List<ShelfItem> items = ShelfFixtures.shelf(size, random);
+		return new ShelfData(items, "2026-01-01T12:00:00.123456789", 42, ShelfFixtures.products(items, random));
+	}
+
+	/**
+	 * deflate 플래그 + 원본 길이(varint) + 본문으로 된 프레임
+	 */
+	private static byte[] deflated(int length, byte[] payload) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		out.writeBytes(new byte[]{'L', 'S', 1, 1});
+		int value = length;
+		while ((value & ~0x7F) != 0) {
+			out.write((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.write(value);
+		out.writeBytes(payload);
+		return out.toByteArray();
+	}
+}
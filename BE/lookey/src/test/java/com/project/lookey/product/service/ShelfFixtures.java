@@ -0,0 +1,112 @@
+package com.project.lookey.product.service;
+
+import com.project.lookey.product.dto.ResolvedProduct;
+import com.project.lookey.product.dto.ShelfItem;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * 매대 테스트 데이터와 기존 매칭 방식 (replaceAll 두 번 비교)
+ * 색인/장바구니 매칭 결과를 기존 방식과 비교할 때 사용
+ */
+final class ShelfFixtures {
+
+	private static final String[] BRANDS = {"코카콜라", "펩시", "칠성", "농심", "오리온", "롯데", "해태", "빙그레",
+			"CJ", "Pocari", "Monster", "Red Bull", "동원", "매일", "남양", "풀무원"};
+	private static final String[] PRODUCTS = {"제로", "사이다", "콜라", "새우깡", "포카칩", "초코파이", "빼빼로",
+			"바나나맛우유", "Sweat", "Energy", "오렌지주스", "녹차", "컵라면", "삼각김밥", "생수", "커피"};
+	private static final String[] SIZES = {"", " 250ml", " 355ml", " 500ml", " 1.5L", " 대용량", " 미니"};
+	private static final String[] EVENTS = {null, "1+1", "2+1", "할인"};
+
+	private ShelfFixtures() {
+	}
+
+	/**
+	 * 격자로 늘어선 매대 (이름 중복 있음)
+	 */
+	static List<ShelfItem> shelf(int size, Random random) {
+		List<ShelfItem> items = new ArrayList<>(size);
+		int columns = (int) Math.ceil(Math.sqrt(size * 2.0));
+		for (int i = 0; i < size; i++) {
+			items.add(new ShelfItem(name(random), 40 + (i % columns) * 60 + random.nextInt(10),
+					60 + (i / columns) * 110 + random.nextInt(10), 40 + random.nextInt(30), 80 + random.nextInt(40)));
+		}
+		return items;
+	}
+
+	/**
+	 * 매대 이름마다 조회한 상품 정보 (일부는 조회 실패)
+	 */
+	static Map<String, ResolvedProduct> products(List<ShelfItem> items, Random random) {
+		Map<String, ResolvedProduct> products = new HashMap<>();
+		for (ShelfItem item : items) {
+			if (!products.containsKey(item.name())) {
+				products.put(item.name(), random.nextInt(8) == 0
+						? ResolvedProduct.notFound(item.name())
+						: new ResolvedProduct((long) random.nextInt(5000) + 1, item.name(), 800 + random.nextInt(40) * 100,
+						EVENTS[random.nextInt(EVENTS.length)], List.of((long) random.nextInt(22) + 1),
+						random.nextInt(5) == 0));
+			}
+		}
+		return products;
+	}
+
+	/**
+	 * 매대에 있는 이름, 대소문자/공백만 다른 이름, 부분 이름, 더 긴 이름, 매대에 없는 이름을 섞은 질의
+	 */
+	static List<String> queries(List<ShelfItem> items, int count, Random random) {
+		List<String> queries = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			String name = items.get(random.nextInt(items.size())).name();
+			if (name == null) {
+				name = "없는상품";
+			}
+			switch (random.nextInt(6)) {
+				case 0 -> queries.add(name);
+				case 1 -> queries.add(name.toUpperCase(Locale.ROOT).replace(" ", ""));
+				case 2 -> queries.add(PRODUCTS[random.nextInt(PRODUCTS.length)]);
+				case 3 -> queries.add(name + " 1+1 행사");
+				case 4 -> queries.add("없는상품" + random.nextInt(1000));
+				default -> queries.add(BRANDS[random.nextInt(BRANDS.length)].toLowerCase(Locale.ROOT) + "  "
+						+ PRODUCTS[random.nextInt(PRODUCTS.length)]);
+			}
+		}
+		return queries;
+	}
+
+	// 기존 calculateLocationResult / matchProductsWithCart 방식
+
+	static List<String> legacyMatchedNames(List<ShelfItem> items, List<String> cart) {
+		return items.stream()
+				.map(ShelfItem::name)
+				.filter(shelfName -> cart.stream().anyMatch(cartName -> legacyMatch(shelfName, cartName)))
+				.distinct()
+				.collect(Collectors.toList());
+	}
+
+	static boolean legacyMatch(String shelfProductName, String cartProductName) {
+		if (shelfProductName == null || cartProductName == null) {
+			return false;
+		}
+		if (shelfProductName.equals(cartProductName)) {
+			return true;
+		}
+		if (shelfProductName.equalsIgnoreCase(cartProductName)) {
+			return true;
+		}
+		String normalizedShelf = shelfProductName.replaceAll("\\s+", "");
+		String normalizedCart = cartProductName.replaceAll("\\s+", "");
+		return normalizedShelf.contains(normalizedCart) || normalizedCart.contains(normalizedShelf);
+	}
+
+	private static String name(Random random) {
+		return BRANDS[random.nextInt(BRANDS.length)] + " " + PRODUCTS[random.nextInt(PRODUCTS.length)]
+				+ SIZES[random.nextInt(SIZES.length)];
+	}
+}
@@ -0,0 +1,85 @@
+package com.project.lookey.product.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.lookey.product.dto.ShelfData;
+import com.project.lookey.product.dto.ShelfItem;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 매대 색인 조회가 매대를 앞에서부터 훑어 처음 일치하는 상품(기존 방식)과 같은지
+ */
+class ShelfIndexTest {
+
+	@Test
+	void findFirstMatchesLinearScan() {
+		for (int size : new int[]{1, 20, 200, 1000}) {
+			Random random = new Random(size);
+			List<ShelfItem> items = ShelfFixtures.shelf(size, random);
+			ShelfIndex index = ShelfIndex.of(items);
+
+			for (String query : ShelfFixtures.queries(items, 500, random)) {
+				assertThat(index.findFirst(query))
+						.as("query '%s' on %d items", query, size)
+						.isEqualTo(linearFirst(items, List.of(query)));
+			}
+		}
+	}
+
+	@Test
+	void findFirstMatchingAnyMatchesLinearScan() {
+		Random random = new Random(3);
+		List<ShelfItem> items = ShelfFixtures.shelf(300, random);
+		ShelfIndex index = ShelfIndex.of(items);
+
+		for (int i = 0; i < 200; i++) {
+			List<String> frame = ShelfFixtures.queries(items, 1 + random.nextInt(5), random);
+			assertThat(index.findFirstMatchingAny(frame))
+					.as("frame %s", frame)
+					.isEqualTo(linearFirst(items, frame));
+		}
+	}
+
+	@Test
+	void findFirstMatchesLinearScanWithBlankAndMissingNames() {
+		List<ShelfItem> items = new ArrayList<>();
+		for (String name : Arrays.asList(null, "코카콜라 제로", "  ", "COKE", "칠성 사이다", "")) {
+			items.add(new ShelfItem(name, 10, 10, 4, 4));
+		}
+		ShelfIndex index = ShelfIndex.of(items);
+
+		for (String query : Arrays.asList(null, "", " ", "coke", "콜라", "코카 콜라 제로 500ml", "사이 다", "없는상품")) {
+			assertThat(index.findFirst(query))
+					.as("query '%s'", query)
+					.isEqualTo(linearFirst(items, query == null ? List.of() : List.of(query)));
+		}
+		assertThat(ShelfIndex.of(null).findFirst("콜라")).isEmpty();
+	}
+
+	@Test
+	void indexIsNotStoredAndRebuiltAfterJsonRoundTrip() throws Exception {
+		ObjectMapper objectMapper = new ObjectMapper();
+		ShelfData data = new ShelfData(ShelfFixtures.shelf(3, new Random(1)), "2026-01-01T00:00:00", 1);
+		data.index().findFirst("콜라");
+
+		String json = objectMapper.writeValueAsString(data);
+		ShelfData read = objectMapper.readValue(json, ShelfData.class);
+
+		assertThat(json).doesNotContain("index");
+		assertThat(read).isEqualTo(data).hasSameHashCodeAs(data);
+		assertThat(read.index().findFirst(data.items().get(0).name())).contains(data.items().get(0));
+	}
+
+	private static Optional<ShelfItem> linearFirst(List<ShelfItem> items, List<String> names) {
+		return items.stream()
+				.filter(item -> names.stream().anyMatch(name -> ShelfFixtures.legacyMatch(item.name(), name)))
+				.findFirst();
+	}
+}
@@ -0,0 +1,81 @@
+package com.project.lookey.vision.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 분석 결과 캐시(VisionResultCache) 직렬화 왕복
+ * 앱 ObjectMapper와 같은 기본 설정(파라미터 이름 모듈 없음)으로 확인
+ */
+class ParallelAnalysisResultJsonTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void roundTripWithGridCells() throws Exception {
+		ParallelAnalysisResult result = new ParallelAnalysisResult(
+				Map.of("left", true, "front", false, "right", true),
+				Map.of("left", false, "front", true, "right", false),
+				Map.of("left", false, "front", false, "right", true),
+				"beverage", true, false,
+				List.of(new GridCellResult(0, 0, true, false, false), new GridCellResult(1, 2, false, true, true)));
+
+		ParallelAnalysisResult read = objectMapper.readValue(objectMapper.writeValueAsString(result),
+				ParallelAnalysisResult.class);
+
+		assertThat(read.getDirections()).isEqualTo(result.getDirections());
+		assertThat(read.getPeopleByRegion()).isEqualTo(result.getPeopleByRegion());
+		assertThat(read.getObstaclesByRegion()).isEqualTo(result.getObstaclesByRegion());
+		assertThat(read.getCenterCategory()).isEqualTo("beverage");
+		assertThat(read.getCounterDetection()).isTrue();
+		assertThat(read.isFallback()).isFalse();
+		assertThat(read.getGridCells()).usingRecursiveFieldByFieldElementComparator()
+				.isEqualTo(result.getGridCells());
+	}
+
+	@Test
+	void roundTripWithoutGridCells() throws Exception {
+		ParallelAnalysisResult result = new ParallelAnalysisResult(
+				Map.of("left", false, "front", true, "right", false),
+				Map.of("left", false, "front", false, "right", false),
+				Map.of("left", true, "front", false, "right", false),
+				"unknown", false, false);
+
+		ParallelAnalysisResult read = objectMapper.readValue(objectMapper.writeValueAsString(result),
+				ParallelAnalysisResult.class);
+
+		assertThat(read.getDirections()).isEqualTo(result.getDirections());
+		assertThat(read.getObstaclesByRegion()).isEqualTo(result.getObstaclesByRegion());
+		assertThat(read.getCenterCategory()).isEqualTo("unknown");
+		assertThat(read.getGridCells()).isNull();
+		assertThat(read.isRegionalDirections()).isTrue();
+	}
+
+	@Test
+	void roundTripFrameLevelDirections() throws Exception {
+		ParallelAnalysisResult result = new ParallelAnalysisResult(
+				Map.of("left", true, "front", true, "right", true),
+				Map.of("left", false, "front", true, "right", false),
+				Map.of("left", false, "front", false, "right", false),
+				"unknown", false, false, null, false);
+
+		ParallelAnalysisResult read = objectMapper.readValue(objectMapper.writeValueAsString(result),
+				ParallelAnalysisResult.class);
+
+		assertThat(read.isRegionalDirections()).isFalse();
+		assertThat(read.getDirections()).isEqualTo(result.getDirections());
+	}
+
+	@Test
+	void cachedValueWithoutScopeIsRegional() throws Exception {
+		String json = "{\"directions\":{\"left\":true},\"peopleByRegion\":{},\"obstaclesByRegion\":{},"
+				+ "\"centerCategory\":\"unknown\",\"counterDetection\":false,\"fallback\":false}";
+
+		assertThat(objectMapper.readValue(json, ParallelAnalysisResult.class).isRegionalDirections()).isTrue();
+	}
+}